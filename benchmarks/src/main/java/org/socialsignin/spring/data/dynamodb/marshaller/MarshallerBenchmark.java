@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.marshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marshalling and unmarshalling of all marshallers of this package - run with
+ * {@code java -jar target/benchmarks.jar MarshallerBenchmark -prof gc} to
+ * report the allocation rate as well.
+ *
+ * @author Sebastian Just
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarshallerBenchmark {
+
+	private final Date date = new Date(1_500_000_000_000L);
+	private final Instant instant = date.toInstant();
+
+	private final Date2EpocheDynamoDBMarshaller date2Epoche = new Date2EpocheDynamoDBMarshaller();
+	private final Date2IsoDynamoDBMarshaller date2Iso = new Date2IsoDynamoDBMarshaller();
+	private final Instant2EpocheDynamoDBMarshaller instant2Epoche = new Instant2EpocheDynamoDBMarshaller();
+	private final Instant2IsoDynamoDBMarshaller instant2Iso = new Instant2IsoDynamoDBMarshaller();
+
+	private final String dateEpoche = date2Epoche.marshall(date);
+	private final String dateIso = date2Iso.marshall(date);
+	private final String instantEpoche = instant2Epoche.marshall(instant);
+	private final String instantIso = instant2Iso.marshall(instant);
+
+	@Benchmark
+	public String marshallDate2Epoche() {
+		return date2Epoche.marshall(date);
+	}
+
+	@Benchmark
+	public Date unmarshallDate2Epoche() {
+		return date2Epoche.unmarshall(Date.class, dateEpoche);
+	}
+
+	@Benchmark
+	public String marshallDate2Iso() {
+		return date2Iso.marshall(date);
+	}
+
+	@Benchmark
+	public Date unmarshallDate2Iso() {
+		return date2Iso.unmarshall(Date.class, dateIso);
+	}
+
+	@Benchmark
+	public String marshallInstant2Epoche() {
+		return instant2Epoche.marshall(instant);
+	}
+
+	@Benchmark
+	public Instant unmarshallInstant2Epoche() {
+		return instant2Epoche.unmarshall(Instant.class, instantEpoche);
+	}
+
+	@Benchmark
+	public String marshallInstant2Iso() {
+		return instant2Iso.marshall(instant);
+	}
+
+	@Benchmark
+	public Instant unmarshallInstant2Iso() {
+		return instant2Iso.unmarshall(Instant.class, instantIso);
+	}
+
+	@Benchmark
+	public String convertDate2Iso() {
+		return date2Iso.convert(date);
+	}
+
+	@Benchmark
+	public Date unconvertDate2Iso() {
+		return date2Iso.unconvert(dateIso);
+	}
+
+	@Benchmark
+	public String convertInstant2Iso() {
+		return instant2Iso.convert(instant);
+	}
+
+	@Benchmark
+	public Instant unconvertInstant2Iso() {
+		return instant2Iso.unconvert(instantIso);
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBTemplate;
+import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
+import org.socialsignin.spring.data.dynamodb.domain.sample.PlaylistId;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.query.Query;
+import org.socialsignin.spring.data.dynamodb.repository.EnableScan;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of the {@link Query} objects of derived query methods - executed for
+ * every invocation of a repository query method.
+ *
+ * Run with {@code java -jar target/benchmarks.jar QueryCreationBenchmark -prof gc}
+ * to report the allocation rate as well.
+ *
+ * @author Sebastian Just
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryCreationBenchmark {
+
+	@EnableScan
+	public interface UserFinders extends Repository<User, String> {
+		User findUserById(String id);
+
+		List<User> findByPostCode(String postCode);
+
+		List<User> findByPostCodeAndNumberOfPlaylistsGreaterThan(String postCode, Integer numberOfPlaylists);
+
+		List<User> findByName(String name);
+
+		long countByPostCode(String postCode);
+	}
+
+	public interface PlaylistFinders extends Repository<Playlist, PlaylistId> {
+		Playlist findByUserNameAndPlaylistName(String userName, String playlistName);
+
+		List<Playlist> findByUserNameAndPlaylistNameStartsWith(String userName, String prefix);
+	}
+
+	private PartTreeDynamoDBQuery<User, String> hashKey;
+	private PartTreeDynamoDBQuery<Playlist, PlaylistId> hashAndRangeKey;
+	private PartTreeDynamoDBQuery<Playlist, PlaylistId> rangeKeyCondition;
+	private PartTreeDynamoDBQuery<User, String> globalSecondaryIndex;
+	private PartTreeDynamoDBQuery<User, String> globalSecondaryIndexWithRangeKey;
+	private PartTreeDynamoDBQuery<User, String> scan;
+	private PartTreeDynamoDBQuery<User, String> count;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		// Query creation does not talk to DynamoDB
+		AmazonDynamoDB amazonDynamoDB = new AbstractAmazonDynamoDB() {
+		};
+		DynamoDBMapperConfig config = DynamoDBMapperConfig.DEFAULT;
+		DynamoDBOperations operations = new DynamoDBTemplate(amazonDynamoDB,
+				new DynamoDBMapper(amazonDynamoDB, config), config);
+
+		hashKey = query(operations, UserFinders.class, "findUserById", String.class);
+		hashAndRangeKey = query(operations, PlaylistFinders.class, "findByUserNameAndPlaylistName", String.class,
+				String.class);
+		rangeKeyCondition = query(operations, PlaylistFinders.class, "findByUserNameAndPlaylistNameStartsWith",
+				String.class, String.class);
+		globalSecondaryIndex = query(operations, UserFinders.class, "findByPostCode", String.class);
+		globalSecondaryIndexWithRangeKey = query(operations, UserFinders.class,
+				"findByPostCodeAndNumberOfPlaylistsGreaterThan", String.class, Integer.class);
+		scan = query(operations, UserFinders.class, "findByName", String.class);
+		count = query(operations, UserFinders.class, "countByPostCode", String.class);
+	}
+
+	private static <T, ID> PartTreeDynamoDBQuery<T, ID> query(DynamoDBOperations operations, Class<?> repository,
+			String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+		DynamoDBQueryMethod<T, ID> method = new DynamoDBQueryMethod<>(
+				repository.getMethod(methodName, parameterTypes), new DefaultRepositoryMetadata(repository),
+				new SpelAwareProxyProjectionFactory());
+		return new PartTreeDynamoDBQuery<>(operations, method);
+	}
+
+	@Benchmark
+	public Query<User> hashKey() {
+		return hashKey.doCreateQuery(new Object[]{"id"});
+	}
+
+	@Benchmark
+	public Query<Playlist> hashAndRangeKey() {
+		return hashAndRangeKey.doCreateQuery(new Object[]{"michael", "jazz"});
+	}
+
+	@Benchmark
+	public Query<Playlist> rangeKeyCondition() {
+		return rangeKeyCondition.doCreateQuery(new Object[]{"michael", "ja"});
+	}
+
+	@Benchmark
+	public Query<User> globalSecondaryIndex() {
+		return globalSecondaryIndex.doCreateQuery(new Object[]{"SW1"});
+	}
+
+	@Benchmark
+	public Query<User> globalSecondaryIndexWithRangeKey() {
+		return globalSecondaryIndexWithRangeKey.doCreateQuery(new Object[]{"SW1", 5});
+	}
+
+	@Benchmark
+	public Query<User> scan() {
+		return scan.doCreateQuery(new Object[]{"michael"});
+	}
+
+	@Benchmark
+	public Query<Long> countQuery() {
+		return count.doCreateCountQuery(new Object[]{"SW1"}, false);
+	}
+
+	@Benchmark
+	public Query<Long> pageCountQuery() {
+		return globalSecondaryIndex.doCreateCountQuery(new Object[]{"SW1"}, true);
+	}
+}
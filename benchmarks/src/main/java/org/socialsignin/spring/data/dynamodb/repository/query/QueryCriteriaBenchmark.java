@@ -0,0 +1,131 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityInformation;
+import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityMetadataSupport;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The building blocks of the query criteria - run with
+ * {@code java -jar target/benchmarks.jar QueryCriteriaBenchmark -prof gc} to
+ * report the allocation rate as well.
+ *
+ * Lives in the package of the criteria to reach their {@code protected}
+ * methods.
+ *
+ * @author Sebastian Just
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryCriteriaBenchmark {
+
+	private static final String INDEX_NAME = "idx_postCode_numberOfPlaylist";
+
+	private DynamoDBEntityWithHashKeyOnlyCriteria<User, String> criteria;
+	private List<Condition> hashKeyConditions;
+
+	private final Date date = new Date(0);
+	private final Instant instant = Instant.EPOCH;
+	private final List<String> strings = Arrays.asList("a", "b", "c");
+
+	@Setup
+	public void setUp() {
+		DynamoDBEntityInformation<User, String> entityInformation = new DynamoDBEntityMetadataSupport<User, String>(
+				User.class).getEntityInformation();
+		criteria = new DynamoDBEntityWithHashKeyOnlyCriteria<>(entityInformation,
+				new DynamoDBMapper(new AbstractAmazonDynamoDB() {
+				}).getTableModel(User.class));
+		criteria.withPropertyEquals("postCode", "SW1", String.class);
+		criteria.withSingleValueCriteria("numberOfPlaylists", ComparisonOperator.GT, 5, Integer.class);
+
+		hashKeyConditions = criteria.getHashKeyConditions();
+		if (!INDEX_NAME.equals(criteria.getGlobalSecondaryIndexName())) {
+			throw new IllegalStateException("Criteria are not applicable for " + INDEX_NAME);
+		}
+	}
+
+	@Benchmark
+	public QueryRequest buildQueryRequest() {
+		// Same arguments as DynamoDBEntityWithHashKeyOnlyCriteria.buildFinderQuery
+		return criteria.buildQueryRequest("user", INDEX_NAME, criteria.getHashKeyAttributeName(), null, null,
+				hashKeyConditions, null);
+	}
+
+	@Benchmark
+	public String getGlobalSecondaryIndexName() {
+		// The index name is memoized by the criteria
+		criteria.globalSecondaryIndexName = null;
+		return criteria.getGlobalSecondaryIndexName();
+	}
+
+	@Benchmark
+	public List<AttributeValue> addStringAttributeValue() {
+		return criteria.addAttributeValue(new ArrayList<>(1), "value", String.class, false);
+	}
+
+	@Benchmark
+	public List<AttributeValue> addNumberAttributeValue() {
+		return criteria.addAttributeValue(new ArrayList<>(1), 42, Integer.class, false);
+	}
+
+	@Benchmark
+	public List<AttributeValue> addBooleanAttributeValue() {
+		return criteria.addAttributeValue(new ArrayList<>(1), Boolean.TRUE, Boolean.class, false);
+	}
+
+	@Benchmark
+	public List<AttributeValue> addDateAttributeValue() {
+		return criteria.addAttributeValue(new ArrayList<>(1), date, Date.class, false);
+	}
+
+	@Benchmark
+	public List<AttributeValue> addInstantAttributeValue() {
+		return criteria.addAttributeValue(new ArrayList<>(1), instant, Instant.class, false);
+	}
+
+	@Benchmark
+	public List<AttributeValue> addStringSetAttributeValue() {
+		return criteria.addAttributeValue(new ArrayList<>(1), strings, String.class, true);
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.support;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMarshaller;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
+import org.socialsignin.spring.data.dynamodb.domain.sample.PlaylistId;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reflection based entity metadata and key extraction - run with
+ * {@code java -jar target/benchmarks.jar EntityMetadataBenchmark -prof gc} to
+ * report the allocation rate as well.
+ *
+ * @author Sebastian Just
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityMetadataBenchmark {
+
+	private DynamoDBEntityMetadataSupport<User, String> userMetadata;
+	private DynamoDBHashAndRangeKeyExtractingEntityMetadataImpl<Playlist, PlaylistId> playlistMetadata;
+	private CompositeIdHashAndRangeKeyExtractor<PlaylistId, String> playlistIdExtractor;
+	private Method hashKeyGetter;
+	private PlaylistId playlistId;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		userMetadata = new DynamoDBEntityMetadataSupport<>(User.class);
+		playlistMetadata = new DynamoDBHashAndRangeKeyExtractingEntityMetadataImpl<>(Playlist.class);
+		playlistIdExtractor = new CompositeIdHashAndRangeKeyExtractor<>(PlaylistId.class);
+		hashKeyGetter = User.class.getMethod("getId");
+		playlistId = new PlaylistId("michael", "jazz");
+	}
+
+	@Benchmark
+	public DynamoDBEntityMetadataSupport<User, String> createHashKeyMetadata() {
+		return new DynamoDBEntityMetadataSupport<>(User.class);
+	}
+
+	@Benchmark
+	public DynamoDBEntityMetadataSupport<Playlist, PlaylistId> createHashAndRangeKeyMetadata() {
+		return new DynamoDBHashAndRangeKeyExtractingEntityMetadataImpl<>(Playlist.class);
+	}
+
+	@Benchmark
+	public DynamoDBEntityInformation<User, String> getEntityInformation() {
+		return userMetadata.getEntityInformation();
+	}
+
+	@Benchmark
+	public Optional<String> getOverriddenAttributeNameOfProperty() {
+		return userMetadata.getOverriddenAttributeName("id");
+	}
+
+	@Benchmark
+	public Optional<String> getOverriddenAttributeNameOfPlainProperty() {
+		return userMetadata.getOverriddenAttributeName("name");
+	}
+
+	@Benchmark
+	public String getOverriddenAttributeNameOfMethod() {
+		return userMetadata.getOverriddenAttributeName(hashKeyGetter);
+	}
+
+	@Benchmark
+	@SuppressWarnings("deprecation")
+	public DynamoDBMarshaller<?> getMarshallerForAnnotatedProperty() {
+		return userMetadata.getMarshallerForProperty("leaveDate");
+	}
+
+	@Benchmark
+	@SuppressWarnings("deprecation")
+	public DynamoDBMarshaller<?> getMarshallerForPlainProperty() {
+		return userMetadata.getMarshallerForProperty("name");
+	}
+
+	@Benchmark
+	public DynamoDBTypeConverter<?, ?> getTypeConverterForProperty() {
+		return userMetadata.getTypeConverterForProperty("name");
+	}
+
+	@Benchmark
+	public void extractCompositeId(Blackhole blackhole) {
+		blackhole.consume(playlistIdExtractor.getHashKey(playlistId));
+		blackhole.consume(playlistIdExtractor.getRangeKey(playlistId));
+	}
+
+	@Benchmark
+	public Playlist getHashKeyPrototypeEntityForHashKey() {
+		return playlistMetadata.getHashKeyPropotypeEntityForHashKey("michael");
+	}
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.support;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBTemplate;
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBEntityScanner;
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBMappingContext;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold start of an application with a growing number of entities and
+ * repositories: scanning for the entities, building the mapping context and
+ * creating all repositories including their derived query methods.
+ *
+ * The entities and repositories are generated and compiled once per trial.
+ * Every iteration loads them through a fresh class loader with empty caches so
+ * that each measurement is a cold start.
+ *
+ * Run with {@code java -jar target/benchmarks.jar RepositoryBootstrapBenchmark}
+ * - requires a JDK as the generated sources are compiled at runtime.
+ *
+ * @author Sebastian Just
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBootstrapBenchmark {
+
+	private static final String PACKAGE = "org.socialsignin.spring.data.dynamodb.benchmark.generated";
+
+	@Param({"10", "100", "500"})
+	public int entities = 10;
+
+	private Path sources;
+	private Path classes;
+
+	private URLClassLoader classLoader;
+	private DynamoDBOperations operations;
+
+	@Setup(Level.Trial)
+	public void generate() throws IOException {
+		sources = Files.createTempDirectory("bootstrap-sources");
+		classes = Files.createTempDirectory("bootstrap-classes");
+
+		Path packageDirectory = sources.resolve(PACKAGE.replace('.', File.separatorChar));
+		Files.createDirectories(packageDirectory);
+		List<String> arguments = new ArrayList<>();
+		arguments.add("-proc:none");
+		arguments.add("-classpath");
+		arguments.add(System.getProperty("java.class.path"));
+		arguments.add("-d");
+		arguments.add(classes.toString());
+		for (int i = 0; i < entities; i++) {
+			arguments.add(write(packageDirectory, "Entity" + i, entity(i)).toString());
+			arguments.add(write(packageDirectory, "Entity" + i + "Repository", repository(i)).toString());
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new IllegalStateException("Generating the entities requires a JDK");
+		}
+		if (compiler.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+			throw new IllegalStateException("Unable to compile the generated entities in " + sources);
+		}
+
+		// Bootstrapping does not talk to DynamoDB
+		AmazonDynamoDB amazonDynamoDB = new AbstractAmazonDynamoDB() {
+		};
+		DynamoDBMapperConfig config = DynamoDBMapperConfig.DEFAULT;
+		operations = new DynamoDBTemplate(amazonDynamoDB, new DynamoDBMapper(amazonDynamoDB, config), config);
+	}
+
+	@Setup(Level.Iteration)
+	public void coldStart() throws IOException {
+		DynamoDBEntityScanner.clearCache();
+		DynamoDBEntityMetadataSupport.clearCache();
+		classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeClassLoader() throws IOException {
+		classLoader.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void delete() throws IOException {
+		for (Path directory : new Path[]{sources, classes}) {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+	}
+
+	@Benchmark
+	public Set<Class<?>> scanEntities() throws ClassNotFoundException {
+		return DynamoDBEntityScanner.findEntities(classLoader, PACKAGE);
+	}
+
+	@Benchmark
+	public List<Object> bootstrap() throws ClassNotFoundException {
+		Set<Class<?>> initialEntitySet = DynamoDBEntityScanner.findEntities(classLoader, PACKAGE);
+		DynamoDBEntityMetadataSupport.prepareEntityInformation(initialEntitySet);
+
+		DynamoDBMappingContext mappingContext = new DynamoDBMappingContext();
+		mappingContext.setInitialEntitySet(initialEntitySet);
+		mappingContext.initialize();
+
+		DynamoDBRepositoryFactory factory = new DynamoDBRepositoryFactory(operations);
+		factory.setBeanClassLoader(classLoader);
+		List<Object> repositories = new ArrayList<>(entities);
+		for (Class<?> entity : initialEntitySet) {
+			repositories.add(factory.getRepository(classLoader.loadClass(entity.getName() + "Repository")));
+		}
+		return repositories;
+	}
+
+	private static Path write(Path directory, String type, String source) throws IOException {
+		Path file = directory.resolve(type + ".java");
+		Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static String entity(int i) {
+		return "package " + PACKAGE + ";\n" //
+				+ "import com.amazonaws.services.dynamodbv2.datamodeling.*;\n" //
+				+ "@DynamoDBTable(tableName = \"entity" + i + "\")\n" //
+				+ "public class Entity" + i + " {\n" //
+				+ "  private String id;\n" //
+				+ "  private String name;\n" //
+				+ "  private String postCode;\n" //
+				+ "  private Integer rank;\n" //
+				+ "  @DynamoDBHashKey public String getId() { return id; }\n" //
+				+ "  public void setId(String id) { this.id = id; }\n" //
+				+ "  public String getName() { return name; }\n" //
+				+ "  public void setName(String name) { this.name = name; }\n" //
+				+ "  @DynamoDBIndexHashKey(globalSecondaryIndexName = \"postCode-rank-index\")\n" //
+				+ "  public String getPostCode() { return postCode; }\n" //
+				+ "  public void setPostCode(String postCode) { this.postCode = postCode; }\n" //
+				+ "  @DynamoDBIndexRangeKey(globalSecondaryIndexName = \"postCode-rank-index\")\n" //
+				+ "  public Integer getRank() { return rank; }\n" //
+				+ "  public void setRank(Integer rank) { this.rank = rank; }\n" //
+				+ "}\n";
+	}
+
+	private static String repository(int i) {
+		String entity = "Entity" + i;
+		return "package " + PACKAGE + ";\n" //
+				+ "import java.util.List;\n" //
+				+ "import org.socialsignin.spring.data.dynamodb.repository.EnableScan;\n" //
+				+ "import org.springframework.data.repository.CrudRepository;\n" //
+				+ "@EnableScan\n" //
+				+ "public interface " + entity + "Repository extends CrudRepository<" + entity + ", String> {\n" //
+				+ "  List<" + entity + "> findByName(String name);\n" //
+				+ "  List<" + entity + "> findByPostCode(String postCode);\n" //
+				+ "  List<" + entity + "> findByPostCodeAndRankGreaterThan(String postCode, Integer rank);\n" //
+				+ "  long countByPostCode(String postCode);\n" //
+				+ "}\n";
+	}
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import org.socialsignin.spring.data.dynamodb.processor.NativeImageConfig.Access;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a {@code GeneratedDynamoDBEntityMetadata} subclass for every class
+ * annotated with {@code @DynamoDBTable} and lists all of them in the
+ * {@code META-INF/spring-data-dynamodb/entities.properties} index. At runtime
+ * the index replaces the classpath scan for entities and the generated metadata
+ * replaces the reflection over their annotations.
+ *
+ * Entities the metadata can't be generated for (e.g. without hash key or not
+ * accessible from their package) are still indexed - their metadata is
+ * reflected at runtime as before.
+ *
+ * The GraalVM native-image configuration of the entities, their converters,
+ * marshallers and composite id classes is written alongside the index.
+ *
+ * @author Sebastian Just
+ */
+@SupportedAnnotationTypes(EntityModel.DYNAMODB_TABLE)
+public class DynamoDBEntityProcessor extends AbstractProcessor {
+
+	static final String INDEX_LOCATION = "META-INF/spring-data-dynamodb/entities.properties";
+
+	/** Entity class name to metadata class name - empty if not generated */
+	private final Map<String, String> index = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return false;
+		}
+
+		TypeElement dynamoDBTable = processingEnv.getElementUtils().getTypeElement(EntityModel.DYNAMODB_TABLE);
+		if (dynamoDBTable == null) {
+			return false;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(dynamoDBTable)) {
+			if (element.getKind() != ElementKind.CLASS || !isCandidate((TypeElement) element)) {
+				// Same rules as the classpath scan of AbstractDynamoDBConfiguration
+				continue;
+			}
+			TypeElement entity = (TypeElement) element;
+			String entityName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+
+			EntityModel model = isAccessible(entity)
+					? EntityModel.read(entity, processingEnv.getElementUtils(), processingEnv.getMessager())
+					: null;
+			if (model == null) {
+				index.put(entityName, "");
+				continue;
+			}
+
+			try {
+				JavaFileObject source = processingEnv.getFiler().createSourceFile(model.getMetadataBinaryName(),
+						entity);
+				try (Writer writer = source.openWriter()) {
+					writer.write(model.toSource());
+				}
+				index.put(entityName, model.getMetadataBinaryName());
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"Unable to write the DynamoDB metadata of " + entityName + ": " + e.getMessage(), entity);
+			}
+		}
+		return false;
+	}
+
+	/** Top-level or static nested, concrete classes */
+	private static boolean isCandidate(TypeElement type) {
+		return !type.getModifiers().contains(Modifier.ABSTRACT) && (type.getNestingKind() == NestingKind.TOP_LEVEL
+				|| type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC));
+	}
+
+	/** The generated class lives in the entity's package */
+	private static boolean isAccessible(TypeElement type) {
+		for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			if (e.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the index and the native-image configuration of all indexed entities
+	 */
+	private void writeIndex() {
+		Map<String, String> entities = IndexFile.write(processingEnv, INDEX_LOCATION, index);
+
+		Elements elements = processingEnv.getElementUtils();
+		NativeImageConfig config = new NativeImageConfig();
+		entities.forEach((entityName, metadataName) -> {
+			TypeElement entity = elements.getTypeElement(entityName.replace('$', '.'));
+			if (entity == null) {
+				return;
+			}
+			// DynamoDBMapper and the reflective metadata walk the whole hierarchy
+			for (TypeElement type : EntityModel.hierarchy(entity)) {
+				config.reflect(elements.getBinaryName(type).toString(), Access.CONSTRUCTORS, Access.METHODS,
+						Access.PUBLIC_METHODS, Access.FIELDS);
+			}
+			if (!metadataName.isEmpty()) {
+				config.reflect(metadataName, Access.CONSTRUCTORS);
+			}
+
+			EntityModel model = EntityModel.read(entity, elements);
+			if (model == null) {
+				return;
+			}
+			for (String conversionName : model.getConversionClassNames()) {
+				TypeElement conversion = elements.getTypeElement(conversionName);
+				if (conversion != null) {
+					config.reflect(elements.getBinaryName(conversion).toString(), Access.CONSTRUCTORS);
+				}
+			}
+			for (TypeMirror idType : model.getIdTypes()) {
+				if (idType.getKind() == TypeKind.DECLARED) {
+					config.reflect(elements.getBinaryName((TypeElement) ((DeclaredType) idType).asElement()).toString(),
+							Access.CONSTRUCTORS, Access.METHODS, Access.PUBLIC_METHODS, Access.FIELDS);
+				}
+			}
+		});
+		config.write(processingEnv, "entities");
+	}
+}
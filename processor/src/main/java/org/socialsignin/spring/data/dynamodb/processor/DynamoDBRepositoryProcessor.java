@@ -0,0 +1,218 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import org.socialsignin.spring.data.dynamodb.processor.NativeImageConfig.Access;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Derives the queries of the query methods of all repository interfaces at
+ * build time and generates a {@code GeneratedDynamoDBQueries} subclass per
+ * repository, listed in the
+ * {@code META-INF/spring-data-dynamodb/repositories.properties} index. At
+ * runtime the generated queries replace parsing the method names into
+ * {@code PartTree}s and building criteria from them.
+ *
+ * Invalid query methods are reported as errors, query methods that scan the
+ * table as warnings unless scanning is enabled.
+ *
+ * The GraalVM native-image configuration of the repository proxies is written
+ * alongside the index.
+ *
+ * @author Sebastian Just
+ */
+@SupportedAnnotationTypes("*")
+public class DynamoDBRepositoryProcessor extends AbstractProcessor {
+
+	static final String INDEX_LOCATION = "META-INF/spring-data-dynamodb/repositories.properties";
+
+	static final String REPOSITORY = "org.springframework.data.repository.Repository";
+	private static final String NO_REPOSITORY_BEAN = "org.springframework.data.repository.NoRepositoryBean";
+
+	/** Repository interface name to generated queries class name */
+	private final Map<String, String> index = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return false;
+		}
+
+		Elements elements = processingEnv.getElementUtils();
+		TypeElement repository = elements.getTypeElement(REPOSITORY);
+		if (repository == null) {
+			return false;
+		}
+
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+			process(type, repository);
+		}
+		return false;
+	}
+
+	private void process(TypeElement type, TypeElement repository) {
+		for (TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+			process(member, repository);
+		}
+
+		Types types = processingEnv.getTypeUtils();
+		if (type.getKind() != ElementKind.INTERFACE || !type.getTypeParameters().isEmpty()
+				|| type.getModifiers().contains(Modifier.PRIVATE) || hasAnnotation(type, NO_REPOSITORY_BEAN)
+				|| !types.isAssignable(types.erasure(type.asType()), types.erasure(repository.asType()))) {
+			return;
+		}
+
+		// Indexed even without generated queries - for the native-image configuration
+		String repositoryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		index.put(repositoryName, "");
+
+		TypeElement entity = domainType(type.asType());
+		EntityModel entityModel = entity == null ? null : EntityModel.read(entity, processingEnv.getElementUtils());
+		if (entityModel == null) {
+			return;
+		}
+
+		RepositoryModel model = new RepositoryModel(type, processingEnv.getElementUtils());
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+			if (isQueryMethod(method)) {
+				read(method, type, entityModel, model);
+			}
+		}
+		if (model.isEmpty()) {
+			return;
+		}
+
+		try {
+			JavaFileObject source = processingEnv.getFiler().createSourceFile(model.getQueriesBinaryName(), type);
+			try (Writer writer = source.openWriter()) {
+				writer.write(model.toSource());
+			}
+			index.put(repositoryName, model.getQueriesBinaryName());
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write the DynamoDB queries of " + repositoryName + ": " + e.getMessage(), type);
+		}
+	}
+
+	/**
+	 * Writes the index and the native-image configuration of all indexed
+	 * repositories
+	 */
+	private void writeIndex() {
+		Map<String, String> repositories = IndexFile.write(processingEnv, INDEX_LOCATION, index);
+
+		NativeImageConfig config = new NativeImageConfig();
+		repositories.forEach((repositoryName, queriesName) -> {
+			config.reflect(repositoryName, Access.PUBLIC_METHODS);
+			if (!queriesName.isEmpty()) {
+				config.reflect(queriesName, Access.CONSTRUCTORS);
+			}
+			// The interfaces of the proxy created by RepositoryFactorySupport#getRepository
+			config.proxy(repositoryName, REPOSITORY, "org.springframework.transaction.interceptor.TransactionalProxy",
+					"org.springframework.aop.SpringProxy", "org.springframework.aop.framework.Advised",
+					"org.springframework.core.DecoratingProxy");
+		});
+		config.write(processingEnv, "repositories");
+	}
+
+	private void read(ExecutableElement method, TypeElement type, EntityModel entityModel, RepositoryModel model) {
+		try {
+			QueryMethodModel queryMethod = QueryMethodModel.read(method, type, entityModel,
+					processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+			queryMethod.reportScan(processingEnv.getMessager());
+			queryMethod.checkConversions();
+			model.add(queryMethod);
+		} catch (QueryMethodModel.NotGeneratedException e) {
+			// Errors of inherited methods are reported on the repository
+			Element element = method.getEnclosingElement() == type ? method : type;
+			processingEnv.getMessager().printMessage(e.getKind(), e.getMessage(), element);
+		}
+	}
+
+	/**
+	 * Abstract derived query methods declared by the application - neither by
+	 * Spring Data nor by this library's repositories
+	 */
+	private static boolean isQueryMethod(ExecutableElement method) {
+		if (!method.getModifiers().contains(Modifier.ABSTRACT) || !QueryMethodModel.isDerivedQuery(method)) {
+			return false;
+		}
+		String declaringType = ((TypeElement) method.getEnclosingElement()).getQualifiedName().toString();
+		return !declaringType.startsWith("org.springframework.data.")
+				&& !declaringType.startsWith("org.socialsignin.spring.data.dynamodb.repository.");
+	}
+
+	/**
+	 * @return The {@code @DynamoDBTable} annotated domain type the repository is
+	 *         typed with or {@literal null}
+	 */
+	private TypeElement domainType(TypeMirror type) {
+		Types types = processingEnv.getTypeUtils();
+		for (TypeMirror supertype : types.directSupertypes(type)) {
+			if (supertype.getKind() != TypeKind.DECLARED) {
+				continue;
+			}
+			DeclaredType declared = (DeclaredType) supertype;
+			if (((TypeElement) declared.asElement()).getQualifiedName().contentEquals(REPOSITORY)) {
+				TypeMirror domainType = declared.getTypeArguments().isEmpty()
+						? null
+						: declared.getTypeArguments().get(0);
+				return domainType != null && domainType.getKind() == TypeKind.DECLARED
+						&& hasAnnotation(((DeclaredType) domainType).asElement(), EntityModel.DYNAMODB_TABLE)
+								? (TypeElement) ((DeclaredType) domainType).asElement()
+								: null;
+			}
+			TypeElement domainType = domainType(supertype);
+			if (domainType != null) {
+				return domainType;
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasAnnotation(Element element, String annotationName) {
+		return element.getAnnotationMirrors().stream().anyMatch(a -> ((TypeElement) a.getAnnotationType().asElement())
+				.getQualifiedName().contentEquals(annotationName));
+	}
+}
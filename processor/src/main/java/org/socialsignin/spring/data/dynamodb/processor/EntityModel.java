@@ -0,0 +1,566 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The DynamoDB metadata of one entity as read from its annotations at build
+ * time. Mirrors the rules of {@code DynamoDBEntityMetadataSupport}: accessor
+ * methods before fields, subclasses before superclasses and the same precedence
+ * of the annotations that override an attribute name.
+ *
+ * @author Sebastian Just
+ */
+class EntityModel {
+
+	private static final String PACKAGE = "com.amazonaws.services.dynamodbv2.datamodeling.";
+	static final String DYNAMODB_TABLE = PACKAGE + "DynamoDBTable";
+	private static final String HASH_KEY = PACKAGE + "DynamoDBHashKey";
+	private static final String RANGE_KEY = PACKAGE + "DynamoDBRangeKey";
+	private static final String INDEX_HASH_KEY = PACKAGE + "DynamoDBIndexHashKey";
+	private static final String INDEX_RANGE_KEY = PACKAGE + "DynamoDBIndexRangeKey";
+	private static final String ATTRIBUTE = PACKAGE + "DynamoDBAttribute";
+	private static final String VERSION_ATTRIBUTE = PACKAGE + "DynamoDBVersionAttribute";
+	private static final String TYPE_CONVERTED = PACKAGE + "DynamoDBTypeConverted";
+	private static final String MARSHALLING = PACKAGE + "DynamoDBMarshalling";
+	private static final String ID = "org.springframework.data.annotation.Id";
+
+	/** Same order as DynamoDBEntityMetadataSupport#getOverriddenAttributeName */
+	private static final List<String> ATTRIBUTE_NAME_OVERRIDES = Collections.unmodifiableList(
+			Arrays.asList(ATTRIBUTE, HASH_KEY, RANGE_KEY, INDEX_RANGE_KEY, INDEX_HASH_KEY, VERSION_ATTRIBUTE));
+
+	static final String METADATA_BASE_CLASS = "org.socialsignin.spring.data.dynamodb.mapping.GeneratedDynamoDBEntityMetadata";
+	static final String METADATA_SUFFIX = "_DynamoDBMetadata";
+
+	private final TypeElement entity;
+	private final Elements elements;
+
+	private String tableName;
+	private String hashKeyPropertyName;
+	private String rangeKeyPropertyName;
+	private Element hashKeyMember;
+	/** Statements registering the indexes in the order they are applied */
+	private final List<String> indexes = new ArrayList<>();
+	/** Same as the runtime metadata: the last index annotation of a property wins */
+	private final Map<String, List<String>> globalSecondaryIndexNames = new LinkedHashMap<>();
+	private final Set<String> globalIndexHashKeyPropertyNames = new LinkedHashSet<>();
+	private final Set<String> globalIndexRangeKeyPropertyNames = new LinkedHashSet<>();
+	private final Set<String> localIndexRangeKeyPropertyNames = new LinkedHashSet<>();
+	private final Map<String, ExecutableElement> getters = new LinkedHashMap<>();
+	private final Map<String, VariableElement> fields = new LinkedHashMap<>();
+	private final Map<String, String> attributeNames = new LinkedHashMap<>();
+	private final Map<String, String> typeConverters = new LinkedHashMap<>();
+	private final Map<String, String> marshallers = new LinkedHashMap<>();
+
+	private EntityModel(TypeElement entity, Elements elements) {
+		this.entity = entity;
+		this.elements = elements;
+	}
+
+	/**
+	 * @return The model of the entity or {@literal null} if the entity has errors
+	 *         that got reported to the messager
+	 */
+	static EntityModel read(TypeElement entity, Elements elements, Messager messager) {
+		EntityModel model = new EntityModel(entity, elements);
+		return model.read(messager) ? model : null;
+	}
+
+	/**
+	 * @return The model of the entity or {@literal null} if the entity has errors -
+	 *         without reporting them again
+	 */
+	static EntityModel read(TypeElement entity, Elements elements) {
+		return read(entity, elements, new Messager() {
+			@Override
+			public void printMessage(Diagnostic.Kind kind, CharSequence msg) {
+			}
+
+			@Override
+			public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e) {
+			}
+
+			@Override
+			public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a) {
+			}
+
+			@Override
+			public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a,
+					AnnotationValue v) {
+			}
+		});
+	}
+
+	private boolean read(Messager messager) {
+		tableName = stringValue(annotation(entity, DYNAMODB_TABLE), "tableName");
+
+		List<TypeElement> hierarchy = hierarchy();
+
+		boolean valid = true;
+		for (TypeElement type : hierarchy) {
+			for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+				valid &= readKeys(method, messager);
+			}
+		}
+		for (TypeElement type : hierarchy) {
+			for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+				valid &= readKeys(field, messager);
+			}
+		}
+		if (!valid) {
+			return false;
+		}
+
+		// ReflectionUtils.findMethod looks for getX throughout the hierarchy before
+		// it looks for isX
+		for (String prefix : new String[]{"get", "is"}) {
+			for (TypeElement type : hierarchy) {
+				for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+					String name = method.getSimpleName().toString();
+					if (name.startsWith(prefix) && name.length() > prefix.length() && method.getParameters().isEmpty()
+							&& !method.getModifiers().contains(Modifier.STATIC)) {
+						getters.putIfAbsent(propertyName(name.substring(prefix.length())), method);
+					}
+				}
+			}
+		}
+		for (TypeElement type : hierarchy) {
+			for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+				if (!field.getModifiers().contains(Modifier.STATIC)) {
+					fields.putIfAbsent(field.getSimpleName().toString(), field);
+				}
+			}
+		}
+
+		List<String> propertyNames = new ArrayList<>(getters.keySet());
+		fields.keySet().stream().filter(name -> !propertyNames.contains(name)).forEach(propertyNames::add);
+		for (String propertyName : propertyNames) {
+			Element[] candidates = {getters.get(propertyName), fields.get(propertyName)};
+
+			String attributeName = null;
+			String converter = null;
+			String marshaller = null;
+			for (Element candidate : candidates) {
+				if (candidate == null) {
+					continue;
+				}
+				if (attributeName == null) {
+					attributeName = overriddenAttributeName(candidate);
+				}
+				if (converter == null) {
+					converter = classValue(annotation(candidate, TYPE_CONVERTED), "converter");
+				}
+				if (marshaller == null) {
+					marshaller = classValue(annotation(candidate, MARSHALLING), "marshallerClass");
+				}
+			}
+			if (attributeName != null) {
+				attributeNames.put(propertyName, attributeName);
+			}
+			if (converter != null) {
+				typeConverters.put(propertyName, converter);
+			}
+			if (marshaller != null) {
+				marshallers.put(propertyName, marshaller);
+			}
+		}
+
+		if (hashKeyPropertyName == null) {
+			messager.printMessage(Diagnostic.Kind.WARNING, "Unable to find hash key field or getter method on "
+					+ entity.getQualifiedName() + " - its metadata is reflected at runtime", entity);
+			return false;
+		}
+		return true;
+	}
+
+	private boolean readKeys(Element member, Messager messager) {
+		AnnotationMirror hashKey = annotation(member, HASH_KEY);
+		AnnotationMirror rangeKey = annotation(member, RANGE_KEY);
+		AnnotationMirror indexRangeKey = annotation(member, INDEX_RANGE_KEY);
+		AnnotationMirror indexHashKey = annotation(member, INDEX_HASH_KEY);
+		if (hashKey == null && rangeKey == null && indexRangeKey == null && indexHashKey == null) {
+			return true;
+		}
+
+		String propertyName = memberPropertyName(member);
+		if (propertyName == null) {
+			messager.printMessage(Diagnostic.Kind.ERROR,
+					"Hash or range key annotated accessor methods must start with 'get' or 'is'", member);
+			return false;
+		}
+
+		if (hashKey != null) {
+			hashKeyPropertyName = propertyName;
+			hashKeyMember = member;
+		}
+		if (rangeKey != null) {
+			rangeKeyPropertyName = propertyName;
+		}
+		if (indexRangeKey != null) {
+			addIndex("globalIndexRangeKey", propertyName, indexRangeKey, "globalSecondaryIndexName",
+					"globalSecondaryIndexNames");
+			addIndex("localIndexRangeKey", propertyName, indexRangeKey, "localSecondaryIndexName",
+					"localSecondaryIndexNames");
+		}
+		if (indexHashKey != null) {
+			addIndex("globalIndexHashKey", propertyName, indexHashKey, "globalSecondaryIndexName",
+					"globalSecondaryIndexNames");
+		}
+		return true;
+	}
+
+	private void addIndex(String method, String propertyName, AnnotationMirror annotation, String singleAttribute,
+			String multiAttribute) {
+		List<String> names = stringValues(annotation, multiAttribute);
+		if (!names.isEmpty()) {
+			indexes.add(method + "(" + literal(propertyName) + ", " + literals(names) + ");");
+			addIndex(method, propertyName, names);
+		}
+		String name = stringValue(annotation, singleAttribute);
+		if (name != null && !name.trim().isEmpty()) {
+			indexes.add(method + "(" + literal(propertyName) + ", " + literal(name) + ");");
+			addIndex(method, propertyName, Collections.singletonList(name));
+		}
+	}
+
+	/** Mirrors GeneratedDynamoDBEntityMetadata */
+	private void addIndex(String method, String propertyName, List<String> names) {
+		switch (method) {
+			case "globalIndexHashKey" :
+				globalSecondaryIndexNames.put(propertyName, names);
+				globalIndexHashKeyPropertyNames.add(propertyName);
+				break;
+			case "globalIndexRangeKey" :
+				globalSecondaryIndexNames.put(propertyName, names);
+				globalIndexRangeKeyPropertyNames.add(propertyName);
+				break;
+			default :
+				localIndexRangeKeyPropertyNames.add(propertyName);
+		}
+	}
+
+	private String overriddenAttributeName(Element member) {
+		for (String annotationName : ATTRIBUTE_NAME_OVERRIDES) {
+			String attributeName = stringValue(annotation(member, annotationName), "attributeName");
+			if (attributeName != null && !attributeName.isEmpty()) {
+				return attributeName;
+			}
+		}
+		return null;
+	}
+
+	private List<TypeElement> hierarchy() {
+		return hierarchy(entity);
+	}
+
+	/**
+	 * @return The type and its superclasses - without {@link Object}
+	 */
+	static List<TypeElement> hierarchy(TypeElement entity) {
+		List<TypeElement> hierarchy = new ArrayList<>();
+		TypeElement type = entity;
+		while (type != null && !type.getQualifiedName().contentEquals(Object.class.getName())) {
+			hierarchy.add(type);
+			TypeMirror superclass = type.getSuperclass();
+			type = superclass.getKind() == TypeKind.DECLARED
+					? (TypeElement) ((DeclaredType) superclass).asElement()
+					: null;
+		}
+		return hierarchy;
+	}
+
+	private static String memberPropertyName(Element member) {
+		String name = member.getSimpleName().toString();
+		if (member instanceof VariableElement) {
+			return name;
+		} else if (name.startsWith("get")) {
+			return propertyName(name.substring(3));
+		} else if (name.startsWith("is")) {
+			return propertyName(name.substring(2));
+		}
+		return null;
+	}
+
+	/** Same as DynamoDBEntityMetadataSupport#getPropertyNameForAccessorMethod */
+	private static String propertyName(String capitalized) {
+		if (capitalized.isEmpty()) {
+			return capitalized;
+		}
+		return capitalized.substring(0, 1).toLowerCase() + capitalized.substring(1);
+	}
+
+	private static AnnotationMirror annotation(Element element, String annotationName) {
+		if (element == null) {
+			return null;
+		}
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+			if (type.getQualifiedName().contentEquals(annotationName)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	private Object value(AnnotationMirror annotation, String attribute) {
+		if (annotation == null) {
+			return null;
+		}
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements
+				.getElementValuesWithDefaults(annotation).entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+				return entry.getValue().getValue();
+			}
+		}
+		return null;
+	}
+
+	private String stringValue(AnnotationMirror annotation, String attribute) {
+		Object value = value(annotation, attribute);
+		return value instanceof String ? (String) value : null;
+	}
+
+	private List<String> stringValues(AnnotationMirror annotation, String attribute) {
+		Object value = value(annotation, attribute);
+		List<String> values = new ArrayList<>();
+		if (value instanceof List) {
+			for (Object element : (List<?>) value) {
+				values.add((String) ((AnnotationValue) element).getValue());
+			}
+		}
+		return values;
+	}
+
+	private String classValue(AnnotationMirror annotation, String attribute) {
+		Object value = value(annotation, attribute);
+		if (value instanceof DeclaredType) {
+			return ((TypeElement) ((DeclaredType) value).asElement()).getQualifiedName().toString();
+		}
+		return null;
+	}
+
+	String getEntityBinaryName() {
+		return elements.getBinaryName(entity).toString();
+	}
+
+	String getPackageName() {
+		return elements.getPackageOf(entity).getQualifiedName().toString();
+	}
+
+	String getMetadataSimpleName() {
+		String qualifiedName = entity.getQualifiedName().toString();
+		String packageName = getPackageName();
+		String nested = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+		return nested.replace('.', '_') + METADATA_SUFFIX;
+	}
+
+	String getMetadataBinaryName() {
+		String packageName = getPackageName();
+		return packageName.isEmpty() ? getMetadataSimpleName() : packageName + "." + getMetadataSimpleName();
+	}
+
+	TypeElement getEntity() {
+		return entity;
+	}
+
+	String getTableName() {
+		return tableName;
+	}
+
+	String getHashKeyPropertyName() {
+		return hashKeyPropertyName;
+	}
+
+	/**
+	 * @return The getter or field annotated with the hash key annotation
+	 */
+	Element getHashKeyMember() {
+		return hashKeyMember;
+	}
+
+	/**
+	 * @return The range key property or {@literal null} if the entity has a hash
+	 *         key only
+	 */
+	String getRangeKeyPropertyName() {
+		return rangeKeyPropertyName;
+	}
+
+	Map<String, List<String>> getGlobalSecondaryIndexNames() {
+		return Collections.unmodifiableMap(globalSecondaryIndexNames);
+	}
+
+	Set<String> getGlobalIndexHashKeyPropertyNames() {
+		return Collections.unmodifiableSet(globalIndexHashKeyPropertyNames);
+	}
+
+	Set<String> getGlobalIndexRangeKeyPropertyNames() {
+		return Collections.unmodifiableSet(globalIndexRangeKeyPropertyNames);
+	}
+
+	Set<String> getLocalIndexRangeKeyPropertyNames() {
+		return Collections.unmodifiableSet(localIndexRangeKeyPropertyNames);
+	}
+
+	String getAttributeName(String propertyName) {
+		return attributeNames.getOrDefault(propertyName, propertyName);
+	}
+
+	/**
+	 * @return The class name of the type converter of the property or
+	 *         {@literal null}
+	 */
+	String getTypeConverter(String propertyName) {
+		return typeConverters.get(propertyName);
+	}
+
+	/**
+	 * @return The class name of the marshaller of the property or {@literal null}
+	 */
+	String getMarshaller(String propertyName) {
+		return marshallers.get(propertyName);
+	}
+
+	boolean hasProperty(String propertyName) {
+		return getters.containsKey(propertyName) || fields.containsKey(propertyName);
+	}
+
+	/**
+	 * @return The type of the getter - or the field - of the property
+	 */
+	TypeMirror getPropertyType(String propertyName) {
+		ExecutableElement getter = getters.get(propertyName);
+		return getter != null ? getter.getReturnType() : fields.get(propertyName).asType();
+	}
+
+	/**
+	 * @return {@code true} if the getter or field of the property is annotated
+	 *         with {@code @Id} - i.e. a composite hash and range key
+	 */
+	boolean isIdProperty(String propertyName) {
+		return annotation(getters.get(propertyName), ID) != null || annotation(fields.get(propertyName), ID) != null;
+	}
+
+	/**
+	 * @return The class names of all type converters and marshallers
+	 */
+	Set<String> getConversionClassNames() {
+		Set<String> classNames = new LinkedHashSet<>(typeConverters.values());
+		classNames.addAll(marshallers.values());
+		return classNames;
+	}
+
+	/**
+	 * @return The types of the {@code @Id} properties - i.e. of the composite hash
+	 *         and range keys
+	 */
+	List<TypeMirror> getIdTypes() {
+		Set<String> propertyNames = new LinkedHashSet<>(getters.keySet());
+		propertyNames.addAll(fields.keySet());
+		List<TypeMirror> idTypes = new ArrayList<>();
+		for (String propertyName : propertyNames) {
+			if (isIdProperty(propertyName)) {
+				idTypes.add(getPropertyType(propertyName));
+			}
+		}
+		return idTypes;
+	}
+
+	/**
+	 * @return The types of the entity - starting with the entity itself
+	 */
+	List<TypeElement> getHierarchy() {
+		return hierarchy();
+	}
+
+	String toSource() {
+		String entityName = entity.getQualifiedName().toString();
+		StringBuilder source = new StringBuilder();
+		if (!getPackageName().isEmpty()) {
+			source.append("package ").append(getPackageName()).append(";\n\n");
+		}
+		source.append("/**\n * DynamoDB metadata of {@link ").append(entityName)
+				.append("} - generated by the spring-data-dynamodb-processor.\n */\n");
+		source.append("public final class ").append(getMetadataSimpleName()).append(" extends ")
+				.append(METADATA_BASE_CLASS).append("<").append(entityName).append("> {\n\n");
+		source.append("\tpublic ").append(getMetadataSimpleName()).append("() {\n");
+		source.append("\t\tsuper(").append(entityName).append(".class, ").append(literal(tableName)).append(");\n");
+		source.append("\t\thashKey(").append(literal(hashKeyPropertyName)).append(");\n");
+		if (rangeKeyPropertyName != null) {
+			source.append("\t\trangeKey(").append(literal(rangeKeyPropertyName)).append(");\n");
+		}
+		indexes.forEach(index -> source.append("\t\t").append(index).append("\n"));
+		attributeNames.forEach((propertyName, attributeName) -> source.append("\t\tattributeName(")
+				.append(literal(propertyName)).append(", ").append(literal(attributeName)).append(");\n"));
+		typeConverters.forEach((propertyName, converter) -> source.append("\t\ttypeConverter(")
+				.append(literal(propertyName)).append(", ").append(converter).append(".class);\n"));
+		marshallers.forEach((propertyName, marshaller) -> source.append("\t\tmarshaller(")
+				.append(literal(propertyName)).append(", ").append(marshaller).append(".class);\n"));
+		source.append("\t}\n}\n");
+		return source.toString();
+	}
+
+	private static String literals(List<String> values) {
+		StringBuilder literals = new StringBuilder();
+		for (String value : values) {
+			if (literals.length() > 0) {
+				literals.append(", ");
+			}
+			literals.append(literal(value));
+		}
+		return literals.toString();
+	}
+
+	static String literal(String value) {
+		StringBuilder literal = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			switch (c) {
+				case '"' :
+				case '\\' :
+					literal.append('\\').append(c);
+					break;
+				case '\n' :
+					literal.append("\\n");
+					break;
+				default :
+					literal.append(c);
+			}
+		}
+		return literal.append('"').toString();
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Writes the {@code META-INF/spring-data-dynamodb} index files read by
+ * {@code DynamoDBEntityIndex}.
+ *
+ * @author Sebastian Just
+ */
+final class IndexFile {
+
+	private IndexFile() {
+	}
+
+	/**
+	 * Writes the index sorted by key. Keeps the entries of an incremental
+	 * compilation that were not part of this round of processing - as long as
+	 * their class still exists.
+	 *
+	 * @param index
+	 *            Binary class name to generated class name
+	 * @return The written index including the kept entries - empty if nothing was
+	 *         written
+	 */
+	static Map<String, String> write(ProcessingEnvironment processingEnv, String location,
+			Map<String, String> index) {
+		if (index.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		Filer filer = processingEnv.getFiler();
+		Properties properties = new Properties();
+		try {
+			FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", location);
+			try (InputStream in = existing.openInputStream()) {
+				properties.load(in);
+			}
+			for (String className : properties.stringPropertyNames()) {
+				if (processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) == null) {
+					properties.remove(className);
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// No previous index
+		}
+		properties.putAll(index);
+		Map<String, String> merged = new TreeMap<>();
+		properties.stringPropertyNames().forEach(className -> merged.put(className, properties.getProperty(className)));
+
+		try {
+			FileObject resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", location);
+			try (OutputStream out = resource.openOutputStream()) {
+				StringBuilder content = new StringBuilder();
+				merged.forEach((className, generatedName) -> content.append(className).append('=')
+						.append(generatedName).append('\n'));
+				out.write(content.toString().getBytes(StandardCharsets.ISO_8859_1));
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write " + location + ": " + e.getMessage());
+		}
+		return merged;
+	}
+}
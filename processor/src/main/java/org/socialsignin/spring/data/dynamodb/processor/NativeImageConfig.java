@@ -0,0 +1,109 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The GraalVM native-image configuration of the classes the runtime reflects
+ * on or proxies. {@code native-image} picks up the files below
+ * {@code META-INF/native-image} of the classpath by itself.
+ *
+ * @author Sebastian Just
+ */
+class NativeImageConfig {
+
+	static final String LOCATION = "META-INF/native-image/spring-data-dynamodb/";
+
+	enum Access {
+		CONSTRUCTORS("allDeclaredConstructors"),
+		METHODS("allDeclaredMethods"),
+		PUBLIC_METHODS("allPublicMethods"),
+		FIELDS("allDeclaredFields");
+
+		private final String key;
+
+		Access(String key) {
+			this.key = key;
+		}
+	}
+
+	/** Binary class name to the members accessed reflectively */
+	private final Map<String, Set<Access>> reflection = new TreeMap<>();
+	/** The interfaces of each JDK proxy - in the order of the proxy */
+	private final Set<List<String>> proxies = new LinkedHashSet<>();
+
+	void reflect(String className, Access... access) {
+		reflection.computeIfAbsent(className, k -> EnumSet.noneOf(Access.class)).addAll(Arrays.asList(access));
+	}
+
+	void proxy(String... interfaceNames) {
+		proxies.add(Arrays.asList(interfaceNames));
+	}
+
+	/**
+	 * Writes {@code reflect-config.json} and {@code proxy-config.json} to the
+	 * directory below {@link #LOCATION}
+	 */
+	void write(ProcessingEnvironment processingEnv, String directory) {
+		if (!reflection.isEmpty()) {
+			List<String> entries = new ArrayList<>();
+			reflection.forEach((className, access) -> {
+				StringBuilder entry = new StringBuilder("  {\n    \"name\": ").append(EntityModel.literal(className));
+				access.forEach(a -> entry.append(",\n    \"").append(a.key).append("\": true"));
+				entries.add(entry.append("\n  }").toString());
+			});
+			write(processingEnv, LOCATION + directory + "/reflect-config.json", entries);
+		}
+		if (!proxies.isEmpty()) {
+			List<String> entries = new ArrayList<>();
+			for (List<String> interfaceNames : proxies) {
+				StringBuilder entry = new StringBuilder("  [");
+				for (int i = 0; i < interfaceNames.size(); i++) {
+					entry.append(i == 0 ? "" : ", ").append(EntityModel.literal(interfaceNames.get(i)));
+				}
+				entries.add(entry.append("]").toString());
+			}
+			write(processingEnv, LOCATION + directory + "/proxy-config.json", entries);
+		}
+	}
+
+	private static void write(ProcessingEnvironment processingEnv, String location, List<String> entries) {
+		try {
+			FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", location);
+			try (OutputStream out = resource.openOutputStream()) {
+				out.write(("[\n" + String.join(",\n", entries) + "\n]\n").getBytes(StandardCharsets.UTF_8));
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Unable to write " + location + ": " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,1250 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A query method of a repository as derived from its name at build time. The
+ * name is parsed with the grammar of {@code PartTree} and planned with the rules
+ * of the criteria built by {@code AbstractDynamoDBQueryCreator} - so that the
+ * generated query does exactly what the query parsed at runtime would do.
+ *
+ * Query methods the runtime would reject are reported as errors, scans as
+ * warnings. Query methods that are valid but not generated (e.g. with nested
+ * properties) are reported as notes and keep being parsed at runtime.
+ *
+ * @author Sebastian Just
+ */
+class QueryMethodModel {
+
+	private static final String QUERY_PATTERN = "find|read|get|query|stream";
+	private static final Pattern PREFIX_TEMPLATE = Pattern
+			.compile("^(" + QUERY_PATTERN + "|count|exists|delete|remove)((\\p{Lu}.*?))??By");
+	private static final Pattern COUNT_BY_TEMPLATE = Pattern.compile("^count(\\p{Lu}.*?)??By");
+	private static final Pattern EXISTS_BY_TEMPLATE = Pattern.compile("^(exists)(\\p{Lu}.*?)??By");
+	private static final Pattern DELETE_BY_TEMPLATE = Pattern.compile("^(delete|remove)(\\p{Lu}.*?)??By");
+	private static final Pattern LIMITED_QUERY_TEMPLATE = Pattern
+			.compile("^(" + QUERY_PATTERN + ")(Distinct)?(First|Top)(\\d*)?(\\p{Lu}.*?)??By");
+	private static final String KEYWORD_TEMPLATE = "(%s)(?=(\\p{Lu}|\\P{InBASIC_LATIN}))";
+	private static final Pattern IGNORE_CASE = Pattern.compile("Ignor(ing|e)Case");
+	private static final Pattern ALL_IGNORE_CASE = Pattern.compile("AllIgnor(ing|e)Case");
+	private static final String BLOCK_SPLIT = "(?<=Asc|Desc)(?=\\p{Lu})";
+	private static final Pattern DIRECTION_SPLIT = Pattern.compile("(.+?)(Asc|Desc)?$");
+
+	private static final String PAGEABLE = "org.springframework.data.domain.Pageable";
+	private static final String SORT = "org.springframework.data.domain.Sort";
+	private static final String PAGE = "org.springframework.data.domain.Page";
+	private static final String ENABLE_SCAN = "org.socialsignin.spring.data.dynamodb.repository.EnableScan";
+	private static final String ENABLE_SCAN_COUNT = "org.socialsignin.spring.data.dynamodb.repository.EnableScanCount";
+	private static final String READ_OPTIONS = "org.socialsignin.spring.data.dynamodb.repository.ReadOptions";
+
+	private static final Set<String> QUERY_OPERATORS = Collections
+			.unmodifiableSet(new HashSet<>(Arrays.asList("EQ", "LE", "LT", "GE", "GT", "BEGINS_WITH", "BETWEEN")));
+
+	/** Same order and keywords as Part.Type */
+	enum Keyword {
+		IS_NOT_NULL(0, "NOT_NULL", "IsNotNull", "NotNull"),
+		IS_NULL(0, "NULL", "IsNull", "Null"),
+		BETWEEN(2, "BETWEEN", "IsBetween", "Between"),
+		LESS_THAN(1, "LT", "IsLessThan", "LessThan"),
+		LESS_THAN_EQUAL(1, "LE", "IsLessThanEqual", "LessThanEqual"),
+		GREATER_THAN(1, "GT", "IsGreaterThan", "GreaterThan"),
+		GREATER_THAN_EQUAL(1, "GE", "IsGreaterThanEqual", "GreaterThanEqual"),
+		BEFORE(1, "LT", "IsBefore", "Before"),
+		AFTER(1, "GT", "IsAfter", "After"),
+		NOT_LIKE(1, null, "IsNotLike", "NotLike"),
+		LIKE(1, null, "IsLike", "Like"),
+		STARTING_WITH(1, "BEGINS_WITH", "IsStartingWith", "StartingWith", "StartsWith"),
+		ENDING_WITH(1, null, "IsEndingWith", "EndingWith", "EndsWith"),
+		IS_NOT_EMPTY(0, null, "IsNotEmpty", "NotEmpty"),
+		IS_EMPTY(0, null, "IsEmpty", "Empty"),
+		NOT_CONTAINING(1, null, "IsNotContaining", "NotContaining", "NotContains"),
+		CONTAINING(1, "CONTAINS", "IsContaining", "Containing", "Contains"),
+		NOT_IN(1, null, "IsNotIn", "NotIn"),
+		IN(1, "IN", "IsIn", "In"),
+		NEAR(1, null, "IsNear", "Near"),
+		WITHIN(1, null, "IsWithin", "Within"),
+		REGEX(1, null, "MatchesRegex", "Matches", "Regex"),
+		EXISTS(0, null, "Exists"),
+		TRUE(0, "EQ", "IsTrue", "True"),
+		FALSE(0, "EQ", "IsFalse", "False"),
+		NEGATING_SIMPLE_PROPERTY(1, "NE", "IsNot", "Not"),
+		SIMPLE_PROPERTY(1, "EQ", "Is", "Equals");
+
+		private final int numberOfArguments;
+		/** The ComparisonOperator or {@literal null} if not supported */
+		private final String operator;
+		private final List<String> keywords;
+
+		Keyword(int numberOfArguments, String operator, String... keywords) {
+			this.numberOfArguments = numberOfArguments;
+			this.operator = operator;
+			this.keywords = Arrays.asList(keywords);
+		}
+
+		static Keyword fromPart(String part) {
+			for (Keyword keyword : values()) {
+				for (String candidate : keyword.keywords) {
+					if (part.endsWith(candidate)) {
+						return keyword;
+					}
+				}
+			}
+			return SIMPLE_PROPERTY;
+		}
+
+		String extractProperty(String part) {
+			String candidate = uncapitalize(part);
+			for (String keyword : keywords) {
+				if (candidate.endsWith(keyword)) {
+					return candidate.substring(0, candidate.length() - keyword.length());
+				}
+			}
+			return candidate;
+		}
+	}
+
+	enum Plan {
+		LOAD, QUERY, INDEX_QUERY, SCAN
+	}
+
+	/**
+	 * The query method can't be generated - reported with the given kind
+	 */
+	static final class NotGeneratedException extends Exception {
+		private static final long serialVersionUID = 1L;
+		private final Diagnostic.Kind kind;
+
+		NotGeneratedException(Diagnostic.Kind kind, String message) {
+			super(message);
+			this.kind = kind;
+		}
+
+		Diagnostic.Kind getKind() {
+			return kind;
+		}
+	}
+
+	private static final class PartModel {
+		private final String propertyName;
+		private final Keyword keyword;
+		private final List<Integer> parameterIndexes = new ArrayList<>();
+
+		PartModel(String propertyName, Keyword keyword) {
+			this.propertyName = propertyName;
+			this.keyword = keyword;
+		}
+	}
+
+	/** A condition that is neither an equality on the hash nor the range key */
+	private static final class ConditionModel {
+		private final String propertyName;
+		private final String attributeName;
+		private final String operator;
+		private final String variable;
+
+		ConditionModel(String propertyName, String attributeName, String operator, String variable) {
+			this.propertyName = propertyName;
+			this.attributeName = attributeName;
+			this.operator = operator;
+			this.variable = variable;
+		}
+	}
+
+	private final ExecutableElement method;
+	private final TypeElement repository;
+	private final EntityModel entity;
+	private final Elements elements;
+	private final Types types;
+	private final String packageName;
+
+	private String subject = "FIND";
+	private Integer maxResults;
+	private final List<PartModel> parts = new ArrayList<>();
+	/** Property name and {@code true} for ascending */
+	private final Map<String, Boolean> orderBy = new LinkedHashMap<>();
+	private int sortIndex = -1;
+	private int pageableIndex = -1;
+
+	private PartModel hashKeyPart;
+	private PartModel rangeKeyPart;
+	private final Map<String, List<ConditionModel>> attributeConditions = new LinkedHashMap<>();
+	private final Map<String, List<ConditionModel>> propertyConditions = new LinkedHashMap<>();
+	private final Map<PartModel, ConditionModel> conditionsByPart = new LinkedHashMap<>();
+
+	private Plan plan;
+	private String indexName;
+	private final List<String> sortProperties = new ArrayList<>();
+	private boolean hasIndexHashKeyEqualCondition;
+
+	private QueryMethodModel(ExecutableElement method, TypeElement repository, EntityModel entity,
+			Elements elements, Types types) {
+		this.method = method;
+		this.repository = repository;
+		this.entity = entity;
+		this.elements = elements;
+		this.types = types;
+		this.packageName = elements.getPackageOf(repository).getQualifiedName().toString();
+	}
+
+	/**
+	 * @return {@code true} if the method name is a derived query - i.e. it starts
+	 *         with one of the query prefixes of {@code PartTree}
+	 */
+	static boolean isDerivedQuery(ExecutableElement method) {
+		return PREFIX_TEMPLATE.matcher(method.getSimpleName()).find();
+	}
+
+	/**
+	 * @throws NotGeneratedException
+	 *             if the query can't be generated
+	 */
+	static QueryMethodModel read(ExecutableElement method, TypeElement repository, EntityModel entity,
+			Elements elements, Types types) throws NotGeneratedException {
+		QueryMethodModel model = new QueryMethodModel(method, repository, entity, elements, types);
+		model.parse();
+		model.bindParameters();
+		model.buildCriteria();
+		model.plan();
+		model.validateReadOptions();
+		return model;
+	}
+
+	private void parse() throws NotGeneratedException {
+		String source = method.getSimpleName().toString();
+		Matcher prefix = PREFIX_TEMPLATE.matcher(source);
+		if (!prefix.find()) {
+			throw notGenerated("it is not a derived query");
+		}
+		String subjectSource = prefix.group(0);
+		if (COUNT_BY_TEMPLATE.matcher(subjectSource).find()) {
+			subject = "COUNT";
+		} else if (EXISTS_BY_TEMPLATE.matcher(subjectSource).find()) {
+			subject = "EXISTS";
+		} else if (DELETE_BY_TEMPLATE.matcher(subjectSource).find()) {
+			subject = "DELETE";
+		}
+		Matcher limited = LIMITED_QUERY_TEMPLATE.matcher(subjectSource);
+		if (limited.find()) {
+			maxResults = limited.group(4).isEmpty() ? 1 : Integer.valueOf(limited.group(4));
+		}
+
+		String predicate = source.substring(subjectSource.length());
+		if (ALL_IGNORE_CASE.matcher(predicate).find()) {
+			throw notGenerated("AllIgnoreCase is resolved per property at runtime");
+		}
+		String[] predicateAndOrder = split(predicate, "OrderBy");
+		if (predicateAndOrder.length > 2) {
+			throw error("OrderBy must not be used more than once in a method name!");
+		}
+		String[] orParts = split(predicateAndOrder[0], "Or");
+		for (String orPart : orParts.length == 0 ? new String[]{""} : orParts) {
+			for (String part : split(orPart, "And")) {
+				if (!part.trim().isEmpty()) {
+					parts.add(parsePart(part));
+				}
+			}
+		}
+		if (orParts.length > 1) {
+			throw notGenerated("the results of the Or branches are merged at runtime");
+		}
+		if (parts.isEmpty()) {
+			throw notGenerated("it has no criteria");
+		}
+		if (predicateAndOrder.length == 2) {
+			parseOrderBy(predicateAndOrder[1]);
+		}
+	}
+
+	private PartModel parsePart(String part) throws NotGeneratedException {
+		if (IGNORE_CASE.matcher(part).find()) {
+			throw error("Case insensitivity not supported");
+		}
+		Keyword keyword = Keyword.fromPart(part);
+		String propertyName = resolveProperty(keyword.extractProperty(part));
+		if (keyword.operator == null) {
+			throw error("Unsupported keyword " + keyword);
+		}
+		if (entity.getRangeKeyPropertyName() != null && entity.isIdProperty(propertyName)) {
+			throw notGenerated("the composite id property '" + propertyName + "' is resolved at runtime");
+		}
+		if (keyword == Keyword.IN && (propertyName.equals(entity.getHashKeyPropertyName())
+				|| propertyName.equals(entity.getRangeKeyPropertyName())
+				|| entity.getGlobalIndexHashKeyPropertyNames().contains(propertyName))) {
+			throw notGenerated("the In on the key '" + propertyName + "' is expanded at runtime");
+		}
+		return new PartModel(propertyName, keyword);
+	}
+
+	private void parseOrderBy(String clause) throws NotGeneratedException {
+		for (String part : clause.split(BLOCK_SPLIT)) {
+			Matcher matcher = DIRECTION_SPLIT.matcher(part);
+			if (!matcher.find() || ("Asc".equals(matcher.group(1)) || "Desc".equals(matcher.group(1)))
+					&& matcher.group(2) == null) {
+				throw error("Invalid order syntax for part " + part + "!");
+			}
+			orderBy.put(resolveProperty(matcher.group(1)), !"Desc".equals(matcher.group(2)));
+		}
+	}
+
+	/** Same as PropertyPath - but without nested properties */
+	private String resolveProperty(String source) throws NotGeneratedException {
+		for (String candidate : Arrays.asList(uncapitalize(source), decapitalize(source))) {
+			if (entity.hasProperty(candidate)) {
+				return candidate;
+			}
+		}
+		String uncapitalized = uncapitalize(source);
+		for (int i = uncapitalized.length() - 1; i > 0; i--) {
+			char next = uncapitalized.charAt(i);
+			if ((Character.isUpperCase(next) || next == '_') && entity.hasProperty(uncapitalized.substring(0, i))) {
+				throw notGenerated("the nested property '" + source + "' is resolved at runtime");
+			}
+		}
+		throw error("No property " + uncapitalized + " found for type " + entity.getEntity().getSimpleName() + "!");
+	}
+
+	private void bindParameters() throws NotGeneratedException {
+		TypeMirror pageable = declaredType(PAGEABLE);
+		TypeMirror sort = declaredType(SORT);
+
+		List<Integer> bindable = new ArrayList<>();
+		List<? extends VariableElement> parameters = method.getParameters();
+		for (int i = 0; i < parameters.size(); i++) {
+			TypeMirror type = types.erasure(parameters.get(i).asType());
+			if (pageable != null && types.isAssignable(type, pageable)) {
+				pageableIndex = pageableIndex < 0 ? i : pageableIndex;
+			} else if (sort != null && types.isAssignable(type, sort)) {
+				sortIndex = sortIndex < 0 ? i : sortIndex;
+			} else {
+				bindable.add(i);
+			}
+		}
+
+		int next = 0;
+		for (PartModel part : parts) {
+			for (int i = 0; i < part.keyword.numberOfArguments; i++) {
+				if (next >= bindable.size()) {
+					throw error("Method " + method.getSimpleName() + " expects at least "
+							+ parts.stream().mapToInt(p -> p.keyword.numberOfArguments).sum()
+							+ " arguments but only has " + bindable.size());
+				}
+				part.parameterIndexes.add(bindable.get(next++));
+			}
+		}
+	}
+
+	/** Same as AbstractDynamoDBQueryCreator#addCriteria */
+	private void buildCriteria() throws NotGeneratedException {
+		for (PartModel part : parts) {
+			String operator = part.keyword.operator;
+			if ("EQ".equals(operator) && part.propertyName.equals(entity.getHashKeyPropertyName())) {
+				if (hashKeyPart != null) {
+					throw notGenerated("the hash key is compared more than once");
+				}
+				hashKeyPart = part;
+			} else if ("EQ".equals(operator) && part.propertyName.equals(entity.getRangeKeyPropertyName())) {
+				if (rangeKeyPart != null) {
+					throw notGenerated("the range key is compared more than once");
+				}
+				rangeKeyPart = part;
+			} else {
+				ConditionModel condition = new ConditionModel(part.propertyName,
+						entity.getAttributeName(part.propertyName), operator, "condition" + conditionsByPart.size());
+				attributeConditions.computeIfAbsent(condition.attributeName, k -> new ArrayList<>()).add(condition);
+				propertyConditions.computeIfAbsent(condition.propertyName, k -> new ArrayList<>()).add(condition);
+				conditionsByPart.put(part, condition);
+			}
+		}
+	}
+
+	private boolean isRangeKeyAware() {
+		return entity.getRangeKeyPropertyName() != null;
+	}
+
+	private void plan() throws NotGeneratedException {
+		boolean hashKeySpecified = hashKeyPart != null;
+		boolean rangeKeySpecified = rangeKeyPart != null;
+		boolean globalIndex = isApplicableForGlobalSecondaryIndex();
+
+		if (!isRangeKeyAware()) {
+			if (attributeConditions.isEmpty() && hashKeySpecified) {
+				plan = Plan.LOAD;
+			} else {
+				plan = globalIndex ? Plan.INDEX_QUERY : Plan.SCAN;
+			}
+		} else if (attributeConditions.isEmpty() && hashKeySpecified && rangeKeySpecified) {
+			plan = Plan.LOAD;
+		} else {
+			boolean onlyHashKeySpecified = hashKeySpecified && attributeConditions.isEmpty() && !rangeKeySpecified;
+			boolean rangeKeyCondition = hashKeySpecified
+					&& isOnlyASingleAttributeConditionAndItIsOnEitherRangeOrIndexRangeKey()
+					&& comparisonOperatorsPermittedForQuery();
+			if (onlyHashKeySpecified || rangeKeyCondition || globalIndex) {
+				plan = globalIndex ? Plan.INDEX_QUERY : Plan.QUERY;
+			} else {
+				plan = Plan.SCAN;
+			}
+		}
+
+		switch (plan) {
+			case QUERY :
+				planQuery();
+				break;
+			case INDEX_QUERY :
+				planIndexQuery();
+				break;
+			case SCAN :
+				if (isApplicableForQueryFilter()) {
+					throw notGenerated("a query with a query filter");
+				}
+				break;
+			default :
+		}
+	}
+
+	/**
+	 * Same as DynamoDBQueryMethod#readSettings - the options of the method
+	 * override the ones of the repository
+	 */
+	private void validateReadOptions() throws NotGeneratedException {
+		String consistentReads = null;
+		for (Element element : Arrays.asList(repository, method)) {
+			AnnotationMirror readOptions = annotation(element, READ_OPTIONS);
+			if (readOptions == null) {
+				continue;
+			}
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : readOptions
+					.getElementValues().entrySet()) {
+				String option = entry.getKey().getSimpleName().toString();
+				Object value = entry.getValue().getValue();
+				if (value instanceof List) {
+					List<?> values = (List<?>) value;
+					if (values.size() > 1) {
+						throw error("Only a single " + option + " can be given in @ReadOptions!");
+					}
+					if ("consistentReads".equals(option) && !values.isEmpty()) {
+						consistentReads = ((VariableElement) ((AnnotationValue) values.get(0)).getValue())
+								.getSimpleName().toString();
+					}
+				} else if ("pageSize".equals(option)) {
+					int pageSize = (Integer) value;
+					// Integer.MIN_VALUE is QueryConstants.QUERY_LIMIT_UNLIMITED
+					if (pageSize <= 0 && pageSize != Integer.MIN_VALUE) {
+						throw error("pageSize must be positive!");
+					}
+				}
+			}
+		}
+		if ("CONSISTENT".equals(consistentReads) && indexName != null) {
+			throw error("Consistent reads are not supported by the global secondary index " + indexName);
+		}
+	}
+
+	/** Same as DynamoDBEntityWithHashAndRangeKeyCriteria#buildQueryExpression */
+	private void planQuery() throws NotGeneratedException {
+		if (!canCreateHashKeyPrototype()) {
+			throw notGenerated("the hash key of " + entity.getEntity().getSimpleName()
+					+ " can't be set from the repository's package");
+		}
+		if (!attributeConditions.isEmpty()) {
+			for (String propertyName : propertyConditions.keySet()) {
+				if (entity.getGlobalSecondaryIndexNames().containsKey(propertyName)) {
+					sortProperties.add(propertyName);
+				}
+			}
+			if (sortProperties.isEmpty()) {
+				sortProperties.add(propertyConditions.keySet().iterator().next());
+			}
+			indexName = getGlobalSecondaryIndexName();
+		} else {
+			sortProperties.add(entity.getRangeKeyPropertyName());
+		}
+
+		if (sortProperties.size() > 1) {
+			throw error("Can only sort by at most a single range or index range key");
+		}
+		validateOrderBy(sortProperties, false);
+	}
+
+	/** Same as AbstractDynamoDBQueryCriteria#buildQueryRequest */
+	private void planIndexQuery() throws NotGeneratedException {
+		indexName = getGlobalSecondaryIndexName();
+		Map<String, List<String>> globalSecondaryIndexNames = entity.getGlobalSecondaryIndexNames();
+
+		Set<String> allowedSortProperties = new LinkedHashSet<>();
+		for (String propertyName : propertyConditions.keySet()) {
+			if (globalSecondaryIndexNames.containsKey(propertyName)) {
+				allowedSortProperties.add(propertyName);
+			}
+		}
+		if (!getHashKeyConditions().isEmpty()) {
+			allowedSortProperties.add(entity.getHashKeyPropertyName());
+		}
+		if (!getRangeKeyConditions().isEmpty()) {
+			allowedSortProperties.add(entity.getRangeKeyPropertyName());
+		}
+		sortProperties.addAll(allowedSortProperties);
+		hasIndexHashKeyEqualCondition = hasIndexHashKeyEqualCondition();
+
+		Set<String> staticSortProperties = new LinkedHashSet<>(allowedSortProperties);
+		for (String propertyName : orderBy.keySet()) {
+			if (entity.getGlobalIndexRangeKeyPropertyNames().contains(propertyName)) {
+				staticSortProperties.add(propertyName);
+			}
+		}
+		if (staticSortProperties.size() > 2) {
+			throw error("Can only sort by at most a single global hash and range key");
+		}
+		validateOrderBy(staticSortProperties, getKeyConditionCount() > 1 && !hasIndexHashKeyEqualCondition);
+	}
+
+	/** Same as AbstractDynamoDBQueryCriteria#applySortIfSpecified */
+	private void validateOrderBy(Collection<String> permittedPropertyNames, boolean keyConditionsOnHashAndRange)
+			throws NotGeneratedException {
+		boolean sortAlreadySet = false;
+		for (String propertyName : orderBy.keySet()) {
+			if (!permittedPropertyNames.contains(propertyName)) {
+				throw error("Sorting only possible by " + permittedPropertyNames + " for the criteria specified");
+			}
+			if (sortAlreadySet) {
+				throw error("Sorting by multiple attributes not possible");
+			}
+			if (keyConditionsOnHashAndRange) {
+				throw error("Sorting for global index queries with criteria on both hash and range not possible");
+			}
+			sortAlreadySet = true;
+		}
+	}
+
+	private List<String> getHashKeyConditions() {
+		if (!entity.getGlobalSecondaryIndexNames().containsKey(entity.getHashKeyPropertyName())) {
+			return Collections.emptyList();
+		} else if (hashKeyPart != null) {
+			return Collections.singletonList("keyCondition(ComparisonOperator.EQ, hashKeyValue)");
+		}
+		List<String> conditions = new ArrayList<>();
+		for (ConditionModel condition : attributeConditions
+				.getOrDefault(entity.getAttributeName(entity.getHashKeyPropertyName()), Collections.emptyList())) {
+			conditions.add(condition.variable);
+		}
+		return conditions;
+	}
+
+	private List<String> getRangeKeyConditions() {
+		if (isRangeKeyAware() && rangeKeyPart != null
+				&& entity.getGlobalSecondaryIndexNames().containsKey(entity.getRangeKeyPropertyName())) {
+			return Collections.singletonList("keyCondition(ComparisonOperator.EQ, rangeKeyValue)");
+		}
+		return Collections.emptyList();
+	}
+
+	private int getKeyConditionCount() {
+		Set<String> keys = new HashSet<>(attributeConditions.keySet());
+		if (!getHashKeyConditions().isEmpty()) {
+			keys.add(entity.getAttributeName(entity.getHashKeyPropertyName()));
+		}
+		if (!getRangeKeyConditions().isEmpty()) {
+			keys.add(entity.getAttributeName(entity.getRangeKeyPropertyName()));
+		}
+		return keys.size();
+	}
+
+	/** Same as AbstractDynamoDBQueryCriteria#getGlobalSecondaryIndexName */
+	private String getGlobalSecondaryIndexName() throws NotGeneratedException {
+		String globalSecondaryIndexName = null;
+		if (!attributeConditions.isEmpty()) {
+			Map<String, List<String>> attributeListsByIndexName = new LinkedHashMap<>();
+			entity.getGlobalSecondaryIndexNames().forEach((propertyName, indexNames) -> {
+				String attributeName = entity.getAttributeName(propertyName);
+				for (String indexName : indexNames) {
+					attributeListsByIndexName.computeIfAbsent(indexName, k -> new ArrayList<>()).add(attributeName);
+				}
+			});
+
+			List<String> exactMatchIndexNames = new ArrayList<>();
+			List<String> partialMatchIndexNames = new ArrayList<>();
+			attributeListsByIndexName.forEach((indexName, attributeList) -> {
+				if (attributeList.containsAll(attributeConditions.keySet())) {
+					if (attributeConditions.keySet().containsAll(attributeList)) {
+						exactMatchIndexNames.add(indexName);
+					} else {
+						partialMatchIndexNames.add(indexName);
+					}
+				}
+			});
+
+			if (exactMatchIndexNames.size() + partialMatchIndexNames.size() > 1) {
+				// The runtime chooses the cheapest index - based on the sort and the
+				// table statistics
+				List<String> indexNames = new ArrayList<>(exactMatchIndexNames);
+				indexNames.addAll(partialMatchIndexNames);
+				throw notGenerated("the index is chosen at runtime out of " + indexNames);
+			} else if (exactMatchIndexNames.size() == 1) {
+				globalSecondaryIndexName = exactMatchIndexNames.get(0);
+			} else if (partialMatchIndexNames.size() == 1) {
+				globalSecondaryIndexName = partialMatchIndexNames.get(0);
+			}
+		}
+
+		// DynamoDBEntityWithHashAndRangeKeyCriteria#getGlobalSecondaryIndexName
+		if (globalSecondaryIndexName == null && isRangeKeyAware() && hashKeyPart == null && rangeKeyPart != null) {
+			List<String> rangeKeyIndexNames = entity.getGlobalSecondaryIndexNames()
+					.get(entity.getRangeKeyPropertyName());
+			globalSecondaryIndexName = rangeKeyIndexNames != null && !rangeKeyIndexNames.isEmpty()
+					? rangeKeyIndexNames.get(0)
+					: null;
+		}
+		return globalSecondaryIndexName;
+	}
+
+	private boolean hasIndexHashKeyEqualCondition() {
+		for (Map.Entry<String, List<ConditionModel>> conditions : propertyConditions.entrySet()) {
+			if (entity.getGlobalIndexHashKeyPropertyNames().contains(conditions.getKey())) {
+				for (ConditionModel condition : conditions.getValue()) {
+					if ("EQ".equals(condition.operator)) {
+						return true;
+					}
+				}
+			}
+		}
+		return hashKeyPart != null
+				&& entity.getGlobalIndexHashKeyPropertyNames().contains(entity.getHashKeyPropertyName())
+				|| rangeKeyPart != null
+						&& entity.getGlobalIndexHashKeyPropertyNames().contains(entity.getRangeKeyPropertyName());
+	}
+
+	private boolean hasIndexRangeKeyCondition() {
+		for (String propertyName : propertyConditions.keySet()) {
+			if (entity.getGlobalIndexRangeKeyPropertyNames().contains(propertyName)) {
+				return true;
+			}
+		}
+		return hashKeyPart != null
+				&& entity.getGlobalIndexRangeKeyPropertyNames().contains(entity.getHashKeyPropertyName())
+				|| rangeKeyPart != null
+						&& entity.getGlobalIndexRangeKeyPropertyNames().contains(entity.getRangeKeyPropertyName());
+	}
+
+	private boolean comparisonOperatorsPermittedForQuery() {
+		for (List<ConditionModel> conditions : attributeConditions.values()) {
+			for (ConditionModel condition : conditions) {
+				if (!QUERY_OPERATORS.contains(condition.operator)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isApplicableForGlobalSecondaryIndex() throws NotGeneratedException {
+		Map<String, List<String>> globalSecondaryIndexNames = entity.getGlobalSecondaryIndexNames();
+		boolean global = getGlobalSecondaryIndexName() != null;
+		if (global && hashKeyPart != null && !globalSecondaryIndexNames.containsKey(entity.getHashKeyPropertyName())) {
+			return false;
+		}
+
+		int attributeConditionCount = attributeConditions.size();
+		boolean attributeConditionsAppropriate = hasIndexHashKeyEqualCondition()
+				&& (attributeConditionCount == 1 || (attributeConditionCount == 2 && hasIndexRangeKeyCondition()));
+		global = global && (attributeConditionCount == 0 || attributeConditionsAppropriate)
+				&& comparisonOperatorsPermittedForQuery();
+
+		if (global && isRangeKeyAware() && rangeKeyPart != null
+				&& !globalSecondaryIndexNames.containsKey(entity.getRangeKeyPropertyName())) {
+			return false;
+		}
+		return global;
+	}
+
+	/**
+	 * Whether AbstractDynamoDBQueryCriteria#applyQueryFilter might turn the scan
+	 * into a query: the table's or a global secondary index's hash key is compared
+	 * for equality
+	 */
+	private boolean isApplicableForQueryFilter() {
+		if (hashKeyPart != null) {
+			return true;
+		}
+		for (Map.Entry<String, List<ConditionModel>> conditions : propertyConditions.entrySet()) {
+			if (entity.getGlobalIndexHashKeyPropertyNames().contains(conditions.getKey())
+					&& conditions.getValue().size() == 1 && "EQ".equals(conditions.getValue().get(0).operator)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isOnlyASingleAttributeConditionAndItIsOnEitherRangeOrIndexRangeKey() {
+		if (rangeKeyPart == null && attributeConditions.size() == 1) {
+			Map.Entry<String, List<ConditionModel>> conditions = attributeConditions.entrySet().iterator().next();
+			boolean rangeOrIndexRangeKey = conditions.getKey()
+					.equals(entity.getAttributeName(entity.getRangeKeyPropertyName()))
+					|| entity.getLocalIndexRangeKeyPropertyNames().stream().map(entity::getAttributeName)
+							.anyMatch(conditions.getKey()::equals);
+			return rangeOrIndexRangeKey && conditions.getValue().size() == 1;
+		}
+		return false;
+	}
+
+	/** Same as DynamoDBHashAndRangeKeyExtractingEntityMetadataImpl */
+	private boolean canCreateHashKeyPrototype() {
+		TypeElement type = entity.getEntity();
+		if (type.getModifiers().contains(Modifier.ABSTRACT) || !isAccessible(type)) {
+			return false;
+		}
+		boolean constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+				.anyMatch(c -> c.getParameters().isEmpty() && isAccessible(c));
+		return constructor && hashKeySetter() != null;
+	}
+
+	/**
+	 * @return The statement setting the hash key on the {@code prototype} or
+	 *         {@literal null} if not accessible
+	 */
+	private String hashKeySetter() {
+		Element member = entity.getHashKeyMember();
+		if (member instanceof VariableElement) {
+			return isAccessible(member) && !member.getModifiers().contains(Modifier.FINAL)
+					? "prototype." + member.getSimpleName() + " = (" + typeName(member.asType()) + ") hashKey;"
+					: null;
+		}
+		String getterName = member.getSimpleName().toString();
+		String setterName = "set" + getterName.substring(getterName.startsWith("is") ? 2 : 3);
+		TypeMirror type = ((ExecutableElement) member).getReturnType();
+		for (TypeElement declaringType : entity.getHierarchy()) {
+			for (ExecutableElement setter : ElementFilter.methodsIn(declaringType.getEnclosedElements())) {
+				if (setter.getSimpleName().contentEquals(setterName) && setter.getParameters().size() == 1
+						&& types.isSameType(types.erasure(setter.getParameters().get(0).asType()),
+								types.erasure(type))) {
+					return isAccessible(setter) && !setter.getModifiers().contains(Modifier.STATIC)
+							? "prototype." + setterName + "((" + typeName(type) + ") hashKey);"
+							: null;
+				}
+			}
+		}
+		return null;
+	}
+
+	private boolean isAccessible(Element element) {
+		for (Element e = element; e instanceof TypeElement || e instanceof ExecutableElement
+				|| e instanceof VariableElement; e = e.getEnclosingElement()) {
+			Set<Modifier> modifiers = e.getModifiers();
+			if (modifiers.contains(Modifier.PRIVATE) || !modifiers.contains(Modifier.PUBLIC)
+					&& !elements.getPackageOf(e).getQualifiedName().contentEquals(packageName)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean canInstantiate(String className) {
+		TypeElement type = elements.getTypeElement(className);
+		return type != null && !type.getModifiers().contains(Modifier.ABSTRACT)
+				&& (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.STATIC))
+				&& isAccessible(type) && ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+						.anyMatch(c -> c.getParameters().isEmpty() && isAccessible(c));
+	}
+
+	Plan getPlan() {
+		return plan;
+	}
+
+	String getIndexName() {
+		return indexName;
+	}
+
+	ExecutableElement getMethod() {
+		return method;
+	}
+
+	/**
+	 * @return {@code true} if the method needs a count - count queries and page
+	 *         queries
+	 */
+	private boolean needsCount() {
+		return "COUNT".equals(subject)
+				|| types.erasure(method.getReturnType()).toString().equals(PAGE);
+	}
+
+	/**
+	 * Reports scans - as warnings if they are not enabled and fail at runtime
+	 */
+	void reportScan(Messager messager) {
+		if (plan != Plan.SCAN) {
+			return;
+		}
+		boolean scanEnabled = isAnnotated(ENABLE_SCAN);
+		boolean scanCountEnabled = isAnnotated(ENABLE_SCAN_COUNT);
+		String criteria = parts.stream().map(p -> p.propertyName + " " + p.keyword.operator).reduce((a, b) -> a + ", " + b)
+				.orElse("");
+		if (!scanEnabled && !"COUNT".equals(subject)) {
+			messager.printMessage(Diagnostic.Kind.WARNING, method.getSimpleName() + " scans the table "
+					+ entity.getTableName() + " for " + criteria + " but scanning is not enabled - annotate it or "
+					+ repository.getSimpleName() + " with @EnableScan or query by a key or index", method);
+		} else if (needsCount() && !scanCountEnabled) {
+			messager.printMessage(Diagnostic.Kind.WARNING, method.getSimpleName() + " counts by scanning the table "
+					+ entity.getTableName() + " for " + criteria + " but scan counts are not enabled - annotate it or "
+					+ repository.getSimpleName() + " with @EnableScanCount", method);
+		} else {
+			messager.printMessage(Diagnostic.Kind.NOTE,
+					method.getSimpleName() + " scans the table " + entity.getTableName() + " for " + criteria, method);
+		}
+	}
+
+	private boolean isAnnotated(String annotationName) {
+		return hasAnnotation(method, annotationName) || hasAnnotation(repository, annotationName);
+	}
+
+	private static AnnotationMirror annotation(Element element, String annotationName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+			if (type.getQualifiedName().contentEquals(annotationName)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasAnnotation(Element element, String annotationName) {
+		return element.getAnnotationMirrors().stream().anyMatch(a -> ((TypeElement) a.getAnnotationType().asElement())
+				.getQualifiedName().contentEquals(annotationName));
+	}
+
+	/**
+	 * @return The erased parameter types as class literals - to find the method at
+	 *         runtime
+	 */
+	List<String> getParameterTypeLiterals() {
+		List<String> literals = new ArrayList<>();
+		for (VariableElement parameter : method.getParameters()) {
+			literals.add(types.erasure(parameter.asType()).toString() + ".class");
+		}
+		return literals;
+	}
+
+	/**
+	 * @return The source of the nested class of the query method
+	 */
+	String toSource(String className) {
+		String entityName = entity.getEntity().getQualifiedName().toString();
+		StringBuilder source = new StringBuilder();
+		source.append("\t/**\n\t * {@code ").append(method.getSimpleName()).append("} - ")
+				.append(plan.name().toLowerCase().replace('_', ' '));
+		if (indexName != null) {
+			source.append(" on ").append(indexName);
+		}
+		source.append("\n\t */\n");
+		source.append("\tstatic final class ").append(className).append(" extends GeneratedQueryMethod<")
+				.append(entityName).append("> {\n");
+
+		Map<String, String> conversions = conversionFields();
+		if (plan != Plan.LOAD || !conversions.isEmpty()) {
+			source.append('\n');
+		}
+		if (plan != Plan.LOAD) {
+			source.append("\t\tprivate static final Sort SORT = ").append(sortLiteral()).append(";\n");
+		}
+		conversions.forEach((propertyName, field) -> {
+			String converter = entity.getTypeConverter(propertyName);
+			if (converter != null) {
+				source.append("\t\tprivate final DynamoDBTypeConverter<Object, Object> ").append(field)
+						.append(" = converter(new ").append(converter).append("());\n");
+			} else {
+				source.append("\t\tprivate final DynamoDBMarshaller<Object> ").append(field)
+						.append(" = marshaller(new ").append(entity.getMarshaller(propertyName)).append("());\n");
+			}
+		});
+		source.append("\n\t\t").append(className).append("() {\n");
+		source.append("\t\t\tsuper(").append(entityName).append(".class, Subject.").append(subject).append(", ")
+				.append(maxResults).append(");\n");
+		source.append("\t\t}\n\n");
+
+		String signature = "(DynamoDBOperations operations, Object[] values, Optional<String> projection, Optional<Integer> limit";
+		String sort = "sort(values, SORT, " + sortIndex + ", " + pageableIndex + ")";
+		source.append("\t\t@Override\n\t\tpublic Query<").append(entityName).append("> createQuery")
+				.append(signature).append(") {\n");
+		switch (plan) {
+			case LOAD :
+				appendStatements(source, conversions);
+				source.append("\t\t\treturn new ")
+						.append(isRangeKeyAware()
+								? "SingleEntityLoadByHashAndRangeKeyQuery<>(operations, " + entityName
+										+ ".class, hashKey, rangeKey);\n"
+								: "SingleEntityLoadByHashKeyQuery<>(operations, " + entityName + ".class, hashKey);\n");
+				break;
+			case QUERY :
+				source.append("\t\t\treturn new MultipleEntityQueryExpressionQuery<>(operations, ").append(entityName)
+						.append(".class,\n\t\t\t\t\tqueryExpression(operations, values, projection, limit, ")
+						.append(sort).append("));\n");
+				break;
+			case INDEX_QUERY :
+				source.append("\t\t\treturn new MultipleEntityQueryRequestQuery<>(operations, ").append(entityName)
+						.append(".class,\n\t\t\t\t\tqueryRequest(operations, values, projection, limit, ").append(sort)
+						.append("));\n");
+				break;
+			default :
+				source.append("\t\t\treturn scanQuery(operations,\n\t\t\t\t\t")
+						.append("scanExpression(operations, values, projection, limit), ").append(sort).append(");\n");
+		}
+		source.append("\t\t}\n\n");
+
+		source.append("\t\t@Override\n\t\tpublic Query<Long> createCountQuery(DynamoDBOperations operations, Object[] values, boolean pageQuery) {\n");
+		String unsorted = "(operations, values, Optional.empty(), Optional.empty(), Sort.unsorted())";
+		switch (plan) {
+			case LOAD :
+				appendStatements(source, conversions);
+				source.append("\t\t\treturn new ")
+						.append(isRangeKeyAware()
+								? "CountByHashAndRangeKeyQuery<>(operations, " + entityName
+										+ ".class, hashKey, rangeKey);\n"
+								: "CountByHashKeyQuery<>(operations, " + entityName + ".class, hashKey);\n");
+				break;
+			case QUERY :
+				source.append("\t\t\treturn new QueryExpressionCountQuery<>(operations, ").append(entityName)
+						.append(".class, queryExpression").append(unsorted).append(");\n");
+				break;
+			case INDEX_QUERY :
+				source.append("\t\t\tQueryRequest queryRequest = queryRequest").append(unsorted).append(";\n");
+				if (!isRangeKeyAware()) {
+					source.append("\t\t\tqueryRequest.setSelect(Select.COUNT);\n");
+				}
+				source.append("\t\t\treturn new QueryRequestCountQuery(operations, queryRequest);\n");
+				break;
+			default :
+				source.append("\t\t\treturn new ScanExpressionCountQuery<>(operations, ").append(entityName)
+						.append(".class,\n\t\t\t\t\tscanExpression(operations, values, Optional.empty(), ")
+						.append("Optional.empty()), pageQuery);\n");
+		}
+		source.append("\t\t}\n");
+
+		switch (plan) {
+			case QUERY :
+				appendQueryExpression(source, entityName, conversions);
+				break;
+			case INDEX_QUERY :
+				appendQueryRequest(source, entityName, conversions);
+				break;
+			case SCAN :
+				appendScanExpression(source, entityName, conversions);
+				break;
+			default :
+		}
+		source.append("\t}\n");
+		return source.toString();
+	}
+
+	private void appendQueryExpression(StringBuilder source, String entityName, Map<String, String> conversions) {
+		source.append("\n\t\tprivate DynamoDBQueryExpression<").append(entityName)
+				.append("> queryExpression(DynamoDBOperations operations, Object[] values,\n\t\t\t\tOptional<String> projection, Optional<Integer> limit, Sort sort) {\n");
+		appendStatements(source, conversions);
+		source.append("\t\t\t").append(entityName).append(" prototype = new ").append(entityName).append("();\n");
+		source.append("\t\t\t").append(hashKeySetter()).append("\n");
+		source.append("\t\t\tDynamoDBQueryExpression<").append(entityName)
+				.append("> queryExpression = new DynamoDBQueryExpression<>();\n");
+		source.append("\t\t\tqueryExpression.withHashKeyValues(prototype);\n");
+		source.append("\t\t\tqueryExpression.withRangeKeyConditions(new HashMap<String, Condition>());\n");
+		attributeConditions.forEach((attributeName, conditions) -> conditions
+				.forEach(condition -> source.append("\t\t\tqueryExpression.withRangeKeyCondition(")
+						.append(EntityModel.literal(attributeName)).append(", ").append(condition.variable)
+						.append(");\n")));
+		source.append("\t\t\tapplySort(queryExpression, sort").append(literals(sortProperties, true)).append(");\n");
+		if (indexName != null) {
+			source.append("\t\t\tqueryExpression.setIndexName(").append(EntityModel.literal(indexName))
+					.append(");\n");
+		}
+		source.append("\t\t\tif (projection.isPresent()) {\n");
+		source.append("\t\t\t\tqueryExpression.setSelect(Select.SPECIFIC_ATTRIBUTES);\n");
+		source.append("\t\t\t\tqueryExpression.setProjectionExpression(projection.get());\n");
+		source.append("\t\t\t}\n");
+		source.append("\t\t\tlimit.ifPresent(queryExpression::setLimit);\n");
+		source.append("\t\t\treturn queryExpression;\n");
+		source.append("\t\t}\n");
+	}
+
+	private void appendQueryRequest(StringBuilder source, String entityName, Map<String, String> conversions) {
+		source.append(
+				"\n\t\tprivate QueryRequest queryRequest(DynamoDBOperations operations, Object[] values, Optional<String> projection,\n\t\t\t\tOptional<Integer> limit, Sort sort) {\n");
+		appendStatements(source, conversions);
+		source.append("\t\t\tQueryRequest queryRequest = new QueryRequest();\n");
+		source.append("\t\t\tqueryRequest.setTableName(operations.getOverriddenTableName(").append(entityName)
+				.append(".class, ").append(EntityModel.literal(entity.getTableName())).append("));\n");
+		source.append("\t\t\tqueryRequest.setIndexName(").append(EntityModel.literal(indexName)).append(");\n");
+		source.append("\t\t\tMap<String, Condition> keyConditions = new HashMap<>();\n");
+		for (String condition : getHashKeyConditions()) {
+			source.append("\t\t\tkeyConditions.put(")
+					.append(EntityModel.literal(entity.getAttributeName(entity.getHashKeyPropertyName())))
+					.append(", ").append(condition).append(");\n");
+		}
+		for (String condition : getRangeKeyConditions()) {
+			source.append("\t\t\tkeyConditions.put(")
+					.append(EntityModel.literal(entity.getAttributeName(entity.getRangeKeyPropertyName())))
+					.append(", ").append(condition).append(");\n");
+		}
+		attributeConditions.forEach((attributeName, conditions) -> conditions
+				.forEach(condition -> source.append("\t\t\tkeyConditions.put(")
+						.append(EntityModel.literal(attributeName)).append(", ").append(condition.variable)
+						.append(");\n")));
+		source.append("\t\t\tqueryRequest.setKeyConditions(keyConditions);\n");
+		source.append("\t\t\tif (projection.isPresent()) {\n");
+		source.append("\t\t\t\tqueryRequest.setSelect(Select.SPECIFIC_ATTRIBUTES);\n");
+		source.append("\t\t\t\tqueryRequest.setProjectionExpression(projection.get());\n");
+		source.append("\t\t\t} else {\n");
+		source.append("\t\t\t\tqueryRequest.setSelect(Select.ALL_PROJECTED_ATTRIBUTES);\n");
+		source.append("\t\t\t}\n");
+		source.append("\t\t\tlimit.ifPresent(queryRequest::setLimit);\n");
+		source.append("\t\t\tapplySort(queryRequest, sort, ").append(hasIndexHashKeyEqualCondition)
+				.append(", Arrays.asList(")
+				.append(literals(new ArrayList<>(entity.getGlobalIndexRangeKeyPropertyNames()), false)).append(")")
+				.append(literals(sortProperties, true)).append(");\n");
+		source.append("\t\t\treturn queryRequest;\n");
+		source.append("\t\t}\n");
+	}
+
+	private void appendScanExpression(StringBuilder source, String entityName, Map<String, String> conversions) {
+		source.append(
+				"\n\t\tprivate DynamoDBScanExpression scanExpression(DynamoDBOperations operations, Object[] values,\n\t\t\t\tOptional<String> projection, Optional<Integer> limit) {\n");
+		appendStatements(source, conversions);
+		source.append("\t\t\tDynamoDBScanExpression scanExpression = new DynamoDBScanExpression();\n");
+		if (hashKeyPart != null) {
+			source.append("\t\t\tscanExpression.addFilterCondition(")
+					.append(EntityModel.literal(entity.getAttributeName(entity.getHashKeyPropertyName())))
+					.append(", keyCondition(ComparisonOperator.EQ, hashKeyValue));\n");
+		}
+		if (rangeKeyPart != null) {
+			source.append("\t\t\tscanExpression.addFilterCondition(")
+					.append(EntityModel.literal(entity.getAttributeName(entity.getRangeKeyPropertyName())))
+					.append(", keyCondition(ComparisonOperator.EQ, rangeKeyValue));\n");
+		}
+		attributeConditions.forEach((attributeName, conditions) -> conditions
+				.forEach(condition -> source.append("\t\t\tscanExpression.addFilterCondition(")
+						.append(EntityModel.literal(attributeName)).append(", ").append(condition.variable)
+						.append(");\n")));
+		if (!isRangeKeyAware()) {
+			// DynamoDBEntityWithHashAndRangeKeyCriteria#buildScanExpression ignores both
+			source.append("\t\t\tif (projection.isPresent()) {\n");
+			source.append("\t\t\t\tscanExpression.setSelect(Select.SPECIFIC_ATTRIBUTES);\n");
+			source.append("\t\t\t\tscanExpression.setProjectionExpression(projection.get());\n");
+			source.append("\t\t\t}\n");
+			source.append("\t\t\tlimit.ifPresent(scanExpression::setLimit);\n");
+		}
+		source.append("\t\t\treturn scanExpression;\n");
+		source.append("\t\t}\n");
+	}
+
+	/**
+	 * Appends the checks and conversions of the arguments in the order of the
+	 * parts - as the criteria do
+	 */
+	private void appendStatements(StringBuilder source, Map<String, String> conversions) {
+		boolean convertKeys = plan == Plan.SCAN || plan == Plan.INDEX_QUERY;
+		for (PartModel part : parts) {
+			if (part == hashKeyPart || part == rangeKeyPart) {
+				String key = part == hashKeyPart ? "hashKey" : "rangeKey";
+				String value = part.keyword == Keyword.SIMPLE_PROPERTY
+						? "values[" + part.parameterIndexes.get(0) + "]"
+						: "Boolean." + part.keyword;
+				source.append("\t\t\tObject ").append(key).append(" = notNull(").append(value).append(", ")
+						.append(EntityModel.literal("Creating conditions on null " + (part == hashKeyPart
+								? "hash"
+								: "range") + " keys not supported: please specify a value for '"
+								+ part.propertyName + "'"))
+						.append(");\n");
+				if (convertKeys) {
+					source.append("\t\t\tObject ").append(key).append("Value = ")
+							.append(conversion(part.propertyName, key, conversions)).append(";\n");
+				}
+				continue;
+			}
+
+			ConditionModel condition = conditionsByPart.get(part);
+			String operator = "ComparisonOperator." + condition.operator;
+			String type = conversions.containsKey(part.propertyName)
+					? "String.class"
+					: boxedTypeName(entity.getPropertyType(part.propertyName)) + ".class";
+			source.append("\t\t\tCondition ").append(condition.variable).append(" = ");
+			switch (part.keyword) {
+				case IS_NULL :
+				case IS_NOT_NULL :
+					source.append("noValueCondition(").append(operator).append(")");
+					break;
+				case IN :
+				case BETWEEN :
+					String collection = part.keyword == Keyword.IN
+							? "iterable(values[" + part.parameterIndexes.get(0) + "], "
+									+ EntityModel.literal(part.propertyName) + ")"
+							: "Arrays.asList(values[" + part.parameterIndexes.get(0) + "], values["
+									+ part.parameterIndexes.get(1) + "])";
+					source.append("collectionCondition(").append(operator).append(", ").append(collection)
+							.append(",\n\t\t\t\t\tvalue -> ").append(conversion(part.propertyName, "value", conversions))
+							.append(", ").append(type).append(")");
+					break;
+				default :
+					String value = part.keyword == Keyword.TRUE || part.keyword == Keyword.FALSE
+							? "Boolean." + part.keyword
+							: "values[" + part.parameterIndexes.get(0) + "]";
+					source.append("condition(").append(operator).append(",\n\t\t\t\t\t")
+							.append(conversion(part.propertyName, "notNull(" + value + ", " + EntityModel.literal(
+									"Creating conditions on null property values not supported: please specify a value for '"
+											+ part.propertyName + "'")
+									+ ")", conversions))
+							.append(", ").append(type).append(")");
+			}
+			source.append(";\n");
+		}
+	}
+
+	/** Same as AbstractDynamoDBQueryCriteria#getPropertyAttributeValue */
+	private String conversion(String propertyName, String value, Map<String, String> conversions) {
+		String field = conversions.get(propertyName);
+		if (field == null) {
+			return "attributeValue(operations, " + EntityModel.literal(entity.getAttributeName(propertyName)) + ", "
+					+ value + ")";
+		} else if (entity.getTypeConverter(propertyName) != null) {
+			return field + ".convert(" + value + ")";
+		} else {
+			return field + ".marshall(" + value + ")";
+		}
+	}
+
+	/**
+	 * @return The fields of the converters and marshallers of the properties the
+	 *         method converts by property name
+	 */
+	private Map<String, String> conversionFields() {
+		Map<String, String> fields = new LinkedHashMap<>();
+		for (PartModel part : parts) {
+			if (part.keyword.numberOfArguments == 0 && part.keyword != Keyword.TRUE
+					&& part.keyword != Keyword.FALSE) {
+				continue;
+			}
+			String propertyName = part.propertyName;
+			if (entity.getTypeConverter(propertyName) != null || entity.getMarshaller(propertyName) != null) {
+				fields.putIfAbsent(propertyName, propertyName + (entity.getTypeConverter(propertyName) != null
+						? "Converter"
+						: "Marshaller"));
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * Checks that the converters and marshallers can be instantiated from the
+	 * repository's package
+	 */
+	void checkConversions() throws NotGeneratedException {
+		for (String propertyName : conversionFields().keySet()) {
+			String className = entity.getTypeConverter(propertyName) != null
+					? entity.getTypeConverter(propertyName)
+					: entity.getMarshaller(propertyName);
+			if (!canInstantiate(className)) {
+				throw notGenerated(className + " can't be instantiated from the repository's package");
+			}
+		}
+	}
+
+	private String sortLiteral() {
+		if (orderBy.isEmpty()) {
+			return "Sort.unsorted()";
+		}
+		StringBuilder sort = new StringBuilder("Sort.by(");
+		orderBy.forEach((propertyName, ascending) -> sort.append(sort.length() > 8 ? ", " : "")
+				.append(ascending ? "Order.asc(" : "Order.desc(").append(EntityModel.literal(propertyName))
+				.append(")"));
+		return sort.append(")").toString();
+	}
+
+	private static String literals(List<String> values, boolean leadingSeparator) {
+		StringBuilder literals = new StringBuilder();
+		for (String value : values) {
+			if (leadingSeparator || literals.length() > 0) {
+				literals.append(", ");
+			}
+			literals.append(EntityModel.literal(value));
+		}
+		return literals.toString();
+	}
+
+	private String typeName(TypeMirror type) {
+		return type.getKind().isPrimitive() ? type.toString() : types.erasure(type).toString();
+	}
+
+	private String boxedTypeName(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+		}
+		return type.getKind() == TypeKind.ARRAY ? types.erasure(type).toString() : typeName(type);
+	}
+
+	private TypeMirror declaredType(String className) {
+		TypeElement type = elements.getTypeElement(className);
+		return type == null ? null : types.erasure(type.asType());
+	}
+
+	private NotGeneratedException error(String message) {
+		return new NotGeneratedException(Diagnostic.Kind.ERROR,
+				"Invalid query method " + method.getSimpleName() + ": " + message);
+	}
+
+	private NotGeneratedException notGenerated(String reason) {
+		return new NotGeneratedException(Diagnostic.Kind.NOTE,
+				"The query of " + method.getSimpleName() + " is derived at runtime as " + reason);
+	}
+
+	private static String[] split(String text, String keyword) {
+		return Pattern.compile(String.format(KEYWORD_TEMPLATE, keyword)).split(text);
+	}
+
+	private static String uncapitalize(String value) {
+		return value.isEmpty() ? value : Character.toLowerCase(value.charAt(0)) + value.substring(1);
+	}
+
+	/** Same as java.beans.Introspector#decapitalize */
+	private static String decapitalize(String value) {
+		if (value.length() > 1 && Character.isUpperCase(value.charAt(1)) && Character.isUpperCase(value.charAt(0))) {
+			return value;
+		}
+		return uncapitalize(value);
+	}
+}
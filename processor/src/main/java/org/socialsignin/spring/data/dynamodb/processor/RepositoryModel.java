@@ -0,0 +1,112 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The query methods of a repository interface generated at build time.
+ *
+ * @author Sebastian Just
+ */
+class RepositoryModel {
+
+	private final TypeElement repository;
+	private final String packageName;
+	private final String queriesSimpleName;
+	private final List<QueryMethodModel> queryMethods = new ArrayList<>();
+
+	RepositoryModel(TypeElement repository, Elements elements) {
+		this.repository = repository;
+		this.packageName = elements.getPackageOf(repository).getQualifiedName().toString();
+		String binaryName = elements.getBinaryName(repository).toString();
+		this.queriesSimpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+				.replace('$', '_') + "_DynamoDBQueries";
+	}
+
+	void add(QueryMethodModel queryMethod) {
+		queryMethods.add(queryMethod);
+	}
+
+	boolean isEmpty() {
+		return queryMethods.isEmpty();
+	}
+
+	String getQueriesBinaryName() {
+		return packageName.isEmpty() ? queriesSimpleName : packageName + "." + queriesSimpleName;
+	}
+
+	String toSource() {
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		for (String imported : new String[]{"com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMarshaller",
+				"com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression",
+				"com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression",
+				"com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter",
+				"com.amazonaws.services.dynamodbv2.model.ComparisonOperator",
+				"com.amazonaws.services.dynamodbv2.model.Condition",
+				"com.amazonaws.services.dynamodbv2.model.QueryRequest",
+				"com.amazonaws.services.dynamodbv2.model.Select",
+				"org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations",
+				"org.socialsignin.spring.data.dynamodb.query.CountByHashAndRangeKeyQuery",
+				"org.socialsignin.spring.data.dynamodb.query.CountByHashKeyQuery",
+				"org.socialsignin.spring.data.dynamodb.query.MultipleEntityQueryExpressionQuery",
+				"org.socialsignin.spring.data.dynamodb.query.MultipleEntityQueryRequestQuery",
+				"org.socialsignin.spring.data.dynamodb.query.Query",
+				"org.socialsignin.spring.data.dynamodb.query.QueryExpressionCountQuery",
+				"org.socialsignin.spring.data.dynamodb.query.QueryRequestCountQuery",
+				"org.socialsignin.spring.data.dynamodb.query.ScanExpressionCountQuery",
+				"org.socialsignin.spring.data.dynamodb.query.SingleEntityLoadByHashAndRangeKeyQuery",
+				"org.socialsignin.spring.data.dynamodb.query.SingleEntityLoadByHashKeyQuery",
+				"org.socialsignin.spring.data.dynamodb.repository.query.GeneratedDynamoDBQueries",
+				"org.socialsignin.spring.data.dynamodb.repository.query.GeneratedQueryMethod",
+				"org.springframework.data.domain.Sort", "org.springframework.data.domain.Sort.Order", "java.util.Arrays",
+				"java.util.HashMap", "java.util.Map", "java.util.Optional"}) {
+			source.append("import ").append(imported).append(";\n");
+		}
+		source.append("\n/**\n * Query methods of {@link ").append(repository.getQualifiedName())
+				.append("} derived at build time\n */\n");
+		source.append("@SuppressWarnings({\"deprecation\", \"unused\"})\n");
+		source.append("public final class ").append(queriesSimpleName).append(" extends GeneratedDynamoDBQueries {\n\n");
+		source.append("\tpublic ").append(queriesSimpleName).append("() {\n");
+		source.append("\t\tsuper(").append(repository.getQualifiedName()).append(".class);\n");
+		for (int i = 0; i < queryMethods.size(); i++) {
+			QueryMethodModel queryMethod = queryMethods.get(i);
+			source.append("\t\tadd(new ").append(className(i)).append("(), ")
+					.append(EntityModel.literal(queryMethod.getMethod().getSimpleName().toString()));
+			for (String parameterType : queryMethod.getParameterTypeLiterals()) {
+				source.append(", ").append(parameterType);
+			}
+			source.append(");\n");
+		}
+		source.append("\t}\n");
+		for (int i = 0; i < queryMethods.size(); i++) {
+			source.append('\n').append(queryMethods.get(i).toSource(className(i)));
+		}
+		source.append("}\n");
+		return source.toString();
+	}
+
+	private String className(int i) {
+		String methodName = queryMethods.get(i).getMethod().getSimpleName().toString();
+		return Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + i;
+	}
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBEntityIndex;
+import org.socialsignin.spring.data.dynamodb.mapping.GeneratedDynamoDBEntityMetadata;
+import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityMetadataSupport;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DynamoDBEntityProcessorTest {
+
+	private static final String CUSTOMER = "package demo;\n" //
+			+ "import com.amazonaws.services.dynamodbv2.datamodeling.*;\n" //
+			+ "import java.time.Instant;\n" //
+			+ "@DynamoDBTable(tableName = \"customer\")\n" //
+			+ "public class Customer extends Tenanted {\n" //
+			+ "  private String id;\n" //
+			+ "  @DynamoDBAttribute(attributeName = \"Mail\")\n" //
+			+ "  private String email;\n" //
+			+ "  private String city;\n" //
+			+ "  private Instant created;\n" //
+			+ "  @DynamoDBHashKey(attributeName = \"Id\") public String getId() { return id; }\n" //
+			+ "  public void setId(String id) { this.id = id; }\n" //
+			+ "  @DynamoDBIndexRangeKey(localSecondaryIndexName = \"email-index\")\n" //
+			+ "  public String getEmail() { return email; }\n" //
+			+ "  @DynamoDBIndexHashKey(globalSecondaryIndexNames = {\"city-index\", \"city-created-index\"}, attributeName = \"City\")\n" //
+			+ "  public String getCity() { return city; }\n" //
+			+ "  @DynamoDBIndexRangeKey(globalSecondaryIndexName = \"city-created-index\")\n" //
+			+ "  @DynamoDBTypeConverted(converter = InstantConverter.class)\n" //
+			+ "  public Instant getCreated() { return created; }\n" //
+			+ "  public static class InstantConverter implements DynamoDBTypeConverter<String, Instant> {\n" //
+			+ "    public String convert(Instant instant) { return instant.toString(); }\n" //
+			+ "    public Instant unconvert(String instant) { return Instant.parse(instant); }\n" //
+			+ "  }\n" //
+			+ "  @DynamoDBTable(tableName = \"address\")\n" //
+			+ "  public static class Address {\n" //
+			+ "    @DynamoDBHashKey private String street;\n" //
+			+ "  }\n" //
+			+ "}\n";
+
+	private static final String TENANTED = "package demo;\n" //
+			+ "import com.amazonaws.services.dynamodbv2.datamodeling.*;\n" //
+			+ "public abstract class Tenanted {\n" //
+			+ "  @DynamoDBRangeKey private String tenant;\n" //
+			+ "}\n";
+
+	private static final String WITHOUT_KEY = "package demo.other;\n" //
+			+ "import com.amazonaws.services.dynamodbv2.datamodeling.*;\n" //
+			+ "@DynamoDBTable(tableName = \"audit\")\n" //
+			+ "public class Audit {\n" //
+			+ "}\n";
+
+	private Path output;
+
+	@Before
+	public void setUp() throws IOException {
+		output = Files.createTempDirectory("processor");
+		DynamoDBEntityIndex.clearCache();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(output)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Test
+	public void testIndexesEntities() throws IOException {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.Tenanted", TENANTED), source("demo.other.Audit", WITHOUT_KEY));
+
+		assertEquals(Arrays.asList("demo.Customer$Address=demo.Customer_Address_DynamoDBMetadata",
+				"demo.Customer=demo.Customer_DynamoDBMetadata", "demo.other.Audit="),
+				Files.readAllLines(output.resolve(DynamoDBEntityProcessor.INDEX_LOCATION)));
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.WARNING,
+				"Unable to find hash key field or getter method on demo.other.Audit"));
+	}
+
+	@Test
+	public void testGeneratesMetadata() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.Tenanted", TENANTED));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			Class<?> customer = classLoader.loadClass("demo.Customer");
+			GeneratedDynamoDBEntityMetadata<?> metadata = DynamoDBEntityIndex.forClassLoader(classLoader)
+					.getMetadata(customer);
+
+			assertNotNull(metadata);
+			assertEquals("customer", metadata.getTableName());
+			assertEquals("id", metadata.getHashKeyPropertyName());
+			assertEquals("tenant", metadata.getRangeKeyPropertyName());
+			assertArrayEquals(new String[]{"city-index", "city-created-index"},
+					metadata.getGlobalSecondaryIndexNamesByPropertyName().get("city"));
+			assertArrayEquals(new String[]{"city-created-index"},
+					metadata.getGlobalSecondaryIndexNamesByPropertyName().get("created"));
+			assertEquals(Collections.singleton("city"), metadata.getGlobalIndexHashKeyPropertyNames());
+			assertEquals(Collections.singleton("created"), metadata.getGlobalIndexRangeKeyPropertyNames());
+			assertArrayEquals(new String[]{"email-index"},
+					metadata.getLocalSecondaryIndexNamesByPropertyName().get("email"));
+			assertEquals("Id", metadata.getOverriddenAttributeName("id").get());
+			assertEquals("Mail", metadata.getOverriddenAttributeName("email").get());
+			assertEquals("City", metadata.getOverriddenAttributeName("city").get());
+			assertFalse(metadata.getOverriddenAttributeName("created").isPresent());
+			assertEquals("demo.Customer$InstantConverter", metadata.getTypeConverterClass("created").getName());
+			assertNull(metadata.getMarshallerClass("created"));
+		}
+	}
+
+	@Test
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void testRuntimeUsesGeneratedMetadata() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.Tenanted", TENANTED));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			assertTrue(DynamoDBEntityIndex.forClassLoader(classLoader).getEntityNames("demo").contains("demo.Customer"));
+
+			DynamoDBEntityMetadataSupport support = new DynamoDBEntityMetadataSupport(
+					classLoader.loadClass("demo.Customer"));
+			assertEquals("customer", support.getDynamoDBTableName());
+			assertEquals("City", support.getOverriddenAttributeName("city").get());
+			assertEquals("demo.Customer$InstantConverter",
+					support.getTypeConverterForProperty("created").getClass().getName());
+			assertTrue(support.isGlobalIndexHashKeyProperty("city"));
+		}
+	}
+
+	@Test
+	public void testGeneratesNativeImageConfig() throws IOException {
+		compile(source("demo.Customer", CUSTOMER), source("demo.Tenanted", TENANTED));
+
+		String reflectConfig = new String(
+				Files.readAllBytes(output.resolve(NativeImageConfig.LOCATION + "entities/reflect-config.json")),
+				StandardCharsets.UTF_8);
+		assertTrue(reflectConfig.contains("\"name\": \"demo.Customer\",\n    \"allDeclaredConstructors\": true,\n"
+				+ "    \"allDeclaredMethods\": true,\n    \"allPublicMethods\": true,\n    \"allDeclaredFields\": true\n"));
+		assertTrue(reflectConfig.contains("\"name\": \"demo.Tenanted\","));
+		assertTrue(reflectConfig.contains("\"name\": \"demo.Customer$InstantConverter\",\n    \"allDeclaredConstructors\": true\n"));
+		assertTrue(reflectConfig.contains("\"name\": \"demo.Customer_DynamoDBMetadata\",\n    \"allDeclaredConstructors\": true\n"));
+	}
+
+	@Test
+	public void testReportsKeyOnNonAccessorMethod() throws IOException {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Broken",
+				"package demo;\n" //
+						+ "import com.amazonaws.services.dynamodbv2.datamodeling.*;\n" //
+						+ "@DynamoDBTable(tableName = \"broken\")\n" //
+						+ "public class Broken {\n" //
+						+ "  @DynamoDBHashKey public String id() { return null; }\n" //
+						+ "}\n"));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.ERROR,
+				"Hash or range key annotated accessor methods must start with 'get' or 'is'"));
+	}
+
+	private DiagnosticCollector<JavaFileObject> compile(JavaFileObject... sources) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<String> options = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+				"-d", output.toString(), "-s", output.toString()));
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+				Arrays.asList(sources));
+		task.setProcessors(Collections.singletonList(new DynamoDBEntityProcessor()));
+		task.call();
+		return diagnostics;
+	}
+
+	private URLClassLoader classLoader() throws IOException {
+		return new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+	}
+
+	private static boolean hasMessage(DiagnosticCollector<JavaFileObject> diagnostics, Diagnostic.Kind kind,
+			String message) {
+		return diagnostics.getDiagnostics().stream()
+				.anyMatch(d -> d.getKind() == kind && d.getMessage(null).startsWith(message));
+	}
+
+	private static JavaFileObject source(String className, String content) {
+		return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+				JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return new String(content.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+			}
+		};
+	}
+}
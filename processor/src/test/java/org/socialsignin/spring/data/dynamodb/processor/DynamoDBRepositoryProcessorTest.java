@@ -0,0 +1,449 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBEntityIndex;
+import org.socialsignin.spring.data.dynamodb.query.Query;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
+import org.socialsignin.spring.data.dynamodb.query.SortedScanExpressionQuery;
+import org.socialsignin.spring.data.dynamodb.repository.query.GeneratedDynamoDBQueries;
+import org.socialsignin.spring.data.dynamodb.repository.query.GeneratedQueryMethod;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DynamoDBRepositoryProcessorTest {
+
+	private static final String CUSTOMER = "package demo;\n" //
+			+ "import com.amazonaws.services.dynamodbv2.datamodeling.*;\n" //
+			+ "import java.time.Instant;\n" //
+			+ "@DynamoDBTable(tableName = \"customer\")\n" //
+			+ "public class Customer {\n" //
+			+ "  private String id;\n" //
+			+ "  private String tenant;\n" //
+			+ "  private String city;\n" //
+			+ "  private Instant created;\n" //
+			+ "  private int age;\n" //
+			+ "  @DynamoDBHashKey(attributeName = \"Id\") public String getId() { return id; }\n" //
+			+ "  public void setId(String id) { this.id = id; }\n" //
+			+ "  @DynamoDBRangeKey public String getTenant() { return tenant; }\n" //
+			+ "  public void setTenant(String tenant) { this.tenant = tenant; }\n" //
+			+ "  @DynamoDBIndexHashKey(globalSecondaryIndexNames = {\"city-index\", \"city-created-index\"}, attributeName = \"City\")\n" //
+			+ "  public String getCity() { return city; }\n" //
+			+ "  @DynamoDBIndexRangeKey(globalSecondaryIndexName = \"city-created-index\")\n" //
+			+ "  @DynamoDBTypeConverted(converter = InstantConverter.class)\n" //
+			+ "  public Instant getCreated() { return created; }\n" //
+			+ "  public int getAge() { return age; }\n" //
+			+ "  public static class InstantConverter implements DynamoDBTypeConverter<String, Instant> {\n" //
+			+ "    public String convert(Instant instant) { return instant.toString(); }\n" //
+			+ "    public Instant unconvert(String instant) { return Instant.parse(instant); }\n" //
+			+ "  }\n" //
+			+ "}\n";
+
+	private static final String CUSTOMER_REPOSITORY = "package demo;\n" //
+			+ "import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;\n" //
+			+ "import org.socialsignin.spring.data.dynamodb.repository.*;\n" //
+			+ "import org.springframework.data.domain.*;\n" //
+			+ "import org.springframework.data.repository.CrudRepository;\n" //
+			+ "import java.time.Instant;\n" //
+			+ "import java.util.List;\n" //
+			+ "public interface CustomerRepository extends CrudRepository<Customer, String> {\n" //
+			+ "  Customer findByIdAndTenant(String id, String tenant);\n" //
+			+ "  List<Customer> findByIdOrderByTenantDesc(String id);\n" //
+			+ "  @ReadOptions(consistentReads = ConsistentReads.EVENTUAL)\n" //
+			+ "  List<Customer> findByCityAndCreatedAfter(String city, Instant created, Pageable pageable);\n" //
+			+ "  @EnableScan List<Customer> findByAgeBetween(int from, int to);\n" //
+			+ "  List<Customer> findByAge(int age);\n" //
+			+ "  List<Customer> findByCityAllIgnoreCase(String city);\n" //
+			+ "  List<Customer> findByIdAndAge(String id, int age);\n" //
+			+ "  List<Customer> findByCity(String city);\n" //
+			+ "  List<Customer> findByCityOrAge(String city, int age);\n" //
+			+ "  List<Customer> findByIdIn(List<String> ids);\n" //
+			+ "  @EnableScan List<Customer> findByAgeOrderByCityAsc(int age);\n" //
+			+ "}\n";
+
+	private static final String INVALID_REPOSITORY = "package demo;\n" //
+			+ "import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;\n" //
+			+ "import org.socialsignin.spring.data.dynamodb.repository.ReadOptions;\n" //
+			+ "import org.springframework.data.repository.Repository;\n" //
+			+ "import java.time.Instant;\n" //
+			+ "import java.util.List;\n" //
+			+ "@ReadOptions(consistentReads = ConsistentReads.CONSISTENT)\n" //
+			+ "public interface InvalidRepository extends Repository<Customer, String> {\n" //
+			+ "  List<Customer> findByCityOrNickname(String city, String nickname);\n" //
+			+ "  List<Customer> findByName(String name);\n" //
+			+ "  List<Customer> findByCityAndCreatedAfter(String city, Instant created);\n" //
+			+ "  @ReadOptions(pageSize = 0) List<Customer> findByIdOrderByTenantDesc(String id);\n" //
+			+ "}\n";
+
+	private Path output;
+
+	@Before
+	public void setUp() throws IOException {
+		output = Files.createTempDirectory("processor");
+		DynamoDBEntityIndex.clearCache();
+		GeneratedDynamoDBQueries.clearCache();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(output)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Test
+	public void testIndexesRepositories() throws IOException {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertEquals(Collections.singletonList("demo.CustomerRepository=demo.CustomerRepository_DynamoDBQueries"),
+				Files.readAllLines(output.resolve(DynamoDBRepositoryProcessor.INDEX_LOCATION)));
+	}
+
+	@Test
+	public void testGeneratesNativeImageConfig() throws IOException {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertEquals(Arrays.asList("[", "  [\"demo.CustomerRepository\", \"org.springframework.data.repository.Repository\", "
+				+ "\"org.springframework.transaction.interceptor.TransactionalProxy\", "
+				+ "\"org.springframework.aop.SpringProxy\", \"org.springframework.aop.framework.Advised\", "
+				+ "\"org.springframework.core.DecoratingProxy\"]", "]"),
+				Files.readAllLines(output.resolve(NativeImageConfig.LOCATION + "repositories/proxy-config.json")));
+		String reflectConfig = new String(
+				Files.readAllBytes(output.resolve(NativeImageConfig.LOCATION + "repositories/reflect-config.json")),
+				StandardCharsets.UTF_8);
+		assertTrue(reflectConfig.contains("\"name\": \"demo.CustomerRepository\",\n    \"allPublicMethods\": true\n"));
+		assertTrue(reflectConfig.contains(
+				"\"name\": \"demo.CustomerRepository_DynamoDBQueries\",\n    \"allDeclaredConstructors\": true\n"));
+	}
+
+	@Test
+	public void testReportsInvalidQueryMethods() throws IOException {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.InvalidRepository", INVALID_REPOSITORY));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.ERROR,
+				"Invalid query method findByCityOrNickname: No property nickname found for type Customer!"));
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.ERROR,
+				"Invalid query method findByName: No property name found for type Customer!"));
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.ERROR, "Invalid query method findByCityAndCreatedAfter: "
+				+ "Consistent reads are not supported by the global secondary index city-created-index"));
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.ERROR,
+				"Invalid query method findByIdOrderByTenantDesc: pageSize must be positive!"));
+	}
+
+	@Test
+	public void testReportsScans() throws IOException {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.WARNING,
+				"findByAge scans the table customer for age EQ but scanning is not enabled"));
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.NOTE,
+				"findByAgeBetween scans the table customer for age BETWEEN"));
+	}
+
+	@Test
+	public void testGeneratesLoad() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			GeneratedQueryMethod<?> queryMethod = queryMethod(classLoader, "findByIdAndTenant", String.class,
+					String.class);
+			DynamoDBOperations operations = mock(DynamoDBOperations.class);
+
+			queryMethod.createQuery(operations, new Object[]{"1", "acme"}, Optional.empty(), Optional.empty())
+					.getSingleResult();
+
+			verify(operations).load(classLoader.loadClass("demo.Customer"), "1", "acme");
+		}
+	}
+
+	@Test
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void testGeneratesQueryExpression() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			GeneratedQueryMethod<?> queryMethod = queryMethod(classLoader, "findByIdOrderByTenantDesc",
+					String.class);
+			DynamoDBOperations operations = mock(DynamoDBOperations.class);
+
+			queryMethod.createQuery(operations, new Object[]{"1"}, Optional.empty(), Optional.of(10))
+					.getResultList();
+
+			ArgumentCaptor<DynamoDBQueryExpression> queryExpression = ArgumentCaptor
+					.forClass(DynamoDBQueryExpression.class);
+			verify(operations).query(eq((Class) classLoader.loadClass("demo.Customer")), queryExpression.capture());
+			assertEquals(Integer.valueOf(10), queryExpression.getValue().getLimit());
+			assertFalse(queryExpression.getValue().isScanIndexForward());
+			assertTrue(queryExpression.getValue().getRangeKeyConditions().isEmpty());
+		}
+	}
+
+	@Test
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void testGeneratesIndexQueryRequest() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			GeneratedQueryMethod<?> queryMethod = queryMethod(classLoader, "findByCityAndCreatedAfter", String.class,
+					Instant.class, Pageable.class);
+			DynamoDBOperations operations = mock(DynamoDBOperations.class);
+			when(operations.getOverriddenTableName(any(), eq("customer"))).thenReturn("prod-customer");
+
+			Instant created = Instant.parse("2018-01-01T00:00:00Z");
+			queryMethod.createQuery(operations,
+					new Object[]{"Berlin", created, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"))},
+					Optional.empty(), Optional.empty()).getResultList();
+
+			ArgumentCaptor<QueryRequest> queryRequest = ArgumentCaptor.forClass(QueryRequest.class);
+			verify(operations).query(eq((Class) classLoader.loadClass("demo.Customer")), queryRequest.capture());
+			assertEquals("prod-customer", queryRequest.getValue().getTableName());
+			assertEquals("city-created-index", queryRequest.getValue().getIndexName());
+			assertEquals(Select.ALL_PROJECTED_ATTRIBUTES.toString(), queryRequest.getValue().getSelect());
+			assertFalse(queryRequest.getValue().getScanIndexForward());
+
+			Map<String, Condition> keyConditions = queryRequest.getValue().getKeyConditions();
+			assertEquals(new Condition().withComparisonOperator(ComparisonOperator.EQ)
+					.withAttributeValueList(new AttributeValue().withS("Berlin")), keyConditions.get("City"));
+			assertEquals(new Condition().withComparisonOperator(ComparisonOperator.GT)
+					.withAttributeValueList(new AttributeValue().withS(created.toString())),
+					keyConditions.get("created"));
+		}
+	}
+
+	@Test
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void testGeneratesScanExpression() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			GeneratedQueryMethod<?> queryMethod = queryMethod(classLoader, "findByAgeBetween", int.class, int.class);
+			DynamoDBOperations operations = mock(DynamoDBOperations.class);
+
+			Query<?> query = queryMethod.createQuery(operations, new Object[]{18, 65}, Optional.empty(),
+					Optional.empty());
+			query.setScanEnabled(true);
+			query.getResultList();
+
+			ArgumentCaptor<DynamoDBScanExpression> scanExpression = ArgumentCaptor
+					.forClass(DynamoDBScanExpression.class);
+			verify(operations).scan(eq((Class) classLoader.loadClass("demo.Customer")), scanExpression.capture());
+			assertEquals(
+					new Condition().withComparisonOperator(ComparisonOperator.BETWEEN).withAttributeValueList(
+							new AttributeValue().withN("18"), new AttributeValue().withN("65")),
+					scanExpression.getValue().getScanFilter().get("age"));
+		}
+	}
+
+	@Test
+	public void testGeneratesSortedScan() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			GeneratedQueryMethod<?> queryMethod = queryMethod(classLoader, "findByAgeOrderByCityAsc", int.class);
+			DynamoDBOperations operations = mock(DynamoDBOperations.class);
+			when(operations.getScanSorter()).thenReturn(new ScanSorter(100, null));
+
+			Query<?> query = queryMethod.createQuery(operations, new Object[]{18}, Optional.empty(),
+					Optional.empty());
+
+			assertTrue(query instanceof SortedScanExpressionQuery);
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRejectsSortedScanUnlessEnabled() throws Exception {
+		compile(source("demo.Customer", CUSTOMER), source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		try (URLClassLoader classLoader = classLoader()) {
+			GeneratedQueryMethod<?> queryMethod = queryMethod(classLoader, "findByAgeOrderByCityAsc", int.class);
+
+			queryMethod.createQuery(mock(DynamoDBOperations.class), new Object[]{18}, Optional.empty(),
+					Optional.empty());
+		}
+	}
+
+	@Test
+	public void testFallsBackToRuntimeDerivation() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.NOTE,
+				"The query of findByCityAllIgnoreCase is derived at runtime"));
+		try (URLClassLoader classLoader = classLoader()) {
+			Class<?> repository = classLoader.loadClass("demo.CustomerRepository");
+			GeneratedDynamoDBQueries queries = GeneratedDynamoDBQueries.forRepository(repository);
+
+			assertNotNull(queries);
+			assertNull(queries.getQueryMethod(repository.getMethod("findByCityAllIgnoreCase", String.class)));
+		}
+	}
+
+	@Test
+	public void testLeavesQueryFiltersToRuntime() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.NOTE,
+				"The query of findByIdAndAge is derived at runtime as a query with a query filter"));
+		assertFalse(hasMessage(diagnostics, Diagnostic.Kind.WARNING, "findByIdAndAge scans the table"));
+		try (URLClassLoader classLoader = classLoader()) {
+			Class<?> repository = classLoader.loadClass("demo.CustomerRepository");
+
+			assertNull(GeneratedDynamoDBQueries.forRepository(repository)
+					.getQueryMethod(repository.getMethod("findByIdAndAge", String.class, int.class)));
+		}
+	}
+
+	@Test
+	public void testLeavesOrQueriesToRuntime() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.NOTE,
+				"The query of findByCityOrAge is derived at runtime as the results of the Or branches are merged "
+						+ "at runtime"));
+		try (URLClassLoader classLoader = classLoader()) {
+			Class<?> repository = classLoader.loadClass("demo.CustomerRepository");
+
+			assertNull(GeneratedDynamoDBQueries.forRepository(repository)
+					.getQueryMethod(repository.getMethod("findByCityOrAge", String.class, int.class)));
+		}
+	}
+
+	@Test
+	public void testLeavesInOnKeysToRuntime() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.NOTE,
+				"The query of findByIdIn is derived at runtime as the In on the key 'id' is expanded at runtime"));
+		try (URLClassLoader classLoader = classLoader()) {
+			Class<?> repository = classLoader.loadClass("demo.CustomerRepository");
+
+			assertNull(GeneratedDynamoDBQueries.forRepository(repository)
+					.getQueryMethod(repository.getMethod("findByIdIn", List.class)));
+		}
+	}
+
+	@Test
+	public void testLeavesIndexChoiceToRuntime() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(source("demo.Customer", CUSTOMER),
+				source("demo.CustomerRepository", CUSTOMER_REPOSITORY));
+
+		assertTrue(hasMessage(diagnostics, Diagnostic.Kind.NOTE,
+				"The query of findByCity is derived at runtime as the index is chosen at runtime out of "
+						+ "[city-index, city-created-index]"));
+		try (URLClassLoader classLoader = classLoader()) {
+			Class<?> repository = classLoader.loadClass("demo.CustomerRepository");
+
+			assertNull(GeneratedDynamoDBQueries.forRepository(repository)
+					.getQueryMethod(repository.getMethod("findByCity", String.class)));
+		}
+	}
+
+	private static GeneratedQueryMethod<?> queryMethod(ClassLoader classLoader, String name,
+			Class<?>... parameterTypes) throws ReflectiveOperationException {
+		Method method = classLoader.loadClass("demo.CustomerRepository").getMethod(name, parameterTypes);
+		GeneratedDynamoDBQueries queries = GeneratedDynamoDBQueries.forRepository(method.getDeclaringClass());
+		assertNotNull(queries);
+		GeneratedQueryMethod<?> queryMethod = queries.getQueryMethod(method);
+		assertNotNull(queryMethod);
+		return queryMethod;
+	}
+
+	private DiagnosticCollector<JavaFileObject> compile(JavaFileObject... sources) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<String> options = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+				"-d", output.toString(), "-s", output.toString()));
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+				Arrays.asList(sources));
+		task.setProcessors(Arrays.asList(new DynamoDBEntityProcessor(), new DynamoDBRepositoryProcessor()));
+		task.call();
+		return diagnostics;
+	}
+
+	private URLClassLoader classLoader() throws IOException {
+		return new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+	}
+
+	private static boolean hasMessage(DiagnosticCollector<JavaFileObject> diagnostics, Diagnostic.Kind kind,
+			String message) {
+		return diagnostics.getDiagnostics().stream()
+				.anyMatch(d -> d.getKind() == kind && d.getMessage(null).startsWith(message));
+	}
+
+	private static JavaFileObject source(String className, String content) {
+		return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+				JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return new String(content.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+			}
+		};
+	}
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.processor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBEntityIndex;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Compiles a sample application with both processors and checks that the
+ * native-image configuration on its classpath covers what the runtime loads
+ * by name.
+ */
+public class NativeImageConfigTest {
+
+	private static final String LIBRARY_LOCATION = "META-INF/native-image/com.github.derjust/spring-data-dynamodb/";
+
+	private static final Pattern NAME = Pattern.compile("\"name\": \"([^\"]+)\"");
+	private static final Pattern RESOURCE = Pattern.compile("\\{\"pattern\": \"((?:[^\"\\\\]|\\\\.)*)\"}");
+	private static final Pattern PROXY = Pattern.compile("\\[(\"[^\\]]+)]");
+
+	private static final String CUSTOMER = "package demo.app;\n" //
+			+ "import com.amazonaws.services.dynamodbv2.datamodeling.*;\n" //
+			+ "import java.time.Instant;\n" //
+			+ "@DynamoDBTable(tableName = \"customer\")\n" //
+			+ "public class Customer {\n" //
+			+ "  private String id;\n" //
+			+ "  private String city;\n" //
+			+ "  private Instant created;\n" //
+			+ "  @DynamoDBHashKey public String getId() { return id; }\n" //
+			+ "  public void setId(String id) { this.id = id; }\n" //
+			+ "  @DynamoDBIndexHashKey(globalSecondaryIndexName = \"city-index\")\n" //
+			+ "  public String getCity() { return city; }\n" //
+			+ "  public void setCity(String city) { this.city = city; }\n" //
+			+ "  @DynamoDBTypeConverted(converter = InstantConverter.class)\n" //
+			+ "  public Instant getCreated() { return created; }\n" //
+			+ "  public void setCreated(Instant created) { this.created = created; }\n" //
+			+ "  public static class InstantConverter implements DynamoDBTypeConverter<String, Instant> {\n" //
+			+ "    public String convert(Instant instant) { return instant.toString(); }\n" //
+			+ "    public Instant unconvert(String instant) { return Instant.parse(instant); }\n" //
+			+ "  }\n" //
+			+ "}\n";
+
+	private static final String CUSTOMER_REPOSITORY = "package demo.app;\n" //
+			+ "import org.springframework.data.repository.CrudRepository;\n" //
+			+ "import java.util.List;\n" //
+			+ "public interface CustomerRepository extends CrudRepository<Customer, String> {\n" //
+			+ "  List<Customer> findByCity(String city);\n" //
+			+ "}\n";
+
+	private static final String CONFIGURATION = "package demo.app;\n" //
+			+ "import org.socialsignin.spring.data.dynamodb.repository.config.EnableDynamoDBRepositories;\n" //
+			+ "@EnableDynamoDBRepositories(basePackages = \"demo.app\")\n" //
+			+ "public class Application {\n" //
+			+ "}\n";
+
+	private Path output;
+
+	@Before
+	public void setUp() throws IOException {
+		output = Files.createTempDirectory("processor");
+		DynamoDBEntityIndex.clearCache();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(output)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Test
+	public void testReflectConfigCoversTheIndexedClasses() throws IOException {
+		compileApplication();
+
+		Set<String> reflected = new TreeSet<>();
+		reflected.addAll(find(NAME, generated("entities/reflect-config.json")));
+		reflected.addAll(find(NAME, generated("repositories/reflect-config.json")));
+
+		Set<String> indexed = new TreeSet<>();
+		indexed.addAll(indexedClasses(DynamoDBEntityProcessor.INDEX_LOCATION));
+		indexed.addAll(indexedClasses(DynamoDBRepositoryProcessor.INDEX_LOCATION));
+		assertEquals(new TreeSet<>(Arrays.asList("demo.app.Customer", "demo.app.CustomerRepository",
+				"demo.app.CustomerRepository_DynamoDBQueries", "demo.app.Customer_DynamoDBMetadata")), indexed);
+		assertTrue("Not reflected: " + indexed, reflected.containsAll(indexed));
+		assertTrue(reflected.contains("demo.app.Customer$InstantConverter"));
+	}
+
+	@Test
+	public void testReflectAndProxyConfigNameExistingClasses() throws IOException {
+		compileApplication();
+
+		Set<String> classNames = new TreeSet<>();
+		classNames.addAll(find(NAME, generated("entities/reflect-config.json")));
+		classNames.addAll(find(NAME, generated("repositories/reflect-config.json")));
+		classNames.addAll(find(NAME, library("reflect-config.json")));
+		for (String proxy : find(PROXY, generated("repositories/proxy-config.json"))) {
+			Arrays.stream(proxy.split(",")).map(name -> name.trim().replace("\"", "")).forEach(classNames::add);
+		}
+
+		try (URLClassLoader classLoader = classLoader()) {
+			for (String className : classNames) {
+				try {
+					Class.forName(className, false, classLoader);
+				} catch (ClassNotFoundException e) {
+					fail("The native-image configuration names the missing class " + className);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testResourceConfigCoversTheGeneratedResources() throws IOException {
+		compileApplication();
+
+		List<Pattern> patterns = find(RESOURCE, library("resource-config.json")).stream()
+				.map(pattern -> Pattern.compile(pattern.replace("\\\\", "\\"))).collect(Collectors.toList());
+		List<String> resources;
+		try (Stream<Path> files = Files.walk(output)) {
+			resources = files.filter(Files::isRegularFile).map(file -> output.relativize(file).toString())
+					.map(resource -> resource.replace(File.separatorChar, '/'))
+					.filter(resource -> !resource.endsWith(".class") && !resource.endsWith(".java"))
+					.filter(resource -> !resource.startsWith("META-INF/native-image/"))
+					.collect(Collectors.toList());
+		}
+
+		assertTrue(resources.contains(DynamoDBEntityProcessor.INDEX_LOCATION));
+		assertTrue(resources.contains(DynamoDBRepositoryProcessor.INDEX_LOCATION));
+		for (String resource : resources) {
+			assertTrue("Not included in the native image: " + resource,
+					patterns.stream().anyMatch(pattern -> pattern.matcher(resource).matches()));
+		}
+		for (String resource : Arrays.asList("META-INF/spring.handlers", "META-INF/spring.schemas")) {
+			assertNotNull(resource, getClass().getClassLoader().getResource(resource));
+			assertTrue("Not included in the native image: " + resource,
+					patterns.stream().anyMatch(pattern -> pattern.matcher(resource).matches()));
+		}
+	}
+
+	private void compileApplication() throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<String> options = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+				"-d", output.toString(), "-s", output.toString()));
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+				Arrays.asList(source("demo.app.Customer", CUSTOMER),
+						source("demo.app.CustomerRepository", CUSTOMER_REPOSITORY),
+						source("demo.app.Application", CONFIGURATION)));
+		task.setProcessors(Arrays.asList(new DynamoDBEntityProcessor(), new DynamoDBRepositoryProcessor()));
+
+		assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+		assertTrue(diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR));
+	}
+
+	private Set<String> indexedClasses(String location) throws IOException {
+		Properties index = new Properties();
+		try (Reader reader = Files.newBufferedReader(output.resolve(location), StandardCharsets.UTF_8)) {
+			index.load(reader);
+		}
+		Set<String> classNames = new TreeSet<>(index.stringPropertyNames());
+		index.values().stream().map(String.class::cast).filter(value -> !value.isEmpty()).forEach(classNames::add);
+		return classNames;
+	}
+
+	private String generated(String name) throws IOException {
+		return new String(Files.readAllBytes(output.resolve(NativeImageConfig.LOCATION + name)),
+				StandardCharsets.UTF_8);
+	}
+
+	private String library(String name) throws IOException {
+		URL resource = getClass().getClassLoader().getResource(LIBRARY_LOCATION + name);
+		assertNotNull(LIBRARY_LOCATION + name, resource);
+		try (InputStream in = resource.openStream()) {
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read; (read = in.read(buffer)) != -1;) {
+				content.write(buffer, 0, read);
+			}
+			return new String(content.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private URLClassLoader classLoader() throws IOException {
+		return new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+	}
+
+	private static List<String> find(Pattern pattern, String content) {
+		List<String> matches = new ArrayList<>();
+		Matcher matcher = pattern.matcher(content);
+		while (matcher.find()) {
+			matches.add(matcher.group(1));
+		}
+		return matches;
+	}
+
+	private static JavaFileObject source(String className, String content) {
+		return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+				JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return content;
+			}
+		};
+	}
+}
@@ -17,19 +17,12 @@ package org.socialsignin.spring.data.dynamodb.config;
 
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBEntityScanner;
 import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBMappingContext;
-import org.springframework.beans.factory.config.BeanDefinition;
+import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityMetadataSupport;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.type.filter.AnnotationTypeFilter;
-import org.springframework.util.ClassUtils;
-import org.springframework.util.StringUtils;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -40,22 +33,22 @@ import java.util.Set;
 @Configuration
 public abstract class AbstractDynamoDBConfiguration {
 
-	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDynamoDBConfiguration.class);
-
 	public abstract AmazonDynamoDB amazonDynamoDB();
 
 	public abstract AWSCredentials amazonAWSCredentials();
 
 	/**
-	 * Return the base packages to scan for mapped {@link DynamoDBTable}s. Will
+	 * Return the base packages to scan for mapped
+	 * {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable}s. Will
 	 * return the package name of the configuration class' (the concrete class, not
 	 * this one here) by default. So if you have a {@code com.acme.AppConfig}
 	 * extending {@link AbstractDynamoDBConfiguration} the base package will be
 	 * considered {@code com.acme} unless the method is overriden to implement
 	 * alternate behaviour.
 	 *
-	 * @return the base package to scan for mapped {@link DynamoDBTable} classes or
-	 *         {@literal null} to not enable scanning for entities.
+	 * @return the base package to scan for mapped
+	 *         {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable}
+	 *         classes or {@literal null} to not enable scanning for entities.
 	 */
 	protected String[] getMappingBasePackages() {
 
@@ -72,56 +65,40 @@ public abstract class AbstractDynamoDBConfiguration {
 	 * @see #getMappingBasePackages()
 	 * @return A newly created {@link DynamoDBMappingContext}
 	 * @throws ClassNotFoundException
-	 *             if the class with {@link DynamoDBTable} annotation can't be
-	 *             loaded
+	 *             if the class with
+	 *             {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable}
+	 *             annotation can't be loaded
 	 */
 	@Bean
 	public DynamoDBMappingContext dynamoDBMappingContext() throws ClassNotFoundException {
 
+		Set<Class<?>> initialEntitySet = getInitialEntitySet();
+		// Reflecting over the entities is independent of each other
+		DynamoDBEntityMetadataSupport.prepareEntityInformation(initialEntitySet);
+
 		DynamoDBMappingContext mappingContext = new DynamoDBMappingContext();
-		mappingContext.setInitialEntitySet(getInitialEntitySet());
+		mappingContext.setInitialEntitySet(initialEntitySet);
 
 		return mappingContext;
 	}
 
 	/**
 	 * Scans the mapping base package for classes annotated with
-	 * {@link DynamoDBTable}.
+	 * {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable}.
 	 *
 	 * @see #getMappingBasePackages()
-	 * @return All classes with {@link DynamoDBTable} annotation
+	 * @return All classes with
+	 *         {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable}
+	 *         annotation
 	 * @throws ClassNotFoundException
-	 *             if the class with {@link DynamoDBTable} annotation can't be
-	 *             loaded
+	 *             if the class with
+	 *             {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable}
+	 *             annotation can't be loaded
 	 */
 	protected Set<Class<?>> getInitialEntitySet() throws ClassNotFoundException {
 
-		Set<Class<?>> initialEntitySet = new HashSet<>();
-
-		String[] basePackages = getMappingBasePackages();
-
-		for (String basePackage : basePackages) {
-			LOGGER.trace("getInitialEntitySet. basePackage: {}", basePackage);
-
-			if (StringUtils.hasText(basePackage)) {
-				ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(
-						false);
-				componentProvider.addIncludeFilter(new AnnotationTypeFilter(DynamoDBTable.class));
-
-				for (BeanDefinition candidate : componentProvider.findCandidateComponents(basePackage)) {
-					String candidateClass = candidate.getBeanClassName();
-					if (candidateClass != null) {
-						LOGGER.trace("getInitialEntitySet. candidate: {}", candidateClass);
-						initialEntitySet.add(ClassUtils.forName(candidateClass,
-								AbstractDynamoDBConfiguration.class.getClassLoader()));
-					} else {
-						LOGGER.warn("getInitialEntitySet. candidate: {} did not provide a class", candidate);
-					}
-				}
-			}
-		}
-
-		return initialEntitySet;
+		return DynamoDBEntityScanner.findEntities(AbstractDynamoDBConfiguration.class.getClassLoader(),
+				getMappingBasePackages());
 	}
 
 }
\ No newline at end of file
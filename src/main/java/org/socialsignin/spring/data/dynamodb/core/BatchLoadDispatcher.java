@@ -0,0 +1,245 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces single item loads that are issued within a short time window into
+ * one {@code BatchGetItem} round trip.
+ *
+ * A batch is dispatched either once the window of the first pending load has
+ * elapsed or as soon as {@code maxBatchSize} loads are pending - whatever comes
+ * first. The window is given in nanoseconds as a few microseconds are often
+ * enough to catch the loads of concurrent requests. Loads of the same key
+ * within one batch are requested only once as DynamoDB rejects duplicate keys
+ * within a {@code BatchGetItem} request. Loads issued after {@link #shutdown()}
+ * are dispatched right away in the calling thread.
+ *
+ * @author Sebastian Just
+ */
+class BatchLoadDispatcher {
+	private static final Logger LOGGER = LoggerFactory.getLogger(BatchLoadDispatcher.class);
+
+	/**
+	 * Maximum number of keys DynamoDB accepts in a single {@code BatchGetItem}
+	 * request
+	 */
+	static final int MAX_BATCH_SIZE = 100;
+
+	private final DynamoDBMapper dynamoDBMapper;
+	private final long windowNanos;
+	private final int maxBatchSize;
+	private final ScheduledExecutorService scheduler;
+
+	private final Object lock = new Object();
+	private Batch pending = new Batch();
+
+	BatchLoadDispatcher(DynamoDBMapper dynamoDBMapper, long windowNanos, int maxBatchSize) {
+		Assert.notNull(dynamoDBMapper, "dynamoDBMapper must not be null!");
+		Assert.isTrue(windowNanos > 0, "windowNanos must be positive!");
+		Assert.isTrue(maxBatchSize > 0 && maxBatchSize <= MAX_BATCH_SIZE,
+				"maxBatchSize must be between 1 and " + MAX_BATCH_SIZE + "!");
+
+		this.dynamoDBMapper = dynamoDBMapper;
+		this.windowNanos = windowNanos;
+		this.maxBatchSize = maxBatchSize;
+		this.scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+				new DaemonThreadFactory());
+	}
+
+	<T> CompletableFuture<T> load(Class<T> domainClass, Object hashKey, @Nullable Object rangeKey) {
+		DynamoDBMapperTableModel<T> tableModel = dynamoDBMapper.getTableModel(domainClass);
+		// Converting the key up front reports invalid keys to the calling thread
+		PendingLoad<T> load = new PendingLoad<>(domainClass, tableModel, hashKey, rangeKey,
+				tableModel.convertKey(hashKey, rangeKey));
+
+		List<PendingLoad<?>> ready = null;
+		synchronized (lock) {
+			Batch batch = pending;
+			if (batch.loads.isEmpty() && !scheduleFlush(batch)) {
+				// Shut down already - nothing would flush the batch later on
+				ready = Collections.singletonList(load);
+			} else {
+				batch.loads.add(load);
+				if (batch.loads.size() >= maxBatchSize) {
+					ready = takePending().loads;
+				}
+			}
+		}
+
+		if (ready != null) {
+			dispatch(ready);
+		}
+
+		return load.future;
+	}
+
+	void flush() {
+		Batch batch;
+		synchronized (lock) {
+			if (pending.loads.isEmpty()) {
+				return;
+			}
+			batch = takePending();
+		}
+		dispatch(batch.loads);
+	}
+
+	/**
+	 * Dispatches the batch if it is still pending - it might have been
+	 * dispatched as full batch already
+	 */
+	private void flush(Batch expected) {
+		Batch batch;
+		synchronized (lock) {
+			if (pending != expected) {
+				return;
+			}
+			batch = takePending();
+		}
+		dispatch(batch.loads);
+	}
+
+	private boolean scheduleFlush(Batch batch) {
+		try {
+			batch.flush = scheduler.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	private Batch takePending() {
+		Batch batch = pending;
+		pending = new Batch();
+		if (batch.flush != null) {
+			batch.flush.cancel(false);
+		}
+		return batch;
+	}
+
+	void shutdown() {
+		scheduler.shutdown();
+		flush();
+	}
+
+	private void dispatch(List<PendingLoad<?>> batch) {
+		Map<Class<?>, Map<Map<String, AttributeValue>, List<PendingLoad<?>>>> waiting = new LinkedHashMap<>();
+		Map<Class<?>, DynamoDBMapperTableModel<?>> tableModels = new LinkedHashMap<>();
+		Map<Class<?>, List<KeyPair>> itemsToGet = new LinkedHashMap<>();
+
+		for (PendingLoad<?> load : batch) {
+			tableModels.putIfAbsent(load.domainClass, load.tableModel);
+			List<PendingLoad<?>> sameKey = waiting.computeIfAbsent(load.domainClass, c -> new LinkedHashMap<>())
+					.computeIfAbsent(load.key, k -> new ArrayList<>());
+			if (sameKey.isEmpty()) {
+				itemsToGet.computeIfAbsent(load.domainClass, c -> new ArrayList<>())
+						.add(new KeyPair().withHashKey(load.hashKey).withRangeKey(load.rangeKey));
+			}
+			sameKey.add(load);
+		}
+
+		LOGGER.debug("Dispatching {} loads as BatchGetItem of {} keys", batch.size(),
+				itemsToGet.values().stream().mapToInt(List::size).sum());
+
+		try {
+			Map<String, List<Object>> results = dynamoDBMapper.batchLoad(itemsToGet);
+			for (List<Object> entities : results.values()) {
+				for (Object entity : entities) {
+					complete(entity, waiting.get(entity.getClass()), tableModels.get(entity.getClass()));
+				}
+			}
+			// Whatever is left over does not exist in the table
+			waiting.values().forEach(byKey -> byKey.values().forEach(loads -> loads.forEach(l -> l.complete(null))));
+		} catch (RuntimeException e) {
+			waiting.values().forEach(
+					byKey -> byKey.values().forEach(loads -> loads.forEach(l -> l.future.completeExceptionally(e))));
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void complete(Object entity, @Nullable Map<Map<String, AttributeValue>, List<PendingLoad<?>>> byKey,
+			@Nullable DynamoDBMapperTableModel tableModel) {
+		if (byKey == null || tableModel == null) {
+			return;
+		}
+		List<PendingLoad<?>> loads = byKey.remove(tableModel.convertKey(entity));
+		if (loads != null) {
+			loads.forEach(l -> l.complete(entity));
+		}
+	}
+
+	private static final class Batch {
+		private final List<PendingLoad<?>> loads = new ArrayList<>();
+		@Nullable
+		private ScheduledFuture<?> flush;
+	}
+
+	private static final class PendingLoad<T> {
+		private final Class<T> domainClass;
+		private final DynamoDBMapperTableModel<T> tableModel;
+		private final Object hashKey;
+		private final Object rangeKey;
+		private final Map<String, AttributeValue> key;
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+
+		private PendingLoad(Class<T> domainClass, DynamoDBMapperTableModel<T> tableModel, Object hashKey,
+				@Nullable Object rangeKey, Map<String, AttributeValue> key) {
+			this.domainClass = domainClass;
+			this.tableModel = tableModel;
+			this.hashKey = hashKey;
+			this.rangeKey = rangeKey;
+			this.key = key;
+		}
+
+		private void complete(@Nullable Object entity) {
+			future.complete(domainClass.cast(entity));
+		}
+	}
+
+	private static final class DaemonThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "dynamodb-batch-load-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import org.socialsignin.spring.data.dynamodb.mapping.event.DynamoDBMappingEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Callback interface to observe the interactions with DynamoDB - e.g. for
+ * metrics, logging or tracing. Registered listeners are picked up by the
+ * {@link DynamoDBTemplate}; without any listener no context objects are created
+ * at all.
+ *
+ * All callbacks are invoked synchronously in the thread performing the
+ * operation and must not throw exceptions.
+ *
+ * @author Sebastian Just
+ */
+public interface DynamoDBOperationListener {
+
+	/**
+	 * Listener that does nothing
+	 */
+	DynamoDBOperationListener NONE = new DynamoDBOperationListener() {
+	};
+
+	default void onOperationStart(OperationContext operation) {
+	}
+
+	default void onOperationComplete(OperationContext operation) {
+	}
+
+	/**
+	 * A page of a query or scan is about to be fetched - the first page is fetched
+	 * while the operation is running, further pages possibly way after the
+	 * operation completed.
+	 */
+	default void onPageStart(OperationContext operation) {
+	}
+
+	default void onPageComplete(OperationContext operation, int items, int scannedItems, long durationNanos) {
+	}
+
+	/**
+	 * A request - e.g. {@code GetItem} or {@code Query} - is sent to DynamoDB. Only
+	 * reported if the {@code OperationRequestHandler} is registered with the
+	 * {@code AmazonDynamoDB} client.
+	 */
+	default void onRequestStart(OperationContext operation, String requestType) {
+	}
+
+	default void onRequestComplete(OperationContext operation, String requestType, int items, long durationNanos,
+			@Nullable Throwable error) {
+	}
+
+	default void onConsumedCapacity(OperationContext operation, double readCapacityUnits, double writeCapacityUnits) {
+	}
+
+	default void onRetry(OperationContext operation, boolean throttled) {
+	}
+
+	default void onRepositoryMethodStart(RepositoryMethodContext method) {
+	}
+
+	default void onRepositoryMethodComplete(RepositoryMethodContext method) {
+	}
+
+	/**
+	 * A repository method created the query to execute from its arguments.
+	 *
+	 * @param count
+	 *            {@code true} for the count query of the method
+	 */
+	default void onQueryCreated(RepositoryMethodContext method, boolean count, long durationNanos) {
+	}
+
+	/**
+	 * A mapping event has been delivered synchronously to the application
+	 * listeners.
+	 */
+	default void onMappingEventPublished(DynamoDBMappingEvent<?> event, long durationNanos) {
+	}
+
+	/**
+	 * @param listeners
+	 *            The listeners to notify in the given order
+	 * @return A listener notifying all given listeners
+	 */
+	static DynamoDBOperationListener composite(List<? extends DynamoDBOperationListener> listeners) {
+		Assert.notNull(listeners, "listeners must not be null!");
+		if (listeners.isEmpty()) {
+			return NONE;
+		} else if (listeners.size() == 1) {
+			return listeners.get(0);
+		}
+
+		List<DynamoDBOperationListener> delegates = new ArrayList<>(listeners);
+		return new DynamoDBOperationListener() {
+			@Override
+			public void onOperationStart(OperationContext operation) {
+				delegates.forEach(l -> l.onOperationStart(operation));
+			}
+
+			@Override
+			public void onOperationComplete(OperationContext operation) {
+				delegates.forEach(l -> l.onOperationComplete(operation));
+			}
+
+			@Override
+			public void onPageStart(OperationContext operation) {
+				delegates.forEach(l -> l.onPageStart(operation));
+			}
+
+			@Override
+			public void onPageComplete(OperationContext operation, int items, int scannedItems, long durationNanos) {
+				delegates.forEach(l -> l.onPageComplete(operation, items, scannedItems, durationNanos));
+			}
+
+			@Override
+			public void onRequestStart(OperationContext operation, String requestType) {
+				delegates.forEach(l -> l.onRequestStart(operation, requestType));
+			}
+
+			@Override
+			public void onRequestComplete(OperationContext operation, String requestType, int items, long durationNanos,
+					@Nullable Throwable error) {
+				delegates.forEach(l -> l.onRequestComplete(operation, requestType, items, durationNanos, error));
+			}
+
+			@Override
+			public void onConsumedCapacity(OperationContext operation, double readCapacityUnits,
+					double writeCapacityUnits) {
+				delegates.forEach(l -> l.onConsumedCapacity(operation, readCapacityUnits, writeCapacityUnits));
+			}
+
+			@Override
+			public void onRetry(OperationContext operation, boolean throttled) {
+				delegates.forEach(l -> l.onRetry(operation, throttled));
+			}
+
+			@Override
+			public void onRepositoryMethodStart(RepositoryMethodContext method) {
+				delegates.forEach(l -> l.onRepositoryMethodStart(method));
+			}
+
+			@Override
+			public void onRepositoryMethodComplete(RepositoryMethodContext method) {
+				delegates.forEach(l -> l.onRepositoryMethodComplete(method));
+			}
+
+			@Override
+			public void onQueryCreated(RepositoryMethodContext method, boolean count, long durationNanos) {
+				delegates.forEach(l -> l.onQueryCreated(method, count, durationNanos));
+			}
+
+			@Override
+			public void onMappingEventPublished(DynamoDBMappingEvent<?> event, long durationNanos) {
+				delegates.forEach(l -> l.onMappingEventPublished(event, durationNanos));
+			}
+		};
+	}
+}
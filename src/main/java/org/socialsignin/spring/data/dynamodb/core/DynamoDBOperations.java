@@ -16,6 +16,7 @@
 package org.socialsignin.spring.data.dynamodb.core;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
@@ -23,9 +24,14 @@ import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.socialsignin.spring.data.dynamodb.query.ReadSettings;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
+import org.springframework.lang.Nullable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Interface to DynmaoDB - as seen from the Spring-Data world
@@ -44,6 +50,52 @@ public interface DynamoDBOperations {
 	<T> T load(Class<T> domainClass, Object hashKey);
 	<T> List<T> batchLoad(Map<Class<?>, List<KeyPair>> itemsToGet);
 
+	/**
+	 * Same as {@link #query(Class, QueryRequest)} but read with the given
+	 * settings instead of the ones of the {@code DynamoDBMapperConfig}. By
+	 * default only the settings the request itself carries are applied.
+	 */
+	default <T> PaginatedQueryList<T> query(Class<T> clazz, QueryRequest queryRequest, ReadSettings readSettings) {
+		readSettings.applyTo(queryRequest);
+		return query(clazz, queryRequest);
+	}
+
+	/**
+	 * Same as {@link #query(Class, DynamoDBQueryExpression)} but read with the
+	 * given settings - see {@link #query(Class, QueryRequest, ReadSettings)}
+	 */
+	default <T> PaginatedQueryList<T> query(Class<T> domainClass, DynamoDBQueryExpression<T> queryExpression,
+			ReadSettings readSettings) {
+		readSettings.applyTo(queryExpression);
+		return query(domainClass, queryExpression);
+	}
+
+	/**
+	 * Same as {@link #scan(Class, DynamoDBScanExpression)} but read with the
+	 * given settings - see {@link #query(Class, QueryRequest, ReadSettings)}
+	 */
+	default <T> PaginatedScanList<T> scan(Class<T> domainClass, DynamoDBScanExpression scanExpression,
+			ReadSettings readSettings) {
+		readSettings.applyTo(scanExpression);
+		return scan(domainClass, scanExpression);
+	}
+
+	/**
+	 * Same as {@link #load(Class, Object, Object)} but read with the consistency
+	 * of the given settings. By default the settings are ignored.
+	 */
+	default <T> T load(Class<T> domainClass, Object hashKey, @Nullable Object rangeKey, ReadSettings readSettings) {
+		return rangeKey == null ? load(domainClass, hashKey) : load(domainClass, hashKey, rangeKey);
+	}
+
+	/**
+	 * Same as {@link #batchLoad(Map)} but read with the consistency of the given
+	 * settings. By default the settings are ignored.
+	 */
+	default <T> List<T> batchLoad(Map<Class<?>, List<KeyPair>> itemsToGet, ReadSettings readSettings) {
+		return batchLoad(itemsToGet);
+	}
+
 	<T> T save(T entity);
 	List<FailedBatch> batchSave(Iterable<?> entities);
 
@@ -63,4 +115,57 @@ public interface DynamoDBOperations {
 	 * @return Corresponding DynamoDB table model
 	 */
 	<T> DynamoDBMapperTableModel<T> getTableModel(Class<T> domainClass);
+
+	/**
+	 * Provides the statistics the choice of the index to query is based on.
+	 *
+	 * @param <T>
+	 *            The type of the domain type itself
+	 * @param domainClass
+	 *            A domain type
+	 * @return The - possibly cached - description of the table of the domain
+	 *         type or {@code null} if not available
+	 */
+	@Nullable
+	default <T> TableDescription getTableDescription(Class<T> domainClass) {
+		return null;
+	}
+
+	/**
+	 * Provides the executor independent queries - e.g. the branches of an
+	 * {@code Or} query method - are sent in parallel with.
+	 *
+	 * @return The executor bounding the number of concurrent queries or
+	 *         {@code null} to send them one after another
+	 */
+	@Nullable
+	default Executor getQueryExecutor() {
+		return null;
+	}
+
+	/**
+	 * @return How the results of queries merged on the client side are read -
+	 *         {@code null} for {@link PaginationLoadingStrategy#LAZY_LOADING}
+	 */
+	@Nullable
+	default PaginationLoadingStrategy getPaginationLoadingStrategy() {
+		return null;
+	}
+
+	/**
+	 * @return The sorter of scans on the client side - {@code null} if sorted
+	 *         scans are not enabled
+	 */
+	@Nullable
+	default ScanSorter getScanSorter() {
+		return null;
+	}
+
+	/**
+	 * @return The listener notified about the operations performed - never
+	 *         {@code null}
+	 */
+	default DynamoDBOperationListener getOperationListener() {
+		return DynamoDBOperationListener.NONE;
+	}
 }
@@ -19,44 +19,125 @@ import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.DefaultTableNameResolver;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.TableNameResolver;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
 import com.amazonaws.services.dynamodbv2.model.QueryResult;
 import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.util.BinaryUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext.Type;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AfterBatchDeleteEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AfterBatchLoadEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AfterBatchSaveEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.AfterDeleteEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.AfterLoadEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.AfterQueryEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.AfterSaveEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.AfterScanEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AsyncEventDelivery;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AsyncEventDelivery.OverflowPolicy;
+import org.socialsignin.spring.data.dynamodb.mapping.event.BeforeBatchDeleteEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.BeforeBatchSaveEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.BeforeDeleteEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.BeforeSaveEvent;
 import org.socialsignin.spring.data.dynamodb.mapping.event.DynamoDBMappingEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.MappingEventDispatchTable;
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan;
+import org.socialsignin.spring.data.dynamodb.query.ReadSettings;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
-public class DynamoDBTemplate implements DynamoDBOperations, ApplicationContextAware {
+public class DynamoDBTemplate
+		implements
+			DynamoDBOperations,
+			ApplicationContextAware,
+			ApplicationListener<ContextRefreshedEvent>,
+			DisposableBean {
 	private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBTemplate.class);
+
+	private static final String CONFIGURATION_KEY_batchLoad_windowMicros = "${spring.data.dynamodb.batchLoad.windowMicros:0}";
+	private static final String CONFIGURATION_KEY_batchLoad_maxSize = "${spring.data.dynamodb.batchLoad.maxSize:100}";
+	private static final String CONFIGURATION_KEY_events_async_enabled = "${spring.data.dynamodb.events.async.enabled:false}";
+	private static final String CONFIGURATION_KEY_events_async_capacity = "${spring.data.dynamodb.events.async.capacity:10000}";
+	private static final String CONFIGURATION_KEY_events_async_lanes = "${spring.data.dynamodb.events.async.lanes:16}";
+	private static final String CONFIGURATION_KEY_events_async_overflowPolicy = "${spring.data.dynamodb.events.async.overflowPolicy:CALLER_RUNS}";
+	private static final String CONFIGURATION_KEY_indexStatistics_ttl = "${spring.data.dynamodb.indexStatistics.ttl:0}";
+	private static final String CONFIGURATION_KEY_query_parallelism = "${spring.data.dynamodb.query.parallelism:4}";
+	private static final String CONFIGURATION_KEY_scan_sort_enabled = "${spring.data.dynamodb.scan.sort.enabled:false}";
+	private static final String CONFIGURATION_KEY_scan_sort_maxItemsInMemory = "${spring.data.dynamodb.scan.sort.maxItemsInMemory:10000}";
+	private static final String CONFIGURATION_KEY_scan_sort_maxOpenRuns = "${spring.data.dynamodb.scan.sort.maxOpenRuns:64}";
+	private static final String CONFIGURATION_KEY_scan_sort_tempDirectory = "${spring.data.dynamodb.scan.sort.tempDirectory:}";
+	private static final long ASYNC_EVENTS_SHUTDOWN_TIMEOUT_SECONDS = 10;
+	private static final String MULTIPLE_TABLES = "*";
+
 	private final DynamoDBMapper dynamoDBMapper;
 	private final AmazonDynamoDB amazonDynamoDB;
 	private final DynamoDBMapperConfig dynamoDBMapperConfig;
+	private ApplicationContext applicationContext;
 	private ApplicationEventPublisher eventPublisher;
+	private volatile MappingEventDispatchTable dispatchTable;
+	private BatchLoadDispatcher batchLoadDispatcher;
+	private AsyncEventDelivery asyncEventDelivery;
+	private boolean ownsAsyncEventDelivery;
+	private DynamoDBOperationListener operationListener = DynamoDBOperationListener.NONE;
+	private HotPartitionKeySampler hotPartitionKeySampler;
+	private TableDescriptionCache tableDescriptionCache;
+	private ExecutorService queryExecutor;
+	private ScanSorter scanSorter;
+	private final Map<Class<?>, String> tableNames = new ConcurrentHashMap<>();
 
 	/**
 	 * Initializes a new {@code DynamoDBTemplate}. The following combinations are
@@ -87,126 +168,467 @@ public class DynamoDBTemplate implements DynamoDBOperations, ApplicationContextA
 
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+		this.applicationContext = applicationContext;
 		this.eventPublisher = applicationContext;
 	}
 
+	/**
+	 * (Re-)Builds the {@link MappingEventDispatchTable} once all listeners are
+	 * registered. Until then all events are published.
+	 */
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		Set<ApplicationListener<?>> listeners = new LinkedHashSet<>();
+		Set<Class<?>> listenerTypes = new LinkedHashSet<>();
+		for (ApplicationContext context = applicationContext; context != null; context = context.getParent()) {
+			if (!(context instanceof AbstractApplicationContext)) {
+				// Listeners can't be determined - keep publishing all events
+				return;
+			}
+			listeners.addAll(((AbstractApplicationContext) context).getApplicationListeners());
+			// Lazy-init and non-singleton listener beans are registered by name only
+			ConfigurableListableBeanFactory beanFactory = ((AbstractApplicationContext) context).getBeanFactory();
+			for (String beanName : beanFactory.getBeanNamesForType(ApplicationListener.class, true, false)) {
+				if (!beanFactory.containsSingleton(beanName)) {
+					Class<?> listenerType = beanFactory.getType(beanName);
+					if (listenerType == null) {
+						return;
+					}
+					listenerTypes.add(listenerType);
+				}
+			}
+		}
+		this.dispatchTable = new MappingEventDispatchTable(listeners, listenerTypes);
+	}
+
+	/**
+	 * Enables coalescing of concurrent {@link #load(Class, Object)} and
+	 * {@link #load(Class, Object, Object)} calls into {@code BatchGetItem}
+	 * requests. A batch is sent once the window of its first load has elapsed or
+	 * {@code maxBatchSize} loads are pending. Each load still returns its own
+	 * entity (or {@code null}) to its caller.
+	 *
+	 * @param windowMicros
+	 *            Time in microseconds to wait for further loads - {@code 0}
+	 *            disables batching
+	 * @param maxBatchSize
+	 *            Number of keys that trigger an immediate dispatch - at most 100
+	 */
+	@Autowired
+	public void setBatchLoadWindow(@Value(CONFIGURATION_KEY_batchLoad_windowMicros) long windowMicros,
+			@Value(CONFIGURATION_KEY_batchLoad_maxSize) int maxBatchSize) {
+		BatchLoadDispatcher previous = this.batchLoadDispatcher;
+		this.batchLoadDispatcher = windowMicros > 0
+				? new BatchLoadDispatcher(dynamoDBMapper, TimeUnit.MICROSECONDS.toNanos(windowMicros), maxBatchSize)
+				: null;
+
+		if (previous != null) {
+			previous.shutdown();
+		}
+	}
+
+	/**
+	 * Enables the asynchronous delivery of after-events - see
+	 * {@link AsyncEventDelivery}. Before-events are still published synchronously.
+	 *
+	 * @param enabled
+	 *            {@code false} publishes all events synchronously
+	 * @param capacity
+	 *            Maximum number of events waiting for delivery
+	 * @param lanes
+	 *            Number of sequentially delivered lanes the entities' hash keys are
+	 *            distributed over
+	 * @param overflowPolicy
+	 *            Name of the {@link OverflowPolicy} to apply if {@code capacity} is
+	 *            exceeded
+	 */
+	@Autowired
+	public void setAsyncEvents(@Value(CONFIGURATION_KEY_events_async_enabled) boolean enabled,
+			@Value(CONFIGURATION_KEY_events_async_capacity) int capacity,
+			@Value(CONFIGURATION_KEY_events_async_lanes) int lanes,
+			@Value(CONFIGURATION_KEY_events_async_overflowPolicy) String overflowPolicy) {
+		setAsyncEventDelivery(enabled
+				? new AsyncEventDelivery(event -> eventPublisher.publishEvent(event), capacity, lanes,
+						OverflowPolicy.valueOf(overflowPolicy))
+				: null);
+		this.ownsAsyncEventDelivery = enabled;
+	}
+
+	/**
+	 * Enables the statistics based choice of the index to query - see
+	 * {@link #getTableDescription(Class)}.
+	 *
+	 * @param ttlSeconds
+	 *            Time in seconds a table description is kept before it is
+	 *            described again - {@code 0} disables the statistics
+	 */
+	@Autowired
+	public void setIndexStatisticsTtl(@Value(CONFIGURATION_KEY_indexStatistics_ttl) long ttlSeconds) {
+		this.tableDescriptionCache = ttlSeconds > 0
+				? new TableDescriptionCache(amazonDynamoDB, TimeUnit.SECONDS.toMillis(ttlSeconds))
+				: null;
+	}
+
+	/**
+	 * Defines how many independent queries - see {@link #getQueryExecutor()} -
+	 * are sent in parallel. The limit applies to all repository calls together.
+	 *
+	 * @param parallelism
+	 *            Maximum number of concurrent queries - {@code 1} sends them one
+	 *            after another in the calling thread
+	 */
+	@Autowired
+	public void setQueryParallelism(@Value(CONFIGURATION_KEY_query_parallelism) int parallelism) {
+		Assert.isTrue(parallelism > 0, "parallelism must be positive!");
+		ExecutorService previous = this.queryExecutor;
+		if (parallelism > 1) {
+			AtomicInteger counter = new AtomicInteger();
+			this.queryExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+				Thread thread = new Thread(r, "dynamodb-query-" + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		} else {
+			this.queryExecutor = null;
+		}
+
+		if (previous != null) {
+			previous.shutdown();
+		}
+	}
+
+	/**
+	 * Enables sorted scans - see {@link #getScanSorter()}. Without, sorting a
+	 * scan is rejected as DynamoDB returns the items in no particular order.
+	 *
+	 * @param enabled
+	 *            {@code true} sorts the items of scans on the client side
+	 * @param maxItemsInMemory
+	 *            Number of items held in memory - more are spilled to disk
+	 * @param maxOpenRuns
+	 *            Number of spilled runs read at once - more are merged first
+	 * @param tempDirectory
+	 *            Directory of the spilled items - empty for the default
+	 *            temporary-file directory
+	 */
+	@Autowired
+	public void setScanSort(@Value(CONFIGURATION_KEY_scan_sort_enabled) boolean enabled,
+			@Value(CONFIGURATION_KEY_scan_sort_maxItemsInMemory) int maxItemsInMemory,
+			@Value(CONFIGURATION_KEY_scan_sort_maxOpenRuns) int maxOpenRuns,
+			@Value(CONFIGURATION_KEY_scan_sort_tempDirectory) String tempDirectory) {
+		this.scanSorter = enabled
+				? new ScanSorter(maxItemsInMemory, maxOpenRuns,
+						StringUtils.hasText(tempDirectory) ? Paths.get(tempDirectory) : null)
+				: null;
+	}
+
+	/**
+	 * @param asyncEventDelivery
+	 *            Delivery for after-events - {@code null} to publish them
+	 *            synchronously
+	 */
+	public void setAsyncEventDelivery(@Nullable AsyncEventDelivery asyncEventDelivery) {
+		shutdownAsyncEventDelivery();
+		this.asyncEventDelivery = asyncEventDelivery;
+		this.ownsAsyncEventDelivery = false;
+	}
+
+	@Override
+	public void destroy() {
+		if (batchLoadDispatcher != null) {
+			batchLoadDispatcher.shutdown();
+		}
+		if (queryExecutor != null) {
+			queryExecutor.shutdown();
+		}
+		shutdownAsyncEventDelivery();
+	}
+
+	private void shutdownAsyncEventDelivery() {
+		if (asyncEventDelivery != null && ownsAsyncEventDelivery) {
+			try {
+				if (!asyncEventDelivery.shutdown(ASYNC_EVENTS_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					LOGGER.warn("Not all mapping events were delivered within {}s",
+							ASYNC_EVENTS_SHUTDOWN_TIMEOUT_SECONDS);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
 	@Override
 	public <T> int count(Class<T> domainClass, DynamoDBQueryExpression<T> queryExpression) {
-		return dynamoDBMapper.count(domainClass, queryExpression);
+		return execute(Type.COUNT, domainClass, queryExpression.getIndexName(),
+				() -> queryPlan(domainClass, queryExpression), Integer::intValue, operation -> {
+					sampleQuery(operation, domainClass, queryExpression);
+					return dynamoDBMapper.count(domainClass, queryExpression);
+				});
 	}
 
 	@Override
 	public <T> PaginatedQueryList<T> query(Class<T> domainClass, DynamoDBQueryExpression<T> queryExpression) {
-		PaginatedQueryList<T> results = dynamoDBMapper.query(domainClass, queryExpression);
-		maybeEmitEvent(results, AfterQueryEvent::new);
-		return results;
+		return query(domainClass, queryExpression, ReadSettings.DEFAULT);
+	}
+
+	@Override
+	public <T> PaginatedQueryList<T> query(Class<T> domainClass, DynamoDBQueryExpression<T> queryExpression,
+			ReadSettings readSettings) {
+		readSettings.applyTo(queryExpression);
+		DynamoDBMapperConfig config = readSettings.applyTo(dynamoDBMapperConfig);
+		return execute(Type.QUERY, domainClass, queryExpression.getIndexName(),
+				() -> queryPlan(domainClass, queryExpression), null, operation -> {
+					sampleQuery(operation, domainClass, queryExpression);
+					boolean publishEvents = hasListeners(AfterQueryEvent.class, domainClass);
+					if (operation == null && !publishEvents) {
+						return config == dynamoDBMapperConfig
+								? dynamoDBMapper.query(domainClass, queryExpression)
+								: dynamoDBMapper.query(domainClass, queryExpression, config);
+					}
+					// Pages are observed one by one so that listeners do not force all
+					// pages to be loaded
+					return new PageNotifyingQueryList<>(dynamoDBMapper, domainClass, amazonDynamoDB, queryExpression,
+							config.getPaginationLoadingStrategy(), config, operation,
+							page -> {
+								if (publishEvents) {
+									maybeEmitPageEvent(AfterQueryEvent.class, domainClass, page.getResults(),
+											AfterQueryEvent::new);
+								}
+							});
+				});
 	}
 
 	@Override
 	public <T> int count(Class<T> domainClass, DynamoDBScanExpression scanExpression) {
-		return dynamoDBMapper.count(domainClass, scanExpression);
+		return execute(Type.COUNT, domainClass, scanExpression.getIndexName(), () -> QueryPlan.of(scanExpression),
+				Integer::intValue, operation -> dynamoDBMapper.count(domainClass, scanExpression));
 	}
 
 	@Override
 	public <T> T load(Class<T> domainClass, Object hashKey, Object rangeKey) {
-		T entity = dynamoDBMapper.load(domainClass, hashKey, rangeKey);
-		maybeEmitEvent(entity, AfterLoadEvent::new);
+		T entity = execute(Type.LOAD, domainClass, null, () -> QueryPlan.getItem(rangeKey != null),
+				e -> e == null ? 0 : 1, operation -> {
+					sample(operation, domainClass, null, () -> Collections.singleton(hashKey));
+					return batchLoadDispatcher == null
+							? dynamoDBMapper.load(domainClass, hashKey, rangeKey)
+							: awaitBatchLoad(batchLoadDispatcher, domainClass, hashKey, rangeKey);
+				});
+		maybeEmitEvent(AfterLoadEvent.class, entity, AfterLoadEvent::new);
+
+		return entity;
+	}
+
+	@Override
+	public <T> T load(Class<T> domainClass, Object hashKey, @Nullable Object rangeKey, ReadSettings readSettings) {
+		DynamoDBMapperConfig config = readSettings.applyTo(dynamoDBMapperConfig);
+		if (config == dynamoDBMapperConfig) {
+			return rangeKey == null ? load(domainClass, hashKey) : load(domainClass, hashKey, rangeKey);
+		}
+		// Not coalesced by the batch load dispatcher as its batches are read with
+		// the default consistency
+		T entity = execute(Type.LOAD, domainClass, null, () -> QueryPlan.getItem(rangeKey != null),
+				e -> e == null ? 0 : 1, operation -> {
+					sample(operation, domainClass, null, () -> Collections.singleton(hashKey));
+					return dynamoDBMapper.load(domainClass, hashKey, rangeKey, config);
+				});
+		maybeEmitEvent(AfterLoadEvent.class, entity, AfterLoadEvent::new);
 
 		return entity;
 	}
 
 	@Override
 	public <T> T load(Class<T> domainClass, Object hashKey) {
-		T entity = dynamoDBMapper.load(domainClass, hashKey);
-		maybeEmitEvent(entity, AfterLoadEvent::new);
+		T entity = execute(Type.LOAD, domainClass, null, () -> QueryPlan.getItem(false), e -> e == null ? 0 : 1,
+				operation -> {
+					sample(operation, domainClass, null, () -> Collections.singleton(hashKey));
+					return batchLoadDispatcher == null
+							? dynamoDBMapper.load(domainClass, hashKey)
+							: awaitBatchLoad(batchLoadDispatcher, domainClass, hashKey, null);
+				});
+		maybeEmitEvent(AfterLoadEvent.class, entity, AfterLoadEvent::new);
 
 		return entity;
 	}
 
+	private <T> T awaitBatchLoad(BatchLoadDispatcher dispatcher, Class<T> domainClass, Object hashKey,
+			@Nullable Object rangeKey) {
+		try {
+			return dispatcher.load(domainClass, hashKey, rangeKey).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
 	@Override
 	public <T> PaginatedScanList<T> scan(Class<T> domainClass, DynamoDBScanExpression scanExpression) {
-		PaginatedScanList<T> results = dynamoDBMapper.scan(domainClass, scanExpression);
-		maybeEmitEvent(results, AfterScanEvent::new);
-		return results;
+		return scan(domainClass, scanExpression, ReadSettings.DEFAULT);
+	}
+
+	@Override
+	public <T> PaginatedScanList<T> scan(Class<T> domainClass, DynamoDBScanExpression scanExpression,
+			ReadSettings readSettings) {
+		readSettings.applyTo(scanExpression);
+		DynamoDBMapperConfig config = readSettings.applyTo(dynamoDBMapperConfig);
+		return execute(Type.SCAN, domainClass, scanExpression.getIndexName(), () -> QueryPlan.of(scanExpression), null,
+				operation -> {
+					boolean publishEvents = hasListeners(AfterScanEvent.class, domainClass);
+					if (operation == null && !publishEvents) {
+						return config == dynamoDBMapperConfig
+								? dynamoDBMapper.scan(domainClass, scanExpression)
+								: dynamoDBMapper.scan(domainClass, scanExpression, config);
+					}
+					return new PageNotifyingScanList<>(dynamoDBMapper, domainClass, amazonDynamoDB, scanExpression,
+							config.getPaginationLoadingStrategy(), config, operation,
+							page -> {
+								if (publishEvents) {
+									maybeEmitPageEvent(AfterScanEvent.class, domainClass, page.getResults(),
+											AfterScanEvent::new);
+								}
+							});
+				});
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public <T> List<T> batchLoad(Map<Class<?>, List<KeyPair>> itemsToGet) {
-		return dynamoDBMapper.batchLoad(itemsToGet).values().stream().flatMap(v -> v.stream()).map(e -> (T) e)
-				.map(entity -> {
-					maybeEmitEvent(entity, AfterLoadEvent::new);
-					return entity;
-				}).collect(Collectors.toList());
+		return batchLoad(itemsToGet, ReadSettings.DEFAULT);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> List<T> batchLoad(Map<Class<?>, List<KeyPair>> itemsToGet, ReadSettings readSettings) {
+		DynamoDBMapperConfig config = readSettings.applyTo(dynamoDBMapperConfig);
+		Class<?> domainClass = itemsToGet.size() == 1 ? itemsToGet.keySet().iterator().next() : null;
+		List<T> entities = execute(Type.BATCH_LOAD, domainClass, null, null, List::size, operation -> {
+			itemsToGet.forEach((clazz, keyPairs) -> sample(operation, clazz, null,
+					() -> keyPairs.stream().map(KeyPair::getHashKey).collect(Collectors.toList())));
+			Map<String, List<Object>> items = config == dynamoDBMapperConfig
+					? dynamoDBMapper.batchLoad(itemsToGet)
+					: dynamoDBMapper.batchLoad(itemsToGet, config);
+			return items.values().stream().flatMap(v -> v.stream()).map(e -> (T) e).collect(Collectors.toList());
+		});
+		maybeEmitBatchEvent(AfterBatchLoadEvent.class, AfterLoadEvent.class, entities, AfterBatchLoadEvent::new,
+				entity -> new AfterLoadEvent<>(entity, true));
+		return entities;
 	}
 
 	@Override
 	public <T> T save(T entity) {
-		maybeEmitEvent(entity, BeforeSaveEvent::new);
-		dynamoDBMapper.save(entity);
-		maybeEmitEvent(entity, AfterSaveEvent::new);
+		maybeEmitEvent(BeforeSaveEvent.class, entity, BeforeSaveEvent::new);
+		execute(Type.SAVE, entity.getClass(), null, null, e -> 1, operation -> {
+			sampleEntities(operation, Collections.singleton(entity));
+			dynamoDBMapper.save(entity);
+			return entity;
+		});
+		maybeEmitEvent(AfterSaveEvent.class, entity, AfterSaveEvent::new);
 		return entity;
 
 	}
 
 	@Override
 	public List<FailedBatch> batchSave(Iterable<?> entities) {
-		entities.forEach(it -> maybeEmitEvent(it, BeforeSaveEvent::new));
+		maybeEmitBatchEvent(BeforeBatchSaveEvent.class, BeforeSaveEvent.class, entities, BeforeBatchSaveEvent::new,
+				entity -> new BeforeSaveEvent<>(entity, true));
 
-		List<FailedBatch> result = dynamoDBMapper.batchSave(entities);
+		List<FailedBatch> result = execute(Type.BATCH_SAVE, commonDomainClass(entities), null, null,
+				failed -> size(entities) - unprocessedItems(failed), operation -> {
+					sampleEntities(operation, entities);
+					return dynamoDBMapper.batchSave(entities);
+				});
 
-		entities.forEach(it -> maybeEmitEvent(it, AfterSaveEvent::new));
+		maybeEmitBatchEvent(AfterBatchSaveEvent.class, AfterSaveEvent.class, entities, AfterBatchSaveEvent::new,
+				entity -> new AfterSaveEvent<>(entity, true));
 		return result;
 	}
 
 	@Override
 	public <T> T delete(T entity) {
-		maybeEmitEvent(entity, BeforeDeleteEvent::new);
-		dynamoDBMapper.delete(entity);
-		maybeEmitEvent(entity, AfterDeleteEvent::new);
+		maybeEmitEvent(BeforeDeleteEvent.class, entity, BeforeDeleteEvent::new);
+		execute(Type.DELETE, entity.getClass(), null, null, e -> 1, operation -> {
+			sampleEntities(operation, Collections.singleton(entity));
+			dynamoDBMapper.delete(entity);
+			return entity;
+		});
+		maybeEmitEvent(AfterDeleteEvent.class, entity, AfterDeleteEvent::new);
 		return entity;
 	}
 
 	@Override
 	public List<FailedBatch> batchDelete(Iterable<?> entities) {
-		entities.forEach(it -> maybeEmitEvent(it, BeforeDeleteEvent::new));
+		maybeEmitBatchEvent(BeforeBatchDeleteEvent.class, BeforeDeleteEvent.class, entities,
+				BeforeBatchDeleteEvent::new, entity -> new BeforeDeleteEvent<>(entity, true));
 
-		List<FailedBatch> result = dynamoDBMapper.batchDelete(entities);
+		List<FailedBatch> result = execute(Type.BATCH_DELETE, commonDomainClass(entities), null, null,
+				failed -> size(entities) - unprocessedItems(failed), operation -> {
+					sampleEntities(operation, entities);
+					return dynamoDBMapper.batchDelete(entities);
+				});
 
-		entities.forEach(it -> maybeEmitEvent(it, AfterDeleteEvent::new));
+		maybeEmitBatchEvent(AfterBatchDeleteEvent.class, AfterDeleteEvent.class, entities, AfterBatchDeleteEvent::new,
+				entity -> new AfterDeleteEvent<>(entity, true));
 		return result;
 	}
 
 	@Override
 	public <T> PaginatedQueryList<T> query(Class<T> clazz, QueryRequest queryRequest) {
-		QueryResult queryResult = amazonDynamoDB.query(queryRequest);
-
-		// If a limit is set, deactivate lazy loading of (matching) items after the
-		// limit
-		// via
-		// com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList.atEndOfResults()
-		if (queryRequest.getLimit() != null) {
-			queryResult.setLastEvaluatedKey(null);
-		}
+		return query(clazz, queryRequest, ReadSettings.DEFAULT);
+	}
 
-		return new PaginatedQueryList<T>(dynamoDBMapper, clazz, amazonDynamoDB, queryRequest, queryResult,
-				dynamoDBMapperConfig.getPaginationLoadingStrategy(), dynamoDBMapperConfig);
+	@Override
+	public <T> PaginatedQueryList<T> query(Class<T> clazz, QueryRequest queryRequest, ReadSettings readSettings) {
+		// Only a limit of the query method itself ends the results - not the page
+		// size of the settings
+		boolean limited = queryRequest.getLimit() != null;
+		readSettings.applyTo(queryRequest);
+		DynamoDBMapperConfig config = readSettings.applyTo(dynamoDBMapperConfig);
+		return execute(Type.QUERY, clazz, queryRequest.getIndexName(), () -> QueryPlan.of(queryRequest), null,
+				operation -> {
+					sampleQueryRequest(operation, clazz, queryRequest);
+					QueryResult queryResult = observePage(operation, () -> amazonDynamoDB.query(queryRequest),
+							QueryResult::getCount, QueryResult::getScannedCount);
+
+					// If a limit is set, deactivate lazy loading of (matching) items after the
+					// limit
+					// via
+					// com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList.atEndOfResults()
+					if (limited) {
+						queryResult.setLastEvaluatedKey(null);
+					}
+
+					if (operation == null) {
+						return new PaginatedQueryList<T>(dynamoDBMapper, clazz, amazonDynamoDB, queryRequest,
+								queryResult, config.getPaginationLoadingStrategy(), config);
+					}
+					return new PaginatedQueryList<T>(dynamoDBMapper, clazz, amazonDynamoDB, queryRequest, queryResult,
+							config.getPaginationLoadingStrategy(), config) {
+						@Override
+						protected synchronized List<T> fetchNextPage() {
+							return observePage(operation, super::fetchNextPage, List::size, page -> null);
+						}
+					};
+				});
 	}
 
 	@Override
 	public <T> int count(Class<T> clazz, QueryRequest mutableQueryRequest) {
-		mutableQueryRequest.setSelect(Select.COUNT);
-
-		// Count queries can also be truncated for large datasets
-		int count = 0;
-		QueryResult queryResult = null;
-		do {
-			queryResult = amazonDynamoDB.query(mutableQueryRequest);
-			count += queryResult.getCount();
-			mutableQueryRequest.setExclusiveStartKey(queryResult.getLastEvaluatedKey());
-		} while (queryResult.getLastEvaluatedKey() != null);
-
-		return count;
+		return execute(Type.COUNT, clazz, mutableQueryRequest.getIndexName(), () -> QueryPlan.of(mutableQueryRequest),
+				Integer::intValue, operation -> {
+					sampleQueryRequest(operation, clazz, mutableQueryRequest);
+					mutableQueryRequest.setSelect(Select.COUNT);
+
+					// Count queries can also be truncated for large datasets
+					int count = 0;
+					QueryResult queryResult = null;
+					do {
+						queryResult = amazonDynamoDB.query(mutableQueryRequest);
+						count += queryResult.getCount();
+						mutableQueryRequest.setExclusiveStartKey(queryResult.getLastEvaluatedKey());
+					} while (queryResult.getLastEvaluatedKey() != null);
+
+					return count;
+				});
 	}
 
 	@Override
@@ -232,14 +654,329 @@ public class DynamoDBTemplate implements DynamoDBOperations, ApplicationContextA
 		return dynamoDBMapper.getTableModel(domainClass, dynamoDBMapperConfig);
 	}
 
+	/**
+	 * @param listeners
+	 *            Listeners to be notified about all interactions with DynamoDB
+	 */
+	@Autowired(required = false)
+	public void setOperationListeners(List<DynamoDBOperationListener> listeners) {
+		this.operationListener = DynamoDBOperationListener.composite(listeners);
+		this.hotPartitionKeySampler = listeners.stream().filter(HotPartitionKeySampler.class::isInstance)
+				.map(HotPartitionKeySampler.class::cast).findFirst().orElse(null);
+	}
+
+	@Override
+	@Nullable
+	public <T> TableDescription getTableDescription(Class<T> domainClass) {
+		TableDescriptionCache cache = this.tableDescriptionCache;
+		return cache == null ? null : cache.get(tableName(domainClass));
+	}
+
+	@Override
+	@Nullable
+	public Executor getQueryExecutor() {
+		return queryExecutor;
+	}
+
+	@Override
+	public PaginationLoadingStrategy getPaginationLoadingStrategy() {
+		return dynamoDBMapperConfig.getPaginationLoadingStrategy();
+	}
+
+	@Override
+	@Nullable
+	public ScanSorter getScanSorter() {
+		return scanSorter;
+	}
+
+	@Override
+	public DynamoDBOperationListener getOperationListener() {
+		return operationListener;
+	}
+
+	/**
+	 * Performs the operation and notifies the {@link DynamoDBOperationListener}s
+	 * about it. Without any listener the operation is invoked with a {@code null}
+	 * context.
+	 */
+	private <R> R execute(Type type, @Nullable Class<?> domainClass, @Nullable String indexName,
+			@Nullable Supplier<QueryPlan> queryPlan, @Nullable ToIntFunction<R> itemCount,
+			Function<OperationContext, R> operation) {
+		DynamoDBOperationListener listener = this.operationListener;
+		if (listener == DynamoDBOperationListener.NONE) {
+			return operation.apply(null);
+		}
+
+		OperationContext context = new OperationContext(listener, type, domainClass, tableName(domainClass), indexName,
+				queryPlan);
+		context.start();
+		Throwable error = null;
+		try {
+			R result = operation.apply(context);
+			if (itemCount != null) {
+				context.addItems(itemCount.applyAsInt(result));
+			}
+			return result;
+		} catch (RuntimeException | Error e) {
+			error = e;
+			throw e;
+		} finally {
+			context.complete(error);
+		}
+	}
+
+	private <T> QueryPlan queryPlan(Class<T> domainClass, DynamoDBQueryExpression<T> queryExpression) {
+		String hashKeyAttributeName;
+		try {
+			hashKeyAttributeName = getTableModel(domainClass).hashKey().name();
+		} catch (RuntimeException e) {
+			hashKeyAttributeName = null;
+		}
+		return QueryPlan.of(queryExpression, hashKeyAttributeName);
+	}
+
+	private void sample(@Nullable OperationContext operation, Class<?> domainClass, @Nullable String indexName,
+			Supplier<? extends Collection<?>> partitionKeys) {
+		HotPartitionKeySampler sampler = this.hotPartitionKeySampler;
+		if (operation != null && sampler != null) {
+			try {
+				sampler.sample(operation, tableName(domainClass), indexName, partitionKeys);
+			} catch (RuntimeException e) {
+				// Sampling must never fail the operation itself
+				LOGGER.debug("Can't sample partition keys of {}", domainClass, e);
+			}
+		}
+	}
+
+	private <T> void sampleQuery(@Nullable OperationContext operation, Class<T> domainClass,
+			DynamoDBQueryExpression<T> queryExpression) {
+		T hashKeyValues = queryExpression.getHashKeyValues();
+		if (hashKeyValues == null) {
+			return;
+		}
+		String indexName = queryExpression.getIndexName();
+		sample(operation, domainClass, indexName, () -> {
+			DynamoDBMapperTableModel<T> tableModel = getTableModel(domainClass);
+			String attributeName = partitionKeyAttributeName(tableModel, indexName);
+			return Collections.singleton(tableModel.field(attributeName).get(hashKeyValues));
+		});
+	}
+
+	private void sampleQueryRequest(@Nullable OperationContext operation, Class<?> domainClass,
+			QueryRequest queryRequest) {
+		if (queryRequest.getKeyConditions() == null) {
+			return;
+		}
+		String indexName = queryRequest.getIndexName();
+		sample(operation, domainClass, indexName, () -> {
+			Condition condition = queryRequest.getKeyConditions()
+					.get(partitionKeyAttributeName(getTableModel(domainClass), indexName));
+			if (condition == null || !ComparisonOperator.EQ.toString().equals(condition.getComparisonOperator())
+					|| condition.getAttributeValueList() == null || condition.getAttributeValueList().size() != 1) {
+				return Collections.emptyList();
+			}
+			AttributeValue value = condition.getAttributeValueList().get(0);
+			if (value.getS() != null) {
+				return Collections.singleton(value.getS());
+			} else if (value.getN() != null) {
+				return Collections.singleton(value.getN());
+			} else if (value.getB() != null) {
+				return Collections
+						.singleton(Base64.getEncoder().encodeToString(BinaryUtils.copyBytesFrom(value.getB())));
+			}
+			return Collections.emptyList();
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private void sampleEntities(@Nullable OperationContext operation, Iterable<?> entities) {
+		if (operation == null || hotPartitionKeySampler == null) {
+			return;
+		}
+		Map<Class<?>, List<Object>> byClass = new LinkedHashMap<>();
+		for (Object entity : entities) {
+			byClass.computeIfAbsent(entity.getClass(), c -> new ArrayList<>()).add(entity);
+		}
+		byClass.forEach((domainClass, sameClass) -> sample(operation, domainClass, null, () -> {
+			DynamoDBMapperTableModel<Object> tableModel = getTableModel((Class<Object>) domainClass);
+			return sameClass.stream().map(e -> tableModel.hashKey().get(e)).collect(Collectors.toList());
+		}));
+	}
+
+	/**
+	 * @return The attribute name of the partition key of the table or of the given
+	 *         global secondary index - local secondary indexes share the partition
+	 *         key of the table
+	 */
+	private static String partitionKeyAttributeName(DynamoDBMapperTableModel<?> tableModel,
+			@Nullable String indexName) {
+		GlobalSecondaryIndex index = indexName == null ? null : tableModel.globalSecondaryIndex(indexName);
+		if (index != null && index.getKeySchema() != null) {
+			for (KeySchemaElement element : index.getKeySchema()) {
+				if (KeyType.HASH.toString().equals(element.getKeyType())) {
+					return element.getAttributeName();
+				}
+			}
+		}
+		return tableModel.hashKey().name();
+	}
+
+	private static <P> P observePage(@Nullable OperationContext operation, Supplier<P> fetch, ToIntFunction<P> items,
+			Function<P, Integer> scannedItems) {
+		if (operation == null) {
+			return fetch.get();
+		}
+		operation.startPage();
+		P page = null;
+		try {
+			page = fetch.get();
+			return page;
+		} finally {
+			operation.completePage(page == null ? 0 : items.applyAsInt(page),
+					page == null ? null : scannedItems.apply(page));
+		}
+	}
+
+	private String tableName(@Nullable Class<?> domainClass) {
+		if (domainClass == null) {
+			return MULTIPLE_TABLES;
+		}
+		return tableNames.computeIfAbsent(domainClass, clazz -> {
+			try {
+				TableNameResolver resolver = dynamoDBMapperConfig.getTableNameResolver() == null
+						? DefaultTableNameResolver.INSTANCE
+						: dynamoDBMapperConfig.getTableNameResolver();
+				return resolver.getTableName(clazz, dynamoDBMapperConfig);
+			} catch (RuntimeException e) {
+				LOGGER.debug("Can't determine table name of {}", clazz, e);
+				return clazz.getSimpleName();
+			}
+		});
+	}
+
+	@Nullable
+	private static Class<?> commonDomainClass(Iterable<?> entities) {
+		Class<?> domainClass = null;
+		for (Object entity : entities) {
+			if (domainClass == null) {
+				domainClass = entity.getClass();
+			} else if (domainClass != entity.getClass()) {
+				return null;
+			}
+		}
+		return domainClass;
+	}
+
+	private static int size(Iterable<?> entities) {
+		if (entities instanceof Collection) {
+			return ((Collection<?>) entities).size();
+		}
+		int size = 0;
+		for (Iterator<?> it = entities.iterator(); it.hasNext(); it.next()) {
+			size++;
+		}
+		return size;
+	}
+
+	/**
+	 * @return Number of items that were not written - neither after the retries
+	 *         of the mapper
+	 */
+	private static int unprocessedItems(@Nullable List<FailedBatch> failedBatches) {
+		if (failedBatches == null) {
+			return 0;
+		}
+		return failedBatches.stream().map(FailedBatch::getUnprocessedItems).filter(Objects::nonNull)
+				.flatMap(items -> items.values().stream()).mapToInt(List::size).sum();
+	}
+
 	protected <T> void maybeEmitEvent(@Nullable T source, Function<T, DynamoDBMappingEvent<T>> factory) {
-		if (eventPublisher != null) {
-			if (source != null) {
-				DynamoDBMappingEvent<T> event = factory.apply(source);
+		if (source != null && eventPublisher != null) {
+			DynamoDBMappingEvent<T> event = factory.apply(source);
+			if (hasListeners(event.getClass(), source.getClass())) {
+				publish(event.getClass(), Collections.singletonList(source), event);
+			}
+		}
+	}
 
-				eventPublisher.publishEvent(event);
+	private <T> void maybeEmitPageEvent(Class<?> eventType, Class<T> domainClass, List<T> page,
+			Function<List<T>, DynamoDBMappingEvent<List<T>>> factory) {
+		if (!page.isEmpty()) {
+			publish(eventType, page, factory.apply(page));
+		}
+	}
+
+	private <T> void maybeEmitEvent(Class<?> eventType, @Nullable T source,
+			Function<T, DynamoDBMappingEvent<T>> factory) {
+		if (source != null && hasListeners(eventType, source.getClass())) {
+			publish(eventType, Collections.singletonList(source), factory.apply(source));
+		}
+	}
+
+	/**
+	 * Publishes an event per entity - for listeners that don't handle the batch
+	 * event - followed by the batch event per domain class
+	 */
+	private void maybeEmitBatchEvent(Class<?> eventType, Class<?> entityEventType, Iterable<?> entities,
+			Function<List<Object>, DynamoDBMappingEvent<List<Object>>> factory,
+			Function<Object, DynamoDBMappingEvent<Object>> entityFactory) {
+		if (eventPublisher == null) {
+			return;
+		}
+
+		MappingEventDispatchTable table = this.dispatchTable;
+		if (table == null || table.hasNonBatchListeners(entityEventType)) {
+			for (Object entity : entities) {
+				publish(entityEventType, Collections.singletonList(entity), entityFactory.apply(entity));
+			}
+		}
+
+		Map<Class<?>, List<Object>> entitiesByClass = new LinkedHashMap<>();
+		for (Object entity : entities) {
+			entitiesByClass.computeIfAbsent(entity.getClass(), c -> new ArrayList<>()).add(entity);
+		}
+		entitiesByClass.forEach((domainClass, domainEntities) -> {
+			if (hasListeners(eventType, domainClass)) {
+				publish(eventType, domainEntities, factory.apply(domainEntities));
+			}
+		});
+	}
+
+	/**
+	 * @param entities
+	 *            The entities the event is about - the asynchronous delivery keeps
+	 *            the order of the events per hash key
+	 */
+	private void publish(Class<?> eventType, List<?> entities, DynamoDBMappingEvent<?> event) {
+		AsyncEventDelivery delivery = this.asyncEventDelivery;
+		if (delivery != null && AsyncEventDelivery.isDeferrable(eventType)) {
+			Set<Object> orderingKeys = new LinkedHashSet<>();
+			for (Object entity : entities) {
+				orderingKeys.add(orderingKey(entity));
 			}
+			delivery.publish(event, orderingKeys);
+		} else if (operationListener == DynamoDBOperationListener.NONE) {
+			eventPublisher.publishEvent(event);
+		} else {
+			long startNanos = System.nanoTime();
+			eventPublisher.publishEvent(event);
+			operationListener.onMappingEventPublished(event, System.nanoTime() - startNanos);
 		}
+	}
 
+	@SuppressWarnings("unchecked")
+	private Object orderingKey(Object entity) {
+		// All events of an item share its hash key
+		DynamoDBMapperTableModel<Object> tableModel = dynamoDBMapper.getTableModel((Class<Object>) entity.getClass());
+		Object hashKey = tableModel == null ? null : tableModel.hashKey().get(entity);
+		return hashKey == null ? entity.getClass() : hashKey;
+	}
+
+	private boolean hasListeners(Class<?> eventType, Class<?> domainClass) {
+		if (eventPublisher == null) {
+			return false;
+		}
+		MappingEventDispatchTable table = this.dispatchTable;
+		return table == null || table.hasListeners(eventType, domainClass);
 	}
 }
@@ -0,0 +1,106 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A partition key reported by the {@link HotPartitionKeySampler} as one of the
+ * most frequently accessed keys of a table or index.
+ *
+ * @author Sebastian Just
+ */
+public final class HotPartitionKey {
+
+	private final String tableName;
+	private final String indexName;
+	private final String key;
+	private final long estimatedAccesses;
+	private final long maxOverestimation;
+	private final double share;
+	private final long throttles;
+	private final double throttleShare;
+
+	public HotPartitionKey(String tableName, @Nullable String indexName, String key, long estimatedAccesses,
+			long maxOverestimation, double share, long throttles, double throttleShare) {
+		this.tableName = tableName;
+		this.indexName = indexName;
+		this.key = key;
+		this.estimatedAccesses = estimatedAccesses;
+		this.maxOverestimation = maxOverestimation;
+		this.share = share;
+		this.throttles = throttles;
+		this.throttleShare = throttleShare;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	@Nullable
+	public String getIndexName() {
+		return indexName;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @return Estimated number of accesses within the current window - extrapolated
+	 *         from the samples
+	 */
+	public long getEstimatedAccesses() {
+		return estimatedAccesses;
+	}
+
+	/**
+	 * @return Upper bound of the overestimation included in
+	 *         {@link #getEstimatedAccesses()}
+	 */
+	public long getMaxOverestimation() {
+		return maxOverestimation;
+	}
+
+	/**
+	 * @return Share of the sampled accesses to the table or index - between 0 and 1
+	 */
+	public double getShare() {
+		return share;
+	}
+
+	/**
+	 * @return Number of throttled requests for this key
+	 */
+	public long getThrottles() {
+		return throttles;
+	}
+
+	/**
+	 * @return Share of the throttled requests of the table or index - between 0 and
+	 *         1
+	 */
+	public double getThrottleShare() {
+		return throttleShare;
+	}
+
+	@Override
+	public String toString() {
+		return tableName + (indexName == null ? "" : "/" + indexName) + " " + key + ": ~" + estimatedAccesses
+				+ " accesses (" + String.format("%.1f", share * 100) + "%), " + throttles + " throttles ("
+				+ String.format("%.1f", throttleShare * 100) + "%)";
+	}
+}
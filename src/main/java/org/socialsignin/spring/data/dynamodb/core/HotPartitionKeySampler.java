@@ -0,0 +1,408 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Samples the partition keys accessed per table and index to detect hot keys -
+ * i.e. keys receiving a disproportionate share of the traffic or of the
+ * throttled requests.
+ *
+ * Each table and index keeps a Space-Saving summary of at most {@code capacity}
+ * keys, so memory stays bounded regardless of the key cardinality. The summary
+ * is striped by thread and a sample is dropped rather than waited for if all
+ * stripes are busy - sampling never blocks the calling thread. Counts are
+ * halved once per window, so keys that cooled down age out without a background
+ * thread.
+ *
+ * Registered as a {@link DynamoDBOperationListener} the
+ * {@link DynamoDBTemplate} offers the keys of its operations to the sampler.
+ * Throttles are only attributed if the {@code OperationRequestHandler} is
+ * registered with the {@code AmazonDynamoDB} client.
+ *
+ * @author Sebastian Just
+ */
+public class HotPartitionKeySampler implements DynamoDBOperationListener {
+
+	private static final String CONFIGURATION_KEY_hotKeys_sampleRate = "${spring.data.dynamodb.hotKeys.sampleRate:0.01}";
+	private static final String CONFIGURATION_KEY_hotKeys_capacity = "${spring.data.dynamodb.hotKeys.capacity:100}";
+	private static final String CONFIGURATION_KEY_hotKeys_windowSeconds = "${spring.data.dynamodb.hotKeys.windowSeconds:60}";
+
+	private static final String SAMPLED_KEYS = HotPartitionKeySampler.class.getName() + ".keys";
+
+	private final double sampleRate;
+	private final int capacity;
+	private final long windowNanos;
+	private final LongSupplier nanoClock;
+	private final long origin;
+	private final int stripes;
+
+	private final Map<Target, Summary> summaries = new ConcurrentHashMap<>();
+	private final AtomicLong currentWindow = new AtomicLong();
+	private final AtomicLong droppedSamples = new AtomicLong();
+	private final List<Runnable> windowListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @param sampleRate
+	 *            Fraction of the operations whose keys are sampled - between 0
+	 *            (exclusive) and 1
+	 * @param capacity
+	 *            Maximum number of keys tracked per table and index
+	 * @param windowSeconds
+	 *            Counts are halved after each window
+	 */
+	@Autowired
+	public HotPartitionKeySampler(@Value(CONFIGURATION_KEY_hotKeys_sampleRate) double sampleRate,
+			@Value(CONFIGURATION_KEY_hotKeys_capacity) int capacity,
+			@Value(CONFIGURATION_KEY_hotKeys_windowSeconds) long windowSeconds) {
+		this(sampleRate, capacity, windowSeconds, System::nanoTime, Runtime.getRuntime().availableProcessors());
+	}
+
+	HotPartitionKeySampler(double sampleRate, int capacity, long windowSeconds, LongSupplier nanoClock, int stripes) {
+		Assert.isTrue(sampleRate > 0 && sampleRate <= 1, "sampleRate must be between 0 (exclusive) and 1!");
+		Assert.isTrue(capacity > 0, "capacity must be positive!");
+		Assert.isTrue(windowSeconds > 0, "windowSeconds must be positive!");
+		Assert.notNull(nanoClock, "nanoClock must not be null!");
+		Assert.isTrue(stripes > 0, "stripes must be positive!");
+		this.sampleRate = sampleRate;
+		this.capacity = capacity;
+		this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+		this.nanoClock = nanoClock;
+		this.origin = nanoClock.getAsLong();
+		this.stripes = stripes;
+	}
+
+	/**
+	 * Offers the partition keys accessed by an operation. The keys are only
+	 * resolved if the operation is sampled.
+	 *
+	 * @param operation
+	 *            The operation accessing the keys
+	 * @param tableName
+	 *            The table accessed
+	 * @param indexName
+	 *            The index accessed - {@code null} for the table itself
+	 * @param partitionKeys
+	 *            Resolves the partition key values accessed
+	 */
+	public void sample(OperationContext operation, String tableName, @Nullable String indexName,
+			Supplier<? extends Collection<?>> partitionKeys) {
+		if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+			return;
+		}
+		Collection<?> keys = partitionKeys.get();
+		if (keys == null || keys.isEmpty()) {
+			return;
+		}
+
+		Target target = new Target(tableName, indexName);
+		List<String> sampled = new ArrayList<>(keys.size());
+		for (Object key : keys) {
+			if (key != null) {
+				String value = String.valueOf(key);
+				sampled.add(value);
+				offer(target, value, 1, 0);
+			}
+		}
+		addSampledKeys(operation, target, sampled);
+	}
+
+	@Override
+	public void onRetry(OperationContext operation, boolean throttled) {
+		if (!throttled) {
+			return;
+		}
+		Map<Target, List<String>> sampled = sampledKeys(operation);
+		if (sampled == null) {
+			return;
+		}
+		synchronized (sampled) {
+			sampled.forEach((target, keys) -> keys.forEach(key -> offer(target, key, 0, 1)));
+		}
+	}
+
+	/**
+	 * @return The {@code k} hottest keys of each table and index
+	 */
+	public List<HotPartitionKey> getTopKeys(int k) {
+		return summaries.keySet().stream().sorted()
+				.flatMap(target -> getTopKeys(target.tableName, target.indexName, k).stream())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * @return The {@code k} hottest keys of the given table or index - ordered by
+	 *         their estimated accesses
+	 */
+	public List<HotPartitionKey> getTopKeys(String tableName, @Nullable String indexName, int k) {
+		Summary summary = summaries.get(new Target(tableName, indexName));
+		if (summary == null) {
+			return Collections.emptyList();
+		}
+		return summary.topKeys(tableName, indexName, k, advanceWindow());
+	}
+
+	/**
+	 * @return Number of samples dropped because all stripes were busy
+	 */
+	public long getDroppedSamples() {
+		return droppedSamples.get();
+	}
+
+	/**
+	 * @param listener
+	 *            Invoked by the first sample or read after a window elapsed
+	 */
+	public void addWindowListener(Runnable listener) {
+		Assert.notNull(listener, "listener must not be null!");
+		windowListeners.add(listener);
+	}
+
+	public void reset() {
+		summaries.clear();
+		droppedSamples.set(0);
+	}
+
+	private void offer(Target target, String key, long accesses, long throttles) {
+		long window = advanceWindow();
+		Summary summary = summaries.computeIfAbsent(target, t -> new Summary(stripes, capacity));
+		if (!summary.offer(key, accesses, throttles, window)) {
+			droppedSamples.incrementAndGet();
+		}
+	}
+
+	private long advanceWindow() {
+		long window = (nanoClock.getAsLong() - origin) / windowNanos;
+		long previous = currentWindow.get();
+		if (window > previous && currentWindow.compareAndSet(previous, window)) {
+			windowListeners.forEach(Runnable::run);
+		}
+		return window;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private static Map<Target, List<String>> sampledKeys(OperationContext operation) {
+		return (Map<Target, List<String>>) operation.getAttribute(SAMPLED_KEYS);
+	}
+
+	private static void addSampledKeys(OperationContext operation, Target target, List<String> keys) {
+		Map<Target, List<String>> sampled = sampledKeys(operation);
+		if (sampled == null) {
+			sampled = new HashMap<>();
+			operation.setAttribute(SAMPLED_KEYS, sampled);
+		}
+		synchronized (sampled) {
+			sampled.computeIfAbsent(target, t -> new ArrayList<>()).addAll(keys);
+		}
+	}
+
+	private final class Summary {
+		private final Stripe[] stripes;
+
+		private Summary(int stripes, int capacity) {
+			this.stripes = new Stripe[stripes];
+			for (int i = 0; i < stripes; i++) {
+				this.stripes[i] = new Stripe(capacity);
+			}
+		}
+
+		private boolean offer(String key, long accesses, long throttles, long window) {
+			int home = (int) (Thread.currentThread().getId() % stripes.length);
+			for (int i = 0; i < stripes.length; i++) {
+				Stripe stripe = stripes[(home + i) % stripes.length];
+				if (stripe.lock.tryLock()) {
+					try {
+						stripe.decay(window);
+						stripe.offer(key, accesses, throttles);
+						return true;
+					} finally {
+						stripe.lock.unlock();
+					}
+				}
+			}
+			return false;
+		}
+
+		private List<HotPartitionKey> topKeys(String tableName, @Nullable String indexName, int k, long window) {
+			Map<String, Counter> merged = new HashMap<>();
+			long total = 0;
+			long totalThrottles = 0;
+			for (Stripe stripe : stripes) {
+				stripe.lock.lock();
+				try {
+					stripe.decay(window);
+					total += stripe.total;
+					totalThrottles += stripe.throttles;
+					for (Counter counter : stripe.counters.values()) {
+						merged.computeIfAbsent(counter.key, Counter::new).add(counter);
+					}
+				} finally {
+					stripe.lock.unlock();
+				}
+			}
+
+			long sampledTotal = total;
+			long sampledThrottles = totalThrottles;
+			return merged.values().stream().filter(c -> c.count > 0)
+					.sorted(Comparator.comparingLong((Counter c) -> c.count).reversed().thenComparing(c -> c.key))
+					.limit(k)
+					.map(c -> new HotPartitionKey(tableName, indexName, c.key, Math.round(c.count / sampleRate),
+							Math.round(c.error / sampleRate), share(c.count, sampledTotal),
+							Math.round(c.throttles / sampleRate), share(c.throttles, sampledThrottles)))
+					.collect(Collectors.toList());
+		}
+	}
+
+	private static double share(long part, long total) {
+		return total == 0 ? 0 : Math.min(1, (double) part / total);
+	}
+
+	/**
+	 * Space-Saving summary of a single stripe - guarded by its lock
+	 */
+	private static final class Stripe {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final int capacity;
+		private final Map<String, Counter> counters = new HashMap<>();
+		private long total;
+		private long throttles;
+		private long window;
+
+		private Stripe(int capacity) {
+			this.capacity = capacity;
+		}
+
+		private void offer(String key, long accesses, long throttles) {
+			this.total += accesses;
+			this.throttles += throttles;
+
+			Counter counter = counters.get(key);
+			if (counter == null) {
+				if (accesses == 0) {
+					// Throttles alone do not displace a tracked key
+					return;
+				}
+				counter = new Counter(key);
+				if (counters.size() >= capacity) {
+					Counter min = Collections.min(counters.values(), Comparator.comparingLong(c -> c.count));
+					counters.remove(min.key);
+					counter.count = min.count;
+					counter.error = min.count;
+				}
+				counters.put(key, counter);
+			}
+			counter.count += accesses;
+			counter.throttles += throttles;
+		}
+
+		private void decay(long window) {
+			long elapsed = window - this.window;
+			if (elapsed <= 0) {
+				return;
+			}
+			this.window = window;
+			int shift = (int) Math.min(elapsed, 63);
+			total >>= shift;
+			throttles >>= shift;
+			for (Iterator<Counter> it = counters.values().iterator(); it.hasNext();) {
+				Counter counter = it.next();
+				counter.count >>= shift;
+				counter.error >>= shift;
+				counter.throttles >>= shift;
+				if (counter.count == 0 && counter.throttles == 0) {
+					it.remove();
+				}
+			}
+		}
+	}
+
+	private static final class Counter {
+		private final String key;
+		private long count;
+		private long error;
+		private long throttles;
+
+		private Counter(String key) {
+			this.key = key;
+		}
+
+		private void add(Counter other) {
+			count += other.count;
+			error += other.error;
+			throttles += other.throttles;
+		}
+	}
+
+	private static final class Target implements Comparable<Target> {
+		private final String tableName;
+		private final String indexName;
+
+		private Target(String tableName, @Nullable String indexName) {
+			this.tableName = tableName;
+			this.indexName = indexName;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Target)) {
+				return false;
+			}
+			Target other = (Target) o;
+			return tableName.equals(other.tableName) && Objects.equals(indexName, other.indexName);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(tableName, indexName);
+		}
+
+		@Override
+		public int compareTo(Target other) {
+			int result = tableName.compareTo(other.tableName);
+			if (result != 0) {
+				return result;
+			}
+			return String.valueOf(indexName).compareTo(String.valueOf(other.indexName));
+		}
+	}
+}
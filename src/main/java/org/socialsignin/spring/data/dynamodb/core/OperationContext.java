@@ -0,0 +1,337 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Supplier;
+
+/**
+ * Describes a single operation of the {@link DynamoDBTemplate} - e.g. a query
+ * including all its pages - while it is observed by a
+ * {@link DynamoDBOperationListener}. The statistics and attributes might be
+ * updated from several threads - e.g. for requests sent in parallel.
+ *
+ * @author Sebastian Just
+ */
+public class OperationContext {
+
+	private static final ThreadLocal<OperationContext> CURRENT = new ThreadLocal<>();
+
+	public enum Type {
+		LOAD(true), BATCH_LOAD(true), QUERY(true), SCAN(true), COUNT(true), SAVE(false), BATCH_SAVE(false), DELETE(
+				false), BATCH_DELETE(false);
+
+		private final boolean read;
+
+		Type(boolean read) {
+			this.read = read;
+		}
+
+		public boolean isRead() {
+			return read;
+		}
+
+		/**
+		 * @return {@code true} if the results are fetched page by page
+		 */
+		public boolean isPaged() {
+			return this == QUERY || this == SCAN;
+		}
+	}
+
+	private final DynamoDBOperationListener listener;
+	private final Type type;
+	private final Class<?> domainClass;
+	private final String tableName;
+	private final String indexName;
+	private final RepositoryMethodContext repositoryMethod;
+	private Supplier<QueryPlan> queryPlanSupplier;
+	private QueryPlan queryPlan;
+	private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+	private long startNanos;
+	private volatile long durationNanos;
+	private long pageStartNanos;
+	private final AtomicInteger itemCount = new AtomicInteger();
+	private final AtomicInteger scannedCount = new AtomicInteger();
+	private final AtomicInteger pageCount = new AtomicInteger();
+	private final DoubleAdder readCapacityUnits = new DoubleAdder();
+	private final DoubleAdder writeCapacityUnits = new DoubleAdder();
+	private final AtomicInteger retries = new AtomicInteger();
+	private final AtomicInteger throttles = new AtomicInteger();
+	private long requestStartNanos;
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private final AtomicLong requestNanos = new AtomicLong();
+	private volatile Throwable error;
+
+	private OperationContext previousForOperation;
+	private OperationContext previousForPage;
+
+	OperationContext(DynamoDBOperationListener listener, Type type, @Nullable Class<?> domainClass, String tableName,
+			@Nullable String indexName, @Nullable Supplier<QueryPlan> queryPlan) {
+		this.listener = listener;
+		this.type = type;
+		this.domainClass = domainClass;
+		this.tableName = tableName;
+		this.indexName = indexName;
+		this.queryPlanSupplier = queryPlan;
+		this.repositoryMethod = RepositoryMethodContext.current();
+	}
+
+	/**
+	 * @return The operation that is currently performed by this thread -
+	 *         {@code null} if there is none or nobody is observing operations
+	 */
+	@Nullable
+	public static OperationContext current() {
+		return CURRENT.get();
+	}
+
+	void start() {
+		previousForOperation = CURRENT.get();
+		CURRENT.set(this);
+		startNanos = System.nanoTime();
+		if (repositoryMethod != null) {
+			repositoryMethod.recordOperation(this);
+		}
+		listener.onOperationStart(this);
+	}
+
+	void complete(@Nullable Throwable error) {
+		this.durationNanos = System.nanoTime() - startNanos;
+		this.error = error;
+		restore(previousForOperation);
+		listener.onOperationComplete(this);
+	}
+
+	void startPage() {
+		previousForPage = CURRENT.get();
+		CURRENT.set(this);
+		pageStartNanos = System.nanoTime();
+		listener.onPageStart(this);
+	}
+
+	void completePage(int items, @Nullable Integer scannedItems) {
+		long pageDurationNanos = System.nanoTime() - pageStartNanos;
+		int scanned = scannedItems == null ? items : scannedItems;
+		pageCount.incrementAndGet();
+		itemCount.addAndGet(items);
+		scannedCount.addAndGet(scanned);
+		restore(previousForPage);
+		listener.onPageComplete(this, items, scanned, pageDurationNanos);
+	}
+
+	void addItems(int items) {
+		itemCount.addAndGet(items);
+	}
+
+	private static void restore(@Nullable OperationContext previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * Records that a request of this operation is sent to DynamoDB.
+	 *
+	 * @param requestType
+	 *            The type of the request - e.g. {@code GetItem}
+	 */
+	public void startRequest(String requestType) {
+		requestStartNanos = System.nanoTime();
+		listener.onRequestStart(this, requestType);
+	}
+
+	/**
+	 * Records that a request started via {@link #startRequest(String)} completed.
+	 *
+	 * @param requestType
+	 *            The type of the request - e.g. {@code GetItem}
+	 * @param items
+	 *            The number of items read or written
+	 * @param error
+	 *            The error of the request - {@code null} if successful
+	 */
+	public void completeRequest(String requestType, int items, @Nullable Throwable error) {
+		long durationNanos = System.nanoTime() - requestStartNanos;
+		requestCount.incrementAndGet();
+		requestNanos.addAndGet(durationNanos);
+		listener.onRequestComplete(this, requestType, items, durationNanos, error);
+	}
+
+	/**
+	 * Records capacity reported by DynamoDB for a request of this operation.
+	 */
+	public void recordConsumedCapacity(@Nullable ConsumedCapacity consumedCapacity) {
+		if (consumedCapacity == null || consumedCapacity.getCapacityUnits() == null) {
+			return;
+		}
+		double units = consumedCapacity.getCapacityUnits();
+		if (type.isRead()) {
+			readCapacityUnits.add(units);
+			listener.onConsumedCapacity(this, units, 0);
+		} else {
+			writeCapacityUnits.add(units);
+			listener.onConsumedCapacity(this, 0, units);
+		}
+	}
+
+	/**
+	 * Records that a request of this operation had to be retried.
+	 *
+	 * @param throttled
+	 *            {@code true} if the request was throttled by DynamoDB
+	 */
+	public void recordRetry(boolean throttled) {
+		retries.incrementAndGet();
+		if (throttled) {
+			throttles.incrementAndGet();
+		}
+		listener.onRetry(this, throttled);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return The domain class - {@code null} for batch operations spanning
+	 *         multiple domain classes
+	 */
+	@Nullable
+	public Class<?> getDomainClass() {
+		return domainClass;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	@Nullable
+	public String getIndexName() {
+		return indexName;
+	}
+
+	/**
+	 * @return How the read is performed - resolved on first access. {@code null}
+	 *         for writes and batch loads.
+	 */
+	@Nullable
+	public synchronized QueryPlan getQueryPlan() {
+		if (queryPlan == null && queryPlanSupplier != null) {
+			queryPlan = queryPlanSupplier.get();
+			queryPlanSupplier = null;
+		}
+		return queryPlan;
+	}
+
+	/**
+	 * @return The repository method invocation this operation is part of -
+	 *         {@code null} if invoked directly
+	 */
+	@Nullable
+	public RepositoryMethodContext getRepositoryMethod() {
+		return repositoryMethod;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public int getItemCount() {
+		return itemCount.get();
+	}
+
+	public int getScannedCount() {
+		return scannedCount.get();
+	}
+
+	public int getPageCount() {
+		return pageCount.get();
+	}
+
+	public double getReadCapacityUnits() {
+		return readCapacityUnits.sum();
+	}
+
+	public double getWriteCapacityUnits() {
+		return writeCapacityUnits.sum();
+	}
+
+	public int getRetries() {
+		return retries.get();
+	}
+
+	public int getThrottles() {
+		return throttles.get();
+	}
+
+	/**
+	 * @return Number of requests sent to DynamoDB so far - only known if the
+	 *         requests are reported via {@link #startRequest(String)}
+	 */
+	public int getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * @return Time spent in requests to DynamoDB so far - the remainder of the
+	 *         duration is spent on the client, e.g. for marshalling
+	 */
+	public long getRequestNanos() {
+		return requestNanos.get();
+	}
+
+	@Nullable
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Allows listeners to keep their state - e.g. a span - with the operation.
+	 */
+	@Nullable
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	/**
+	 * @param value
+	 *            The value - {@code null} removes the attribute
+	 */
+	public void setAttribute(String name, @Nullable Object value) {
+		if (value == null) {
+			attributes.remove(name);
+		} else {
+			attributes.put(name, value);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return type + " " + tableName + (indexName == null ? "" : "/" + indexName);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link PaginatedScanList} that fetches its pages via
+ * {@link DynamoDBMapper#scanPage(Class, DynamoDBScanExpression)} and hands
+ * every page to a callback as soon as it has been loaded. Like the regular
+ * {@link PaginatedScanList} the first page is fetched upfront while the
+ * following pages are only fetched on demand. If an {@link OperationContext} is
+ * given, it is notified about every page.
+ *
+ * @author Sebastian Just
+ */
+class PageNotifyingScanList<T> extends PaginatedScanList<T> {
+
+	private final DynamoDBScanExpression scanExpression;
+	private final OperationContext operation;
+	private final Consumer<ScanResultPage<T>> pageListener;
+	private Map<String, AttributeValue> lastEvaluatedKey;
+
+	PageNotifyingScanList(DynamoDBMapper mapper, Class<T> clazz, AmazonDynamoDB dynamo,
+			DynamoDBScanExpression scanExpression, PaginationLoadingStrategy paginationLoadingStrategy,
+			DynamoDBMapperConfig config, @Nullable OperationContext operation,
+			Consumer<ScanResultPage<T>> pageListener) {
+		// The pages are fetched by this class - the super class only
+		// provides the list semantics
+		super(mapper, clazz, dynamo, new ScanRequest(), new ScanResult().withItems(Collections.emptyList()),
+				PageNotifyingQueryList.lazyUnlessIterationOnly(paginationLoadingStrategy), config);
+		this.scanExpression = scanExpression;
+		this.operation = operation;
+		this.pageListener = pageListener;
+		this.lastEvaluatedKey = scanExpression.getExclusiveStartKey();
+
+		allResults.addAll(fetchNextPage());
+		if (paginationLoadingStrategy == PaginationLoadingStrategy.EAGER_LOADING) {
+			loadAllResults();
+		}
+	}
+
+	@Override
+	protected boolean atEndOfResults() {
+		return lastEvaluatedKey == null;
+	}
+
+	@Override
+	protected synchronized List<T> fetchNextPage() {
+		// The expression might be shared with the caller - e.g. for a subsequent
+		// count - so it is left untouched
+		Map<String, AttributeValue> exclusiveStartKey = scanExpression.getExclusiveStartKey();
+		ScanResultPage<T> page = null;
+		if (operation != null) {
+			operation.startPage();
+		}
+		try {
+			scanExpression.setExclusiveStartKey(lastEvaluatedKey);
+			page = mapper.scanPage(clazz, scanExpression);
+		} finally {
+			scanExpression.setExclusiveStartKey(exclusiveStartKey);
+			if (operation != null) {
+				operation.completePage(page == null ? 0 : page.getResults().size(),
+						page == null ? null : page.getScannedCount());
+			}
+		}
+		lastEvaluatedKey = page.getLastEvaluatedKey();
+
+		pageListener.accept(page);
+		return page.getResults();
+	}
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import org.socialsignin.spring.data.dynamodb.core.OperationContext.Type;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Describes the invocation of a repository query method while it is observed by
+ * a {@link DynamoDBOperationListener}. All {@link OperationContext}s created
+ * during the invocation refer to it - also those performed by other threads on
+ * behalf of the invocation, see {@link #inCurrentContext(Supplier)}.
+ *
+ * @author Sebastian Just
+ */
+public class RepositoryMethodContext {
+
+	private static final ThreadLocal<RepositoryMethodContext> CURRENT = new ThreadLocal<>();
+
+	private final Class<?> repositoryInterface;
+	private final String methodName;
+	private final Object[] parameters;
+	private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+	private long startNanos;
+	private volatile long durationNanos;
+	private int operationCount;
+	private Type executionKind;
+	private String indexName;
+	private volatile Throwable error;
+
+	public RepositoryMethodContext(Class<?> repositoryInterface, String methodName, Object[] parameters) {
+		Assert.notNull(repositoryInterface, "repositoryInterface must not be null!");
+		Assert.notNull(methodName, "methodName must not be null!");
+		this.repositoryInterface = repositoryInterface;
+		this.methodName = methodName;
+		this.parameters = parameters == null ? new Object[0] : parameters;
+	}
+
+	/**
+	 * @return The repository method invocation currently performed by this thread -
+	 *         {@code null} if there is none or nobody is observing
+	 */
+	@Nullable
+	public static RepositoryMethodContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Runs the invocation and notifies the listener around it.
+	 *
+	 * @param listener
+	 *            The listener to notify - might be {@code null}
+	 * @param repositoryInterface
+	 *            The repository interface
+	 * @param methodName
+	 *            The name of the invoked method
+	 * @param parameters
+	 *            The parameters of the invocation
+	 * @param invocation
+	 *            The actual invocation
+	 * @return The result of {@code invocation}
+	 */
+	public static <T> T observe(@Nullable DynamoDBOperationListener listener, Class<?> repositoryInterface,
+			String methodName, Object[] parameters, Supplier<T> invocation) {
+		try {
+			return observeInvocation(listener, repositoryInterface, methodName, parameters, invocation::get);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			// Suppliers can't throw checked exceptions
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	/**
+	 * Like
+	 * {@link #observe(DynamoDBOperationListener, Class, String, Object[], Supplier)}
+	 * for invocations that might throw checked exceptions - e.g. intercepted method
+	 * calls.
+	 */
+	public static <T> T observeInvocation(@Nullable DynamoDBOperationListener listener, Class<?> repositoryInterface,
+			String methodName, Object[] parameters, Invocation<T> invocation) throws Throwable {
+		if (listener == null || listener == DynamoDBOperationListener.NONE) {
+			return invocation.proceed();
+		}
+
+		RepositoryMethodContext context = new RepositoryMethodContext(repositoryInterface, methodName, parameters);
+		RepositoryMethodContext previous = CURRENT.get();
+		CURRENT.set(context);
+		context.startNanos = System.nanoTime();
+		listener.onRepositoryMethodStart(context);
+		try {
+			return invocation.proceed();
+		} catch (Throwable e) {
+			context.error = e;
+			throw e;
+		} finally {
+			context.durationNanos = System.nanoTime() - context.startNanos;
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+			listener.onRepositoryMethodComplete(context);
+		}
+	}
+
+	/**
+	 * Wraps a task handed over to another thread so that the operations it
+	 * performs are attributed to the invocation the calling thread currently
+	 * performs - e.g. the parallel queries of an {@code Or} query method.
+	 *
+	 * @param task
+	 *            The task to run in another thread
+	 * @return The task running within the current invocation
+	 */
+	public static <T> Supplier<T> inCurrentContext(Supplier<T> task) {
+		RepositoryMethodContext context = CURRENT.get();
+		if (context == null) {
+			return task;
+		}
+		return () -> {
+			RepositoryMethodContext previous = CURRENT.get();
+			CURRENT.set(context);
+			try {
+				return task.get();
+			} finally {
+				if (previous == null) {
+					CURRENT.remove();
+				} else {
+					CURRENT.set(previous);
+				}
+			}
+		};
+	}
+
+	synchronized void recordOperation(OperationContext operation) {
+		if (operationCount++ == 0) {
+			this.executionKind = operation.getType();
+			this.indexName = operation.getIndexName();
+		}
+	}
+
+	public Class<?> getRepositoryInterface() {
+		return repositoryInterface;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public Object[] getParameters() {
+		return parameters;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @return Number of {@link DynamoDBTemplate} operations performed so far
+	 */
+	public synchronized int getOperationCount() {
+		return operationCount;
+	}
+
+	/**
+	 * @return Type of the first operation performed - {@code null} if there was
+	 *         none
+	 */
+	@Nullable
+	public synchronized Type getExecutionKind() {
+		return executionKind;
+	}
+
+	/**
+	 * @return Index used by the first operation performed
+	 */
+	@Nullable
+	public synchronized String getIndexName() {
+		return indexName;
+	}
+
+	@Nullable
+	public Throwable getError() {
+		return error;
+	}
+
+	@Nullable
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	/**
+	 * @param value
+	 *            The value - {@code null} removes the attribute
+	 */
+	public void setAttribute(String name, @Nullable Object value) {
+		if (value == null) {
+			attributes.remove(name);
+		} else {
+			attributes.put(name, value);
+		}
+	}
+
+	/**
+	 * Atomically gets the attribute - creating it if absent. The value must be
+	 * safe to use from all threads performing operations of this invocation.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T computeAttributeIfAbsent(String name, Function<String, T> factory) {
+		return (T) attributes.computeIfAbsent(name, factory);
+	}
+
+	/**
+	 * An invocation of a repository method
+	 */
+	@FunctionalInterface
+	public interface Invocation<T> {
+		T proceed() throws Throwable;
+	}
+
+	@Override
+	public String toString() {
+		return repositoryInterface.getSimpleName() + "." + methodName;
+	}
+}
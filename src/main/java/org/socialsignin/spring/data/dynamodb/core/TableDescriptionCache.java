@@ -0,0 +1,94 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the {@code DescribeTable} results of tables for a fixed time. DynamoDB
+ * updates the item counts of tables and indexes only about every six hours -
+ * describing the table before every query would just add a round trip.
+ *
+ * Failures are cached as well so an unreachable or forbidden
+ * {@code DescribeTable} is not retried on every query.
+ *
+ * @author Sebastian Just
+ */
+class TableDescriptionCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TableDescriptionCache.class);
+
+	private final AmazonDynamoDB amazonDynamoDB;
+	private final long ttlMillis;
+	private final LongSupplier clock;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	TableDescriptionCache(AmazonDynamoDB amazonDynamoDB, long ttlMillis) {
+		this(amazonDynamoDB, ttlMillis, System::currentTimeMillis);
+	}
+
+	TableDescriptionCache(AmazonDynamoDB amazonDynamoDB, long ttlMillis, LongSupplier clock) {
+		Assert.notNull(amazonDynamoDB, "amazonDynamoDB must not be null!");
+		Assert.isTrue(ttlMillis > 0, "ttlMillis must be positive!");
+		this.amazonDynamoDB = amazonDynamoDB;
+		this.ttlMillis = ttlMillis;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The description of the table - {@code null} if it can't be
+	 *         described
+	 */
+	@Nullable
+	TableDescription get(String tableName) {
+		long now = clock.getAsLong();
+		Entry entry = entries.get(tableName);
+		if (entry == null || entry.expiresAt <= now) {
+			entry = new Entry(describe(tableName), now + ttlMillis);
+			entries.put(tableName, entry);
+		}
+		return entry.description;
+	}
+
+	@Nullable
+	private TableDescription describe(String tableName) {
+		try {
+			return amazonDynamoDB.describeTable(tableName).getTable();
+		} catch (RuntimeException e) {
+			LOGGER.warn("Can't describe table {} to choose the index to query: {}", tableName, e.toString());
+			return null;
+		}
+	}
+
+	private static final class Entry {
+		@Nullable
+		private final TableDescription description;
+		private final long expiresAt;
+
+		Entry(@Nullable TableDescription description, long expiresAt) {
+			this.description = description;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The index of the entities written at build time by the
+ * {@code spring-data-dynamodb-processor} annotation processor. It maps each
+ * {@link com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable} class to
+ * its {@link GeneratedDynamoDBEntityMetadata} and each repository interface to
+ * the class holding its generated query methods.
+ *
+ * Like Spring's {@code META-INF/spring.components} index it is all or nothing:
+ * once an index is found on the classpath, entities are only looked up there
+ * and the classpath is not scanned anymore. Setting the {@value #IGNORE_INDEX}
+ * system property (or {@code spring.properties} entry) to {@code true} ignores
+ * all indexes - e.g. if only some of the jars got processed.
+ *
+ * @author Sebastian Just
+ */
+public final class DynamoDBEntityIndex {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBEntityIndex.class);
+
+	/**
+	 * Location of the index files - entity class name to metadata class name. The
+	 * metadata class name is empty for entities without generated metadata.
+	 */
+	public static final String INDEX_LOCATION = "META-INF/spring-data-dynamodb/entities.properties";
+
+	/**
+	 * Location of the repository index files - repository interface name to the
+	 * name of the class holding its generated query methods.
+	 */
+	public static final String REPOSITORY_INDEX_LOCATION = "META-INF/spring-data-dynamodb/repositories.properties";
+
+	/**
+	 * Flag to ignore the indexes and fall back to classpath scanning and reflection
+	 */
+	public static final String IGNORE_INDEX = "spring.data.dynamodb.index.ignore";
+
+	private static final Map<ClassLoader, DynamoDBEntityIndex> INDEXES = new ConcurrentReferenceHashMap<>();
+
+	private final ClassLoader classLoader;
+	private final boolean present;
+	private final Map<String, String> metadataClassNames;
+	private final Map<String, String> queriesClassNames;
+	private final Map<Class<?>, Optional<GeneratedDynamoDBEntityMetadata<?>>> metadata = new ConcurrentReferenceHashMap<>();
+
+	private DynamoDBEntityIndex(ClassLoader classLoader, boolean present, Map<String, String> metadataClassNames,
+			Map<String, String> queriesClassNames) {
+		this.classLoader = classLoader;
+		this.present = present;
+		this.metadataClassNames = metadataClassNames;
+		this.queriesClassNames = queriesClassNames;
+	}
+
+	/**
+	 * @param classLoader
+	 *            The class loader to load the index files from - or {@literal null}
+	 *            for the default class loader
+	 * @return The (memoized) index of the given class loader
+	 */
+	public static DynamoDBEntityIndex forClassLoader(@Nullable ClassLoader classLoader) {
+		ClassLoader cl = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
+		Assert.notNull(cl, "No class loader available!");
+
+		return INDEXES.computeIfAbsent(cl, DynamoDBEntityIndex::load);
+	}
+
+	private static DynamoDBEntityIndex load(ClassLoader classLoader) {
+		if (SpringProperties.getFlag(IGNORE_INDEX)) {
+			return new DynamoDBEntityIndex(classLoader, false, Collections.emptyMap(), Collections.emptyMap());
+		}
+
+		Map<String, String> metadataClassNames = new LinkedHashMap<>();
+		boolean present = loadInto(classLoader, INDEX_LOCATION, metadataClassNames);
+		Map<String, String> queriesClassNames = new LinkedHashMap<>();
+		loadInto(classLoader, REPOSITORY_INDEX_LOCATION, queriesClassNames);
+		return new DynamoDBEntityIndex(classLoader, present, metadataClassNames, queriesClassNames);
+	}
+
+	private static boolean loadInto(ClassLoader classLoader, String location, Map<String, String> classNames) {
+		boolean present = false;
+		try {
+			Enumeration<URL> urls = classLoader.getResources(location);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				LOGGER.debug("Loading DynamoDB index {}", url);
+				Properties properties = new Properties();
+				try (InputStream in = url.openStream()) {
+					properties.load(in);
+				}
+				properties.stringPropertyNames().forEach(name -> classNames.put(name, properties.getProperty(name)));
+				present = true;
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to load DynamoDB indexes from " + location, e);
+		}
+		return present;
+	}
+
+	/**
+	 * @return {@code true} if at least one entity index was found
+	 */
+	public boolean isPresent() {
+		return present;
+	}
+
+	/**
+	 * @param basePackage
+	 *            The package to look up - including sub-packages
+	 * @return The sorted names of the indexed entities within the package
+	 */
+	public Set<String> getEntityNames(String basePackage) {
+		String prefix = basePackage + ".";
+		Set<String> entityNames = new TreeSet<>();
+		for (String entityName : metadataClassNames.keySet()) {
+			if (entityName.startsWith(prefix)) {
+				entityNames.add(entityName);
+			}
+		}
+		return entityNames;
+	}
+
+	/**
+	 * @param entityClass
+	 *            The entity to look up
+	 * @return The generated metadata of the entity or {@literal null} if the entity
+	 *         is not indexed
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> GeneratedDynamoDBEntityMetadata<T> getMetadata(Class<T> entityClass) {
+		if (metadataClassNames.isEmpty()) {
+			return null;
+		}
+		return (GeneratedDynamoDBEntityMetadata<T>) metadata.computeIfAbsent(entityClass, this::instantiate)
+				.orElse(null);
+	}
+
+	/**
+	 * @param repositoryInterface
+	 *            The repository to look up
+	 * @return The name of the class holding the generated query methods of the
+	 *         repository or {@literal null} if the repository is not indexed
+	 */
+	@Nullable
+	public String getQueriesClassName(Class<?> repositoryInterface) {
+		String queriesClassName = queriesClassNames.get(repositoryInterface.getName());
+		return StringUtils.hasText(queriesClassName) ? queriesClassName : null;
+	}
+
+	private Optional<GeneratedDynamoDBEntityMetadata<?>> instantiate(Class<?> entityClass) {
+		String metadataClassName = metadataClassNames.get(entityClass.getName());
+		if (!StringUtils.hasText(metadataClassName)) {
+			// Not indexed or indexed without generated metadata
+			return Optional.empty();
+		}
+
+		try {
+			Class<?> metadataClass = ClassUtils.forName(metadataClassName, classLoader);
+			GeneratedDynamoDBEntityMetadata<?> generated = (GeneratedDynamoDBEntityMetadata<?>) metadataClass
+					.getDeclaredConstructor().newInstance();
+			Assert.state(generated.getJavaType() == entityClass,
+					() -> metadataClassName + " does not describe " + entityClass + " - is the index stale?");
+			return Optional.of(generated);
+		} catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+			throw new IllegalStateException("Unable to instantiate generated metadata " + metadataClassName + " of "
+					+ entityClass + " - is the index stale?", e);
+		}
+	}
+
+	/**
+	 * Clears the memoized indexes - e.g. after the classpath changed.
+	 */
+	public static void clearCache() {
+		INDEXES.clear();
+	}
+}
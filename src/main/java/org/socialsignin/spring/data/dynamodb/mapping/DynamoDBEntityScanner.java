@@ -0,0 +1,183 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Memoizes the annotation scanning done while bootstrapping: the classpath scan
+ * for {@link DynamoDBTable} classes of a base package and the check whether a
+ * type is a DynamoDB entity. Both are otherwise repeated for every
+ * configuration, mapping context and repository that touches the same types. If
+ * a build-time {@link DynamoDBEntityIndex} is present, the entities are read
+ * from there instead of scanning the classpath.
+ *
+ * The caches hold soft references so that neither classes nor class loaders are
+ * pinned by them.
+ *
+ * @author Sebastian Just
+ */
+public final class DynamoDBEntityScanner {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBEntityScanner.class);
+
+	private static final Map<Class<?>, Boolean> ENTITIES = new ConcurrentReferenceHashMap<>();
+	private static final Map<ClassLoader, Map<String, Set<Class<?>>>> PACKAGES = new ConcurrentReferenceHashMap<>();
+
+	private DynamoDBEntityScanner() {
+	}
+
+	/**
+	 * Checks whether the given type is a DynamoDB entity - it is either annotated
+	 * with {@link DynamoDBTable} or declares both a public {@link DynamoDBHashKey}
+	 * and a public {@link DynamoDBRangeKey} member.
+	 *
+	 * @param type
+	 *            The type to check
+	 * @return {@code true} if the type is a DynamoDB entity
+	 */
+	public static boolean isEntity(Class<?> type) {
+		Assert.notNull(type, "type must not be null!");
+
+		return ENTITIES.computeIfAbsent(type, DynamoDBEntityScanner::introspect);
+	}
+
+	private static boolean introspect(Class<?> type) {
+		if (type.isAnnotationPresent(DynamoDBTable.class)) {
+			return true;
+		}
+		return (hasAnnotation(type.getMethods(), DynamoDBHashKey.class)
+				|| hasAnnotation(type.getFields(), DynamoDBHashKey.class))
+				&& (hasAnnotation(type.getMethods(), DynamoDBRangeKey.class)
+						|| hasAnnotation(type.getFields(), DynamoDBRangeKey.class));
+	}
+
+	private static boolean hasAnnotation(AccessibleObject[] members, Class<? extends Annotation> annotation) {
+		for (AccessibleObject member : members) {
+			if (member.isAnnotationPresent(annotation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Scans the given base packages for classes annotated with
+	 * {@link DynamoDBTable}. The result of each package is memoized per class
+	 * loader.
+	 *
+	 * @param classLoader
+	 *            The class loader to scan and load the classes with
+	 * @param basePackages
+	 *            The packages to scan - empty entries are ignored
+	 * @return All classes with {@link DynamoDBTable} annotation
+	 * @throws ClassNotFoundException
+	 *             if the class with {@link DynamoDBTable} annotation can't be
+	 *             loaded
+	 */
+	public static Set<Class<?>> findEntities(ClassLoader classLoader, @Nullable String... basePackages)
+			throws ClassNotFoundException {
+		Assert.notNull(classLoader, "classLoader must not be null!");
+
+		Set<Class<?>> entities = new LinkedHashSet<>();
+		if (ObjectUtils.isEmpty(basePackages)) {
+			return entities;
+		}
+
+		Map<String, Set<Class<?>>> scanned = PACKAGES.computeIfAbsent(classLoader,
+				cl -> new ConcurrentReferenceHashMap<>());
+		for (String basePackage : basePackages) {
+			if (!StringUtils.hasText(basePackage)) {
+				continue;
+			}
+			Set<Class<?>> found = scanned.get(basePackage);
+			if (found == null) {
+				// Not computeIfAbsent as the scan may fail with a checked exception
+				found = scan(classLoader, basePackage);
+				scanned.put(basePackage, found);
+			} else {
+				LOGGER.trace("findEntities. basePackage: {} served from cache", basePackage);
+			}
+			entities.addAll(found);
+		}
+		return entities;
+	}
+
+	private static Set<Class<?>> scan(ClassLoader classLoader, String basePackage) throws ClassNotFoundException {
+		DynamoDBEntityIndex index = DynamoDBEntityIndex.forClassLoader(classLoader);
+		if (index.isPresent()) {
+			LOGGER.trace("findEntities. basePackage: {} from index", basePackage);
+
+			Set<Class<?>> entities = new LinkedHashSet<>();
+			for (String entityName : index.getEntityNames(basePackage)) {
+				Class<?> entity = ClassUtils.forName(entityName, classLoader);
+				ENTITIES.put(entity, Boolean.TRUE);
+				entities.add(entity);
+			}
+			return Collections.unmodifiableSet(entities);
+		}
+
+		LOGGER.trace("findEntities. basePackage: {}", basePackage);
+
+		ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(
+				false);
+		componentProvider.setResourceLoader(new DefaultResourceLoader(classLoader));
+		componentProvider.addIncludeFilter(new AnnotationTypeFilter(DynamoDBTable.class));
+
+		Set<Class<?>> entities = new LinkedHashSet<>();
+		for (BeanDefinition candidate : componentProvider.findCandidateComponents(basePackage)) {
+			String candidateClass = candidate.getBeanClassName();
+			if (candidateClass != null) {
+				LOGGER.trace("findEntities. candidate: {}", candidateClass);
+				Class<?> entity = ClassUtils.forName(candidateClass, classLoader);
+				ENTITIES.put(entity, Boolean.TRUE);
+				entities.add(entity);
+			} else {
+				LOGGER.warn("findEntities. candidate: {} did not provide a class", candidate);
+			}
+		}
+		return Collections.unmodifiableSet(entities);
+	}
+
+	/**
+	 * Clears the memoized scan results - e.g. after classes got redefined.
+	 */
+	public static void clearCache() {
+		ENTITIES.clear();
+		PACKAGES.clear();
+		DynamoDBEntityIndex.clearCache();
+	}
+}
@@ -15,17 +15,11 @@
  */
 package org.socialsignin.spring.data.dynamodb.mapping;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import org.springframework.data.mapping.context.AbstractMappingContext;
 import org.springframework.data.mapping.model.Property;
 import org.springframework.data.mapping.model.SimpleTypeHolder;
 import org.springframework.data.util.TypeInformation;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-
 /**
  * Default implementation of a
  * {@link org.springframework.data.mapping.context.MappingContext} for DynamoDB
@@ -75,28 +69,7 @@ public class DynamoDBMappingContext
 	 */
 	@Override
 	protected boolean shouldCreatePersistentEntityFor(TypeInformation<?> type) {
-
-		boolean hasHashKey = false;
-		boolean hasRangeKey = false;
-		for (Method method : type.getType().getMethods()) {
-			if (method.isAnnotationPresent(DynamoDBHashKey.class)) {
-				hasHashKey = true;
-			}
-			if (method.isAnnotationPresent(DynamoDBRangeKey.class)) {
-				hasRangeKey = true;
-			}
-
-		}
-		for (Field field : type.getType().getFields()) {
-			if (field.isAnnotationPresent(DynamoDBHashKey.class)) {
-				hasHashKey = true;
-			}
-			if (field.isAnnotationPresent(DynamoDBRangeKey.class)) {
-				hasRangeKey = true;
-			}
-
-		}
-		return type.getType().isAnnotationPresent(DynamoDBTable.class) || (hasHashKey && hasRangeKey);
+		return DynamoDBEntityScanner.isEntity(type.getType());
 	}
 
 }
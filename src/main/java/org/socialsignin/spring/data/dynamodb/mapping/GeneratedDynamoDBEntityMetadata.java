@@ -0,0 +1,159 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Base class of the entity metadata generated at build time by the
+ * {@code spring-data-dynamodb-processor} annotation processor. It carries
+ * everything the repositories would otherwise reflect from the annotations of
+ * the entity: key properties, index names, attribute name overrides and
+ * converter bindings.
+ *
+ * The generated subclasses register the metadata in their no-arg constructor
+ * and are listed in the {@link DynamoDBEntityIndex}.
+ *
+ * @author Sebastian Just
+ */
+public abstract class GeneratedDynamoDBEntityMetadata<T> {
+
+	private final Class<T> javaType;
+	private final String tableName;
+	private String hashKeyPropertyName;
+	private String rangeKeyPropertyName;
+	private final Map<String, String[]> globalSecondaryIndexNames = new LinkedHashMap<>();
+	private final Set<String> globalIndexHashKeyPropertyNames = new LinkedHashSet<>();
+	private final Set<String> globalIndexRangeKeyPropertyNames = new LinkedHashSet<>();
+	private final Map<String, String[]> localSecondaryIndexNames = new LinkedHashMap<>();
+	private final Map<String, String> attributeNames = new LinkedHashMap<>();
+	private final Map<String, Class<?>> typeConverters = new LinkedHashMap<>();
+	private final Map<String, Class<?>> marshallers = new LinkedHashMap<>();
+
+	protected GeneratedDynamoDBEntityMetadata(Class<T> javaType, String tableName) {
+		Assert.notNull(javaType, "javaType must not be null!");
+		Assert.notNull(tableName, "tableName must not be null!");
+
+		this.javaType = javaType;
+		this.tableName = tableName;
+	}
+
+	protected void hashKey(String propertyName) {
+		this.hashKeyPropertyName = propertyName;
+	}
+
+	protected void rangeKey(String propertyName) {
+		this.rangeKeyPropertyName = propertyName;
+	}
+
+	protected void globalIndexHashKey(String propertyName, String... indexNames) {
+		globalSecondaryIndexNames.put(propertyName, indexNames);
+		globalIndexHashKeyPropertyNames.add(propertyName);
+	}
+
+	protected void globalIndexRangeKey(String propertyName, String... indexNames) {
+		globalSecondaryIndexNames.put(propertyName, indexNames);
+		globalIndexRangeKeyPropertyNames.add(propertyName);
+	}
+
+	protected void localIndexRangeKey(String propertyName, String... indexNames) {
+		localSecondaryIndexNames.put(propertyName, indexNames);
+	}
+
+	protected void attributeName(String propertyName, String attributeName) {
+		attributeNames.put(propertyName, attributeName);
+	}
+
+	protected void typeConverter(String propertyName, Class<?> converterClass) {
+		typeConverters.put(propertyName, converterClass);
+	}
+
+	protected void marshaller(String propertyName, Class<?> marshallerClass) {
+		marshallers.put(propertyName, marshallerClass);
+	}
+
+	public Class<T> getJavaType() {
+		return javaType;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	@Nullable
+	public String getHashKeyPropertyName() {
+		return hashKeyPropertyName;
+	}
+
+	@Nullable
+	public String getRangeKeyPropertyName() {
+		return rangeKeyPropertyName;
+	}
+
+	public boolean hasRangeKey() {
+		return rangeKeyPropertyName != null;
+	}
+
+	/**
+	 * @return The names of the global secondary indexes by the property that is a
+	 *         hash or range key of them
+	 */
+	public Map<String, String[]> getGlobalSecondaryIndexNamesByPropertyName() {
+		return Collections.unmodifiableMap(globalSecondaryIndexNames);
+	}
+
+	public Set<String> getGlobalIndexHashKeyPropertyNames() {
+		return Collections.unmodifiableSet(globalIndexHashKeyPropertyNames);
+	}
+
+	public Set<String> getGlobalIndexRangeKeyPropertyNames() {
+		return Collections.unmodifiableSet(globalIndexRangeKeyPropertyNames);
+	}
+
+	/**
+	 * @return The names of the local secondary indexes by their range key property
+	 */
+	public Map<String, String[]> getLocalSecondaryIndexNamesByPropertyName() {
+		return Collections.unmodifiableMap(localSecondaryIndexNames);
+	}
+
+	public Optional<String> getOverriddenAttributeName(String propertyName) {
+		return Optional.ofNullable(attributeNames.get(propertyName));
+	}
+
+	@Nullable
+	public Class<?> getTypeConverterClass(String propertyName) {
+		return typeConverters.get(propertyName);
+	}
+
+	@Nullable
+	public Class<?> getMarshallerClass(String propertyName) {
+		return marshallers.get(propertyName);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + javaType.getName() + " -> " + tableName + "]";
+	}
+}
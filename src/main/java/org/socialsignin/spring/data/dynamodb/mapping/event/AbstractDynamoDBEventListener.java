@@ -31,18 +31,22 @@ package org.socialsignin.spring.data.dynamodb.mapping.event;
  * limitations under the License.
  */
 
-import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
-import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.GenericTypeResolver;
 
+import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
  * Base class to implement domain class specific {@link ApplicationListener}s.
+ * The entities of a batch are passed to the callbacks via the batch event -
+ * e.g. a {@link BeforeBatchSaveEvent} - events
+ * {@link DynamoDBMappingEvent#isPartOfBatch() about one of them} are ignored.
  *
  * @author Michael Lavelle
  * @author Sebastian Just
@@ -50,6 +54,22 @@ import java.util.function.Consumer;
 public abstract class AbstractDynamoDBEventListener<E> implements ApplicationListener<DynamoDBMappingEvent<?>> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractDynamoDBEventListener.class);
+	private static final Map<Class<?>, String> CALLBACKS = new HashMap<>();
+	static {
+		CALLBACKS.put(BeforeSaveEvent.class, "onBeforeSave");
+		CALLBACKS.put(BeforeBatchSaveEvent.class, "onBeforeSave");
+		CALLBACKS.put(AfterSaveEvent.class, "onAfterSave");
+		CALLBACKS.put(AfterBatchSaveEvent.class, "onAfterSave");
+		CALLBACKS.put(BeforeDeleteEvent.class, "onBeforeDelete");
+		CALLBACKS.put(BeforeBatchDeleteEvent.class, "onBeforeDelete");
+		CALLBACKS.put(AfterDeleteEvent.class, "onAfterDelete");
+		CALLBACKS.put(AfterBatchDeleteEvent.class, "onAfterDelete");
+		CALLBACKS.put(AfterLoadEvent.class, "onAfterLoad");
+		CALLBACKS.put(AfterBatchLoadEvent.class, "onAfterLoad");
+		CALLBACKS.put(AfterScanEvent.class, "onAfterScan");
+		CALLBACKS.put(AfterQueryEvent.class, "onAfterQuery");
+	}
+
 	private final Class<?> domainClass;
 
 	/**
@@ -81,13 +101,37 @@ public abstract class AbstractDynamoDBEventListener<E> implements ApplicationLis
 		// null
 		assert source != null;
 
+		if (event.isPartOfBatch()) {
+			// Handled along with the other entities of the batch event
+			return;
+		}
 		if (event instanceof AfterScanEvent) {
 
-			publishEachElement((PaginatedScanList<?>) source, this::onAfterScan);
+			publishEachElement((List<?>) source, this::onAfterScan);
 			return;
 		} else if (event instanceof AfterQueryEvent) {
 
-			publishEachElement((PaginatedQueryList<?>) source, this::onAfterQuery);
+			publishEachElement((List<?>) source, this::onAfterQuery);
+			return;
+		} else if (event instanceof BeforeBatchSaveEvent) {
+
+			publishEachElement((List<?>) source, this::onBeforeSave);
+			return;
+		} else if (event instanceof AfterBatchSaveEvent) {
+
+			publishEachElement((List<?>) source, this::onAfterSave);
+			return;
+		} else if (event instanceof BeforeBatchDeleteEvent) {
+
+			publishEachElement((List<?>) source, this::onBeforeDelete);
+			return;
+		} else if (event instanceof AfterBatchDeleteEvent) {
+
+			publishEachElement((List<?>) source, this::onAfterDelete);
+			return;
+		} else if (event instanceof AfterBatchLoadEvent) {
+
+			publishEachElement((List<?>) source, this::onAfterLoad);
 			return;
 		}
 		// Check for matching domain type and invoke callbacks
@@ -113,6 +157,36 @@ public abstract class AbstractDynamoDBEventListener<E> implements ApplicationLis
 		assert false;
 	}
 
+	/**
+	 * Determines whether this listener handles events of the given type for the
+	 * given domain type at all. This is the case if the domain type matches and the
+	 * corresponding callback - e.g. {@link #onBeforeSave(Object)} for a
+	 * {@link BeforeSaveEvent} or a {@link BeforeBatchSaveEvent} - is overridden.
+	 *
+	 * @param eventType
+	 *            The type of the event
+	 * @param domainType
+	 *            The type of the entities the event is about
+	 * @return {@code true} if the listener has to be notified
+	 */
+	public boolean supportsEvent(Class<?> eventType, Class<?> domainType) {
+		if (!domainClass.isAssignableFrom(domainType)) {
+			return false;
+		}
+
+		String callback = CALLBACKS.get(eventType);
+		if (callback == null) {
+			return true;
+		}
+		for (Method method : getClass().getMethods()) {
+			if (method.getName().equals(callback) && method.getParameterCount() == 1
+					&& method.getDeclaringClass() != AbstractDynamoDBEventListener.class) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@SuppressWarnings("unchecked")
 	private void publishEachElement(List<?> list, Consumer<E> publishMethod) {
 		list.stream().filter(o -> domainClass.isAssignableFrom(o.getClass())).map(o -> (E) o).forEach(publishMethod);
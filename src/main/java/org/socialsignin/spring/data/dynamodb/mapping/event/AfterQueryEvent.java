@@ -15,17 +15,20 @@
  */
 package org.socialsignin.spring.data.dynamodb.mapping.event;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
+import java.util.List;
 
 /**
+ * Published for every page of a query - the source is the list of entities of
+ * that page.
+ *
  * @author Michael Lavelle
  * @author Sebastian Just
  */
-public class AfterQueryEvent<T> extends DynamoDBMappingEvent<PaginatedQueryList<T>> {
+public class AfterQueryEvent<T> extends DynamoDBMappingEvent<List<T>> {
 
 	private static final long serialVersionUID = 1L;
 
-	public AfterQueryEvent(PaginatedQueryList<T> source) {
+	public AfterQueryEvent(List<T> source) {
 		super(source);
 	}
 
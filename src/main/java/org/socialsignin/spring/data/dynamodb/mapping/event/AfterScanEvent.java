@@ -15,17 +15,20 @@
  */
 package org.socialsignin.spring.data.dynamodb.mapping.event;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import java.util.List;
 
 /**
+ * Published for every page of a scan - the source is the list of entities of
+ * that page.
+ *
  * @author Michael Lavelle
  * @author Sebastian Just
  */
-public class AfterScanEvent<T> extends DynamoDBMappingEvent<PaginatedScanList<T>> {
+public class AfterScanEvent<T> extends DynamoDBMappingEvent<List<T>> {
 
 	private static final long serialVersionUID = 1L;
 
-	public AfterScanEvent(PaginatedScanList<T> source) {
+	public AfterScanEvent(List<T> source) {
 		super(source);
 	}
 
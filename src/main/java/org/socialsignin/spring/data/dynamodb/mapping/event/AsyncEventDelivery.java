@@ -0,0 +1,349 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers after-events ({@link AfterSaveEvent}, {@link AfterLoadEvent},
+ * {@link AfterQueryEvent}, ...) asynchronously so that listeners do not add to
+ * the latency of the repository call. Before-events are always published
+ * synchronously as listeners might veto - e.g. via validation - the operation.
+ *
+ * Events with the same ordering key - e.g. the hash key of the entity - are
+ * delivered in the order they were published. The keys are distributed over
+ * lanes that deliver in parallel. An event about several entities - a batch or
+ * a page - carries the keys of all of them: it is delivered after the events
+ * published before with any of these keys and before the ones published after.
+ * While it waits for the other lanes to catch up, its lanes are on hold. At
+ * most {@code capacity} events are queued; the {@link OverflowPolicy} defines
+ * what happens beyond that.
+ *
+ * @author Sebastian Just
+ */
+public class AsyncEventDelivery {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AsyncEventDelivery.class);
+
+	private static final Set<Class<?>> AFTER_EVENTS = new HashSet<>(Arrays.asList(AfterSaveEvent.class,
+			AfterBatchSaveEvent.class, AfterDeleteEvent.class, AfterBatchDeleteEvent.class, AfterLoadEvent.class,
+			AfterBatchLoadEvent.class, AfterQueryEvent.class, AfterScanEvent.class));
+
+	/**
+	 * Defines how to handle an event if {@code capacity} events are already queued
+	 */
+	public enum OverflowPolicy {
+		/** Wait until an event has been delivered */
+		BLOCK,
+		/**
+		 * Deliver the event synchronously in the publishing thread - this bypasses the
+		 * ordering guarantee
+		 */
+		CALLER_RUNS,
+		/** Drop the event and log a warning */
+		DISCARD;
+	}
+
+	private final ApplicationEventPublisher delegate;
+	private final Executor executor;
+	private final boolean ownsExecutor;
+	private final OverflowPolicy overflowPolicy;
+	private final Semaphore capacity;
+	private final Lane[] lanes;
+	private final AtomicLong discarded = new AtomicLong();
+	/**
+	 * Number of queued events - notified once all are delivered
+	 */
+	private final AtomicInteger undelivered = new AtomicInteger();
+
+	/**
+	 * Creates a new {@link AsyncEventDelivery} with its own executor - based on
+	 * virtual threads if the runtime supports them.
+	 */
+	public AsyncEventDelivery(ApplicationEventPublisher delegate, int capacity, int lanes,
+			OverflowPolicy overflowPolicy) {
+		this(delegate, null, capacity, lanes, overflowPolicy);
+	}
+
+	/**
+	 * @param delegate
+	 *            Publisher that eventually delivers the events
+	 * @param executor
+	 *            Executor to deliver the events with - {@code null} to create a
+	 *            dedicated one
+	 * @param capacity
+	 *            Maximum number of events waiting for delivery
+	 * @param lanes
+	 *            Number of lanes to distribute the ordering keys over - each lane
+	 *            is delivered sequentially, the lanes in parallel
+	 * @param overflowPolicy
+	 *            What to do if {@code capacity} is exceeded
+	 */
+	public AsyncEventDelivery(ApplicationEventPublisher delegate, @Nullable Executor executor, int capacity, int lanes,
+			OverflowPolicy overflowPolicy) {
+		Assert.notNull(delegate, "delegate must not be null!");
+		Assert.isTrue(capacity > 0, "capacity must be positive!");
+		Assert.isTrue(lanes > 0, "lanes must be positive!");
+		Assert.notNull(overflowPolicy, "overflowPolicy must not be null!");
+
+		this.delegate = delegate;
+		this.ownsExecutor = executor == null;
+		this.executor = executor == null ? createExecutor(lanes) : executor;
+		this.capacity = new Semaphore(capacity);
+		this.overflowPolicy = overflowPolicy;
+		this.lanes = new Lane[lanes];
+		for (int i = 0; i < lanes; i++) {
+			this.lanes[i] = new Lane();
+		}
+	}
+
+	/**
+	 * @param eventType
+	 *            The type of the event
+	 * @return {@code true} if events of this type can be delivered asynchronously
+	 */
+	public static boolean isDeferrable(Class<?> eventType) {
+		return AFTER_EVENTS.contains(eventType);
+	}
+
+	/**
+	 * Queues the event for delivery.
+	 *
+	 * @param event
+	 *            The event to deliver
+	 * @param orderingKey
+	 *            Events with equal keys are delivered in publication order
+	 */
+	public void publish(DynamoDBMappingEvent<?> event, Object orderingKey) {
+		publish(event, Collections.singleton(orderingKey));
+	}
+
+	/**
+	 * Queues an event about several entities for delivery.
+	 *
+	 * @param event
+	 *            The event to deliver
+	 * @param orderingKeys
+	 *            The ordering keys of the entities - the event is delivered in
+	 *            publication order with respect to each of them
+	 */
+	public void publish(DynamoDBMappingEvent<?> event, Collection<?> orderingKeys) {
+		Assert.notEmpty(orderingKeys, "orderingKeys must not be empty!");
+		if (!capacity.tryAcquire()) {
+			switch (overflowPolicy) {
+				case BLOCK :
+					try {
+						capacity.acquire();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						deliver(event);
+						return;
+					}
+					break;
+				case CALLER_RUNS :
+					deliver(event);
+					return;
+				case DISCARD :
+				default :
+					long count = discarded.incrementAndGet();
+					LOGGER.warn("Event queue is full - discarding {} ({} discarded so far)", event, count);
+					return;
+			}
+		}
+
+		Set<Lane> eventLanes = new LinkedHashSet<>();
+		for (Object orderingKey : orderingKeys) {
+			eventLanes.add(lanes[Math.floorMod(orderingKey.hashCode(), lanes.length)]);
+		}
+		Delivery delivery = new Delivery(event, eventLanes.toArray(new Lane[0]));
+		undelivered.incrementAndGet();
+		if (delivery.lanes.length == 1) {
+			delivery.lanes[0].queue.add(delivery);
+		} else {
+			// Events spanning several lanes have to be queued in the same order on all
+			// of them - otherwise two of them could wait for each other
+			synchronized (this.lanes) {
+				for (Lane lane : delivery.lanes) {
+					lane.queue.add(delivery);
+				}
+			}
+		}
+		for (Lane lane : delivery.lanes) {
+			lane.schedule();
+		}
+	}
+
+	/**
+	 * @return Number of events discarded due to {@link OverflowPolicy#DISCARD}
+	 */
+	public long getDiscardedCount() {
+		return discarded.get();
+	}
+
+	/**
+	 * Waits for the queued events to be delivered and releases the executor if it
+	 * was created by this instance.
+	 *
+	 * @param timeout
+	 *            Maximum time to wait
+	 * @param unit
+	 *            Unit of {@code timeout}
+	 * @return {@code true} if all events were delivered
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		long remaining = unit.toNanos(timeout);
+		long deadline = System.nanoTime() + remaining;
+		synchronized (undelivered) {
+			while (undelivered.get() > 0 && remaining > 0) {
+				TimeUnit.NANOSECONDS.timedWait(undelivered, remaining);
+				remaining = deadline - System.nanoTime();
+			}
+		}
+		if (ownsExecutor) {
+			((ExecutorService) executor).shutdown();
+		}
+		return undelivered.get() == 0;
+	}
+
+	private void delivered() {
+		capacity.release();
+		if (undelivered.decrementAndGet() == 0) {
+			synchronized (undelivered) {
+				undelivered.notifyAll();
+			}
+		}
+	}
+
+	private void deliver(DynamoDBMappingEvent<?> event) {
+		try {
+			delegate.publishEvent(event);
+		} catch (RuntimeException e) {
+			LOGGER.error("Delivery of " + event + " failed", e);
+		}
+	}
+
+	private static ExecutorService createExecutor(int lanes) {
+		Method virtualThreads = ClassUtils.getMethodIfAvailable(Executors.class, "newVirtualThreadPerTaskExecutor");
+		if (virtualThreads != null) {
+			return (ExecutorService) ReflectionUtils.invokeMethod(virtualThreads, null);
+		}
+
+		AtomicInteger counter = new AtomicInteger();
+		ThreadFactory threadFactory = r -> {
+			Thread thread = new Thread(r, "dynamodb-events-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return Executors.newFixedThreadPool(Math.min(lanes, Runtime.getRuntime().availableProcessors()), threadFactory);
+	}
+
+	private static final class Delivery {
+		private final DynamoDBMappingEvent<?> event;
+		/** The distinct lanes the event is queued in */
+		private final Lane[] lanes;
+		/** Number of lanes that have not reached the event yet */
+		private final AtomicInteger waiting;
+
+		private Delivery(DynamoDBMappingEvent<?> event, Lane[] lanes) {
+			this.event = event;
+			this.lanes = lanes;
+			this.waiting = new AtomicInteger(lanes.length);
+		}
+
+		/**
+		 * @return {@code true} if the calling lane is the last one to reach the
+		 *         event and has to deliver it
+		 */
+		private boolean arrive() {
+			return waiting.decrementAndGet() == 0;
+		}
+	}
+
+	private final class Lane implements Runnable {
+		private final Queue<Delivery> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				execute();
+			}
+		}
+
+		private void execute() {
+			try {
+				executor.execute(this);
+			} catch (RejectedExecutionException e) {
+				// e.g. during shutdown - deliver in the calling thread instead
+				run();
+			}
+		}
+
+		@Override
+		public void run() {
+			Delivery delivery;
+			while ((delivery = queue.peek()) != null) {
+				if (!delivery.arrive()) {
+					// On hold until the last lane of the event delivers it and resumes
+					// this lane - which stays scheduled meanwhile
+					return;
+				}
+				queue.poll();
+				try {
+					deliver(delivery.event);
+				} finally {
+					delivered();
+				}
+				for (Lane lane : delivery.lanes) {
+					if (lane != this) {
+						lane.queue.poll();
+						lane.execute();
+					}
+				}
+			}
+			scheduled.set(false);
+			// An event might have been added after the last poll but before the
+			// flag was reset
+			if (!queue.isEmpty()) {
+				schedule();
+			}
+		}
+	}
+}
@@ -27,4 +27,13 @@ public class BeforeDeleteEvent<T> extends DynamoDBMappingEvent<T> {
 		super(source);
 	}
 
+	/**
+	 * @param partOfBatch
+	 *            {@code true} if the entity is one of a batch - see
+	 *            {@link DynamoDBMappingEvent#isPartOfBatch()}
+	 */
+	public BeforeDeleteEvent(T source, boolean partOfBatch) {
+		super(source, partOfBatch);
+	}
+
 }
\ No newline at end of file
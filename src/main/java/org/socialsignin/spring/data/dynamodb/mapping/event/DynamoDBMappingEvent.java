@@ -25,8 +25,24 @@ public class DynamoDBMappingEvent<T> extends ApplicationEvent {
 
 	private static final long serialVersionUID = 1L;
 
+	private final boolean partOfBatch;
+
 	public DynamoDBMappingEvent(T source) {
+		this(source, false);
+	}
+
+	protected DynamoDBMappingEvent(T source, boolean partOfBatch) {
 		super(source);
+		this.partOfBatch = partOfBatch;
+	}
+
+	/**
+	 * @return {@code true} if the event is about one of the entities of a batch -
+	 *         the batch is published as batch event, e.g. a
+	 *         {@link BeforeBatchSaveEvent}, as well
+	 */
+	public boolean isPartOfBatch() {
+		return partOfBatch;
 	}
 
 	@SuppressWarnings({"unchecked"})
@@ -0,0 +1,172 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping.event;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track which {@link DynamoDBMappingEvent}s are of interest for the
+ * registered listeners per domain class. This allows to skip the creation and
+ * publication of events nobody listens to.
+ *
+ * A listener counts as interested if
+ * <ul>
+ * <li>it is an {@link AbstractDynamoDBEventListener} that
+ * {@link AbstractDynamoDBEventListener#supportsEvent(Class, Class) supports}
+ * the event for the domain class or</li>
+ * <li>it is any other {@link ApplicationListener} (incl. {@code @EventListener}
+ * methods) that is declared for the event type - or for
+ * {@link ApplicationEvent} in general.</li>
+ * </ul>
+ * Listener beans that are only registered by name - lazy-init and
+ * non-singleton ones - are judged by their type without creating them.
+ *
+ * @author Sebastian Just
+ */
+public final class MappingEventDispatchTable {
+
+	private final List<AbstractDynamoDBEventListener<?>> dynamoDBListeners = new ArrayList<>();
+	private final List<GenericApplicationListener> otherListeners = new ArrayList<>();
+	/** Domain classes of the {@link AbstractDynamoDBEventListener} types */
+	private final List<Class<?>> dynamoDBListenerDomainClasses = new ArrayList<>();
+	/** Declared event types of the other listener types - NONE for any event */
+	private final List<ResolvableType> otherListenerEventTypes = new ArrayList<>();
+	private final Map<Class<?>, Map<Class<?>, Boolean>> table = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Boolean> nonBatchTable = new ConcurrentHashMap<>();
+
+	/**
+	 * @param listeners
+	 *            All listeners of the application context (hierarchy)
+	 */
+	public MappingEventDispatchTable(Collection<? extends ApplicationListener<?>> listeners) {
+		this(listeners, Collections.emptyList());
+	}
+
+	/**
+	 * @param listeners
+	 *            All listener instances of the application context (hierarchy)
+	 * @param listenerTypes
+	 *            The types of the listener beans that are not instantiated yet
+	 */
+	public MappingEventDispatchTable(Collection<? extends ApplicationListener<?>> listeners,
+			Collection<Class<?>> listenerTypes) {
+		Assert.notNull(listeners, "listeners must not be null!");
+		Assert.notNull(listenerTypes, "listenerTypes must not be null!");
+
+		for (ApplicationListener<?> listener : listeners) {
+			if (listener instanceof AbstractDynamoDBEventListener) {
+				dynamoDBListeners.add((AbstractDynamoDBEventListener<?>) listener);
+			} else {
+				otherListeners.add(listener instanceof GenericApplicationListener
+						? (GenericApplicationListener) listener
+						: new GenericApplicationListenerAdapter(listener));
+			}
+		}
+		for (Class<?> listenerType : listenerTypes) {
+			if (AbstractDynamoDBEventListener.class.isAssignableFrom(listenerType)) {
+				// Without an instance the overridden callbacks are unknown - assume all
+				Class<?> domainClass = GenericTypeResolver.resolveTypeArgument(listenerType,
+						AbstractDynamoDBEventListener.class);
+				dynamoDBListenerDomainClasses.add(domainClass == null ? Object.class : domainClass);
+			} else if (SmartApplicationListener.class.isAssignableFrom(listenerType)
+					|| GenericApplicationListener.class.isAssignableFrom(listenerType)) {
+				// Decides at runtime which events it supports
+				otherListenerEventTypes.add(ResolvableType.NONE);
+			} else {
+				otherListenerEventTypes
+						.add(ResolvableType.forClass(listenerType).as(ApplicationListener.class).getGeneric());
+			}
+		}
+	}
+
+	/**
+	 * @return A dispatch table without any listeners
+	 */
+	public static MappingEventDispatchTable empty() {
+		return new MappingEventDispatchTable(Collections.emptyList());
+	}
+
+	/**
+	 * @param eventType
+	 *            The type of the event to publish
+	 * @param domainClass
+	 *            The domain class of the entities the event is about
+	 * @return {@code true} if at least one listener is interested in the event
+	 */
+	public boolean hasListeners(Class<?> eventType, Class<?> domainClass) {
+		return table.computeIfAbsent(eventType, e -> new ConcurrentHashMap<>()).computeIfAbsent(domainClass,
+				d -> computeHasListeners(eventType, domainClass));
+	}
+
+	/**
+	 * {@link AbstractDynamoDBEventListener}s are notified about the entities of a
+	 * batch by the batch event. All other listeners still rely on an event per
+	 * entity.
+	 *
+	 * @param eventType
+	 *            The type of the event about a single entity
+	 * @return {@code true} if a listener other than an
+	 *         {@link AbstractDynamoDBEventListener} is interested in the event
+	 */
+	public boolean hasNonBatchListeners(Class<?> eventType) {
+		return nonBatchTable.computeIfAbsent(eventType, this::computeHasNonBatchListeners);
+	}
+
+	private boolean computeHasListeners(Class<?> eventType, Class<?> domainClass) {
+		for (AbstractDynamoDBEventListener<?> listener : dynamoDBListeners) {
+			if (listener.supportsEvent(eventType, domainClass)) {
+				return true;
+			}
+		}
+		for (Class<?> listenerDomainClass : dynamoDBListenerDomainClasses) {
+			if (listenerDomainClass.isAssignableFrom(domainClass)) {
+				return true;
+			}
+		}
+		return hasNonBatchListeners(eventType);
+	}
+
+	private boolean computeHasNonBatchListeners(Class<?> eventType) {
+		// Spring does not know the generic type of a published event, hence only
+		// the raw type is checked - like the event multicaster does
+		ResolvableType resolvableEventType = ResolvableType.forClass(eventType);
+		for (GenericApplicationListener listener : otherListeners) {
+			if (listener.supportsEventType(resolvableEventType)) {
+				return true;
+			}
+		}
+		for (ResolvableType declaredEventType : otherListenerEventTypes) {
+			if (declaredEventType == ResolvableType.NONE || declaredEventType.isAssignableFrom(resolvableEventType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import org.socialsignin.spring.data.dynamodb.core.HotPartitionKey;
+import org.socialsignin.spring.data.dynamodb.core.HotPartitionKeySampler;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * Management endpoint exposing the hottest partition keys of the
+ * {@link HotPartitionKeySampler} via JMX - exported once registered as a bean
+ * with an annotation driven {@code MBeanExporter} (e.g.
+ * {@code @EnableMBeanExport}).
+ *
+ * @author Sebastian Just
+ */
+@ManagedResource(objectName = HotPartitionKeyEndpoint.OBJECT_NAME, description = "Hot DynamoDB partition keys")
+public class HotPartitionKeyEndpoint {
+
+	public static final String OBJECT_NAME = "org.socialsignin.spring.data.dynamodb:type=HotPartitionKeys";
+
+	private static final int DEFAULT_TOP_KEYS = 10;
+
+	private final HotPartitionKeySampler sampler;
+
+	public HotPartitionKeyEndpoint(HotPartitionKeySampler sampler) {
+		Assert.notNull(sampler, "sampler must not be null!");
+		this.sampler = sampler;
+	}
+
+	@ManagedAttribute(description = "The 10 hottest partition keys of each table and index")
+	public String[] getTopKeys() {
+		return topKeys(DEFAULT_TOP_KEYS);
+	}
+
+	@ManagedOperation(description = "The hottest partition keys of each table and index")
+	@ManagedOperationParameter(name = "k", description = "Number of keys per table and index")
+	public String[] topKeys(int k) {
+		return sampler.getTopKeys(k).stream().map(HotPartitionKey::toString).toArray(String[]::new);
+	}
+
+	@ManagedAttribute(description = "Samples dropped because all stripes were busy")
+	public long getDroppedSamples() {
+		return sampler.getDroppedSamples();
+	}
+
+	@ManagedOperation(description = "Discards all samples")
+	public void reset() {
+		sampler.reset();
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.socialsignin.spring.data.dynamodb.core.HotPartitionKey;
+import org.socialsignin.spring.data.dynamodb.core.HotPartitionKeySampler;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the hottest partition keys of the {@link HotPartitionKeySampler} as
+ * Micrometer gauges tagged with {@code table}, {@code index} and {@code key}.
+ *
+ * The gauges are refreshed once per window of the sampler or on
+ * {@link #refresh()}. Only the top keys are published to keep the number of
+ * time series bounded.
+ *
+ * @author Sebastian Just
+ */
+public class HotPartitionKeyMetrics implements MeterBinder {
+
+	public static final String SHARE = "spring.data.dynamodb.hotkeys.share";
+	public static final String ACCESSES = "spring.data.dynamodb.hotkeys.accesses";
+	public static final String THROTTLES = "spring.data.dynamodb.hotkeys.throttles";
+
+	private final HotPartitionKeySampler sampler;
+	private final int topKeys;
+
+	private MultiGauge share;
+	private MultiGauge accesses;
+	private MultiGauge throttles;
+	// Gauges only hold weak references to the reported objects
+	private volatile List<HotPartitionKey> current = Collections.emptyList();
+
+	/**
+	 * @param topKeys
+	 *            Number of keys published per table and index
+	 */
+	public HotPartitionKeyMetrics(HotPartitionKeySampler sampler, int topKeys) {
+		Assert.notNull(sampler, "sampler must not be null!");
+		Assert.isTrue(topKeys > 0, "topKeys must be positive!");
+		this.sampler = sampler;
+		this.topKeys = topKeys;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		share = MultiGauge.builder(SHARE).description("Share of the sampled accesses to a table or index")
+				.register(registry);
+		accesses = MultiGauge.builder(ACCESSES).description("Estimated accesses within the current window")
+				.register(registry);
+		throttles = MultiGauge.builder(THROTTLES).description("Estimated throttled requests within the current window")
+				.register(registry);
+		sampler.addWindowListener(this::refresh);
+		refresh();
+	}
+
+	public synchronized void refresh() {
+		if (share == null) {
+			return;
+		}
+		List<HotPartitionKey> hotKeys = sampler.getTopKeys(topKeys);
+		current = hotKeys;
+		share.register(hotKeys.stream().map(k -> MultiGauge.Row.of(tags(k), k, HotPartitionKey::getShare))
+				.collect(Collectors.toList()), true);
+		accesses.register(
+				hotKeys.stream().map(k -> MultiGauge.Row.of(tags(k), k, HotPartitionKey::getEstimatedAccesses))
+						.collect(Collectors.toList()),
+				true);
+		throttles.register(hotKeys.stream().map(k -> MultiGauge.Row.of(tags(k), k, HotPartitionKey::getThrottles))
+				.collect(Collectors.toList()), true);
+	}
+
+	private static Tags tags(HotPartitionKey hotKey) {
+		return Tags.of("table", hotKey.getTableName(), "index",
+				hotKey.getIndexName() == null ? "none" : hotKey.getIndexName(), "key", hotKey.getKey());
+	}
+}
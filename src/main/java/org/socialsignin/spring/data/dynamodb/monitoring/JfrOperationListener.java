@@ -0,0 +1,379 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperationListener;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.socialsignin.spring.data.dynamodb.mapping.event.DynamoDBMappingEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Emits Java Flight Recorder events for the interactions with DynamoDB so that
+ * their latency can be correlated with GC pauses and thread stalls of the same
+ * recording:
+ * <ul>
+ * <li>{@value #REQUEST} - every round trip, e.g. {@code GetItem}, {@code Query}
+ * or {@code BatchWriteItem}</li>
+ * <li>{@value #OPERATION} and {@value #PAGE} - every operation of the
+ * {@code DynamoDBTemplate} and every page of a query or scan including the time
+ * spent on the client, e.g. for marshalling</li>
+ * <li>{@value #REPOSITORY_METHOD} - every invocation of a query method</li>
+ * <li>{@value #QUERY_CREATION} - creating the query of a query method from its
+ * arguments</li>
+ * <li>{@value #MAPPING_EVENT} - delivering a mapping event synchronously to the
+ * application listeners</li>
+ * </ul>
+ * Round trips and client time are only known if the
+ * {@link OperationRequestHandler} is registered with the {@code AmazonDynamoDB}
+ * client. Requires a JVM supporting JFR - see {@link #isAvailable()}.
+ *
+ * @author Sebastian Just
+ */
+public class JfrOperationListener implements DynamoDBOperationListener {
+
+	public static final String REQUEST = "org.socialsignin.spring.data.dynamodb.Request";
+	public static final String OPERATION = "org.socialsignin.spring.data.dynamodb.Operation";
+	public static final String PAGE = "org.socialsignin.spring.data.dynamodb.Page";
+	public static final String REPOSITORY_METHOD = "org.socialsignin.spring.data.dynamodb.RepositoryMethod";
+	public static final String QUERY_CREATION = "org.socialsignin.spring.data.dynamodb.QueryCreation";
+	public static final String MAPPING_EVENT = "org.socialsignin.spring.data.dynamodb.MappingEvent";
+
+	private static final String CATEGORY = "Spring Data DynamoDB";
+
+	private static final String OPERATION_EVENT = JfrOperationListener.class.getName() + ".operation";
+	private static final String PAGE_EVENT = JfrOperationListener.class.getName() + ".page";
+	private static final String PAGE_REQUEST_NANOS = JfrOperationListener.class.getName() + ".pageRequestNanos";
+	private static final String REQUEST_EVENT = JfrOperationListener.class.getName() + ".request";
+	private static final String REPOSITORY_METHOD_EVENT = JfrOperationListener.class.getName() + ".repositoryMethod";
+
+	/**
+	 * @return {@code true} if the JVM supports JFR events - JDK 11 and later as
+	 *         well as OpenJDK 8u262 and later
+	 */
+	public static boolean isAvailable() {
+		return ClassUtils.isPresent("jdk.jfr.Event", JfrOperationListener.class.getClassLoader());
+	}
+
+	@Override
+	public void onOperationStart(OperationContext operation) {
+		begin(operation, OPERATION_EVENT, new OperationEvent());
+	}
+
+	@Override
+	public void onOperationComplete(OperationContext operation) {
+		OperationEvent event = (OperationEvent) operation.getAttribute(OPERATION_EVENT);
+		if (event == null) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			RepositoryMethodContext method = operation.getRepositoryMethod();
+			event.type = operation.getType().name();
+			event.table = operation.getTableName();
+			event.index = operation.getIndexName();
+			event.repository = method == null ? null : method.getRepositoryInterface().getName();
+			event.method = method == null ? null : method.getMethodName();
+			event.items = operation.getItemCount();
+			event.scannedItems = operation.getScannedCount();
+			event.pages = operation.getPageCount();
+			event.requests = operation.getRequestCount();
+			event.readCapacityUnits = operation.getReadCapacityUnits();
+			event.writeCapacityUnits = operation.getWriteCapacityUnits();
+			if (operation.getRequestCount() > 0) {
+				event.requestTime = operation.getRequestNanos();
+				event.clientTime = Math.max(0, operation.getDurationNanos() - operation.getRequestNanos());
+			}
+			event.error = error(operation.getError());
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onPageStart(OperationContext operation) {
+		if (begin(operation, PAGE_EVENT, new PageEvent())) {
+			operation.setAttribute(PAGE_REQUEST_NANOS, operation.getRequestNanos());
+		}
+	}
+
+	@Override
+	public void onPageComplete(OperationContext operation, int items, int scannedItems, long durationNanos) {
+		PageEvent event = (PageEvent) operation.getAttribute(PAGE_EVENT);
+		if (event == null) {
+			return;
+		}
+		operation.setAttribute(PAGE_EVENT, null);
+		event.end();
+		if (event.shouldCommit()) {
+			event.type = operation.getType().name();
+			event.table = operation.getTableName();
+			event.index = operation.getIndexName();
+			event.items = items;
+			event.scannedItems = scannedItems;
+			long requestNanos = operation.getRequestNanos() - (Long) operation.getAttribute(PAGE_REQUEST_NANOS);
+			if (requestNanos > 0) {
+				event.requestTime = requestNanos;
+				event.clientTime = Math.max(0, durationNanos - requestNanos);
+			}
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onRequestStart(OperationContext operation, String requestType) {
+		begin(operation, REQUEST_EVENT, new RequestEvent());
+	}
+
+	@Override
+	public void onRequestComplete(OperationContext operation, String requestType, int items, long durationNanos,
+			@Nullable Throwable error) {
+		RequestEvent event = (RequestEvent) operation.getAttribute(REQUEST_EVENT);
+		if (event == null) {
+			return;
+		}
+		operation.setAttribute(REQUEST_EVENT, null);
+		event.end();
+		if (event.shouldCommit()) {
+			event.requestType = requestType;
+			event.table = operation.getTableName();
+			event.index = operation.getIndexName();
+			event.items = items;
+			event.error = error(error);
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onConsumedCapacity(OperationContext operation, double readCapacityUnits, double writeCapacityUnits) {
+		RequestEvent event = (RequestEvent) operation.getAttribute(REQUEST_EVENT);
+		if (event != null) {
+			event.capacityUnits += readCapacityUnits + writeCapacityUnits;
+		}
+	}
+
+	@Override
+	public void onRetry(OperationContext operation, boolean throttled) {
+		RequestEvent event = (RequestEvent) operation.getAttribute(REQUEST_EVENT);
+		if (event != null) {
+			event.retries++;
+			if (throttled) {
+				event.throttles++;
+			}
+		}
+	}
+
+	@Override
+	public void onRepositoryMethodStart(RepositoryMethodContext method) {
+		RepositoryMethodEvent event = new RepositoryMethodEvent();
+		if (event.isEnabled()) {
+			event.begin();
+			method.setAttribute(REPOSITORY_METHOD_EVENT, event);
+		}
+	}
+
+	@Override
+	public void onRepositoryMethodComplete(RepositoryMethodContext method) {
+		RepositoryMethodEvent event = (RepositoryMethodEvent) method.getAttribute(REPOSITORY_METHOD_EVENT);
+		if (event == null) {
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()) {
+			event.repository = method.getRepositoryInterface().getName();
+			event.method = method.getMethodName();
+			event.kind = method.getExecutionKind() == null ? null : method.getExecutionKind().name();
+			event.index = method.getIndexName();
+			event.operations = method.getOperationCount();
+			event.error = error(method.getError());
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onQueryCreated(RepositoryMethodContext method, boolean count, long durationNanos) {
+		QueryCreationEvent event = new QueryCreationEvent();
+		if (event.isEnabled()) {
+			event.repository = method.getRepositoryInterface().getName();
+			event.method = method.getMethodName();
+			event.count = count;
+			event.creationTime = durationNanos;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void onMappingEventPublished(DynamoDBMappingEvent<?> mappingEvent, long durationNanos) {
+		MappingEventEvent event = new MappingEventEvent();
+		if (event.isEnabled()) {
+			event.eventType = mappingEvent.getClass().getName();
+			event.listenerTime = durationNanos;
+			event.commit();
+		}
+	}
+
+	private static boolean begin(OperationContext operation, String attribute, Event event) {
+		if (!event.isEnabled()) {
+			return false;
+		}
+		event.begin();
+		operation.setAttribute(attribute, event);
+		return true;
+	}
+
+	@Nullable
+	private static String error(@Nullable Throwable error) {
+		return error == null ? null : error.getClass().getName();
+	}
+
+	@Name(REQUEST)
+	@Label("DynamoDB Request")
+	@Description("Round trip to DynamoDB")
+	@Category(CATEGORY)
+	static class RequestEvent extends Event {
+		@Label("Request Type")
+		String requestType;
+		@Label("Table")
+		String table;
+		@Label("Index")
+		String index;
+		@Label("Items")
+		int items;
+		@Label("Capacity Units")
+		double capacityUnits;
+		@Label("Retries")
+		int retries;
+		@Label("Throttles")
+		int throttles;
+		@Label("Error")
+		String error;
+	}
+
+	@Name(OPERATION)
+	@Label("DynamoDB Operation")
+	@Description("Operation of the DynamoDBTemplate - for queries and scans including the first page only")
+	@Category(CATEGORY)
+	static class OperationEvent extends Event {
+		@Label("Type")
+		String type;
+		@Label("Table")
+		String table;
+		@Label("Index")
+		String index;
+		@Label("Repository")
+		String repository;
+		@Label("Method")
+		String method;
+		@Label("Items")
+		int items;
+		@Label("Scanned Items")
+		int scannedItems;
+		@Label("Pages")
+		int pages;
+		@Label("Requests")
+		int requests;
+		@Label("Read Capacity Units")
+		double readCapacityUnits;
+		@Label("Write Capacity Units")
+		double writeCapacityUnits;
+		@Label("Request Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long requestTime;
+		@Label("Client Time")
+		@Description("Time spent on the client - e.g. for marshalling")
+		@Timespan(Timespan.NANOSECONDS)
+		long clientTime;
+		@Label("Error")
+		String error;
+	}
+
+	@Name(PAGE)
+	@Label("DynamoDB Page")
+	@Description("Page of a query or scan")
+	@Category(CATEGORY)
+	static class PageEvent extends Event {
+		@Label("Type")
+		String type;
+		@Label("Table")
+		String table;
+		@Label("Index")
+		String index;
+		@Label("Items")
+		int items;
+		@Label("Scanned Items")
+		int scannedItems;
+		@Label("Request Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long requestTime;
+		@Label("Client Time")
+		@Description("Time spent on the client - e.g. for unmarshalling")
+		@Timespan(Timespan.NANOSECONDS)
+		long clientTime;
+	}
+
+	@Name(REPOSITORY_METHOD)
+	@Label("DynamoDB Repository Method")
+	@Description("Invocation of a repository query method")
+	@Category(CATEGORY)
+	static class RepositoryMethodEvent extends Event {
+		@Label("Repository")
+		String repository;
+		@Label("Method")
+		String method;
+		@Label("Kind")
+		String kind;
+		@Label("Index")
+		String index;
+		@Label("Operations")
+		int operations;
+		@Label("Error")
+		String error;
+	}
+
+	@Name(QUERY_CREATION)
+	@Label("DynamoDB Query Creation")
+	@Description("Creation of the query of a repository query method from its arguments")
+	@Category(CATEGORY)
+	static class QueryCreationEvent extends Event {
+		@Label("Repository")
+		String repository;
+		@Label("Method")
+		String method;
+		@Label("Count Query")
+		boolean count;
+		@Label("Creation Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long creationTime;
+	}
+
+	@Name(MAPPING_EVENT)
+	@Label("DynamoDB Mapping Event")
+	@Description("Synchronous delivery of a mapping event to the application listeners")
+	@Category(CATEGORY)
+	static class MappingEventEvent extends Event {
+		@Label("Event Type")
+		String eventType;
+		@Label("Listener Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long listenerTime;
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperationListener;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the operations performed against DynamoDB as Micrometer meters:
+ * <ul>
+ * <li>{@value #OPERATIONS} - latency of each operation tagged with type, table,
+ * index, repository, method and outcome</li>
+ * <li>{@value #PAGES}, {@value #ITEMS} and {@value #SCANNED_ITEMS} - counts per
+ * type, table and index</li>
+ * <li>{@value #CAPACITY} - consumed read/write capacity units</li>
+ * <li>{@value #RETRIES} and {@value #THROTTLES}</li>
+ * <li>{@value #INVOCATIONS} - latency of repository query methods tagged with
+ * repository, method, execution kind, index and outcome</li>
+ * </ul>
+ * Both timers publish a percentile histogram so that latency percentiles can be
+ * aggregated across instances. Capacity, retries and throttles are only reported if the
+ * {@link OperationRequestHandler} is registered with the {@code AmazonDynamoDB}
+ * client.
+ *
+ * @author Sebastian Just
+ */
+public class MicrometerOperationListener implements DynamoDBOperationListener {
+
+	public static final String OPERATIONS = "spring.data.dynamodb.operations";
+	public static final String PAGES = "spring.data.dynamodb.pages";
+	public static final String ITEMS = "spring.data.dynamodb.items";
+	public static final String SCANNED_ITEMS = "spring.data.dynamodb.items.scanned";
+	public static final String CAPACITY = "spring.data.dynamodb.capacity";
+	public static final String RETRIES = "spring.data.dynamodb.retries";
+	public static final String THROTTLES = "spring.data.dynamodb.throttles";
+	public static final String INVOCATIONS = "spring.data.dynamodb.repository.invocations";
+
+	private static final String NONE = "none";
+
+	private final MeterRegistry registry;
+
+	public MicrometerOperationListener(MeterRegistry registry) {
+		Assert.notNull(registry, "registry must not be null!");
+		this.registry = registry;
+	}
+
+	@Override
+	public void onOperationComplete(OperationContext operation) {
+		RepositoryMethodContext method = operation.getRepositoryMethod();
+		Tags tags = operationTags(operation).and("repository",
+				method == null ? NONE : method.getRepositoryInterface().getSimpleName(), "method",
+				method == null ? NONE : method.getMethodName(), "outcome", outcome(operation.getError()));
+		Timer.builder(OPERATIONS).tags(tags).publishPercentileHistogram().register(registry)
+				.record(operation.getDurationNanos(), TimeUnit.NANOSECONDS);
+
+		if (!operation.getType().isPaged() && operation.getItemCount() > 0) {
+			counter(ITEMS, operation).increment(operation.getItemCount());
+		}
+	}
+
+	@Override
+	public void onPageComplete(OperationContext operation, int items, int scannedItems, long durationNanos) {
+		counter(PAGES, operation).increment();
+		counter(ITEMS, operation).increment(items);
+		counter(SCANNED_ITEMS, operation).increment(scannedItems);
+	}
+
+	@Override
+	public void onConsumedCapacity(OperationContext operation, double readCapacityUnits, double writeCapacityUnits) {
+		if (readCapacityUnits > 0) {
+			Counter.builder(CAPACITY).tags(operationTags(operation).and("mode", "read")).register(registry)
+					.increment(readCapacityUnits);
+		}
+		if (writeCapacityUnits > 0) {
+			Counter.builder(CAPACITY).tags(operationTags(operation).and("mode", "write")).register(registry)
+					.increment(writeCapacityUnits);
+		}
+	}
+
+	@Override
+	public void onRetry(OperationContext operation, boolean throttled) {
+		counter(RETRIES, operation).increment();
+		if (throttled) {
+			counter(THROTTLES, operation).increment();
+		}
+	}
+
+	@Override
+	public void onRepositoryMethodComplete(RepositoryMethodContext method) {
+		Timer.builder(INVOCATIONS)
+				.tags("repository", method.getRepositoryInterface().getSimpleName(), "method", method.getMethodName(),
+						"kind", method.getExecutionKind() == null ? NONE : method.getExecutionKind().name(), "index",
+						method.getIndexName() == null ? NONE : method.getIndexName(), "outcome",
+						outcome(method.getError()))
+				.publishPercentileHistogram().register(registry).record(method.getDurationNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	private Counter counter(String name, OperationContext operation) {
+		return Counter.builder(name).tags(operationTags(operation)).register(registry);
+	}
+
+	private static Tags operationTags(OperationContext operation) {
+		return Tags.of("type", operation.getType().name(), "table", operation.getTableName(), "index",
+				operation.getIndexName() == null ? NONE : operation.getIndexName());
+	}
+
+	private static String outcome(@Nullable Throwable error) {
+		return error == null ? "success" : error.getClass().getSimpleName();
+	}
+}
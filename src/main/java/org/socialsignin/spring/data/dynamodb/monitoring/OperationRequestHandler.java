@@ -0,0 +1,253 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.SdkBaseException;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Request handler to be registered with the {@code AmazonDynamoDB} client to
+ * report the requests including their consumed capacity, retries and throttles
+ * to the {@link OperationContext} currently observed. Requests that are not
+ * part of an observed operation are left untouched.
+ *
+ * <pre>
+ * AmazonDynamoDBClientBuilder.standard().withRequestHandlers(new OperationRequestHandler()).build();
+ * </pre>
+ *
+ * @author Sebastian Just
+ */
+public class OperationRequestHandler extends RequestHandler2 {
+
+	private static final HandlerContextKey<OperationContext> OPERATION = new HandlerContextKey<>(
+			OperationRequestHandler.class.getName() + ".operation");
+	private static final HandlerContextKey<Exception> FAILED_ATTEMPT = new HandlerContextKey<>(
+			OperationRequestHandler.class.getName() + ".failedAttempt");
+	private static final String REQUEST_SUFFIX = "Request";
+
+	private static final List<RequestKind<?>> REQUEST_KINDS = Arrays.asList(
+			new RequestKind<>(GetItemRequest.class, GetItemRequest::getReturnConsumedCapacity,
+					GetItemRequest::setReturnConsumedCapacity),
+			new RequestKind<>(QueryRequest.class, QueryRequest::getReturnConsumedCapacity,
+					QueryRequest::setReturnConsumedCapacity),
+			new RequestKind<>(ScanRequest.class, ScanRequest::getReturnConsumedCapacity,
+					ScanRequest::setReturnConsumedCapacity),
+			new RequestKind<>(BatchGetItemRequest.class, BatchGetItemRequest::getReturnConsumedCapacity,
+					BatchGetItemRequest::setReturnConsumedCapacity),
+			new RequestKind<>(PutItemRequest.class, PutItemRequest::getReturnConsumedCapacity,
+					PutItemRequest::setReturnConsumedCapacity),
+			new RequestKind<>(UpdateItemRequest.class, UpdateItemRequest::getReturnConsumedCapacity,
+					UpdateItemRequest::setReturnConsumedCapacity),
+			new RequestKind<>(DeleteItemRequest.class, DeleteItemRequest::getReturnConsumedCapacity,
+					DeleteItemRequest::setReturnConsumedCapacity),
+			new RequestKind<>(BatchWriteItemRequest.class, BatchWriteItemRequest::getReturnConsumedCapacity,
+					BatchWriteItemRequest::setReturnConsumedCapacity));
+
+	private static final List<ResultKind<?>> RESULT_KINDS = Arrays.asList(
+			new ResultKind<>(GetItemResult.class, r -> Collections.singletonList(r.getConsumedCapacity()),
+					(request, r) -> r.getItem() == null ? 0 : 1),
+			new ResultKind<>(QueryResult.class, r -> Collections.singletonList(r.getConsumedCapacity()),
+					(request, r) -> count(r.getCount())),
+			new ResultKind<>(ScanResult.class, r -> Collections.singletonList(r.getConsumedCapacity()),
+					(request, r) -> count(r.getCount())),
+			new ResultKind<>(BatchGetItemResult.class, BatchGetItemResult::getConsumedCapacity,
+					(request, r) -> readItems(r.getResponses())),
+			new ResultKind<>(PutItemResult.class, r -> Collections.singletonList(r.getConsumedCapacity()),
+					(request, r) -> 1),
+			new ResultKind<>(UpdateItemResult.class, r -> Collections.singletonList(r.getConsumedCapacity()),
+					(request, r) -> 1),
+			new ResultKind<>(DeleteItemResult.class, r -> Collections.singletonList(r.getConsumedCapacity()),
+					(request, r) -> 1),
+			new ResultKind<>(BatchWriteItemResult.class, BatchWriteItemResult::getConsumedCapacity,
+					OperationRequestHandler::writtenItems));
+
+	@Override
+	public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+		if (OperationContext.current() == null) {
+			return request;
+		}
+		for (RequestKind<?> kind : REQUEST_KINDS) {
+			if (kind.type.isInstance(request)) {
+				kind.requestConsumedCapacity(request);
+				break;
+			}
+		}
+		return request;
+	}
+
+	@Override
+	public void beforeRequest(Request<?> request) {
+		OperationContext operation = OperationContext.current();
+		if (operation != null) {
+			request.addHandlerContext(OPERATION, operation);
+			operation.startRequest(requestType(request));
+		}
+	}
+
+	@Override
+	public void beforeAttempt(HandlerBeforeAttemptContext context) {
+		Exception failedAttempt = context.getRequest().getHandlerContext(FAILED_ATTEMPT);
+		OperationContext operation = OperationContext.current();
+		if (failedAttempt != null && operation != null) {
+			operation.recordRetry(failedAttempt instanceof SdkBaseException
+					&& RetryUtils.isThrottlingException((SdkBaseException) failedAttempt));
+		}
+	}
+
+	@Override
+	public void afterAttempt(HandlerAfterAttemptContext context) {
+		if (context.getException() != null) {
+			context.getRequest().addHandlerContext(FAILED_ATTEMPT, context.getException());
+		}
+	}
+
+	@Override
+	public void afterResponse(Request<?> request, Response<?> response) {
+		OperationContext operation = request.getHandlerContext(OPERATION);
+		if (operation == null) {
+			return;
+		}
+		Object result = response == null ? null : response.getAwsResponse();
+		int items = 0;
+		for (ResultKind<?> kind : RESULT_KINDS) {
+			if (kind.type.isInstance(result)) {
+				items = kind.record(operation, request.getOriginalRequest(), result);
+				break;
+			}
+		}
+		operation.completeRequest(requestType(request), items, null);
+	}
+
+	@Override
+	public void afterError(Request<?> request, Response<?> response, Exception e) {
+		OperationContext operation = request.getHandlerContext(OPERATION);
+		if (operation != null) {
+			operation.completeRequest(requestType(request), 0, e);
+		}
+	}
+
+	private static String requestType(Request<?> request) {
+		String name = request.getOriginalRequest().getClass().getSimpleName();
+		return name.endsWith(REQUEST_SUFFIX) ? name.substring(0, name.length() - REQUEST_SUFFIX.length()) : name;
+	}
+
+	private static int count(Integer count) {
+		return count == null ? 0 : count;
+	}
+
+	private static int readItems(Map<String, List<Map<String, AttributeValue>>> responses) {
+		return responses == null ? 0 : responses.values().stream().mapToInt(List::size).sum();
+	}
+
+	private static int writtenItems(AmazonWebServiceRequest request, BatchWriteItemResult result) {
+		if (!(request instanceof BatchWriteItemRequest)) {
+			return 0;
+		}
+		return requestCount(((BatchWriteItemRequest) request).getRequestItems())
+				- requestCount(result.getUnprocessedItems());
+	}
+
+	private static int requestCount(Map<String, List<WriteRequest>> requestItems) {
+		return requestItems == null ? 0 : requestItems.values().stream().mapToInt(List::size).sum();
+	}
+
+	/**
+	 * A type of request the consumed capacity is requested for
+	 */
+	private static final class RequestKind<Q extends AmazonWebServiceRequest> {
+		private final Class<Q> type;
+		private final Function<Q, String> returnConsumedCapacity;
+		private final BiConsumer<Q, ReturnConsumedCapacity> setReturnConsumedCapacity;
+
+		private RequestKind(Class<Q> type, Function<Q, String> returnConsumedCapacity,
+				BiConsumer<Q, ReturnConsumedCapacity> setReturnConsumedCapacity) {
+			this.type = type;
+			this.returnConsumedCapacity = returnConsumedCapacity;
+			this.setReturnConsumedCapacity = setReturnConsumedCapacity;
+		}
+
+		private void requestConsumedCapacity(AmazonWebServiceRequest request) {
+			Q typed = type.cast(request);
+			if (returnConsumedCapacity.apply(typed) == null) {
+				setReturnConsumedCapacity.accept(typed, ReturnConsumedCapacity.TOTAL);
+			}
+		}
+	}
+
+	/**
+	 * A type of result the consumed capacity and the items are taken from
+	 */
+	private static final class ResultKind<S> {
+		private final Class<S> type;
+		private final Function<S, List<ConsumedCapacity>> consumedCapacity;
+		private final ToIntBiFunction<AmazonWebServiceRequest, S> items;
+
+		private ResultKind(Class<S> type, Function<S, List<ConsumedCapacity>> consumedCapacity,
+				ToIntBiFunction<AmazonWebServiceRequest, S> items) {
+			this.type = type;
+			this.consumedCapacity = consumedCapacity;
+			this.items = items;
+		}
+
+		/**
+		 * @return The number of items read or written
+		 */
+		private int record(OperationContext operation, AmazonWebServiceRequest request, Object result) {
+			S typed = type.cast(result);
+			List<ConsumedCapacity> capacities = consumedCapacity.apply(typed);
+			if (capacities != null) {
+				capacities.forEach(operation::recordConsumedCapacity);
+			}
+			return items.applyAsInt(request, typed);
+		}
+	}
+}
@@ -0,0 +1,317 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperationListener;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Logs operations that took longer than a threshold or consumed more capacity
+ * than a budget - including the repository method, the plan, the pages fetched
+ * and the items scanned versus returned.
+ *
+ * The entries are written as {@code key=value} pairs at {@code WARN} level to
+ * the dedicated logger {@value #LOGGER_NAME} and are rate limited. Operations
+ * of a repository method are reported as a whole once the method completes;
+ * pages fetched lazily after that are reported on their own. Consumed capacity
+ * is only known if the {@link OperationRequestHandler} is registered with the
+ * {@code AmazonDynamoDB} client.
+ *
+ * @author Sebastian Just
+ */
+public class SlowOperationLogger implements DynamoDBOperationListener {
+
+	public static final String LOGGER_NAME = "org.socialsignin.spring.data.dynamodb.SlowOperations";
+
+	public enum ParameterRedaction {
+		/**
+		 * Log the parameter values
+		 */
+		NONE,
+		/**
+		 * Log only the types of the parameters
+		 */
+		TYPES,
+		/**
+		 * Log only the number of parameters
+		 */
+		ALL
+	}
+
+	private static final String CONFIGURATION_KEY_slowOperations_thresholdMillis = "${spring.data.dynamodb.slowOperations.thresholdMillis:1000}";
+	private static final String CONFIGURATION_KEY_slowOperations_capacityUnits = "${spring.data.dynamodb.slowOperations.capacityUnits:0}";
+	private static final String CONFIGURATION_KEY_slowOperations_parameters = "${spring.data.dynamodb.slowOperations.parameters:TYPES}";
+	private static final String CONFIGURATION_KEY_slowOperations_maxPerSecond = "${spring.data.dynamodb.slowOperations.maxPerSecond:10}";
+
+	private static final String OPERATIONS = SlowOperationLogger.class.getName() + ".operations";
+	private static final String COMPLETED = SlowOperationLogger.class.getName() + ".completed";
+	private static final String LAZY_NANOS = SlowOperationLogger.class.getName() + ".lazyNanos";
+	private static final String LOGGED = SlowOperationLogger.class.getName() + ".logged";
+
+	private static final int MAX_PARAMETER_LENGTH = 64;
+	private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final Logger logger;
+	private final LongSupplier nanoClock;
+	private final long thresholdNanos;
+	private final double capacityUnits;
+	private final ParameterRedaction parameterRedaction;
+	private final int maxPerSecond;
+
+	private final AtomicLong windowStart;
+	private final AtomicInteger loggedInWindow = new AtomicInteger();
+	private final AtomicLong suppressed = new AtomicLong();
+
+	/**
+	 * @param thresholdMillis
+	 *            Operations taking at least this long are logged - {@code 0}
+	 *            disables the check
+	 * @param capacityUnits
+	 *            Operations consuming at least this many read and write capacity
+	 *            units are logged - {@code 0} disables the check
+	 * @param parameterRedaction
+	 *            How much of the repository method parameters is logged
+	 * @param maxPerSecond
+	 *            Maximum number of entries logged per second - {@code 0} for no
+	 *            limit
+	 */
+	@Autowired
+	public SlowOperationLogger(@Value(CONFIGURATION_KEY_slowOperations_thresholdMillis) long thresholdMillis,
+			@Value(CONFIGURATION_KEY_slowOperations_capacityUnits) double capacityUnits,
+			@Value(CONFIGURATION_KEY_slowOperations_parameters) ParameterRedaction parameterRedaction,
+			@Value(CONFIGURATION_KEY_slowOperations_maxPerSecond) int maxPerSecond) {
+		this(LoggerFactory.getLogger(LOGGER_NAME), System::nanoTime, thresholdMillis, capacityUnits, parameterRedaction,
+				maxPerSecond);
+	}
+
+	SlowOperationLogger(Logger logger, LongSupplier nanoClock, long thresholdMillis, double capacityUnits,
+			ParameterRedaction parameterRedaction, int maxPerSecond) {
+		Assert.notNull(logger, "logger must not be null!");
+		Assert.notNull(nanoClock, "nanoClock must not be null!");
+		Assert.notNull(parameterRedaction, "parameterRedaction must not be null!");
+		Assert.isTrue(thresholdMillis >= 0, "thresholdMillis must not be negative!");
+		Assert.isTrue(capacityUnits >= 0, "capacityUnits must not be negative!");
+		Assert.isTrue(maxPerSecond >= 0, "maxPerSecond must not be negative!");
+		this.logger = logger;
+		this.nanoClock = nanoClock;
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+		this.capacityUnits = capacityUnits;
+		this.parameterRedaction = parameterRedaction;
+		this.maxPerSecond = maxPerSecond;
+		this.windowStart = new AtomicLong(nanoClock.getAsLong());
+	}
+
+	@Override
+	public void onOperationStart(OperationContext operation) {
+		RepositoryMethodContext method = operation.getRepositoryMethod();
+		if (method != null && logger.isWarnEnabled()) {
+			operations(method).add(operation);
+		}
+	}
+
+	@Override
+	public void onOperationComplete(OperationContext operation) {
+		operation.setAttribute(COMPLETED, Boolean.TRUE);
+		if (operation.getRepositoryMethod() == null) {
+			check(operation);
+		}
+	}
+
+	@Override
+	public void onPageComplete(OperationContext operation, int items, int scannedItems, long durationNanos) {
+		if (operation.getAttribute(COMPLETED) == null) {
+			// Part of the operation itself
+			return;
+		}
+		Long lazyNanos = (Long) operation.getAttribute(LAZY_NANOS);
+		operation.setAttribute(LAZY_NANOS, (lazyNanos == null ? 0 : lazyNanos) + durationNanos);
+
+		RepositoryMethodContext method = operation.getRepositoryMethod();
+		if (method == null || method.getAttribute(COMPLETED) != null) {
+			check(operation);
+		}
+	}
+
+	@Override
+	public void onRepositoryMethodComplete(RepositoryMethodContext method) {
+		method.setAttribute(COMPLETED, Boolean.TRUE);
+		List<OperationContext> operations = snapshot(operations(method));
+		if (operations.isEmpty()) {
+			return;
+		}
+
+		Totals totals = new Totals(method.getDurationNanos());
+		operations.forEach(totals::add);
+		if (isSlow(totals)) {
+			operations.forEach(o -> o.setAttribute(LOGGED, Boolean.TRUE));
+			log(method, operations.get(0), operations.size(), totals);
+		}
+	}
+
+	private void check(OperationContext operation) {
+		if (operation.getAttribute(LOGGED) != null || !logger.isWarnEnabled()) {
+			return;
+		}
+		Long lazyNanos = (Long) operation.getAttribute(LAZY_NANOS);
+		Totals totals = new Totals(operation.getDurationNanos() + (lazyNanos == null ? 0 : lazyNanos));
+		totals.add(operation);
+		if (isSlow(totals)) {
+			operation.setAttribute(LOGGED, Boolean.TRUE);
+			log(operation.getRepositoryMethod(), operation, 1, totals);
+		}
+	}
+
+	private boolean isSlow(Totals totals) {
+		return (thresholdNanos > 0 && totals.durationNanos >= thresholdNanos)
+				|| (capacityUnits > 0 && totals.readCapacityUnits + totals.writeCapacityUnits >= capacityUnits);
+	}
+
+	private void log(@Nullable RepositoryMethodContext method, OperationContext operation, int operations,
+			Totals totals) {
+		if (!tryAcquire()) {
+			suppressed.incrementAndGet();
+			return;
+		}
+
+		StringBuilder entry = new StringBuilder("Slow DynamoDB operation:");
+		append(entry, "reason", thresholdNanos > 0 && totals.durationNanos >= thresholdNanos ? "latency" : "capacity");
+		if (method != null) {
+			append(entry, "repository", method.getRepositoryInterface().getName());
+			append(entry, "method", method.getMethodName());
+			append(entry, "parameters", parameters(method.getParameters()));
+		}
+		append(entry, "type", operation.getType().name());
+		append(entry, "table", operation.getTableName());
+		append(entry, "index", operation.getIndexName());
+		QueryPlan plan = operation.getQueryPlan();
+		append(entry, "plan", plan == null ? null : plan.toString());
+		append(entry, "operations", operations);
+		append(entry, "durationMs", TimeUnit.NANOSECONDS.toMillis(totals.durationNanos));
+		append(entry, "pages", totals.pages);
+		append(entry, "scanned", totals.scanned);
+		append(entry, "returned", totals.items);
+		append(entry, "readCapacityUnits", totals.readCapacityUnits);
+		append(entry, "writeCapacityUnits", totals.writeCapacityUnits);
+		append(entry, "retries", totals.retries);
+		append(entry, "throttles", totals.throttles);
+		Throwable error = method == null ? operation.getError() : method.getError();
+		if (error != null) {
+			append(entry, "error", error.getClass().getName());
+		}
+		long suppressedEntries = suppressed.getAndSet(0);
+		if (suppressedEntries > 0) {
+			append(entry, "suppressed", suppressedEntries);
+		}
+		logger.warn(entry.toString());
+	}
+
+	private boolean tryAcquire() {
+		if (maxPerSecond == 0) {
+			return true;
+		}
+		long now = nanoClock.getAsLong();
+		long start = windowStart.get();
+		if (now - start >= ONE_SECOND_NANOS && windowStart.compareAndSet(start, now)) {
+			loggedInWindow.set(0);
+		}
+		return loggedInWindow.incrementAndGet() <= maxPerSecond;
+	}
+
+	private String parameters(Object[] parameters) {
+		List<String> result = new ArrayList<>(parameters.length);
+		for (Object parameter : parameters) {
+			switch (parameterRedaction) {
+				case NONE :
+					String value = String.valueOf(parameter);
+					result.add(value.length() > MAX_PARAMETER_LENGTH
+							? value.substring(0, MAX_PARAMETER_LENGTH) + "..."
+							: value);
+					break;
+				case TYPES :
+					result.add(parameter == null ? "null" : parameter.getClass().getSimpleName());
+					break;
+				default :
+					result.add("***");
+			}
+		}
+		return result.toString();
+	}
+
+	private static void append(StringBuilder entry, String key, @Nullable Object value) {
+		entry.append(' ').append(key).append('=');
+		String text = value == null ? "-" : value.toString();
+		if (text.isEmpty() || text.chars().anyMatch(c -> c == ' ' || c == '"' || c == '=')) {
+			entry.append('"').append(text.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+		} else {
+			entry.append(text);
+		}
+	}
+
+	/**
+	 * @return The operations of the method - synchronized as they might be
+	 *         performed by several threads
+	 */
+	private static List<OperationContext> operations(RepositoryMethodContext method) {
+		return method.computeAttributeIfAbsent(OPERATIONS, name -> Collections.synchronizedList(new ArrayList<>()));
+	}
+
+	private static List<OperationContext> snapshot(List<OperationContext> operations) {
+		synchronized (operations) {
+			return new ArrayList<>(operations);
+		}
+	}
+
+	private static final class Totals {
+		private final long durationNanos;
+		private int pages;
+		private long items;
+		private long scanned;
+		private double readCapacityUnits;
+		private double writeCapacityUnits;
+		private int retries;
+		private int throttles;
+
+		private Totals(long durationNanos) {
+			this.durationNanos = durationNanos;
+		}
+
+		private void add(OperationContext operation) {
+			pages += operation.getPageCount();
+			items += operation.getItemCount();
+			scanned += operation.getType().isPaged() ? operation.getScannedCount() : operation.getItemCount();
+			readCapacityUnits += operation.getReadCapacityUnits();
+			writeCapacityUnits += operation.getWriteCapacityUnits();
+			retries += operation.getRetries();
+			throttles += operation.getThrottles();
+		}
+	}
+}
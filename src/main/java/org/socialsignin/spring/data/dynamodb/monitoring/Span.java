@@ -0,0 +1,62 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+/**
+ * A span started by a {@link Tracer}.
+ *
+ * @author Sebastian Just
+ */
+public interface Span {
+
+	/**
+	 * Span that does not record anything
+	 */
+	Span NOOP = new Span() {
+		@Override
+		public Span setAttribute(String key, String value) {
+			return this;
+		}
+
+		@Override
+		public Span setAttribute(String key, long value) {
+			return this;
+		}
+
+		@Override
+		public Span setAttribute(String key, double value) {
+			return this;
+		}
+
+		@Override
+		public void recordError(Throwable error) {
+		}
+
+		@Override
+		public void end() {
+		}
+	};
+
+	Span setAttribute(String key, String value);
+
+	Span setAttribute(String key, long value);
+
+	Span setAttribute(String key, double value);
+
+	void recordError(Throwable error);
+
+	void end();
+}
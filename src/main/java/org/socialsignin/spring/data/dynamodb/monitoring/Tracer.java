@@ -0,0 +1,45 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Minimal tracing abstraction modelled after OpenTelemetry so that any tracing
+ * library can be plugged into the {@link TracingOperationListener} via a small
+ * adapter.
+ *
+ * @author Sebastian Just
+ */
+@FunctionalInterface
+public interface Tracer {
+
+	/**
+	 * Tracer that does not record anything
+	 */
+	Tracer NOOP = (name, parent) -> Span.NOOP;
+
+	/**
+	 * @param name
+	 *            The name of the span
+	 * @param parent
+	 *            The parent span - {@code null} to start the span as child of the
+	 *            span that is current in the calling thread, e.g. the one of the
+	 *            incoming request
+	 * @return The started span
+	 */
+	Span startSpan(String name, @Nullable Span parent);
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperationListener;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Traces the interactions with DynamoDB via a {@link Tracer}:
+ * <ul>
+ * <li>a span per repository method invocation - query methods as well as CRUD
+ * methods</li>
+ * <li>a child span per operation of the {@code DynamoDBTemplate}</li>
+ * <li>a child span of the operation per page of a query or scan - including
+ * pages fetched lazily while iterating the result</li>
+ * <li>a child span of the page or operation per request to DynamoDB</li>
+ * </ul>
+ * Requests are only traced if the {@link OperationRequestHandler} is registered
+ * with the {@code AmazonDynamoDB} client.
+ *
+ * @author Sebastian Just
+ */
+public class TracingOperationListener implements DynamoDBOperationListener {
+
+	private static final String DB_SYSTEM = "db.system";
+	private static final String DYNAMODB = "dynamodb";
+
+	private static final String METHOD_SPAN = TracingOperationListener.class.getName() + ".method";
+	private static final String OPERATION_SPAN = TracingOperationListener.class.getName() + ".operation";
+	private static final String PAGE_SPAN = TracingOperationListener.class.getName() + ".page";
+	private static final String REQUEST_SPAN = TracingOperationListener.class.getName() + ".request";
+
+	private final Tracer tracer;
+
+	public TracingOperationListener(Tracer tracer) {
+		Assert.notNull(tracer, "tracer must not be null!");
+		this.tracer = tracer;
+	}
+
+	@Override
+	public void onRepositoryMethodStart(RepositoryMethodContext method) {
+		Span span = tracer.startSpan(method.toString(), null);
+		span.setAttribute(DB_SYSTEM, DYNAMODB);
+		span.setAttribute("spring.data.repository", method.getRepositoryInterface().getName());
+		span.setAttribute("spring.data.method", method.getMethodName());
+		method.setAttribute(METHOD_SPAN, span);
+	}
+
+	@Override
+	public void onRepositoryMethodComplete(RepositoryMethodContext method) {
+		Span span = (Span) method.getAttribute(METHOD_SPAN);
+		if (span != null) {
+			span.setAttribute("spring.data.operations", method.getOperationCount());
+			end(span, method.getError());
+		}
+	}
+
+	@Override
+	public void onOperationStart(OperationContext operation) {
+		RepositoryMethodContext method = operation.getRepositoryMethod();
+		Span parent = method == null ? null : (Span) method.getAttribute(METHOD_SPAN);
+		Span span = tracer.startSpan("DynamoDB " + operation.getType(), parent);
+		span.setAttribute(DB_SYSTEM, DYNAMODB);
+		span.setAttribute("aws.dynamodb.table_names", operation.getTableName());
+		if (operation.getIndexName() != null) {
+			span.setAttribute("aws.dynamodb.index_name", operation.getIndexName());
+		}
+		operation.setAttribute(OPERATION_SPAN, span);
+	}
+
+	@Override
+	public void onOperationComplete(OperationContext operation) {
+		Span span = (Span) operation.getAttribute(OPERATION_SPAN);
+		if (span != null) {
+			span.setAttribute("aws.dynamodb.count", operation.getItemCount());
+			span.setAttribute("aws.dynamodb.pages", operation.getPageCount());
+			span.setAttribute("aws.dynamodb.consumed_capacity",
+					operation.getReadCapacityUnits() + operation.getWriteCapacityUnits());
+			end(span, operation.getError());
+		}
+	}
+
+	@Override
+	public void onPageStart(OperationContext operation) {
+		Span span = tracer.startSpan("DynamoDB " + operation.getType() + " page",
+				(Span) operation.getAttribute(OPERATION_SPAN));
+		span.setAttribute(DB_SYSTEM, DYNAMODB);
+		span.setAttribute("aws.dynamodb.page", operation.getPageCount() + 1);
+		operation.setAttribute(PAGE_SPAN, span);
+	}
+
+	@Override
+	public void onPageComplete(OperationContext operation, int items, int scannedItems, long durationNanos) {
+		Span span = (Span) operation.getAttribute(PAGE_SPAN);
+		if (span != null) {
+			operation.setAttribute(PAGE_SPAN, null);
+			span.setAttribute("aws.dynamodb.count", items);
+			span.setAttribute("aws.dynamodb.scanned_count", scannedItems);
+			span.end();
+		}
+	}
+
+	@Override
+	public void onRequestStart(OperationContext operation, String requestType) {
+		Span parent = (Span) operation.getAttribute(PAGE_SPAN);
+		if (parent == null) {
+			parent = (Span) operation.getAttribute(OPERATION_SPAN);
+		}
+		Span span = tracer.startSpan("DynamoDB." + requestType, parent);
+		span.setAttribute(DB_SYSTEM, DYNAMODB);
+		span.setAttribute("rpc.method", requestType);
+		operation.setAttribute(REQUEST_SPAN, span);
+	}
+
+	@Override
+	public void onRequestComplete(OperationContext operation, String requestType, int items, long durationNanos,
+			@Nullable Throwable error) {
+		Span span = (Span) operation.getAttribute(REQUEST_SPAN);
+		if (span != null) {
+			operation.setAttribute(REQUEST_SPAN, null);
+			span.setAttribute("aws.dynamodb.count", items);
+			end(span, error);
+		}
+	}
+
+	private static void end(Span span, @Nullable Throwable error) {
+		if (error != null) {
+			span.recordError(error);
+		}
+		span.end();
+	}
+}
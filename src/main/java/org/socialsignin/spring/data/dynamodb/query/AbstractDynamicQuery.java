@@ -15,7 +15,10 @@
  */
 package org.socialsignin.spring.data.dynamodb.query;
 
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
 import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.springframework.lang.Nullable;
 
 public abstract class AbstractDynamicQuery<T> extends AbstractQuery<T> {
 
@@ -26,4 +29,29 @@ public abstract class AbstractDynamicQuery<T> extends AbstractQuery<T> {
 		this.dynamoDBOperations = dynamoDBOperations;
 		this.clazz = clazz;
 	}
+
+	/**
+	 * @return How results merged on the client side are read - as tuned by the
+	 *         read settings or else as configured for all queries
+	 */
+	protected PaginationLoadingStrategy getPaginationLoadingStrategy() {
+		PaginationLoadingStrategy paginationLoadingStrategy = readSettings.getPaginationLoadingStrategy() != null
+				? readSettings.getPaginationLoadingStrategy()
+				: dynamoDBOperations.getPaginationLoadingStrategy();
+		return paginationLoadingStrategy == null ? PaginationLoadingStrategy.LAZY_LOADING : paginationLoadingStrategy;
+	}
+
+	/**
+	 * @return The attribute name of the hash key of the domain class - or
+	 *         {@code null} if the table model is not available
+	 */
+	@Nullable
+	protected static String hashKeyAttributeName(DynamoDBOperations dynamoDBOperations, Class<?> domainClass) {
+		try {
+			DynamoDBMapperTableModel<?> tableModel = dynamoDBOperations.getTableModel(domainClass);
+			return tableModel == null ? null : tableModel.hashKey().name();
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
 }
@@ -15,6 +15,8 @@
  */
 package org.socialsignin.spring.data.dynamodb.query;
 
+import org.springframework.util.Assert;
+
 /**
  * {@link org.socialsignin.spring.data.dynamodb.mapping.DynamoDBPersistentProperty}
  * implementation
@@ -26,6 +28,11 @@ public abstract class AbstractQuery<T> implements Query<T> {
 
 	protected boolean scanEnabled = false;
 	protected boolean scanCountEnabled = false;
+	/**
+	 * Unless tuned the plain {@code DynamoDBOperations} methods are used to read
+	 * the results
+	 */
+	protected ReadSettings readSettings = ReadSettings.DEFAULT;
 
 	@Override
 	public boolean isScanCountEnabled() {
@@ -47,4 +54,15 @@ public abstract class AbstractQuery<T> implements Query<T> {
 		return scanEnabled;
 	}
 
+	@Override
+	public void setReadSettings(ReadSettings readSettings) {
+		Assert.notNull(readSettings, "readSettings must not be null!");
+		this.readSettings = readSettings;
+	}
+
+	@Override
+	public ReadSettings getReadSettings() {
+		return readSettings;
+	}
+
 }
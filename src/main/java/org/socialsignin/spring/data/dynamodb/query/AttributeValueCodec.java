@@ -0,0 +1,192 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of an item - the attribute values the mapper converted
+ * an entity to. Used by the {@link ScanSorter} to spill items to disk.
+ *
+ * @author Sebastian Just
+ */
+final class AttributeValueCodec {
+
+	private static final byte S = 1;
+	private static final byte N = 2;
+	private static final byte B = 3;
+	private static final byte SS = 4;
+	private static final byte NS = 5;
+	private static final byte BS = 6;
+	private static final byte M = 7;
+	private static final byte L = 8;
+	private static final byte NULL = 9;
+	private static final byte BOOL = 10;
+
+	private AttributeValueCodec() {
+	}
+
+	static void write(Map<String, AttributeValue> item, DataOutput out) throws IOException {
+		out.writeInt(item.size());
+		for (Map.Entry<String, AttributeValue> attribute : item.entrySet()) {
+			writeString(attribute.getKey(), out);
+			write(attribute.getValue(), out);
+		}
+	}
+
+	static Map<String, AttributeValue> read(ByteBuffer in) {
+		int size = in.getInt();
+		Map<String, AttributeValue> item = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			String name = readString(in);
+			item.put(name, readValue(in));
+		}
+		return item;
+	}
+
+	private static void write(AttributeValue value, DataOutput out) throws IOException {
+		if (value.getS() != null) {
+			out.writeByte(S);
+			writeString(value.getS(), out);
+		} else if (value.getN() != null) {
+			out.writeByte(N);
+			writeString(value.getN(), out);
+		} else if (value.getB() != null) {
+			out.writeByte(B);
+			writeBytes(value.getB(), out);
+		} else if (value.getSS() != null) {
+			out.writeByte(SS);
+			writeStrings(value.getSS(), out);
+		} else if (value.getNS() != null) {
+			out.writeByte(NS);
+			writeStrings(value.getNS(), out);
+		} else if (value.getBS() != null) {
+			out.writeByte(BS);
+			out.writeInt(value.getBS().size());
+			for (ByteBuffer bytes : value.getBS()) {
+				writeBytes(bytes, out);
+			}
+		} else if (value.getM() != null) {
+			out.writeByte(M);
+			write(value.getM(), out);
+		} else if (value.getL() != null) {
+			out.writeByte(L);
+			out.writeInt(value.getL().size());
+			for (AttributeValue element : value.getL()) {
+				write(element, out);
+			}
+		} else if (Boolean.TRUE.equals(value.getNULL())) {
+			out.writeByte(NULL);
+		} else if (value.getBOOL() != null) {
+			out.writeByte(BOOL);
+			out.writeBoolean(value.getBOOL());
+		} else {
+			throw new IllegalArgumentException("Unsupported attribute value: " + value);
+		}
+	}
+
+	private static AttributeValue readValue(ByteBuffer in) {
+		byte type = in.get();
+		switch (type) {
+			case S :
+				return new AttributeValue().withS(readString(in));
+			case N :
+				return new AttributeValue().withN(readString(in));
+			case B :
+				return new AttributeValue().withB(readBytes(in));
+			case SS :
+				return new AttributeValue().withSS(readStrings(in));
+			case NS :
+				return new AttributeValue().withNS(readStrings(in));
+			case BS : {
+				int size = in.getInt();
+				List<ByteBuffer> values = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					values.add(readBytes(in));
+				}
+				return new AttributeValue().withBS(values);
+			}
+			case M :
+				return new AttributeValue().withM(read(in));
+			case L : {
+				int size = in.getInt();
+				List<AttributeValue> values = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					values.add(readValue(in));
+				}
+				return new AttributeValue().withL(values);
+			}
+			case NULL :
+				return new AttributeValue().withNULL(true);
+			case BOOL :
+				return new AttributeValue().withBOOL(in.get() != 0);
+			default :
+				throw new IllegalStateException("Unknown attribute value type " + type);
+		}
+	}
+
+	private static void writeString(String value, DataOutput out) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeStrings(Collection<String> values, DataOutput out) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			writeString(value, out);
+		}
+	}
+
+	private static List<String> readStrings(ByteBuffer in) {
+		int size = in.getInt();
+		List<String> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(readString(in));
+		}
+		return values;
+	}
+
+	private static void writeBytes(ByteBuffer value, DataOutput out) throws IOException {
+		ByteBuffer bytes = value.duplicate();
+		byte[] array = new byte[bytes.remaining()];
+		bytes.get(array);
+		out.writeInt(array.length);
+		out.write(array);
+	}
+
+	private static ByteBuffer readBytes(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return ByteBuffer.wrap(bytes);
+	}
+}
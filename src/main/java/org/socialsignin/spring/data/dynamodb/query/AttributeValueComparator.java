@@ -0,0 +1,93 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+
+/**
+ * Orders scalar {@link AttributeValue}s the way DynamoDB orders range keys:
+ * numbers by their value, strings by their UTF-8 bytes and binaries by their
+ * unsigned bytes. Values of different types are ordered N &lt; S &lt; B.
+ *
+ * @author Sebastian Just
+ */
+public final class AttributeValueComparator implements Comparator<AttributeValue> {
+
+	public static final AttributeValueComparator INSTANCE = new AttributeValueComparator();
+
+	private AttributeValueComparator() {
+	}
+
+	@Override
+	public int compare(AttributeValue a, AttributeValue b) {
+		int result = Integer.compare(rank(a), rank(b));
+		if (result != 0) {
+			return result;
+		}
+		if (a.getN() != null) {
+			return new BigDecimal(a.getN()).compareTo(new BigDecimal(b.getN()));
+		} else if (a.getS() != null) {
+			return compareCodePoints(a.getS(), b.getS());
+		} else {
+			return compareUnsigned(a.getB(), b.getB());
+		}
+	}
+
+	private static int rank(AttributeValue value) {
+		if (value.getN() != null) {
+			return 0;
+		} else if (value.getS() != null) {
+			return 1;
+		} else if (value.getB() != null) {
+			return 2;
+		}
+		throw new IllegalArgumentException("Only scalar values can be ordered: " + value);
+	}
+
+	/**
+	 * UTF-8 byte order equals code point order - unlike
+	 * {@link String#compareTo(String)} for characters beyond the BMP
+	 */
+	private static int compareCodePoints(String a, String b) {
+		int i = 0;
+		int j = 0;
+		while (i < a.length() && j < b.length()) {
+			int cpA = a.codePointAt(i);
+			int cpB = b.codePointAt(j);
+			if (cpA != cpB) {
+				return Integer.compare(cpA, cpB);
+			}
+			i += Character.charCount(cpA);
+			j += Character.charCount(cpB);
+		}
+		return Boolean.compare(i < a.length(), j < b.length());
+	}
+
+	private static int compareUnsigned(ByteBuffer a, ByteBuffer b) {
+		int length = Math.min(a.remaining(), b.remaining());
+		for (int i = 0; i < length; i++) {
+			int result = Integer.compare(a.get(a.position() + i) & 0xff, b.get(b.position() + i) & 0xff);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return Integer.compare(a.remaining(), b.remaining());
+	}
+}
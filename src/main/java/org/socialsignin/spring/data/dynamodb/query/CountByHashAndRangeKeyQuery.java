@@ -40,4 +40,9 @@ public class CountByHashAndRangeKeyQuery<T> extends AbstractSingleEntityQuery<Lo
 		return dynamoDBOperations.load(entityClass, hashKey, rangeKey) == null ? 0l : 1l;
 	}
 
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.getItem(true);
+	}
+
 }
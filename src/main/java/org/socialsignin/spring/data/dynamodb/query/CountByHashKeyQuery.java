@@ -37,4 +37,9 @@ public class CountByHashKeyQuery<T> extends AbstractSingleEntityQuery<Long> impl
 		return dynamoDBOperations.load(entityClass, hashKey) == null ? 0l : 1l;
 	}
 
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.getItem(false);
+	}
+
 }
@@ -0,0 +1,106 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Counts the items of a {@link MergedQuery} or a
+ * {@link MultipleEntityBatchLoadQuery}. If the queries might match the same
+ * item, the merged items are iterated so that such an item is counted once.
+ * Queries no item can match more than one of - e.g. one per value of an
+ * {@code In} condition on a key - are counted by DynamoDB instead and the
+ * counts are summed up.
+ *
+ * @author Sebastian Just
+ */
+public class MergedCountQuery<T> extends AbstractSingleEntityQuery<Long> {
+
+	@Nullable
+	private final Query<T> mergedQuery;
+	@Nullable
+	private final List<Query<Long>> countQueries;
+
+	/**
+	 * @param mergedQuery
+	 *            The query whose distinct items are counted
+	 */
+	public MergedCountQuery(Query<T> mergedQuery) {
+		super(null, Long.class);
+		Assert.notNull(mergedQuery, "mergedQuery must not be null!");
+		this.mergedQuery = mergedQuery;
+		this.countQueries = null;
+	}
+
+	/**
+	 * @param countQueries
+	 *            Counts of queries no item can match more than one of - sent in
+	 *            parallel on the {@link DynamoDBOperations#getQueryExecutor()
+	 *            query executor}
+	 */
+	public MergedCountQuery(DynamoDBOperations dynamoDBOperations, List<Query<Long>> countQueries) {
+		super(dynamoDBOperations, Long.class);
+		Assert.notEmpty(countQueries, "countQueries must not be empty!");
+		this.mergedQuery = null;
+		this.countQueries = countQueries;
+	}
+
+	@Override
+	public Long getSingleResult() {
+		if (countQueries != null) {
+			return MergedQuery.performAll(dynamoDBOperations.getQueryExecutor(), countQueries, Query::getSingleResult)
+					.stream().mapToLong(Long::longValue).sum();
+		}
+
+		// Iterates instead of asking for the size - not supported in ITERATION_ONLY mode
+		long count = 0;
+		for (Iterator<T> items = mergedQuery.getResultList().iterator(); items.hasNext(); items.next()) {
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	public void setScanCountEnabled(boolean scanCountEnabled) {
+		super.setScanCountEnabled(scanCountEnabled);
+		if (countQueries != null) {
+			countQueries.forEach(query -> query.setScanCountEnabled(scanCountEnabled));
+		}
+	}
+
+	@Override
+	public QueryPlan getQueryPlan() {
+		if (countQueries == null) {
+			return mergedQuery.getQueryPlan();
+		}
+		List<QueryPlan> branches = new ArrayList<>();
+		for (Query<Long> query : countQueries) {
+			QueryPlan branch = query.getQueryPlan();
+			if (branch == null) {
+				return null;
+			}
+			branches.add(branch);
+		}
+		return QueryPlan.union(branches);
+	}
+
+}
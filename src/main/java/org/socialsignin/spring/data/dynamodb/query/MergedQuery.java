@@ -0,0 +1,229 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the union of several queries - e.g. the branches of an {@code Or}
+ * query method or one query per value of an {@code In} condition on a key. The
+ * queries are sent in parallel on the
+ * {@link DynamoDBOperations#getQueryExecutor() query executor} and - unless
+ * the queries can't match the same item - an item returned by more than one of
+ * them is returned only once.
+ *
+ * If an order is given, each query has to return its items in that order. The
+ * results are then merged by a {@link SortedMergeIterator} instead of
+ * concatenated. Either way only the first page of each query is read upfront -
+ * further pages are read once the {@link MergedResultList} reaches them.
+ *
+ * @author Sebastian Just
+ */
+public class MergedQuery<T> extends AbstractMultipleEntityQuery<T> {
+
+	private final List<Query<T>> queries;
+	@Nullable
+	private final Function<T, Object> primaryKey;
+	@Nullable
+	private final Comparator<T> order;
+
+	/**
+	 * @param queries
+	 *            The queries to merge the results of
+	 * @param primaryKey
+	 *            Provides the identity of an item to drop duplicates -
+	 *            {@code null} if no item is returned by more than one query
+	 * @param order
+	 *            The order every query returns its items in - {@code null} if
+	 *            unordered
+	 */
+	public MergedQuery(DynamoDBOperations dynamoDBOperations, Class<T> clazz, List<Query<T>> queries,
+			@Nullable Function<T, Object> primaryKey, @Nullable Comparator<T> order) {
+		super(dynamoDBOperations, clazz);
+		Assert.notEmpty(queries, "queries must not be empty!");
+		this.queries = queries;
+		this.primaryKey = primaryKey;
+		this.order = order;
+	}
+
+	@Override
+	public List<T> getResultList() {
+		List<Iterator<T>> results = readFirstPages();
+		Iterator<T> merged = order == null
+				? new ConcatIterator<>(results)
+				: new SortedMergeIterator<>(results, order);
+		if (primaryKey != null) {
+			merged = new DistinctIterator<>(merged, primaryKey, order);
+		}
+		return new MergedResultList<>(merged, getPaginationLoadingStrategy());
+	}
+
+	@Override
+	public void setReadSettings(ReadSettings readSettings) {
+		super.setReadSettings(readSettings);
+		queries.forEach(query -> query.setReadSettings(readSettings));
+	}
+
+	private List<Iterator<T>> readFirstPages() {
+		return performAll(dynamoDBOperations.getQueryExecutor(), queries, MergedQuery::readFirstPage);
+	}
+
+	/**
+	 * Performs all queries - in parallel if an executor is given. The queries run
+	 * within the repository method invocation of the calling thread.
+	 *
+	 * @return The results of the queries in the same order
+	 */
+	static <Q, R> List<R> performAll(@Nullable Executor executor, List<Q> queries, Function<Q, R> perform) {
+		if (executor == null) {
+			return queries.stream().map(perform).collect(Collectors.toList());
+		}
+
+		List<CompletableFuture<R>> futures = queries.stream()
+				.map(query -> CompletableFuture
+						.supplyAsync(RepositoryMethodContext.inCurrentContext(() -> perform.apply(query)), executor))
+				.collect(Collectors.toList());
+		try {
+			return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static <T> Iterator<T> readFirstPage(Query<T> query) {
+		// Sending the query reads its first page - the following pages are read
+		// on demand by the thread iterating the result
+		return query.getResultList().iterator();
+	}
+
+	@Override
+	public QueryPlan getQueryPlan() {
+		List<QueryPlan> branches = new ArrayList<>();
+		for (Query<T> query : queries) {
+			QueryPlan branch = query.getQueryPlan();
+			if (branch == null) {
+				return null;
+			}
+			branches.add(branch);
+		}
+		return QueryPlan.union(branches);
+	}
+
+	/**
+	 * Returns the items of one query after the other - skipping {@code null}s of
+	 * single item queries
+	 */
+	private static final class ConcatIterator<T> implements Iterator<T> {
+		private final Iterator<Iterator<T>> sources;
+		private Iterator<T> current = Collections.emptyIterator();
+		private T next;
+
+		private ConcatIterator(List<Iterator<T>> sources) {
+			this.sources = sources.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null) {
+				if (current.hasNext()) {
+					next = current.next();
+				} else if (sources.hasNext()) {
+					current = sources.next();
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			T result = next;
+			next = null;
+			return result;
+		}
+	}
+
+	/**
+	 * Drops items returned before. If the items are ordered, an item returned by
+	 * several queries is returned by the merge among the items of the same sort
+	 * key value - so only their identities have to be kept.
+	 */
+	private static final class DistinctIterator<T> implements Iterator<T> {
+		private final Iterator<T> source;
+		private final Function<T, Object> primaryKey;
+		@Nullable
+		private final Comparator<T> order;
+		private final Set<Object> seen = new HashSet<>();
+		private T previous;
+		private T next;
+
+		private DistinctIterator(Iterator<T> source, Function<T, Object> primaryKey, @Nullable Comparator<T> order) {
+			this.source = source;
+			this.primaryKey = primaryKey;
+			this.order = order;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && source.hasNext()) {
+				T item = source.next();
+				if (order != null && previous != null && order.compare(previous, item) != 0) {
+					seen.clear();
+				}
+				previous = item;
+				if (seen.add(primaryKey.apply(item))) {
+					next = item;
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			T result = next;
+			next = null;
+			return result;
+		}
+	}
+}
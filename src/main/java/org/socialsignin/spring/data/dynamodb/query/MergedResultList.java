@@ -0,0 +1,133 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedList;
+import org.springframework.util.Assert;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The result of a {@link MergedQuery} or a {@link SortedScanExpressionQuery} -
+ * read from the merged queries or sorted runs on demand. Like a
+ * {@link PaginatedList} the items read are kept according to the
+ * {@link PaginationLoadingStrategy}:
+ * <ul>
+ * <li>{@code LAZY_LOADING} reads items as they are accessed and keeps
+ * them</li>
+ * <li>{@code EAGER_LOADING} reads all items upfront</li>
+ * <li>{@code ITERATION_ONLY} keeps no items at all - the list can only be
+ * iterated once</li>
+ * </ul>
+ *
+ * @author Sebastian Just
+ */
+public class MergedResultList<T> extends AbstractList<T> {
+
+	private static final String ITERATION_ONLY_UNSUPPORTED_OPERATION_MESSAGE = "The list could only be iterated "
+			+ "once in ITERATION_ONLY mode.";
+
+	private final Iterator<T> source;
+	private final PaginationLoadingStrategy paginationLoadingStrategy;
+	private final List<T> loaded = new ArrayList<>();
+	private boolean iterated;
+
+	public MergedResultList(Iterator<T> source, PaginationLoadingStrategy paginationLoadingStrategy) {
+		Assert.notNull(source, "source must not be null!");
+		Assert.notNull(paginationLoadingStrategy, "paginationLoadingStrategy must not be null!");
+		this.source = source;
+		this.paginationLoadingStrategy = paginationLoadingStrategy;
+		if (paginationLoadingStrategy == PaginationLoadingStrategy.EAGER_LOADING) {
+			loadAll();
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		if (paginationLoadingStrategy == PaginationLoadingStrategy.ITERATION_ONLY) {
+			if (iterated) {
+				throw new UnsupportedOperationException(ITERATION_ONLY_UNSUPPORTED_OPERATION_MESSAGE);
+			}
+			iterated = true;
+			return source;
+		}
+		return new Iterator<T>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < loaded.size() || loadNext();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return loaded.get(index++);
+			}
+		};
+	}
+
+	@Override
+	public T get(int index) {
+		checkUnsupportedOperationForIterationOnlyMode();
+		while (loaded.size() <= index && loadNext()) {
+			// Read up to the requested item only
+		}
+		return loaded.get(index);
+	}
+
+	@Override
+	public int size() {
+		checkUnsupportedOperationForIterationOnlyMode();
+		loadAll();
+		return loaded.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		if (paginationLoadingStrategy == PaginationLoadingStrategy.ITERATION_ONLY) {
+			return !source.hasNext();
+		}
+		return loaded.isEmpty() && !loadNext();
+	}
+
+	private boolean loadNext() {
+		if (!source.hasNext()) {
+			return false;
+		}
+		loaded.add(source.next());
+		return true;
+	}
+
+	private void loadAll() {
+		while (loadNext()) {
+			// Read all remaining items
+		}
+	}
+
+	private void checkUnsupportedOperationForIterationOnlyMode() {
+		if (paginationLoadingStrategy == PaginationLoadingStrategy.ITERATION_ONLY) {
+			throw new UnsupportedOperationException(ITERATION_ONLY_UNSUPPORTED_OPERATION_MESSAGE);
+		}
+	}
+}
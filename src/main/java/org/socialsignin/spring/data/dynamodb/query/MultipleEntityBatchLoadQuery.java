@@ -0,0 +1,101 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Gets several items by their primary keys via
+ * {@link DynamoDBOperations#batchLoad(Map) BatchGetItem} - e.g. one per value
+ * of an {@code In} condition on the hash key. A key given more than once is
+ * requested only once.
+ *
+ * DynamoDB returns the items in no particular order - so they are sorted by the
+ * given order or otherwise by the order of their keys.
+ *
+ * @author Sebastian Just
+ */
+public class MultipleEntityBatchLoadQuery<T> extends AbstractMultipleEntityQuery<T> {
+
+	private final List<KeyPair> keyPairs;
+	private final Function<T, KeyPair> keyPairOf;
+	@Nullable
+	private final Comparator<T> order;
+
+	/**
+	 * @param keyPairs
+	 *            The primary keys of the items to get
+	 * @param keyPairOf
+	 *            Provides the primary key of an item - to sort it by the
+	 *            position of its key
+	 * @param order
+	 *            The order to return the items in - {@code null} for the order
+	 *            of the keys
+	 */
+	public MultipleEntityBatchLoadQuery(DynamoDBOperations dynamoDBOperations, Class<T> clazz,
+			List<KeyPair> keyPairs, Function<T, KeyPair> keyPairOf, @Nullable Comparator<T> order) {
+		super(dynamoDBOperations, clazz);
+		Assert.notNull(keyPairs, "keyPairs must not be null!");
+		Assert.notNull(keyPairOf, "keyPairOf must not be null!");
+		this.keyPairs = keyPairs;
+		this.keyPairOf = keyPairOf;
+		this.order = order;
+	}
+
+	@Override
+	public List<T> getResultList() {
+		Map<List<Object>, Integer> positions = new HashMap<>();
+		List<KeyPair> distinctKeyPairs = new ArrayList<>();
+		for (KeyPair keyPair : keyPairs) {
+			if (positions.putIfAbsent(identity(keyPair), positions.size()) == null) {
+				distinctKeyPairs.add(keyPair);
+			}
+		}
+		if (distinctKeyPairs.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Class<?>, List<KeyPair>> itemsToGet = Collections.singletonMap(clazz, distinctKeyPairs);
+		List<T> items = new ArrayList<>(readSettings.isDefault()
+				? dynamoDBOperations.<T>batchLoad(itemsToGet)
+				: dynamoDBOperations.<T>batchLoad(itemsToGet, readSettings));
+		items.sort(order != null ? order : Comparator.<T>comparingInt(
+				item -> positions.getOrDefault(identity(keyPairOf.apply(item)), Integer.MAX_VALUE)));
+		return items;
+	}
+
+	private static List<Object> identity(KeyPair keyPair) {
+		return Arrays.asList(keyPair.getHashKey(), keyPair.getRangeKey());
+	}
+
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.batchGetItem(keyPairs.stream().anyMatch(keyPair -> keyPair.getRangeKey() != null));
+	}
+
+}
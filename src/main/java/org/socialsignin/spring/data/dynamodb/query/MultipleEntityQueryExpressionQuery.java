@@ -36,7 +36,14 @@ public class MultipleEntityQueryExpressionQuery<T> extends AbstractMultipleEntit
 
 	@Override
 	public List<T> getResultList() {
-		return dynamoDBOperations.query(clazz, queryExpression);
+		return readSettings.isDefault()
+				? dynamoDBOperations.query(clazz, queryExpression)
+				: dynamoDBOperations.query(clazz, queryExpression, readSettings);
+	}
+
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.of(queryExpression, hashKeyAttributeName(dynamoDBOperations, clazz));
 	}
 
 }
@@ -34,8 +34,14 @@ public class MultipleEntityQueryRequestQuery<T> extends AbstractMultipleEntityQu
 
 	@Override
 	public List<T> getResultList() {
+		return readSettings.isDefault()
+				? dynamoDBOperations.query(clazz, queryRequest)
+				: dynamoDBOperations.query(clazz, queryRequest, readSettings);
+	}
 
-		return dynamoDBOperations.query(clazz, queryRequest);
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.of(queryRequest);
 	}
 
 }
@@ -33,8 +33,14 @@ public class MultipleEntityScanExpressionQuery<T> extends AbstractMultipleEntity
 
 	@Override
 	public List<T> getResultList() {
+		return scan(readSettings);
+	}
+
+	protected List<T> scan(ReadSettings readSettings) {
 		assertScanEnabled(isScanEnabled());
-		return dynamoDBOperations.scan(clazz, scanExpression);
+		return readSettings.isDefault()
+				? dynamoDBOperations.scan(clazz, scanExpression)
+				: dynamoDBOperations.scan(clazz, scanExpression, readSettings);
 	}
 
 	public void assertScanEnabled(boolean scanEnabled) {
@@ -43,4 +49,9 @@ public class MultipleEntityScanExpressionQuery<T> extends AbstractMultipleEntity
 				+ "enable scanning for all repository methods by annotating your repository interface with @EnableScan");
 	}
 
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.of(scanExpression);
+	}
+
 }
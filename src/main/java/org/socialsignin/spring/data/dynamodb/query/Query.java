@@ -15,6 +15,8 @@
  */
 package org.socialsignin.spring.data.dynamodb.query;
 
+import org.springframework.lang.Nullable;
+
 import java.util.List;
 
 public interface Query<T> {
@@ -41,4 +43,20 @@ public interface Query<T> {
 	boolean isScanCountEnabled();
 	boolean isScanEnabled();
 
+	/**
+	 * @param readSettings
+	 *            How the results are read - e.g. the consistency and page size
+	 */
+	void setReadSettings(ReadSettings readSettings);
+	ReadSettings getReadSettings();
+
+	/**
+	 * @return How this query is performed against DynamoDB - {@code null} if
+	 *         unknown
+	 */
+	@Nullable
+	default QueryPlan getQueryPlan() {
+		return null;
+	}
+
 }
@@ -39,4 +39,9 @@ public class QueryExpressionCountQuery<T> extends AbstractSingleEntityQuery<Long
 		return Long.valueOf(dynamoDBOperations.count(domainClass, queryExpression));
 	}
 
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.of(queryExpression, hashKeyAttributeName(dynamoDBOperations, domainClass));
+	}
+
 }
@@ -0,0 +1,264 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes how a {@link Query} is performed against DynamoDB without actually
+ * performing it.
+ *
+ * @author Sebastian Just
+ */
+public final class QueryPlan {
+
+	public enum Operation {
+		/**
+		 * Single item access via its primary key
+		 */
+		GET_ITEM,
+		/**
+		 * Access of several items via their primary keys - batched by
+		 * {@code BatchGetItem}
+		 */
+		BATCH_GET_ITEM,
+		/**
+		 * Query of a single partition of the table or an index
+		 */
+		QUERY,
+		/**
+		 * Full scan of the table or an index
+		 */
+		SCAN,
+		/**
+		 * No request to DynamoDB at all
+		 */
+		NONE
+	}
+
+	private static final String HASH_KEY = "<hash key>";
+
+	private final Operation operation;
+	private final String indexName;
+	private final List<String> keyConditions;
+	private final List<String> filterConditions;
+	private final String projection;
+	private final Integer limit;
+	private final List<QueryPlan> branches;
+
+	public QueryPlan(Operation operation, @Nullable String indexName, List<String> keyConditions,
+			List<String> filterConditions, @Nullable String projection, @Nullable Integer limit) {
+		this(operation, indexName, keyConditions, filterConditions, projection, limit, Collections.emptyList());
+	}
+
+	private QueryPlan(Operation operation, @Nullable String indexName, List<String> keyConditions,
+			List<String> filterConditions, @Nullable String projection, @Nullable Integer limit,
+			List<QueryPlan> branches) {
+		Assert.notNull(operation, "operation must not be null!");
+		Assert.notNull(keyConditions, "keyConditions must not be null!");
+		Assert.notNull(filterConditions, "filterConditions must not be null!");
+		this.operation = operation;
+		this.indexName = indexName;
+		this.keyConditions = Collections.unmodifiableList(new ArrayList<>(keyConditions));
+		this.filterConditions = Collections.unmodifiableList(new ArrayList<>(filterConditions));
+		this.projection = projection;
+		this.limit = limit;
+		this.branches = Collections.unmodifiableList(new ArrayList<>(branches));
+	}
+
+	public static QueryPlan none() {
+		return new QueryPlan(Operation.NONE, null, Collections.emptyList(), Collections.emptyList(), null, null);
+	}
+
+	public static QueryPlan getItem(boolean withRangeKey) {
+		return new QueryPlan(Operation.GET_ITEM, null, describeKey(withRangeKey), Collections.emptyList(), null,
+				null);
+	}
+
+	/**
+	 * @param withRangeKey
+	 *            {@code true} if the items are identified by hash and range key
+	 * @return The plan getting the items in batches
+	 */
+	public static QueryPlan batchGetItem(boolean withRangeKey) {
+		return new QueryPlan(Operation.BATCH_GET_ITEM, null, describeKey(withRangeKey), Collections.emptyList(),
+				null, null);
+	}
+
+	private static List<String> describeKey(boolean withRangeKey) {
+		List<String> keyConditions = new ArrayList<>();
+		keyConditions.add(HASH_KEY + " EQ");
+		if (withRangeKey) {
+			keyConditions.add("<range key> EQ");
+		}
+		return keyConditions;
+	}
+
+	/**
+	 * @param branches
+	 *            The plans of the queries whose results are merged
+	 * @return The plan performing all {@code branches} - its operation is the
+	 *         most expensive one of them
+	 */
+	public static QueryPlan union(List<QueryPlan> branches) {
+		Assert.notEmpty(branches, "branches must not be empty!");
+		Operation operation = Operation.NONE;
+		for (QueryPlan branch : branches) {
+			// NONE is declared last but is the cheapest of all
+			if (branch.operation != Operation.NONE
+					&& (operation == Operation.NONE || branch.operation.compareTo(operation) > 0)) {
+				operation = branch.operation;
+			}
+		}
+		String indexName = branches.get(0).indexName;
+		for (QueryPlan branch : branches) {
+			if (indexName != null && !indexName.equals(branch.indexName)) {
+				indexName = null;
+			}
+		}
+		return new QueryPlan(operation, indexName, Collections.emptyList(), Collections.emptyList(),
+				branches.get(0).projection, branches.get(0).limit, branches);
+	}
+
+	public static QueryPlan of(QueryRequest queryRequest) {
+		return new QueryPlan(Operation.QUERY, queryRequest.getIndexName(), describe(queryRequest.getKeyConditions()),
+				describe(queryRequest.getQueryFilter()), queryRequest.getProjectionExpression(),
+				queryRequest.getLimit());
+	}
+
+	/**
+	 * @param queryExpression
+	 *            The query expression
+	 * @param hashKeyAttributeName
+	 *            The attribute name of the hash key set via the hash key prototype
+	 *            - if known
+	 * @return The plan of the query expression
+	 */
+	public static QueryPlan of(DynamoDBQueryExpression<?> queryExpression, @Nullable String hashKeyAttributeName) {
+		List<String> keyConditions = new ArrayList<>();
+		if (queryExpression.getHashKeyValues() != null) {
+			keyConditions.add((hashKeyAttributeName == null ? HASH_KEY : hashKeyAttributeName) + " EQ");
+		}
+		keyConditions.addAll(describe(queryExpression.getRangeKeyConditions()));
+		if (queryExpression.getKeyConditionExpression() != null) {
+			keyConditions.add(queryExpression.getKeyConditionExpression());
+		}
+		List<String> filterConditions = describe(queryExpression.getQueryFilter());
+		if (queryExpression.getFilterExpression() != null) {
+			filterConditions.add(queryExpression.getFilterExpression());
+		}
+		return new QueryPlan(Operation.QUERY, queryExpression.getIndexName(), keyConditions, filterConditions,
+				queryExpression.getProjectionExpression(), queryExpression.getLimit());
+	}
+
+	public static QueryPlan of(DynamoDBScanExpression scanExpression) {
+		List<String> filterConditions = describe(scanExpression.getScanFilter());
+		if (scanExpression.getFilterExpression() != null) {
+			filterConditions.add(scanExpression.getFilterExpression());
+		}
+		return new QueryPlan(Operation.SCAN, scanExpression.getIndexName(), Collections.emptyList(), filterConditions,
+				scanExpression.getProjectionExpression(), scanExpression.getLimit());
+	}
+
+	private static List<String> describe(@Nullable Map<String, Condition> conditions) {
+		List<String> result = new ArrayList<>();
+		if (conditions != null) {
+			conditions.forEach(
+					(attributeName, condition) -> result.add(attributeName + " " + condition.getComparisonOperator()));
+		}
+		return result;
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	@Nullable
+	public String getIndexName() {
+		return indexName;
+	}
+
+	/**
+	 * @return Conditions on the key attributes as {@code <attribute> <operator>}
+	 */
+	public List<String> getKeyConditions() {
+		return keyConditions;
+	}
+
+	/**
+	 * @return Conditions applied after reading the items as
+	 *         {@code <attribute> <operator>}
+	 */
+	public List<String> getFilterConditions() {
+		return filterConditions;
+	}
+
+	@Nullable
+	public String getProjection() {
+		return projection;
+	}
+
+	@Nullable
+	public Integer getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return The plans of the queries performed - empty unless this plan merges
+	 *         the results of several queries
+	 */
+	public List<QueryPlan> getBranches() {
+		return branches;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(operation.name());
+		if (!branches.isEmpty()) {
+			sb.append(" union of ");
+			for (int i = 0; i < branches.size(); i++) {
+				sb.append(i == 0 ? "(" : " OR (").append(branches.get(i)).append(')');
+			}
+			return sb.toString();
+		}
+		if (indexName != null) {
+			sb.append(" index=").append(indexName);
+		}
+		if (!keyConditions.isEmpty()) {
+			sb.append(" key=").append(keyConditions);
+		}
+		if (!filterConditions.isEmpty()) {
+			sb.append(" filter=").append(filterConditions);
+		}
+		if (projection != null) {
+			sb.append(" projection=").append(projection);
+		}
+		if (limit != null) {
+			sb.append(" limit=").append(limit);
+		}
+		return sb.toString();
+	}
+}
@@ -35,4 +35,9 @@ public class QueryRequestCountQuery extends AbstractSingleEntityQuery<Long> {
 		return Long.valueOf(dynamoDBOperations.count(clazz, queryRequest));
 	}
 
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.of(queryRequest);
+	}
+
 }
@@ -0,0 +1,202 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * How a {@link Query} reads its results - e.g. resolved from the
+ * {@code ReadOptions} of a query method. A setting that is {@code null} keeps
+ * the one of the {@link DynamoDBMapperConfig}.
+ *
+ * @author Sebastian Just
+ */
+public final class ReadSettings {
+
+	public static final ReadSettings DEFAULT = new ReadSettings(null, null, null, null);
+
+	private final ConsistentReads consistentReads;
+	private final PaginationLoadingStrategy paginationLoadingStrategy;
+	private final Integer pageSize;
+	private final ReturnConsumedCapacity returnConsumedCapacity;
+
+	public ReadSettings(@Nullable ConsistentReads consistentReads,
+			@Nullable PaginationLoadingStrategy paginationLoadingStrategy, @Nullable Integer pageSize,
+			@Nullable ReturnConsumedCapacity returnConsumedCapacity) {
+		Assert.isTrue(pageSize == null || pageSize > 0, "pageSize must be positive!");
+		this.consistentReads = consistentReads;
+		this.paginationLoadingStrategy = paginationLoadingStrategy;
+		this.pageSize = pageSize;
+		this.returnConsumedCapacity = returnConsumedCapacity;
+	}
+
+	@Nullable
+	public ConsistentReads getConsistentReads() {
+		return consistentReads;
+	}
+
+	@Nullable
+	public PaginationLoadingStrategy getPaginationLoadingStrategy() {
+		return paginationLoadingStrategy;
+	}
+
+	@Nullable
+	public Integer getPageSize() {
+		return pageSize;
+	}
+
+	@Nullable
+	public ReturnConsumedCapacity getReturnConsumedCapacity() {
+		return returnConsumedCapacity;
+	}
+
+	/**
+	 * @return {@code true} if all settings are the ones of the
+	 *         {@link DynamoDBMapperConfig}
+	 */
+	public boolean isDefault() {
+		return equals(DEFAULT);
+	}
+
+	/**
+	 * @param overrides
+	 *            The settings to take precedence - e.g. the ones of a query
+	 *            method over the ones of its repository
+	 * @return The settings of the given overrides where set and of this
+	 *         otherwise
+	 */
+	public ReadSettings overriddenBy(ReadSettings overrides) {
+		return new ReadSettings(
+				overrides.consistentReads != null ? overrides.consistentReads : consistentReads,
+				overrides.paginationLoadingStrategy != null
+						? overrides.paginationLoadingStrategy
+						: paginationLoadingStrategy,
+				overrides.pageSize != null ? overrides.pageSize : pageSize,
+				overrides.returnConsumedCapacity != null ? overrides.returnConsumedCapacity : returnConsumedCapacity);
+	}
+
+	/**
+	 * @return The given config with the consistency and pagination of these
+	 *         settings
+	 */
+	public DynamoDBMapperConfig applyTo(DynamoDBMapperConfig config) {
+		if (consistentReads == null && paginationLoadingStrategy == null) {
+			return config;
+		}
+		DynamoDBMapperConfig.Builder overrides = DynamoDBMapperConfig.builder();
+		if (consistentReads != null) {
+			overrides.withConsistentReads(consistentReads);
+		}
+		if (paginationLoadingStrategy != null) {
+			overrides.withPaginationLoadingStrategy(paginationLoadingStrategy);
+		}
+		// Deprecated but the only way how DynamoDBMapperConfig#merge is exposed
+		return new DynamoDBMapperConfig(config, overrides.build());
+	}
+
+	/**
+	 * Sets the consistency, page size and consumed capacity of these settings -
+	 * the page size only if the expression isn't limited already
+	 */
+	public void applyTo(DynamoDBQueryExpression<?> queryExpression) {
+		if (consistentReads != null) {
+			queryExpression.setConsistentRead(consistentReads == ConsistentReads.CONSISTENT);
+		}
+		if (pageSize != null && queryExpression.getLimit() == null) {
+			queryExpression.setLimit(pageSize);
+		}
+		if (returnConsumedCapacity != null) {
+			queryExpression.setReturnConsumedCapacity(returnConsumedCapacity.toString());
+		}
+	}
+
+	/**
+	 * Same as {@link #applyTo(DynamoDBQueryExpression)}
+	 */
+	public void applyTo(DynamoDBScanExpression scanExpression) {
+		if (consistentReads != null) {
+			scanExpression.setConsistentRead(consistentReads == ConsistentReads.CONSISTENT);
+		}
+		if (pageSize != null && scanExpression.getLimit() == null) {
+			scanExpression.setLimit(pageSize);
+		}
+		if (returnConsumedCapacity != null) {
+			scanExpression.setReturnConsumedCapacity(returnConsumedCapacity.toString());
+		}
+	}
+
+	/**
+	 * Same as {@link #applyTo(DynamoDBQueryExpression)}
+	 */
+	public void applyTo(QueryRequest queryRequest) {
+		if (consistentReads != null) {
+			queryRequest.setConsistentRead(consistentReads == ConsistentReads.CONSISTENT);
+		}
+		if (pageSize != null && queryRequest.getLimit() == null) {
+			queryRequest.setLimit(pageSize);
+		}
+		if (returnConsumedCapacity != null) {
+			queryRequest.setReturnConsumedCapacity(returnConsumedCapacity);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		ReadSettings that = (ReadSettings) o;
+		return consistentReads == that.consistentReads && paginationLoadingStrategy == that.paginationLoadingStrategy
+				&& Objects.equals(pageSize, that.pageSize) && returnConsumedCapacity == that.returnConsumedCapacity;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(consistentReads, paginationLoadingStrategy, pageSize, returnConsumedCapacity);
+	}
+
+	@Override
+	public String toString() {
+		StringJoiner sj = new StringJoiner(", ");
+		if (consistentReads != null) {
+			sj.add(consistentReads == ConsistentReads.CONSISTENT ? "consistent reads" : "eventually consistent reads");
+		}
+		if (paginationLoadingStrategy != null) {
+			sj.add(paginationLoadingStrategy.toString());
+		}
+		if (pageSize != null) {
+			sj.add("page size " + pageSize);
+		}
+		if (returnConsumedCapacity != null) {
+			sj.add("consumed capacity " + returnConsumedCapacity);
+		}
+		return sj.toString();
+	}
+}
@@ -54,4 +54,9 @@ public class ScanExpressionCountQuery<T> extends AbstractSingleEntityQuery<Long>
 		}
 	}
 
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.of(scanExpression);
+	}
+
 }
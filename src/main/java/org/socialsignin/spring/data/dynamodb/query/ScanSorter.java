@@ -0,0 +1,530 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Sorts the items of a scan on the client side - DynamoDB returns them in no
+ * particular order. At most {@code maxItemsInMemory} items are held at once:
+ * <ul>
+ * <li>If only the first items are requested - e.g. a page or the top N - a
+ * bounded heap keeps the first ones read so far</li>
+ * <li>Otherwise sorted runs of {@code maxItemsInMemory} items are spilled to
+ * temporary files and merged while being iterated - an external merge
+ * sort</li>
+ * </ul>
+ * At most {@code maxOpenRuns} runs are merged at once - if more were spilled,
+ * they are merged into longer runs first. Equal items keep the order they were
+ * scanned in. The temporary files are removed once the result is iterated to
+ * the end or {@link Sorted#close() closed} - or once it is garbage collected
+ * if abandoned before.
+ *
+ * @author Sebastian Just
+ */
+public class ScanSorter {
+
+	public static final int DEFAULT_MAX_OPEN_RUNS = 64;
+
+	/**
+	 * The settings to scan the items to sort with: a lazily loaded scan result
+	 * keeps every page it has read, which would hold the whole table in memory
+	 * regardless of {@code maxItemsInMemory}
+	 */
+	public static final ReadSettings SCAN_SETTINGS = new ReadSettings(null, PaginationLoadingStrategy.ITERATION_ONLY,
+			null, null);
+
+	private static final String TEMP_FILE_PREFIX = "dynamodb-sort-";
+	private static final String TEMP_FILE_SUFFIX = ".run";
+
+	private final int maxItemsInMemory;
+	private final int maxOpenRuns;
+	@Nullable
+	private final Path tempDirectory;
+
+	/**
+	 * @param maxItemsInMemory
+	 *            Number of items held in memory before a sorted run is spilled
+	 * @param tempDirectory
+	 *            Directory of the spilled runs - {@code null} for the default
+	 *            temporary-file directory
+	 */
+	public ScanSorter(int maxItemsInMemory, @Nullable Path tempDirectory) {
+		this(maxItemsInMemory, DEFAULT_MAX_OPEN_RUNS, tempDirectory);
+	}
+
+	/**
+	 * @param maxItemsInMemory
+	 *            Number of items held in memory before a sorted run is spilled
+	 * @param maxOpenRuns
+	 *            Number of spilled runs read at once - each holds a file and a
+	 *            mapped window of it
+	 * @param tempDirectory
+	 *            Directory of the spilled runs - {@code null} for the default
+	 *            temporary-file directory
+	 */
+	public ScanSorter(int maxItemsInMemory, int maxOpenRuns, @Nullable Path tempDirectory) {
+		Assert.isTrue(maxItemsInMemory > 0, "maxItemsInMemory must be positive!");
+		Assert.isTrue(maxOpenRuns > 1, "maxOpenRuns must be at least 2!");
+		this.maxItemsInMemory = maxItemsInMemory;
+		this.maxOpenRuns = maxOpenRuns;
+		this.tempDirectory = tempDirectory;
+	}
+
+	/**
+	 * Builds the order of a {@link Sort} on the attribute values of the
+	 * entities' properties - as DynamoDB orders range keys.
+	 *
+	 * @param sort
+	 *            The sort to apply
+	 * @param valueOf
+	 *            Provides the attribute value of a property of an entity
+	 * @return The order of the entities
+	 */
+	public static <T> Comparator<T> order(Sort sort, BiFunction<? super T, String, AttributeValue> valueOf) {
+		Assert.isTrue(sort.isSorted(), "sort must be sorted!");
+		Comparator<T> comparator = null;
+		for (Order order : sort) {
+			Comparator<T> byProperty = Comparator.comparing(entity -> valueOf.apply(entity, order.getProperty()),
+					Comparator.nullsFirst(AttributeValueComparator.INSTANCE));
+			if (order.getDirection() == Direction.DESC) {
+				byProperty = byProperty.reversed();
+			}
+			comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+		}
+		return comparator;
+	}
+
+	/**
+	 * Builds the order of a {@link Sort} on the attributes the table model
+	 * converts the entities' properties to.
+	 *
+	 * @param sort
+	 *            The sort to apply
+	 * @param tableModel
+	 *            The table model of the entities
+	 * @param attributeNameOf
+	 *            Provides the attribute name of a property
+	 * @return The order of the entities
+	 */
+	public static <T> Comparator<T> order(Sort sort, DynamoDBMapperTableModel<T> tableModel,
+			Function<String, String> attributeNameOf) {
+		return order(sort, (T entity, String propertyName) -> {
+			DynamoDBMapperFieldModel<T, Object> field = tableModel.field(attributeNameOf.apply(propertyName));
+			Object value = field.get(entity);
+			return value == null ? null : field.convert(value);
+		});
+	}
+
+	/**
+	 * @param items
+	 *            The items to sort - {@code null}s are skipped. A scan should be
+	 *            read with {@link #SCAN_SETTINGS}.
+	 * @param order
+	 *            The order to return the items in
+	 * @param limit
+	 *            Maximum number of items to return - {@link Long#MAX_VALUE} for
+	 *            all of them
+	 * @param toItem
+	 *            Converts an entity to the attribute values spilled to disk
+	 * @param fromItem
+	 *            Converts spilled attribute values back to the entity
+	 * @return The first {@code limit} items in order - read from disk on demand
+	 *         if they didn't fit into memory
+	 */
+	public <T> Sorted<T> sort(Iterator<? extends T> items, Comparator<? super T> order, long limit,
+			Function<? super T, Map<String, AttributeValue>> toItem,
+			Function<Map<String, AttributeValue>, ? extends T> fromItem) {
+		Assert.isTrue(limit >= 0, "limit must not be negative!");
+		if (limit <= maxItemsInMemory) {
+			return new InMemory<>(top(items, order, (int) limit));
+		}
+		return sortExternally(items, order, limit, toItem, fromItem);
+	}
+
+	private static <T> Iterator<T> top(Iterator<? extends T> items, Comparator<? super T> order, int count) {
+		if (count == 0) {
+			return Collections.emptyIterator();
+		}
+		Comparator<Ranked<T>> ranking = Comparator.<Ranked<T>, T>comparing(ranked -> ranked.item, order)
+				.thenComparingLong(ranked -> ranked.rank);
+		// The head of the heap is the last of the items kept
+		PriorityQueue<Ranked<T>> heap = new PriorityQueue<>(ranking.reversed());
+		long rank = 0;
+		while (items.hasNext()) {
+			T item = items.next();
+			if (item == null) {
+				continue;
+			}
+			Ranked<T> ranked = new Ranked<>(item, rank++);
+			if (heap.size() < count) {
+				heap.add(ranked);
+			} else if (ranking.compare(ranked, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(ranked);
+			}
+		}
+
+		List<Ranked<T>> top = new ArrayList<>(heap);
+		top.sort(ranking);
+		List<T> result = new ArrayList<>(top.size());
+		top.forEach(ranked -> result.add(ranked.item));
+		return result.iterator();
+	}
+
+	private <T> Sorted<T> sortExternally(Iterator<? extends T> items, Comparator<? super T> order, long limit,
+			Function<? super T, Map<String, AttributeValue>> toItem,
+			Function<Map<String, AttributeValue>, ? extends T> fromItem) {
+		List<T> buffer = new ArrayList<>();
+		List<SpilledRun<T>> runs = new ArrayList<>();
+		try {
+			while (items.hasNext()) {
+				T item = items.next();
+				if (item == null) {
+					continue;
+				}
+				buffer.add(item);
+				if (buffer.size() == maxItemsInMemory) {
+					buffer.sort(order);
+					runs.add(write(buffer.iterator(), Long.MAX_VALUE, toItem, fromItem));
+					buffer.clear();
+				}
+			}
+			runs = mergeToOpenRuns(runs, order, limit, toItem, fromItem);
+		} catch (IOException e) {
+			runs.forEach(SpilledRun::release);
+			throw new UncheckedIOException(e);
+		} catch (RuntimeException e) {
+			runs.forEach(SpilledRun::release);
+			throw e;
+		}
+
+		// The last run stays in memory
+		buffer.sort(order);
+		if (runs.isEmpty()) {
+			return new InMemory<>(buffer.subList(0, (int) Math.min(limit, buffer.size())).iterator());
+		}
+		List<Iterator<? extends T>> sources = new ArrayList<>(runs);
+		sources.add(buffer.iterator());
+		return new MergedRuns<>(new SortedMergeIterator<>(sources, order), runs, limit);
+	}
+
+	/**
+	 * Merges groups of {@code maxOpenRuns} consecutive runs into one until no
+	 * more than {@code maxOpenRuns} are left - merging consecutive runs keeps the
+	 * scan order of equal items. The merged runs are released.
+	 */
+	private <T> List<SpilledRun<T>> mergeToOpenRuns(List<SpilledRun<T>> runs, Comparator<? super T> order,
+			long limit, Function<? super T, Map<String, AttributeValue>> toItem,
+			Function<Map<String, AttributeValue>, ? extends T> fromItem) throws IOException {
+		while (runs.size() > maxOpenRuns) {
+			List<SpilledRun<T>> merged = new ArrayList<>();
+			try {
+				for (int from = 0; from < runs.size(); from += maxOpenRuns) {
+					List<SpilledRun<T>> group = runs.subList(from, Math.min(from + maxOpenRuns, runs.size()));
+					if (group.size() == 1) {
+						merged.add(group.get(0));
+						continue;
+					}
+					// Items after the first limit ones of a group can't be among the first overall
+					merged.add(write(new SortedMergeIterator<>(group, order), limit, toItem, fromItem));
+					group.forEach(SpilledRun::release);
+				}
+			} catch (IOException | RuntimeException e) {
+				merged.forEach(SpilledRun::release);
+				runs.forEach(SpilledRun::release);
+				throw e;
+			}
+			runs = merged;
+		}
+		return runs;
+	}
+
+	/**
+	 * Writes the first {@code limit} of the sorted items to a temporary file
+	 */
+	private <T> SpilledRun<T> write(Iterator<? extends T> sorted, long limit,
+			Function<? super T, Map<String, AttributeValue>> toItem,
+			Function<Map<String, AttributeValue>, ? extends T> fromItem) throws IOException {
+		Path file = tempDirectory != null
+				? Files.createTempFile(tempDirectory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX)
+				: Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+
+		long items = 0;
+		ByteArrayOutputStream record = new ByteArrayOutputStream();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+			while (items < limit && sorted.hasNext()) {
+				record.reset();
+				AttributeValueCodec.write(toItem.apply(sorted.next()), new DataOutputStream(record));
+				length.clear();
+				length.putInt(record.size()).flip();
+				write(channel, length);
+				write(channel, ByteBuffer.wrap(record.toByteArray()));
+				items++;
+			}
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		return new SpilledRun<>(file, items, fromItem);
+	}
+
+	private static void write(FileChannel channel, ByteBuffer bytes) throws IOException {
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+	}
+
+	/**
+	 * The sorted items - to be closed if not iterated to the end
+	 */
+	public interface Sorted<T> extends Iterator<T>, AutoCloseable {
+		/**
+		 * Releases the spilled runs - further items can't be read
+		 */
+		@Override
+		void close();
+	}
+
+	private static final class InMemory<T> implements Sorted<T> {
+		private final Iterator<T> items;
+
+		private InMemory(Iterator<T> items) {
+			this.items = items;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return items.hasNext();
+		}
+
+		@Override
+		public T next() {
+			return items.next();
+		}
+
+		@Override
+		public void close() {
+			// Nothing to release
+		}
+	}
+
+	private static final class Ranked<T> {
+		private final T item;
+		private final long rank;
+
+		private Ranked(T item, long rank) {
+			this.item = item;
+			this.rank = rank;
+		}
+	}
+
+	/**
+	 * Reads a spilled run through a memory-mapped window that is moved along
+	 * the file - runs may exceed the 2 GB a single mapping can cover.
+	 */
+	private static final class SpilledRun<T> implements Iterator<T> {
+		private static final long WINDOW_SIZE = 16 * 1024 * 1024;
+
+		private final Path file;
+		private final Function<Map<String, AttributeValue>, ? extends T> fromItem;
+		private FileChannel channel;
+		private MappedByteBuffer window;
+		private long windowStart;
+		private long remaining;
+
+		private SpilledRun(Path file, long items, Function<Map<String, AttributeValue>, ? extends T> fromItem) {
+			this.file = file;
+			this.remaining = items;
+			this.fromItem = fromItem;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				map(Integer.BYTES);
+				int length = window.getInt();
+				map(length);
+				ByteBuffer record = window.slice();
+				record.limit(length);
+				window.position(window.position() + length);
+				remaining--;
+				return fromItem.apply(AttributeValueCodec.read(record));
+			} catch (IOException e) {
+				release();
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void map(int bytes) throws IOException {
+			if (window != null && window.remaining() >= bytes) {
+				return;
+			}
+			if (channel == null) {
+				channel = FileChannel.open(file, StandardOpenOption.READ);
+			}
+			long start = window == null ? 0 : windowStart + window.position();
+			long size = Math.min(channel.size() - start, Math.max(WINDOW_SIZE, bytes));
+			window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+			windowStart = start;
+		}
+
+		private void release() {
+			remaining = 0;
+			window = null;
+			try {
+				if (channel != null) {
+					channel.close();
+				}
+			} catch (IOException e) {
+				// Closed anyway
+			}
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				// Left to the temporary-file directory's cleanup
+			}
+		}
+	}
+
+	/**
+	 * Merges the runs and releases them once the limit or the end is reached or
+	 * it is closed
+	 */
+	private static final class MergedRuns<T> implements Sorted<T> {
+		private final Iterator<T> merged;
+		private final Cleanup cleanup;
+		private final long limit;
+		private long returned;
+
+		private MergedRuns(Iterator<T> merged, List<SpilledRun<T>> runs, long limit) {
+			this.merged = merged;
+			this.cleanup = new Cleanup(this, runs);
+			this.limit = limit;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (returned < limit && !cleanup.isReleased() && merged.hasNext()) {
+				return true;
+			}
+			close();
+			return false;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			returned++;
+			return merged.next();
+		}
+
+		@Override
+		public void close() {
+			cleanup.release();
+		}
+	}
+
+	/**
+	 * Releases the runs of a result once it is closed - or once it is garbage
+	 * collected if it was abandoned before. A daemon thread waits for the
+	 * abandoned ones as Java 8 lacks {@code java.lang.ref.Cleaner}.
+	 */
+	private static final class Cleanup extends PhantomReference<Object> {
+		private static final ReferenceQueue<Object> ABANDONED = new ReferenceQueue<>();
+		// Keeps the references reachable until they are enqueued
+		private static final Set<Cleanup> PENDING = ConcurrentHashMap.newKeySet();
+
+		static {
+			Thread thread = new Thread(Cleanup::releaseAbandoned, "dynamodb-scan-sorter-cleanup");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private final List<? extends SpilledRun<?>> runs;
+
+		private Cleanup(Object result, List<? extends SpilledRun<?>> runs) {
+			super(result, ABANDONED);
+			this.runs = runs;
+			PENDING.add(this);
+		}
+
+		private boolean isReleased() {
+			return !PENDING.contains(this);
+		}
+
+		private void release() {
+			if (PENDING.remove(this)) {
+				clear();
+				runs.forEach(SpilledRun::release);
+			}
+		}
+
+		private static void releaseAbandoned() {
+			while (true) {
+				try {
+					((Cleanup) ABANDONED.remove()).release();
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+}
@@ -35,7 +35,14 @@ public class SingleEntityLoadByHashAndRangeKeyQuery<T> extends AbstractSingleEnt
 
 	@Override
 	public T getSingleResult() {
-		return dynamoDBOperations.load(clazz, hashKey, rangeKey);
+		return readSettings.isDefault()
+				? dynamoDBOperations.load(clazz, hashKey, rangeKey)
+				: dynamoDBOperations.load(clazz, hashKey, rangeKey, readSettings);
+	}
+
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.getItem(true);
 	}
 
 }
@@ -32,7 +32,14 @@ public class SingleEntityLoadByHashKeyQuery<T> extends AbstractSingleEntityQuery
 
 	@Override
 	public T getSingleResult() {
-		return dynamoDBOperations.load(clazz, hashKey);
+		return readSettings.isDefault()
+				? dynamoDBOperations.load(clazz, hashKey)
+				: dynamoDBOperations.load(clazz, hashKey, null, readSettings);
+	}
+
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.getItem(false);
 	}
 
 }
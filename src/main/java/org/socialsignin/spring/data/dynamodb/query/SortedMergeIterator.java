@@ -0,0 +1,89 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges iterators that return their elements in the same order into a single
+ * iterator returning all of them in that order - a k-way merge. A source is
+ * only advanced once its current element was returned: merging the lazily
+ * paged results of several queries holds a single page per query.
+ *
+ * Equal elements are returned in the order of their sources. {@code null}
+ * elements are skipped.
+ *
+ * @author Sebastian Just
+ */
+public class SortedMergeIterator<T> implements Iterator<T> {
+
+	private final List<Iterator<? extends T>> sources;
+	private final PriorityQueue<Head<T>> heads;
+
+	public SortedMergeIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+		Assert.notNull(sources, "sources must not be null!");
+		Assert.notNull(order, "order must not be null!");
+		this.sources = new ArrayList<>(sources);
+		this.heads = new PriorityQueue<>(Math.max(1, sources.size()),
+				Comparator.<Head<T>, T>comparing(head -> head.element, order).thenComparingInt(head -> head.source));
+		for (int i = 0; i < this.sources.size(); i++) {
+			advance(i);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return !heads.isEmpty();
+	}
+
+	@Override
+	public T next() {
+		Head<T> head = heads.poll();
+		if (head == null) {
+			throw new NoSuchElementException();
+		}
+		advance(head.source);
+		return head.element;
+	}
+
+	private void advance(int source) {
+		Iterator<? extends T> iterator = sources.get(source);
+		while (iterator.hasNext()) {
+			T element = iterator.next();
+			if (element != null) {
+				heads.add(new Head<>(element, source));
+				return;
+			}
+		}
+	}
+
+	private static final class Head<T> {
+		private final T element;
+		private final int source;
+
+		private Head(T element, int source) {
+			this.element = element;
+			this.source = source;
+		}
+	}
+}
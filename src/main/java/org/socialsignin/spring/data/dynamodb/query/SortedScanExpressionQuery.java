@@ -0,0 +1,58 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.springframework.util.Assert;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A scan whose items are sorted on the client side by the {@link ScanSorter} -
+ * only the first {@code limit} items are kept if the query method is limited.
+ *
+ * @author Sebastian Just
+ */
+public class SortedScanExpressionQuery<T> extends MultipleEntityScanExpressionQuery<T> {
+
+	private final ScanSorter scanSorter;
+	private final Comparator<T> order;
+	private final long limit;
+
+	public SortedScanExpressionQuery(DynamoDBOperations dynamoDBOperations, Class<T> clazz,
+			DynamoDBScanExpression scanExpression, ScanSorter scanSorter, Comparator<T> order, long limit) {
+		super(dynamoDBOperations, clazz, scanExpression);
+		Assert.notNull(scanSorter, "scanSorter must not be null!");
+		Assert.notNull(order, "order must not be null!");
+		this.scanSorter = scanSorter;
+		this.order = order;
+		this.limit = limit;
+	}
+
+	@Override
+	public List<T> getResultList() {
+		DynamoDBMapperTableModel<T> tableModel = dynamoDBOperations.getTableModel(clazz);
+		List<T> scanned = scan(readSettings.overriddenBy(ScanSorter.SCAN_SETTINGS));
+		Iterator<T> sorted = scanSorter.sort(scanned.iterator(), order, limit, tableModel::convert,
+				tableModel::unconvert);
+		return new MergedResultList<>(sorted, getPaginationLoadingStrategy());
+	}
+
+}
@@ -37,4 +37,10 @@ public class StaticQuery<T> extends AbstractQuery<T> {
 	public T getSingleResult() {
 		return result;
 	}
+
+	@Override
+	public QueryPlan getQueryPlan() {
+		return QueryPlan.none();
+	}
+
 }
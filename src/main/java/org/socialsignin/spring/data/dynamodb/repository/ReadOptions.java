@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static org.socialsignin.spring.data.dynamodb.repository.QueryConstants.QUERY_LIMIT_UNLIMITED;
+
+/**
+ * Tunes how the query methods of a repository - or a single query method -
+ * read their results instead of the {@code DynamoDBMapperConfig}. The options
+ * of a method override the ones of its repository one by one. An option left
+ * empty keeps the setting of the repository or the
+ * {@code DynamoDBMapperConfig}. E.g.
+ *
+ * <pre>
+ * &#64;ReadOptions(consistentReads = ConsistentReads.EVENTUAL,
+ * 		paginationLoadingStrategy = PaginationLoadingStrategy.ITERATION_ONLY)
+ * List&lt;Event&gt; findByType(String type);
+ * </pre>
+ *
+ * @author Sebastian Just
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Documented
+public @interface ReadOptions {
+
+	/**
+	 * Whether items are read strongly or eventually consistent - at most one
+	 * value. Strongly consistent reads consume twice the read capacity and are
+	 * not supported by global secondary indexes.
+	 */
+	ConsistentReads[] consistentReads() default {};
+
+	/**
+	 * How the pages of the results are loaded and kept - at most one value.
+	 */
+	PaginationLoadingStrategy[] paginationLoadingStrategy() default {};
+
+	/**
+	 * The maximum number of items DynamoDB evaluates per request. Unlike
+	 * {@link Query#limit()} further pages are still read on demand.
+	 *
+	 * @see <a href=
+	 *      "https://docs.aws.amazon.com/amazondynamodb/latest/developerguide/Query.html#Query.Limit">Limiting
+	 *      the Number of Items in the Result Set</a>
+	 */
+	int pageSize() default QUERY_LIMIT_UNLIMITED;
+
+	/**
+	 * The level of detail of the consumed capacity DynamoDB reports per request
+	 * - at most one value.
+	 */
+	ReturnConsumedCapacity[] returnConsumedCapacity() default {};
+}
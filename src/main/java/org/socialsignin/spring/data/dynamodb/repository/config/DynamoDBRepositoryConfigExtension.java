@@ -25,6 +25,7 @@ import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBMappingContext;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBRepositoryFactoryBean;
 import org.socialsignin.spring.data.dynamodb.repository.util.DynamoDBMappingContextProcessor;
 import org.socialsignin.spring.data.dynamodb.repository.util.Entity2DynamoDBTableSynchronizer;
+import org.socialsignin.spring.data.dynamodb.repository.util.QueryPlanReporter;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.core.annotation.AnnotationAttributes;
@@ -170,6 +171,22 @@ public class DynamoDBRepositoryConfigExtension extends RepositoryConfigurationEx
 		String dynamoDBMappingContextProcessorName = registerDynamoDBMappingContextProcessor(registry,
 				dynamoDBMappingContextRef);
 		builder.addPropertyReference("dynamoDBMappingContextProcessor", dynamoDBMappingContextProcessorName);
+
+		builder.addPropertyReference("queryPlanReporter", registerQueryPlanReporter(registry));
+	}
+
+	private String queryPlanReporterName;
+	private String registerQueryPlanReporter(BeanDefinitionRegistry registry) {
+		assert registry != null;
+
+		if (queryPlanReporterName == null) {
+			queryPlanReporterName = getBeanNameWithModulePrefix("QueryPlanReporter");
+			if (!registry.containsBeanDefinition(queryPlanReporterName)) {
+				registry.registerBeanDefinition(queryPlanReporterName,
+						BeanDefinitionBuilder.genericBeanDefinition(QueryPlanReporter.class).getBeanDefinition());
+			}
+		}
+		return queryPlanReporterName;
 	}
 
 	private final Map<String, String> entity2DynamoDBTableSynchronizerCache = new ConcurrentHashMap<>();
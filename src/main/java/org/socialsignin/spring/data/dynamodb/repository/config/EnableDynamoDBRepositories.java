@@ -25,6 +25,7 @@ import java.lang.annotation.Target;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBRepositoryFactoryBean;
 import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.config.BootstrapMode;
 import org.springframework.data.repository.query.QueryLookupStrategy.Key;
 
 /**
@@ -125,6 +126,18 @@ public @interface EnableDynamoDBRepositories {
 	 */
 	Class<?> repositoryFactoryBeanClass() default DynamoDBRepositoryFactoryBean.class;
 
+	/**
+	 * Configures when the repositories are initialized in the bootstrap lifecycle.
+	 * {@link BootstrapMode#DEFAULT} creates them eagerly and resolves all query
+	 * methods on startup. {@link BootstrapMode#LAZY} defers the creation of the
+	 * repository - and the resolution of its query methods - until first use,
+	 * {@link BootstrapMode#DEFERRED} does the same in the background once the
+	 * application context has been refreshed.
+	 *
+	 * @return The bootstrap mode of the repositories
+	 */
+	BootstrapMode bootstrapMode() default BootstrapMode.DEFAULT;
+
 	// DynamoDB specific configuration
 
 	/**
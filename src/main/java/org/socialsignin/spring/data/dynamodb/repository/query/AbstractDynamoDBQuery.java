@@ -17,9 +17,12 @@ package org.socialsignin.spring.data.dynamodb.repository.query;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
 import org.socialsignin.spring.data.dynamodb.domain.UnpagedPageImpl;
 import org.socialsignin.spring.data.dynamodb.exception.BatchDeleteException;
 import org.socialsignin.spring.data.dynamodb.query.Query;
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan;
+import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityInformation;
 import org.socialsignin.spring.data.dynamodb.utils.ExceptionHandler;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -35,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * @author Michael Lavelle
@@ -77,18 +81,38 @@ public abstract class AbstractDynamoDBQuery<T, ID> implements RepositoryQuery, E
 	protected abstract Integer getResultsRestrictionIfApplicable();
 	protected abstract boolean isSingleEntityResultsRestriction();
 
+	/**
+	 * @return {@code true} if how the query is performed depends on the actual
+	 *         arguments - not only on their presence
+	 */
+	protected boolean isValueDependent() {
+		return false;
+	}
+
 	protected Query<T> doCreateQueryWithPermissions(Object values[]) {
-		Query<T> query = doCreateQuery(values);
+		Query<T> query = observeQueryCreation(false, () -> doCreateQuery(values));
 		query.setScanEnabled(method.isScanEnabled());
+		query.setReadSettings(method.getReadSettings());
 		return query;
 	}
 
 	protected Query<Long> doCreateCountQueryWithPermissions(Object values[], boolean pageQuery) {
-		Query<Long> query = doCreateCountQuery(values, pageQuery);
+		Query<Long> query = observeQueryCreation(true, () -> doCreateCountQuery(values, pageQuery));
 		query.setScanCountEnabled(method.isScanCountEnabled());
 		return query;
 	}
 
+	private <Q> Q observeQueryCreation(boolean count, Supplier<Q> creation) {
+		RepositoryMethodContext context = RepositoryMethodContext.current();
+		if (context == null) {
+			return creation.get();
+		}
+		long startNanos = System.nanoTime();
+		Q query = creation.get();
+		dynamoDBOperations.getOperationListener().onQueryCreated(context, count, System.nanoTime() - startNanos);
+		return query;
+	}
+
 	private interface QueryExecution<T, ID> {
 		Object execute(AbstractDynamoDBQuery<T, ID> query, Object[] values);
 	}
@@ -308,7 +332,54 @@ public abstract class AbstractDynamoDBQuery<T, ID> implements RepositoryQuery, E
 	 */
 	public Object execute(Object[] parameters) {
 
-		return getExecution().execute(this, parameters);
+		return RepositoryMethodContext.observe(dynamoDBOperations.getOperationListener(),
+				method.getRepositoryInterface(), method.getName(), parameters,
+				() -> getExecution().execute(this, parameters));
+	}
+
+	/**
+	 * Resolves how this query method is performed against DynamoDB for the given
+	 * arguments without performing it.
+	 *
+	 * @param values
+	 *            The arguments of the query method
+	 * @return The resolved plan
+	 */
+	public QueryMethodPlan explain(Object[] values) {
+		return explain(values, false);
+	}
+
+	private QueryMethodPlan explain(Object[] values, boolean valueDependent) {
+		QueryPlan queryPlan = isCountQuery() ? null : doCreateQuery(values).getQueryPlan();
+		QueryPlan countPlan = isCountQuery() || method.isPageQuery()
+				? doCreateCountQuery(values, !isCountQuery()).getQueryPlan()
+				: null;
+		return new QueryMethodPlan(method.getRepositoryInterface(), method.getName(), getTableName(), queryPlan,
+				countPlan, method.isScanEnabled(), method.isScanCountEnabled(), method.getReadSettings(),
+				valueDependent, null);
+	}
+
+	/**
+	 * Resolves how this query method is performed against DynamoDB using stand-in
+	 * arguments. The plan is marked as {@link QueryMethodPlan#isValueDependent()
+	 * value dependent} if the actual arguments might be read differently.
+	 *
+	 * @return The resolved plan - or an unresolved one if the query can't be
+	 *         created with stand-in arguments
+	 */
+	public QueryMethodPlan explain() {
+		try {
+			return explain(method.getPlaceholderParameterValues(), isValueDependent());
+		} catch (RuntimeException e) {
+			return new QueryMethodPlan(method.getRepositoryInterface(), method.getName(), getTableName(), null, null,
+					method.isScanEnabled(), method.isScanCountEnabled(), method.getReadSettings(), e.toString());
+		}
+	}
+
+	private String getTableName() {
+		DynamoDBEntityInformation<T, ID> entityInformation = method.getEntityInformation();
+		return dynamoDBOperations.getOverriddenTableName(entityInformation.getJavaType(),
+				entityInformation.getDynamoDBTableName());
 	}
 
 	@Override
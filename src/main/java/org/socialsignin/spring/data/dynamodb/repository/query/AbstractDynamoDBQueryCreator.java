@@ -156,7 +156,10 @@ public abstract class AbstractDynamoDBQueryCreator<T, ID, R>
 	@Override
 	protected DynamoDBQueryCriteria<T, ID> or(DynamoDBQueryCriteria<T, ID> base,
 			DynamoDBQueryCriteria<T, ID> criteria) {
-		throw new UnsupportedOperationException("Or queries not supported");
+		if (base instanceof DynamoDBDisjunctionCriteria) {
+			return ((DynamoDBDisjunctionCriteria<T, ID>) base).or(criteria);
+		}
+		return new DynamoDBDisjunctionCriteria<>(base, criteria);
 	}
 
 }
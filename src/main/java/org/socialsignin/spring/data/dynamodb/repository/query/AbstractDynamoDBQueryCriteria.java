@@ -19,18 +19,27 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMarshaller;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
 import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
 import org.socialsignin.spring.data.dynamodb.marshaller.Date2IsoDynamoDBMarshaller;
 import org.socialsignin.spring.data.dynamodb.marshaller.Instant2IsoDynamoDBMarshaller;
+import org.socialsignin.spring.data.dynamodb.query.MultipleEntityScanExpressionQuery;
 import org.socialsignin.spring.data.dynamodb.query.Query;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
+import org.socialsignin.spring.data.dynamodb.query.SortedScanExpressionQuery;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityInformation;
 import org.socialsignin.spring.data.dynamodb.utils.SortHandler;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
@@ -44,19 +53,30 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 /**
  * @author Michael Lavelle
  * @author Sebastian Just
  */
 public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQueryCriteria<T, ID>, SortHandler {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDynamoDBQueryCriteria.class);
+
+	private static final List<ComparisonOperator> COMPARISON_OPERATORS_PERMITTED_FOR_QUERY = Arrays.asList(
+			ComparisonOperator.EQ, ComparisonOperator.LE, ComparisonOperator.LT, ComparisonOperator.GE,
+			ComparisonOperator.GT, ComparisonOperator.BEGINS_WITH, ComparisonOperator.BETWEEN);
 
 	protected Class<T> clazz;
 	private DynamoDBEntityInformation<T, ID> entityInformation;
@@ -66,6 +86,16 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 
 	protected MultiValueMap<String, Condition> attributeConditions;
 	protected MultiValueMap<String, Condition> propertyConditions;
+	/**
+	 * Conditions on non-key attributes by attribute name - evaluated by DynamoDB
+	 * on the items the query read. See {@link #applyQueryFilter()}
+	 */
+	protected final Map<String, Condition> queryFilter = new LinkedHashMap<>();
+	private boolean queryFilterApplied;
+	@Nullable
+	private TableDescription tableStatistics;
+	@Nullable
+	private IndexSelector.Selection indexSelection;
 
 	protected Object hashKeyAttributeValue;
 	protected Object hashKeyPropertyValue;
@@ -73,9 +103,12 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 	protected Sort sort = Sort.unsorted();
 	protected Optional<String> projection = Optional.empty();
 	protected Optional<Integer> limit = Optional.empty();
+	protected Optional<Integer> maxResults = Optional.empty();
 
 	public abstract boolean isApplicableForLoad();
 
+	public abstract boolean isApplicableForQuery();
+
 	protected QueryRequest buildQueryRequest(String tableName, String theIndexName, String hashKeyAttributeName,
 			String rangeKeyAttributeName, String rangeKeyPropertyName, List<Condition> hashKeyConditions,
 			List<Condition> rangeKeyConditions) {
@@ -125,6 +158,9 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 			}
 
 			queryRequest.setKeyConditions(keyConditions);
+			if (!queryFilter.isEmpty()) {
+				queryRequest.setQueryFilter(new HashMap<>(queryFilter));
+			}
 			// Might be overwritten in the actual Query classes
 			if (projection.isPresent()) {
 				queryRequest.setSelect(Select.SPECIFIC_ATTRIBUTES);
@@ -141,6 +177,11 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 
 	protected void applySortIfSpecified(DynamoDBQueryExpression<T> queryExpression,
 			List<String> permittedPropertyNames) {
+		applySort(sort, queryExpression, permittedPropertyNames);
+	}
+
+	static void applySort(Sort sort, DynamoDBQueryExpression<?> queryExpression,
+			List<String> permittedPropertyNames) {
 		if (permittedPropertyNames.size() > 1) {
 			throw new UnsupportedOperationException("Can only sort by at most a single range or index range key");
 
@@ -163,6 +204,11 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 	}
 
 	protected void applySortIfSpecified(QueryRequest queryRequest, List<String> permittedPropertyNames) {
+		applySort(sort, queryRequest, permittedPropertyNames, hasIndexHashKeyEqualCondition());
+	}
+
+	static void applySort(Sort sort, QueryRequest queryRequest, List<String> permittedPropertyNames,
+			boolean hasIndexHashKeyEqualCondition) {
 		if (permittedPropertyNames.size() > 2) {
 			throw new UnsupportedOperationException("Can only sort by at most a single global hash and range key");
 		}
@@ -174,7 +220,7 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 					throw new UnsupportedOperationException("Sorting by multiple attributes not possible");
 
 				}
-				if (queryRequest.getKeyConditions().size() > 1 && !hasIndexHashKeyEqualCondition()) {
+				if (queryRequest.getKeyConditions().size() > 1 && !hasIndexHashKeyEqualCondition) {
 					throw new UnsupportedOperationException(
 							"Sorting for global index queries with criteria on both hash and range not possible");
 
@@ -189,14 +235,10 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 	}
 
 	public boolean comparisonOperatorsPermittedForQuery() {
-		List<ComparisonOperator> comparisonOperatorsPermittedForQuery = Arrays.asList(new ComparisonOperator[]{
-				ComparisonOperator.EQ, ComparisonOperator.LE, ComparisonOperator.LT, ComparisonOperator.GE,
-				ComparisonOperator.GT, ComparisonOperator.BEGINS_WITH, ComparisonOperator.BETWEEN});
-
 		// Can only query on subset of Conditions
 		for (Collection<Condition> conditions : attributeConditions.values()) {
 			for (Condition condition : conditions) {
-				if (!comparisonOperatorsPermittedForQuery
+				if (!COMPARISON_OPERATORS_PERMITTED_FOR_QUERY
 						.contains(ComparisonOperator.fromValue(condition.getComparisonOperator()))) {
 					return false;
 				}
@@ -205,6 +247,210 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 		return true;
 	}
 
+	/**
+	 * @return {@code true} if the conditions are a single condition usable as key
+	 *         condition of a query
+	 */
+	protected static boolean isKeyCondition(@Nullable List<Condition> conditions) {
+		return conditions != null && conditions.size() == 1 && COMPARISON_OPERATORS_PERMITTED_FOR_QUERY
+				.contains(ComparisonOperator.fromValue(conditions.get(0).getComparisonOperator()));
+	}
+
+	/**
+	 * Moves the conditions on non-key attributes into the {@link #queryFilter} if
+	 * that turns a scan into a query of the table or a global secondary index.
+	 * The query then reads a single partition instead of the whole table. A
+	 * global secondary index is only queried that way if its projection is known
+	 * to include the filtered attributes. A query method with a {@code limit}
+	 * keeps scanning: DynamoDB applies the limit before the filter and the results
+	 * of a limited query end after its first page, so matches beyond the first
+	 * items read would be missing.
+	 */
+	protected void applyQueryFilter() {
+		if (queryFilterApplied) {
+			return;
+		}
+		queryFilterApplied = true;
+		if (isApplicableForLoad() || isApplicableForQuery() || limit.isPresent()) {
+			return;
+		}
+		Set<String> keyPropertyNames = getQueryKeyPropertyNames();
+		if (keyPropertyNames == null) {
+			return;
+		}
+
+		MultiValueMap<String, Condition> keyPropertyConditions = new LinkedMultiValueMap<>();
+		Map<String, Condition> filterPropertyConditions = new LinkedHashMap<>();
+		for (Entry<String, List<Condition>> propertyCondition : propertyConditions.entrySet()) {
+			if (keyPropertyNames.contains(propertyCondition.getKey())) {
+				keyPropertyConditions.put(propertyCondition.getKey(), propertyCondition.getValue());
+			} else if (propertyCondition.getValue().size() == 1) {
+				filterPropertyConditions.put(propertyCondition.getKey(), propertyCondition.getValue().get(0));
+			} else {
+				// The query filter only takes a single condition per attribute
+				return;
+			}
+		}
+		if (filterPropertyConditions.isEmpty()) {
+			return;
+		}
+
+		MultiValueMap<String, Condition> allAttributeConditions = attributeConditions;
+		MultiValueMap<String, Condition> allPropertyConditions = propertyConditions;
+		attributeConditions = new LinkedMultiValueMap<>();
+		propertyConditions = keyPropertyConditions;
+		for (Entry<String, List<Condition>> keyPropertyCondition : keyPropertyConditions.entrySet()) {
+			attributeConditions.put(getAttributeName(keyPropertyCondition.getKey()), keyPropertyCondition.getValue());
+		}
+		filterPropertyConditions.forEach(
+				(propertyName, condition) -> queryFilter.put(getAttributeName(propertyName), condition));
+		globalSecondaryIndexName = getSelectedGlobalSecondaryIndexName();
+
+		if (!isApplicableForQuery()
+				|| filterPropertyConditions.keySet().stream().anyMatch(this::isQueryKeyProperty)
+				|| !isProjectedBySelectedIndex(queryFilter.keySet())) {
+			attributeConditions = allAttributeConditions;
+			propertyConditions = allPropertyConditions;
+			queryFilter.clear();
+			globalSecondaryIndexName = null;
+			indexSelection = null;
+		}
+	}
+
+	/**
+	 * @return The properties whose conditions become the key conditions of a
+	 *         query while the conditions of all other properties become the query
+	 *         filter - {@code null} if there are no key conditions to query by
+	 */
+	@Nullable
+	protected Set<String> getQueryKeyPropertyNames() {
+		if (isHashKeySpecified()) {
+			return Collections.emptySet();
+		}
+		// Equals condition on the hash key of a global secondary index - along
+		// with a condition on its range key if there is one
+		Optional<IndexSelector.Selection> selection = selectIndex(getGlobalSecondaryIndexCandidates(
+				entityInformation.getGlobalSecondaryIndexNamesByPropertyName().values().stream()
+						.flatMap(Arrays::stream).collect(Collectors.toSet())));
+		return selection.map(s -> getQueryKeyPropertyNames(s.getCandidate())).orElse(null);
+	}
+
+	/**
+	 * @return The hash key of the candidate along with its range key if that has
+	 *         a key condition
+	 */
+	protected Set<String> getQueryKeyPropertyNames(IndexSelector.Candidate candidate) {
+		Set<String> keyPropertyNames = new HashSet<>();
+		keyPropertyNames.add(candidate.getHashKeyPropertyName());
+		String rangeKeyPropertyName = candidate.getRangeKeyPropertyName();
+		if (rangeKeyPropertyName != null && isKeyCondition(propertyConditions.get(rangeKeyPropertyName))) {
+			keyPropertyNames.add(rangeKeyPropertyName);
+		}
+		return keyPropertyNames;
+	}
+
+	/**
+	 * Chooses the cheapest of the candidates via the {@link IndexSelector} - fed
+	 * by the table statistics if the {@link DynamoDBOperations} provide them.
+	 *
+	 * @return The selection - {@link Optional#empty()} if no candidate can be
+	 *         queried
+	 */
+	protected Optional<IndexSelector.Selection> selectIndex(List<IndexSelector.Candidate> candidates) {
+		Optional<IndexSelector.Selection> selection = new IndexSelector(candidates, this::getAttributeName,
+				tableStatistics).select(getIndexSelectionConditions(), sort, projection);
+		selection.ifPresent(s -> {
+			indexSelection = s;
+			LOGGER.debug("Index selection for {}: {}", clazz.getSimpleName(), s);
+		});
+		return selection;
+	}
+
+	/**
+	 * @return The conditions by property name - with the specified key values as
+	 *         equals conditions
+	 */
+	protected Map<String, List<Condition>> getIndexSelectionConditions() {
+		Map<String, List<Condition>> conditions = new LinkedHashMap<>(propertyConditions);
+		if (isHashKeySpecified()) {
+			conditions.put(getHashKeyPropertyName(),
+					Collections.singletonList(new Condition().withComparisonOperator(ComparisonOperator.EQ)));
+		}
+		return conditions;
+	}
+
+	/**
+	 * @return How the table or index to query was chosen - if there was a choice
+	 */
+	public Optional<IndexSelector.Selection> getIndexSelection() {
+		return Optional.ofNullable(indexSelection);
+	}
+
+	private boolean isProjectedBySelectedIndex(Set<String> attributeNames) {
+		if (indexSelection == null) {
+			return true;
+		}
+		IndexSelector.Candidate candidate = indexSelection.getCandidate();
+		return new IndexSelector(Collections.singletonList(candidate), this::getAttributeName, tableStatistics)
+				.projects(candidate, attributeNames);
+	}
+
+	@Nullable
+	private String getSelectedGlobalSecondaryIndexName() {
+		return indexSelection == null ? null : indexSelection.getCandidate().getIndexName();
+	}
+
+	/**
+	 * @return The given global secondary indexes as candidates of the
+	 *         {@link IndexSelector} - ordered by their hash key property names and
+	 *         the declaration order of the index names on them
+	 */
+	private List<IndexSelector.Candidate> getGlobalSecondaryIndexCandidates(Collection<String> indexNames) {
+		Map<String, String[]> indexNamesByPropertyName = entityInformation.getGlobalSecondaryIndexNamesByPropertyName();
+		List<IndexSelector.Candidate> candidates = new ArrayList<>();
+		for (String propertyName : new TreeSet<>(indexNamesByPropertyName.keySet())) {
+			if (!entityInformation.isGlobalIndexHashKeyProperty(propertyName)) {
+				continue;
+			}
+			for (String indexName : indexNamesByPropertyName.get(propertyName)) {
+				if (indexNames.contains(indexName)) {
+					candidates.add(IndexSelector.Candidate.globalSecondaryIndex(indexName, propertyName,
+							getGlobalSecondaryIndexRangeKeyPropertyName(indexName)));
+				}
+			}
+		}
+		return candidates;
+	}
+
+	@Nullable
+	private String getGlobalSecondaryIndexRangeKeyPropertyName(String indexName) {
+		Map<String, String[]> indexNamesByPropertyName = entityInformation.getGlobalSecondaryIndexNamesByPropertyName();
+		for (String propertyName : new TreeSet<>(indexNamesByPropertyName.keySet())) {
+			if (entityInformation.isGlobalIndexRangeKeyProperty(propertyName)
+					&& isGlobalSecondaryIndexProperty(propertyName, indexName)) {
+				return propertyName;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return {@code true} if the property is a key attribute of the table or the
+	 *         queried index - those can't be part of the query filter
+	 */
+	protected boolean isQueryKeyProperty(String propertyName) {
+		if (isHashKeyProperty(propertyName)) {
+			return true;
+		}
+		String indexName = isApplicableForGlobalSecondaryIndex() ? getGlobalSecondaryIndexName() : null;
+		return indexName != null && isGlobalSecondaryIndexProperty(propertyName, indexName);
+	}
+
+	private boolean isGlobalSecondaryIndexProperty(String propertyName, String indexName) {
+		String[] indexNames = entityInformation.getGlobalSecondaryIndexNamesByPropertyName().get(propertyName);
+		return indexNames != null && Arrays.asList(indexNames).contains(indexName);
+	}
+
 	protected List<Condition> getHashKeyConditions() {
 		List<Condition> hashKeyConditions = null;
 		if (isApplicableForGlobalSecondaryIndex() && entityInformation.getGlobalSecondaryIndexNamesByPropertyName()
@@ -299,7 +545,18 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 				}
 			}
 
-			if (exactMatchIndexNames.size() > 1) {
+			// Choose the cheapest index if there are several - exact matches first
+			Optional<IndexSelector.Selection> selection = Optional.empty();
+			if (exactMatchIndexNames.size() + partialMatchIndexNames.size() > 1) {
+				List<IndexSelector.Candidate> candidates = new ArrayList<>(
+						getGlobalSecondaryIndexCandidates(exactMatchIndexNames));
+				candidates.addAll(getGlobalSecondaryIndexCandidates(partialMatchIndexNames));
+				selection = selectIndex(candidates);
+			}
+
+			if (selection.isPresent()) {
+				globalSecondaryIndexName = selection.get().getCandidate().getIndexName();
+			} else if (exactMatchIndexNames.size() > 1) {
 				throw new RuntimeException(
 						"Multiple indexes defined on same attribute set:" + attributeConditions.keySet());
 			} else if (exactMatchIndexNames.size() == 1) {
@@ -322,6 +579,14 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 		return hashKeyPropertyName.equals(propertyName);
 	}
 
+	/**
+	 * @return {@code true} if an equals condition on the property identifies a
+	 *         single partition of the table or a global secondary index
+	 */
+	protected boolean isKeyProperty(String propertyName) {
+		return isHashKeyProperty(propertyName) || entityInformation.isGlobalIndexHashKeyProperty(propertyName);
+	}
+
 	protected String getHashKeyPropertyName() {
 		return hashKeyPropertyName;
 	}
@@ -413,8 +678,31 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 		return withCondition(propertyName, condition);
 	}
 
+	/**
+	 * An {@code IN} on a key property is split up into one branch per value -
+	 * each read by its key via {@code GetItem} or {@code Query} while the
+	 * {@code IN} condition itself could only be evaluated by a scan.
+	 *
+	 * @return This criteria - or a {@link DynamoDBDisjunctionCriteria} of the
+	 *         branches if there are several values
+	 */
 	@Override
 	public DynamoDBQueryCriteria<T, ID> withPropertyIn(String propertyName, Iterable<?> value, Class<?> propertyType) {
+		if (value != null && isKeyProperty(propertyName)) {
+			Set<Object> values = new LinkedHashSet<>();
+			value.forEach(values::add);
+			if (values.size() == 1 && !values.contains(null)) {
+				return withPropertyEquals(propertyName, values.iterator().next(), propertyType);
+			} else if (values.size() > 1 && !values.contains(null)) {
+				List<AbstractDynamoDBQueryCriteria<T, ID>> branches = new ArrayList<>();
+				for (Object branchValue : values) {
+					AbstractDynamoDBQueryCriteria<T, ID> branch = copy();
+					branch.withPropertyEquals(propertyName, branchValue, propertyType);
+					branches.add(branch);
+				}
+				return new DynamoDBDisjunctionCriteria<>(branches);
+			}
+		}
 
 		Condition condition = createCollectionCondition(propertyName, ComparisonOperator.IN, value, propertyType);
 		return withCondition(propertyName, condition);
@@ -432,8 +720,20 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 		}
 	}
 
+	/**
+	 * @return {@code true} if the items are read by their keys - via
+	 *         {@code GetItem} or {@code Query} - instead of scanning the table
+	 */
+	public boolean isApplicableForLoadOrQuery(DynamoDBOperations dynamoDBOperations) {
+		tableStatistics = dynamoDBOperations.getTableDescription(clazz);
+		applyQueryFilter();
+		return isApplicableForLoad() || isApplicableForQuery();
+	}
+
 	@Override
 	public Query<T> buildQuery(DynamoDBOperations dynamoDBOperations) {
+		tableStatistics = dynamoDBOperations.getTableDescription(clazz);
+		applyQueryFilter();
 		if (isApplicableForLoad()) {
 			return buildSingleEntityLoadQuery(dynamoDBOperations);
 		} else {
@@ -443,6 +743,8 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 
 	@Override
 	public Query<Long> buildCountQuery(DynamoDBOperations dynamoDBOperations, boolean pageQuery) {
+		tableStatistics = dynamoDBOperations.getTableDescription(clazz);
+		applyQueryFilter();
 		if (isApplicableForLoad()) {
 			return buildSingleEntityCountQuery(dynamoDBOperations);
 		} else {
@@ -460,6 +762,100 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 
 	protected abstract boolean isOnlyHashKeySpecified();
 
+	/**
+	 * @return A scan of the matching items
+	 * @throws UnsupportedOperationException
+	 *             if a sort is specified - DynamoDB returns the items of a scan in
+	 *             no particular order
+	 */
+	public DynamoDBScanExpression buildScanExpression() {
+		ensureNoSort(sort);
+		return buildUnsortedScanExpression();
+	}
+
+	/**
+	 * @return A scan of the matching items - ignoring the sort
+	 */
+	protected abstract DynamoDBScanExpression buildUnsortedScanExpression();
+
+	/**
+	 * @return A scan of the matching items - sorted on the client side if a
+	 *         sort is specified and sorted scans are enabled
+	 */
+	protected Query<T> buildScanQuery(DynamoDBOperations dynamoDBOperations) {
+		ScanSorter scanSorter = dynamoDBOperations.getScanSorter();
+		if (sort.isUnsorted() || scanSorter == null) {
+			return new MultipleEntityScanExpressionQuery<>(dynamoDBOperations, clazz, buildScanExpression());
+		}
+		return new SortedScanExpressionQuery<>(dynamoDBOperations, clazz, buildUnsortedScanExpression(), scanSorter,
+				ScanSorter.order(sort, this::getSortKeyValue),
+				maxResults.map(Integer::longValue).orElse(Long.MAX_VALUE));
+	}
+
+	/**
+	 * @return A new criteria with the same conditions - to add the condition of a
+	 *         single branch to
+	 */
+	protected abstract AbstractDynamoDBQueryCriteria<T, ID> copy();
+
+	protected <C extends AbstractDynamoDBQueryCriteria<T, ID>> C copyTo(C copy) {
+		attributeConditions
+				.forEach((name, conditions) -> copy.attributeConditions.put(name, new ArrayList<>(conditions)));
+		propertyConditions
+				.forEach((name, conditions) -> copy.propertyConditions.put(name, new ArrayList<>(conditions)));
+		copy.hashKeyAttributeValue = hashKeyAttributeValue;
+		copy.hashKeyPropertyValue = hashKeyPropertyValue;
+		copy.sort = sort;
+		copy.projection = projection;
+		copy.limit = limit;
+		copy.maxResults = maxResults;
+		return copy;
+	}
+
+	protected DynamoDBMapperTableModel<T> getTableModel() {
+		return tableModel;
+	}
+
+	/**
+	 * @return The primary key of the item to load - see
+	 *         {@link #isApplicableForLoad()}
+	 */
+	protected KeyPair getKeyPair() {
+		return new KeyPair().withHashKey(getHashKeyPropertyValue());
+	}
+
+	/**
+	 * @return The primary key of the entity - as given by {@link #getKeyPair()}
+	 */
+	protected KeyPair getKeyPair(T entity) {
+		return new KeyPair().withHashKey(
+				PropertyAccessorFactory.forBeanPropertyAccess(entity).getPropertyValue(getHashKeyPropertyName()));
+	}
+
+	/**
+	 * @return The identity of the item the entity was read from
+	 */
+	protected Object getPrimaryKey(T entity) {
+		return tableModel != null ? tableModel.convertKey(entity) : entityInformation.getId(entity);
+	}
+
+	/**
+	 * @return The value of the property as stored in DynamoDB - to order entities
+	 *         like DynamoDB orders range keys
+	 */
+	@Nullable
+	protected AttributeValue getSortKeyValue(T entity, String propertyName) {
+		Object value = PropertyAccessorFactory.forBeanPropertyAccess(entity).getPropertyValue(propertyName);
+		if (value == null) {
+			return null;
+		}
+		Object attributeValue = getPropertyAttributeValue(propertyName, value);
+		if (attributeValue instanceof AttributeValue) {
+			return (AttributeValue) attributeValue;
+		}
+		return toAttributeValue(attributeValue, attributeValue != value ? String.class : value.getClass(), false);
+	}
+
 	@Override
 	public DynamoDBQueryCriteria<T, ID> withNoValuedCriteria(String propertyName,
 			ComparisonOperator comparisonOperator) {
@@ -512,7 +908,7 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 		return condition;
 	}
 
-	private List<String> getNumberListAsStringList(List<Number> numberList) {
+	private static List<String> getNumberListAsStringList(List<Number> numberList) {
 		List<String> list = new ArrayList<>();
 		for (Number number : numberList) {
 			if (number != null) {
@@ -525,7 +921,7 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 	}
 
 	@SuppressWarnings("deprecation")
-	private List<String> getDateListAsStringList(List<Date> dateList) {
+	private static List<String> getDateListAsStringList(List<Date> dateList) {
 		DynamoDBMarshaller<Date> marshaller = new Date2IsoDynamoDBMarshaller();
 		List<String> list = new ArrayList<String>();
 		for (Date date : dateList) {
@@ -539,7 +935,7 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 	}
 
 	@SuppressWarnings("deprecation")
-	private List<String> getInstantListAsStringList(List<Instant> dateList) {
+	private static List<String> getInstantListAsStringList(List<Instant> dateList) {
 		DynamoDBMarshaller<Instant> marshaller = new Instant2IsoDynamoDBMarshaller();
 		List<String> list = new ArrayList<>();
 		for (Instant date : dateList) {
@@ -552,7 +948,7 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 		return list;
 	}
 
-	private List<String> getBooleanListAsStringList(List<Boolean> booleanList) {
+	private static List<String> getBooleanListAsStringList(List<Boolean> booleanList) {
 		List<String> list = new ArrayList<>();
 		for (Boolean booleanValue : booleanList) {
 			if (booleanValue != null) {
@@ -566,7 +962,7 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 
 	@SuppressWarnings("unchecked")
 	@Nullable
-	private <P> List<P> getAttributeValueAsList(@Nullable Object attributeValue) {
+	private static <P> List<P> getAttributeValueAsList(@Nullable Object attributeValue) {
 		if (attributeValue == null) {
 			return null;
 		}
@@ -584,6 +980,13 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 
 	protected <P> List<AttributeValue> addAttributeValue(List<AttributeValue> attributeValueList,
 			@Nullable Object attributeValue, Class<P> propertyType, boolean expandCollectionValues) {
+		attributeValueList.add(toAttributeValue(attributeValue, propertyType, expandCollectionValues));
+
+		return attributeValueList;
+	}
+
+	static AttributeValue toAttributeValue(@Nullable Object attributeValue, Class<?> propertyType,
+			boolean expandCollectionValues) {
 		AttributeValue attributeValueObject = new AttributeValue();
 
 		if (ClassUtils.isAssignable(String.class, propertyType)) {
@@ -635,9 +1038,7 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 			throw new RuntimeException("Cannot create condition for type:" + attributeValue.getClass()
 					+ " property conditions must be String,Number or Boolean, or have a DynamoDBMarshaller configured");
 		}
-		attributeValueList.add(attributeValueObject);
-
-		return attributeValueList;
+		return attributeValueObject;
 	}
 
 	protected Condition createSingleValueCondition(String propertyName, ComparisonOperator comparisonOperator, Object o,
@@ -703,4 +1104,10 @@ public abstract class AbstractDynamoDBQueryCriteria<T, ID> implements DynamoDBQu
 		this.limit = limit;
 		return this;
 	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withMaxResults(Optional<Integer> maxResults) {
+		this.maxResults = maxResults;
+		return this;
+	}
 }
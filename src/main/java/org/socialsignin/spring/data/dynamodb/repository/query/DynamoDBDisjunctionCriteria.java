@@ -0,0 +1,406 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.query.AttributeValueComparator;
+import org.socialsignin.spring.data.dynamodb.query.MergedCountQuery;
+import org.socialsignin.spring.data.dynamodb.query.MergedQuery;
+import org.socialsignin.spring.data.dynamodb.query.MultipleEntityBatchLoadQuery;
+import org.socialsignin.spring.data.dynamodb.query.MultipleEntityScanExpressionQuery;
+import org.socialsignin.spring.data.dynamodb.query.Query;
+import org.socialsignin.spring.data.dynamodb.query.ScanExpressionCountQuery;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
+import org.socialsignin.spring.data.dynamodb.query.SortedScanExpressionQuery;
+import org.socialsignin.spring.data.dynamodb.utils.SortHandler;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * The criteria of an {@code Or} query method - or of an {@code In} condition on
+ * a key, split up into one branch per value. DynamoDB can't combine key
+ * conditions by OR - so each branch is queried on its own, the queries are sent
+ * in parallel and their results are merged by {@link MergedQuery}. If a
+ * {@link Sort} is given, every branch query returns its items ordered by the
+ * same range key and the merge keeps that order. If every branch is a single
+ * item, all of them are read by a single {@link MultipleEntityBatchLoadQuery}
+ * instead.
+ *
+ * Only if one of the branches has to scan the table anyway, the whole
+ * disjunction is read by a single scan with a filter expression instead.
+ *
+ * Conditions added to the disjunction itself are added to every branch:
+ * {@code (a OR b) AND c} is {@code (a AND c) OR (b AND c)}.
+ *
+ * @author Sebastian Just
+ */
+public class DynamoDBDisjunctionCriteria<T, ID> implements DynamoDBQueryCriteria<T, ID>, SortHandler {
+
+	/**
+	 * Maximum length of an expression accepted by DynamoDB
+	 */
+	static final int MAX_EXPRESSION_LENGTH = 4096;
+	/**
+	 * Maximum number of operands of an {@code IN} accepted by DynamoDB
+	 */
+	static final int MAX_IN_OPERANDS = 100;
+
+	private final List<AbstractDynamoDBQueryCriteria<T, ID>> branches = new ArrayList<>();
+	private Sort sort = Sort.unsorted();
+	private Optional<Integer> maxResults = Optional.empty();
+	/**
+	 * {@code true} if no item can match more than one branch - so there are no
+	 * duplicates to drop
+	 */
+	private boolean disjoint;
+
+	public DynamoDBDisjunctionCriteria(DynamoDBQueryCriteria<T, ID> first, DynamoDBQueryCriteria<T, ID> second) {
+		or(first);
+		or(second);
+	}
+
+	/**
+	 * @param branches
+	 *            Branches no item can match more than one of - e.g. equals
+	 *            conditions on the same key with different values
+	 */
+	public DynamoDBDisjunctionCriteria(List<AbstractDynamoDBQueryCriteria<T, ID>> branches) {
+		Assert.notEmpty(branches, "branches must not be empty!");
+		this.branches.addAll(branches);
+		this.disjoint = true;
+	}
+
+	/**
+	 * Adds another branch to the disjunction
+	 *
+	 * @param criteria
+	 *            The criteria of the branch - or another disjunction
+	 * @return this
+	 */
+	public DynamoDBDisjunctionCriteria<T, ID> or(DynamoDBQueryCriteria<T, ID> criteria) {
+		disjoint = false;
+		if (criteria instanceof DynamoDBDisjunctionCriteria) {
+			branches.addAll(((DynamoDBDisjunctionCriteria<T, ID>) criteria).branches);
+		} else {
+			Assert.isInstanceOf(AbstractDynamoDBQueryCriteria.class, criteria);
+			branches.add((AbstractDynamoDBQueryCriteria<T, ID>) criteria);
+		}
+		return this;
+	}
+
+	public List<AbstractDynamoDBQueryCriteria<T, ID>> getBranches() {
+		return branches;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withSingleValueCriteria(String propertyName,
+			ComparisonOperator comparisonOperator, Object value, Class<?> type) {
+		branches.forEach(branch -> branch.withSingleValueCriteria(propertyName, comparisonOperator, value, type));
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withNoValuedCriteria(String propertyName,
+			ComparisonOperator comparisonOperator) {
+		branches.forEach(branch -> branch.withNoValuedCriteria(propertyName, comparisonOperator));
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withPropertyEquals(String propertyName, Object value, Class<?> type) {
+		branches.forEach(branch -> branch.withPropertyEquals(propertyName, value, type));
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withPropertyIn(String propertyName, Iterable<?> value, Class<?> type) {
+		// An In on a key splits up each branch further
+		List<AbstractDynamoDBQueryCriteria<T, ID>> splitBranches = new ArrayList<>();
+		for (AbstractDynamoDBQueryCriteria<T, ID> branch : branches) {
+			DynamoDBQueryCriteria<T, ID> criteria = branch.withPropertyIn(propertyName, value, type);
+			if (criteria instanceof DynamoDBDisjunctionCriteria) {
+				splitBranches.addAll(((DynamoDBDisjunctionCriteria<T, ID>) criteria).branches);
+			} else {
+				splitBranches.add(branch);
+			}
+		}
+		branches.clear();
+		branches.addAll(splitBranches);
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withPropertyBetween(String propertyName, Object value1, Object value2,
+			Class<?> type) {
+		branches.forEach(branch -> branch.withPropertyBetween(propertyName, value1, value2, type));
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withSort(Sort sort) {
+		this.sort = sort;
+		branches.forEach(branch -> branch.withSort(sort));
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withProjection(Optional<String> projection) {
+		branches.forEach(branch -> branch.withProjection(projection));
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withLimit(Optional<Integer> limit) {
+		branches.forEach(branch -> branch.withLimit(limit));
+		return this;
+	}
+
+	@Override
+	public DynamoDBQueryCriteria<T, ID> withMaxResults(Optional<Integer> maxResults) {
+		this.maxResults = maxResults;
+		branches.forEach(branch -> branch.withMaxResults(maxResults));
+		return this;
+	}
+
+	@Override
+	public Query<T> buildQuery(DynamoDBOperations dynamoDBOperations) {
+		if (isApplicableForLoadOrQuery(dynamoDBOperations)) {
+			return isApplicableForBatchLoad()
+					? buildBatchLoadQuery(dynamoDBOperations)
+					: buildMergedQuery(dynamoDBOperations);
+		} else {
+			return buildScanQuery(dynamoDBOperations);
+		}
+	}
+
+	@Override
+	public Query<Long> buildCountQuery(DynamoDBOperations dynamoDBOperations, boolean pageQuery) {
+		if (isApplicableForLoadOrQuery(dynamoDBOperations)) {
+			if (isApplicableForBatchLoad()) {
+				return new MergedCountQuery<>(buildBatchLoadQuery(dynamoDBOperations));
+			} else if (disjoint) {
+				// No item is counted twice - so DynamoDB counts each branch
+				List<Query<Long>> countQueries = branches.stream()
+						.map(branch -> branch.buildCountQuery(dynamoDBOperations, pageQuery))
+						.collect(Collectors.toList());
+				return new MergedCountQuery<T>(dynamoDBOperations, countQueries);
+			} else {
+				return new MergedCountQuery<>(buildMergedQuery(dynamoDBOperations));
+			}
+		} else {
+			return new ScanExpressionCountQuery<>(dynamoDBOperations, getDomainClass(), buildScanExpression(),
+					pageQuery);
+		}
+	}
+
+	private boolean isApplicableForLoadOrQuery(DynamoDBOperations dynamoDBOperations) {
+		boolean applicable = true;
+		for (AbstractDynamoDBQueryCriteria<T, ID> branch : branches) {
+			// Every branch has to be prepared - even after the first scanning one
+			applicable &= branch.isApplicableForLoadOrQuery(dynamoDBOperations);
+		}
+		return applicable;
+	}
+
+	private boolean isApplicableForBatchLoad() {
+		return branches.stream().allMatch(AbstractDynamoDBQueryCriteria::isApplicableForLoad);
+	}
+
+	private MultipleEntityBatchLoadQuery<T> buildBatchLoadQuery(DynamoDBOperations dynamoDBOperations) {
+		List<KeyPair> keyPairs = branches.stream().map(branch -> branch.getKeyPair())
+				.collect(Collectors.toList());
+		AbstractDynamoDBQueryCriteria<T, ID> first = branches.get(0);
+		return new MultipleEntityBatchLoadQuery<>(dynamoDBOperations, getDomainClass(), keyPairs,
+				first::getKeyPair, getOrder());
+	}
+
+	private MergedQuery<T> buildMergedQuery(DynamoDBOperations dynamoDBOperations) {
+		List<Query<T>> queries = branches.stream().map(branch -> branch.buildQuery(dynamoDBOperations))
+				.collect(Collectors.toList());
+		AbstractDynamoDBQueryCriteria<T, ID> first = branches.get(0);
+		return new MergedQuery<>(dynamoDBOperations, getDomainClass(), queries,
+				disjoint ? null : first::getPrimaryKey, getOrder());
+	}
+
+	/**
+	 * Every branch query accepted the sort - so each returns its items ordered
+	 * by the single range key sorted by. Items got by their keys are sorted by
+	 * the {@link MultipleEntityBatchLoadQuery} itself.
+	 */
+	@Nullable
+	private Comparator<T> getOrder() {
+		if (sort.isUnsorted()) {
+			return null;
+		}
+		Order order = sort.iterator().next();
+		AbstractDynamoDBQueryCriteria<T, ID> first = branches.get(0);
+		Comparator<T> comparator = Comparator.<T, AttributeValue>comparing(
+				entity -> first.getSortKeyValue(entity, order.getProperty()),
+				Comparator.nullsFirst(AttributeValueComparator.INSTANCE));
+		return order.getDirection() == Direction.DESC ? comparator.reversed() : comparator;
+	}
+
+	/**
+	 * @return A scan of the items matching any branch - sorted on the client
+	 *         side if a sort is specified and sorted scans are enabled
+	 */
+	private Query<T> buildScanQuery(DynamoDBOperations dynamoDBOperations) {
+		ScanSorter scanSorter = dynamoDBOperations.getScanSorter();
+		if (sort.isUnsorted() || scanSorter == null) {
+			return new MultipleEntityScanExpressionQuery<>(dynamoDBOperations, getDomainClass(),
+					buildScanExpression());
+		}
+		AbstractDynamoDBQueryCriteria<T, ID> first = branches.get(0);
+		return new SortedScanExpressionQuery<>(dynamoDBOperations, getDomainClass(), buildUnsortedScanExpression(),
+				scanSorter, ScanSorter.order(sort, first::getSortKeyValue),
+				maxResults.map(Integer::longValue).orElse(Long.MAX_VALUE));
+	}
+
+	/**
+	 * @return A scan of the items matching any branch
+	 */
+	public DynamoDBScanExpression buildScanExpression() {
+		ensureNoSort(sort);
+		return buildUnsortedScanExpression();
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the branches - e.g. one per value of an {@code In} condition
+	 *             - don't fit into a single filter expression
+	 */
+	private DynamoDBScanExpression buildUnsortedScanExpression() {
+		FilterExpression filterExpression = new FilterExpression();
+		StringJoiner disjunction = new StringJoiner(" OR ");
+		DynamoDBScanExpression scanExpression = null;
+		for (AbstractDynamoDBQueryCriteria<T, ID> branch : branches) {
+			DynamoDBScanExpression branchScanExpression = branch.buildUnsortedScanExpression();
+			if (scanExpression == null) {
+				scanExpression = branchScanExpression;
+			}
+			StringJoiner conjunction = new StringJoiner(" AND ", "(", ")");
+			branchScanExpression.getScanFilter().forEach(
+					(attributeName, condition) -> conjunction.add(filterExpression.add(attributeName, condition)));
+			disjunction.add(conjunction.toString());
+		}
+
+		if (disjunction.length() > MAX_EXPRESSION_LENGTH) {
+			throw new IllegalArgumentException("Can't scan for " + branches.size()
+					+ " alternatives: the filter expression is " + disjunction.length()
+					+ " characters long but DynamoDB accepts at most " + MAX_EXPRESSION_LENGTH
+					+ " - pass fewer values or query by a key instead");
+		}
+
+		// Projection and limit are the same for all branches
+		scanExpression.setScanFilter(null);
+		scanExpression.setFilterExpression(disjunction.toString());
+		scanExpression.setExpressionAttributeNames(filterExpression.names);
+		scanExpression.setExpressionAttributeValues(filterExpression.values);
+		return scanExpression;
+	}
+
+	private Class<T> getDomainClass() {
+		return branches.get(0).clazz;
+	}
+
+	/**
+	 * Translates legacy {@link Condition}s to the expression syntax that -
+	 * unlike the scan filter - can combine conditions by OR
+	 */
+	private static final class FilterExpression {
+		private final Map<String, String> names = new HashMap<>();
+		private final Map<String, String> placeholders = new HashMap<>();
+		private final Map<String, AttributeValue> values = new HashMap<>();
+
+		private String add(String attributeName, Condition condition) {
+			String name = placeholders.computeIfAbsent(attributeName, n -> {
+				String placeholder = "#n" + placeholders.size();
+				names.put(placeholder, n);
+				return placeholder;
+			});
+			List<AttributeValue> operands = condition.getAttributeValueList();
+			switch (ComparisonOperator.fromValue(condition.getComparisonOperator())) {
+				case EQ :
+					return name + " = " + value(operands.get(0));
+				case NE :
+					return name + " <> " + value(operands.get(0));
+				case LE :
+					return name + " <= " + value(operands.get(0));
+				case LT :
+					return name + " < " + value(operands.get(0));
+				case GE :
+					return name + " >= " + value(operands.get(0));
+				case GT :
+					return name + " > " + value(operands.get(0));
+				case BETWEEN :
+					return name + " BETWEEN " + value(operands.get(0)) + " AND " + value(operands.get(1));
+				case BEGINS_WITH :
+					return "begins_with(" + name + ", " + value(operands.get(0)) + ")";
+				case CONTAINS :
+					return "contains(" + name + ", " + value(operands.get(0)) + ")";
+				case NOT_CONTAINS :
+					return "NOT contains(" + name + ", " + value(operands.get(0)) + ")";
+				case NULL :
+					return "attribute_not_exists(" + name + ")";
+				case NOT_NULL :
+					return "attribute_exists(" + name + ")";
+				case IN :
+					return in(name, operands);
+				default :
+					throw new UnsupportedOperationException(
+							"Unsupported comparison operator " + condition.getComparisonOperator());
+			}
+		}
+
+		/**
+		 * @return The {@code IN} condition - split up into several ones combined by
+		 *         OR if there are too many operands
+		 */
+		private String in(String name, List<AttributeValue> operands) {
+			StringJoiner chunks = new StringJoiner(" OR ");
+			for (int from = 0; from < operands.size(); from += MAX_IN_OPERANDS) {
+				StringJoiner in = new StringJoiner(", ", name + " IN (", ")");
+				operands.subList(from, Math.min(from + MAX_IN_OPERANDS, operands.size()))
+						.forEach(operand -> in.add(value(operand)));
+				chunks.add(in.toString());
+			}
+			return operands.size() > MAX_IN_OPERANDS ? "(" + chunks + ")" : chunks.toString();
+		}
+
+		private String value(AttributeValue value) {
+			String placeholder = ":v" + values.size();
+			values.put(placeholder, value);
+			return placeholder;
+		}
+	}
+}
@@ -18,6 +18,7 @@ package org.socialsignin.spring.data.dynamodb.repository.query;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
@@ -26,23 +27,25 @@ import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
 import org.socialsignin.spring.data.dynamodb.query.CountByHashAndRangeKeyQuery;
 import org.socialsignin.spring.data.dynamodb.query.MultipleEntityQueryExpressionQuery;
 import org.socialsignin.spring.data.dynamodb.query.MultipleEntityQueryRequestQuery;
-import org.socialsignin.spring.data.dynamodb.query.MultipleEntityScanExpressionQuery;
 import org.socialsignin.spring.data.dynamodb.query.Query;
 import org.socialsignin.spring.data.dynamodb.query.QueryExpressionCountQuery;
 import org.socialsignin.spring.data.dynamodb.query.QueryRequestCountQuery;
 import org.socialsignin.spring.data.dynamodb.query.ScanExpressionCountQuery;
 import org.socialsignin.spring.data.dynamodb.query.SingleEntityLoadByHashAndRangeKeyQuery;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBIdIsHashAndRangeKeyEntityInformation;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * @author Michael Lavelle
@@ -101,6 +104,32 @@ public class DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> extends AbstractDy
 		return getRangeKeyAttributeValue() != null;
 	}
 
+	@Override
+	protected DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> copy() {
+		DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> copy = copyTo(
+				new DynamoDBEntityWithHashAndRangeKeyCriteria<>(entityInformation, getTableModel()));
+		copy.rangeKeyAttributeValue = rangeKeyAttributeValue;
+		copy.rangeKeyPropertyValue = rangeKeyPropertyValue;
+		return copy;
+	}
+
+	@Override
+	protected boolean isKeyProperty(String propertyName) {
+		return super.isKeyProperty(propertyName) || isRangeKeyProperty(propertyName)
+				|| entityInformation.isCompositeHashAndRangeKeyProperty(propertyName);
+	}
+
+	@Override
+	protected KeyPair getKeyPair() {
+		return super.getKeyPair().withRangeKey(getRangeKeyPropertyValue());
+	}
+
+	@Override
+	protected KeyPair getKeyPair(T entity) {
+		return super.getKeyPair(entity).withRangeKey(
+				PropertyAccessorFactory.forBeanPropertyAccess(entity).getPropertyValue(getRangeKeyPropertyName()));
+	}
+
 	protected Query<T> buildSingleEntityLoadQuery(DynamoDBOperations dynamoDBOperations) {
 		return new SingleEntityLoadByHashAndRangeKeyQuery<>(dynamoDBOperations, entityInformation.getJavaType(),
 				getHashKeyPropertyValue(), getRangeKeyPropertyValue());
@@ -191,6 +220,9 @@ public class DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> extends AbstractDy
 			queryExpression.setProjectionExpression(projection.get());
 		}
 		limit.ifPresent(queryExpression::setLimit);
+		if (!queryFilter.isEmpty()) {
+			queryExpression.withQueryFilter(new HashMap<>(queryFilter));
+		}
 		return queryExpression;
 	}
 
@@ -223,7 +255,7 @@ public class DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> extends AbstractDy
 						queryExpression);
 			}
 		} else {
-			return new MultipleEntityScanExpressionQuery<>(dynamoDBOperations, clazz, buildScanExpression());
+			return buildScanQuery(dynamoDBOperations);
 		}
 	}
 
@@ -250,7 +282,7 @@ public class DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> extends AbstractDy
 
 	@Override
 	public boolean isApplicableForLoad() {
-		return attributeConditions.size() == 0 && isHashAndRangeKeySpecified();
+		return attributeConditions.size() == 0 && queryFilter.isEmpty() && isHashAndRangeKeySpecified();
 	}
 
 	protected boolean isHashAndRangeKeySpecified() {
@@ -330,19 +362,65 @@ public class DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> extends AbstractDy
 		return globalSecondaryIndexName;
 	}
 
+	@Override
 	public boolean isApplicableForQuery() {
 
 		return isOnlyHashKeySpecified()
 				|| (isHashKeySpecified() && isOnlyASingleAttributeConditionAndItIsOnEitherRangeOrIndexRangeKey()
 						&& comparisonOperatorsPermittedForQuery())
+				|| (isHashAndRangeKeySpecified() && attributeConditions.isEmpty() && !queryFilter.isEmpty())
 				|| isApplicableForGlobalSecondaryIndex();
 
 	}
 
-	public DynamoDBScanExpression buildScanExpression() {
+	@Override
+	protected Set<String> getQueryKeyPropertyNames() {
+		if (!isHashKeySpecified()) {
+			return isRangeKeySpecified() ? null : super.getQueryKeyPropertyNames();
+		}
+		if (isRangeKeySpecified()) {
+			return Collections.emptySet();
+		}
+		// The range key can't be filtered on - it is either a key condition or the
+		// table is scanned
+		List<Condition> rangeKeyConditions = propertyConditions.get(getRangeKeyPropertyName());
+		if (rangeKeyConditions != null) {
+			return isKeyCondition(rangeKeyConditions) ? Collections.singleton(getRangeKeyPropertyName()) : null;
+		}
+		// Query the table or one of the local secondary indexes a key condition is
+		// given for - whatever is the cheapest
+		List<IndexSelector.Candidate> candidates = new ArrayList<>();
+		candidates.add(IndexSelector.Candidate.table(getHashKeyPropertyName(), getRangeKeyPropertyName()));
+		for (String indexRangeKeyPropertyName : new TreeSet<>(indexRangeKeyPropertyNames)) {
+			if (isKeyCondition(propertyConditions.get(indexRangeKeyPropertyName))) {
+				candidates.add(
+						IndexSelector.Candidate.localSecondaryIndex(getHashKeyPropertyName(), indexRangeKeyPropertyName));
+			}
+		}
+		IndexSelector.Candidate candidate = selectIndex(candidates).map(IndexSelector.Selection::getCandidate)
+				.orElse(candidates.get(0));
+		return candidate.getKind() == IndexSelector.Kind.LOCAL_SECONDARY_INDEX
+				? Collections.singleton(candidate.getRangeKeyPropertyName())
+				: Collections.emptySet();
+	}
+
+	@Override
+	protected Map<String, List<Condition>> getIndexSelectionConditions() {
+		Map<String, List<Condition>> conditions = super.getIndexSelectionConditions();
+		if (isRangeKeySpecified()) {
+			conditions.put(getRangeKeyPropertyName(),
+					Collections.singletonList(new Condition().withComparisonOperator(ComparisonOperator.EQ)));
+		}
+		return conditions;
+	}
 
-		ensureNoSort(sort);
+	@Override
+	protected boolean isQueryKeyProperty(String propertyName) {
+		return super.isQueryKeyProperty(propertyName) || isRangeKeyProperty(propertyName);
+	}
 
+	@Override
+	protected DynamoDBScanExpression buildUnsortedScanExpression() {
 		DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
 		if (isHashKeySpecified()) {
 			scanExpression.addFilterCondition(getHashKeyAttributeName(),
@@ -359,6 +437,7 @@ public class DynamoDBEntityWithHashAndRangeKeyCriteria<T, ID> extends AbstractDy
 				scanExpression.addFilterCondition(conditionEntry.getKey(), condition);
 			}
 		}
+		queryFilter.forEach(scanExpression::addFilterCondition);
 		return scanExpression;
 	}
 
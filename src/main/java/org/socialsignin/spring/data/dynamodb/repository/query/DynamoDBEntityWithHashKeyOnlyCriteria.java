@@ -24,13 +24,14 @@ import com.amazonaws.services.dynamodbv2.model.Select;
 import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
 import org.socialsignin.spring.data.dynamodb.query.CountByHashKeyQuery;
 import org.socialsignin.spring.data.dynamodb.query.MultipleEntityQueryRequestQuery;
-import org.socialsignin.spring.data.dynamodb.query.MultipleEntityScanExpressionQuery;
 import org.socialsignin.spring.data.dynamodb.query.Query;
 import org.socialsignin.spring.data.dynamodb.query.QueryRequestCountQuery;
 import org.socialsignin.spring.data.dynamodb.query.ScanExpressionCountQuery;
 import org.socialsignin.spring.data.dynamodb.query.SingleEntityLoadByHashKeyQuery;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityInformation;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -48,6 +49,11 @@ public class DynamoDBEntityWithHashKeyOnlyCriteria<T, ID> extends AbstractDynamo
 		this.entityInformation = entityInformation;
 	}
 
+	@Override
+	protected DynamoDBEntityWithHashKeyOnlyCriteria<T, ID> copy() {
+		return copyTo(new DynamoDBEntityWithHashKeyOnlyCriteria<>(entityInformation, getTableModel()));
+	}
+
 	protected Query<T> buildSingleEntityLoadQuery(DynamoDBOperations dynamoDBOperations) {
 		return new SingleEntityLoadByHashKeyQuery<>(dynamoDBOperations, clazz, getHashKeyPropertyValue());
 	}
@@ -65,8 +71,13 @@ public class DynamoDBEntityWithHashKeyOnlyCriteria<T, ID> extends AbstractDynamo
 					getGlobalSecondaryIndexName(), getHashKeyAttributeName(), null, null, hashKeyConditions, null);
 			return new MultipleEntityQueryRequestQuery<>(dynamoDBOperations, entityInformation.getJavaType(),
 					queryRequest);
+		} else if (isApplicableForQuery()) {
+			QueryRequest queryRequest = buildQueryRequest(
+					dynamoDBOperations.getOverriddenTableName(clazz, entityInformation.getDynamoDBTableName()));
+			return new MultipleEntityQueryRequestQuery<>(dynamoDBOperations, entityInformation.getJavaType(),
+					queryRequest);
 		} else {
-			return new MultipleEntityScanExpressionQuery<>(dynamoDBOperations, clazz, buildScanExpression());
+			return buildScanQuery(dynamoDBOperations);
 		}
 	}
 
@@ -80,6 +91,12 @@ public class DynamoDBEntityWithHashKeyOnlyCriteria<T, ID> extends AbstractDynamo
 			queryRequest.setSelect(Select.COUNT);
 			return new QueryRequestCountQuery(dynamoDBOperations, queryRequest);
 
+		} else if (isApplicableForQuery()) {
+			QueryRequest queryRequest = buildQueryRequest(
+					dynamoDBOperations.getOverriddenTableName(clazz, entityInformation.getDynamoDBTableName()));
+			queryRequest.setSelect(Select.COUNT);
+			return new QueryRequestCountQuery(dynamoDBOperations, queryRequest);
+
 		} else {
 			return new ScanExpressionCountQuery<>(dynamoDBOperations, clazz, buildScanExpression(), pageQuery);
 		}
@@ -92,13 +109,35 @@ public class DynamoDBEntityWithHashKeyOnlyCriteria<T, ID> extends AbstractDynamo
 
 	@Override
 	public boolean isApplicableForLoad() {
-		return isOnlyHashKeySpecified();
+		return isOnlyHashKeySpecified() && queryFilter.isEmpty();
 	}
 
-	public DynamoDBScanExpression buildScanExpression() {
+	@Override
+	public boolean isApplicableForQuery() {
+		return isApplicableForGlobalSecondaryIndex()
+				|| (isOnlyHashKeySpecified() && !queryFilter.isEmpty());
+	}
 
-		ensureNoSort(sort);
+	/**
+	 * @return The query of the table by the hash key - with the query filter
+	 */
+	protected QueryRequest buildQueryRequest(String tableName) {
+		QueryRequest queryRequest = new QueryRequest().withTableName(tableName);
+		queryRequest.addKeyConditionsEntry(getHashKeyAttributeName(),
+				createSingleValueCondition(getHashKeyPropertyName(), ComparisonOperator.EQ, getHashKeyAttributeValue(),
+						getHashKeyAttributeValue().getClass(), true));
+		queryRequest.setQueryFilter(new HashMap<>(queryFilter));
+		if (projection.isPresent()) {
+			queryRequest.setSelect(Select.SPECIFIC_ATTRIBUTES);
+			queryRequest.setProjectionExpression(projection.get());
+		}
+		limit.ifPresent(queryRequest::setLimit);
+		applySortIfSpecified(queryRequest, Collections.emptyList());
+		return queryRequest;
+	}
 
+	@Override
+	protected DynamoDBScanExpression buildUnsortedScanExpression() {
 		DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
 		if (isHashKeySpecified()) {
 			scanExpression.addFilterCondition(getHashKeyAttributeName(),
@@ -111,6 +150,7 @@ public class DynamoDBEntityWithHashKeyOnlyCriteria<T, ID> extends AbstractDynamo
 				scanExpression.addFilterCondition(conditionEntry.getKey(), condition);
 			}
 		}
+		queryFilter.forEach(scanExpression::addFilterCondition);
 
 		if (projection.isPresent()) {
 			scanExpression.setSelect(Select.SPECIFIC_ATTRIBUTES);
@@ -28,10 +28,13 @@ import java.util.Optional;
 
 public class DynamoDBQueryCreator<T, ID> extends AbstractDynamoDBQueryCreator<T, ID, T> {
 
+	private final Optional<Integer> maxResults;
+
 	public DynamoDBQueryCreator(PartTree tree, ParameterAccessor parameterAccessor,
 			DynamoDBEntityInformation<T, ID> entityMetadata, Optional<String> projection, Optional<Integer> limit,
 			DynamoDBOperations dynamoDBOperations) {
 		super(tree, parameterAccessor, entityMetadata, projection, limit, dynamoDBOperations);
+		this.maxResults = tree.isLimiting() ? Optional.of(tree.getMaxResults()) : Optional.empty();
 	}
 
 	@Override
@@ -42,6 +45,7 @@ public class DynamoDBQueryCreator<T, ID> extends AbstractDynamoDBQueryCreator<T,
 			criteria.withSort(sort);
 			criteria.withProjection(projection);
 			criteria.withLimit(limit);
+			criteria.withMaxResults(maxResults);
 			return criteria.buildQuery(dynamoDBOperations);
 		}
 	}
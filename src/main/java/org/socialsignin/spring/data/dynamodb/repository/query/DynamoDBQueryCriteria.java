@@ -45,6 +45,14 @@ public interface DynamoDBQueryCriteria<T, ID> {
 
 	DynamoDBQueryCriteria<T, ID> withLimit(Optional<Integer> limit);
 
+	/**
+	 * @param maxResults
+	 *            Number of results the query method returns at most - e.g.
+	 *            {@code findTop10By}
+	 * @return this
+	 */
+	DynamoDBQueryCriteria<T, ID> withMaxResults(Optional<Integer> maxResults);
+
 	Query<T> buildQuery(DynamoDBOperations dynamoDBOperations);
 
 	Query<Long> buildCountQuery(DynamoDBOperations dynamoDBOperations, boolean pageQuery);
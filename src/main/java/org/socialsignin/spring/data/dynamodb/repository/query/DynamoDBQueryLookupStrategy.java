@@ -75,7 +75,9 @@ public class DynamoDBQueryLookupStrategy {
 	}
 
 	/**
-	 * {@link QueryLookupStrategy} to create a query from the method name.
+	 * {@link QueryLookupStrategy} to create a query from the method name. Uses the
+	 * query derived at build time if the {@code spring-data-dynamodb-processor}
+	 * generated one.
 	 *
 	 * @author Michael Lavelle
 	 * @author Sebastian Just
@@ -91,14 +93,24 @@ public class DynamoDBQueryLookupStrategy {
 		protected <T, ID> RepositoryQuery createDynamoDBQuery(Method method, RepositoryMetadata metadata,
 				ProjectionFactory factory, Class<T> entityClass, Class<ID> idClass, NamedQueries namedQueries) {
 			try {
-				return new PartTreeDynamoDBQuery<T, ID>(dynamoDBOperations,
-						new DynamoDBQueryMethod<T, ID>(method, metadata, factory));
+				DynamoDBQueryMethod<T, ID> queryMethod = new DynamoDBQueryMethod<T, ID>(method, metadata, factory);
+				GeneratedQueryMethod<T> generated = findGeneratedQueryMethod(method, metadata);
+				if (generated != null) {
+					return new GeneratedDynamoDBQuery<T, ID>(dynamoDBOperations, queryMethod, generated);
+				}
+				return new PartTreeDynamoDBQuery<T, ID>(dynamoDBOperations, queryMethod);
 			} catch (IllegalArgumentException e) {
 				throw new IllegalArgumentException(
 						String.format("Could not create query metamodel for method %s!", method.toString()), e);
 			}
 		}
 
+		@SuppressWarnings("unchecked")
+		private <T> GeneratedQueryMethod<T> findGeneratedQueryMethod(Method method, RepositoryMetadata metadata) {
+			GeneratedDynamoDBQueries queries = GeneratedDynamoDBQueries.forRepository(metadata.getRepositoryInterface());
+			return queries == null ? null : (GeneratedQueryMethod<T>) queries.getQueryMethod(method);
+		}
+
 	}
 
 	/**
@@ -15,14 +15,18 @@
  */
 package org.socialsignin.spring.data.dynamodb.repository.query;
 
+import org.socialsignin.spring.data.dynamodb.query.ReadSettings;
 import org.socialsignin.spring.data.dynamodb.repository.EnableScan;
 import org.socialsignin.spring.data.dynamodb.repository.EnableScanCount;
 import org.socialsignin.spring.data.dynamodb.repository.Query;
+import org.socialsignin.spring.data.dynamodb.repository.ReadOptions;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityInformation;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityMetadataSupport;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
@@ -37,14 +41,17 @@ import static org.socialsignin.spring.data.dynamodb.repository.QueryConstants.QU
 public class DynamoDBQueryMethod<T, ID> extends QueryMethod {
 
 	private final Method method;
+	private final Class<?> repositoryInterface;
 	private final boolean scanEnabledForRepository;
 	private final boolean scanCountEnabledForRepository;
 	private final Optional<String> projectionExpression;
 	private final Optional<Integer> limitResults;
+	private final ReadSettings readSettings;
 
 	public DynamoDBQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory) {
 		super(method, metadata, factory);
 		this.method = method;
+		this.repositoryInterface = metadata.getRepositoryInterface();
 		this.scanEnabledForRepository = metadata.getRepositoryInterface().isAnnotationPresent(EnableScan.class);
 		this.scanCountEnabledForRepository = metadata.getRepositoryInterface()
 				.isAnnotationPresent(EnableScanCount.class);
@@ -67,6 +74,40 @@ public class DynamoDBQueryMethod<T, ID> extends QueryMethod {
 			this.projectionExpression = Optional.empty();
 			this.limitResults = Optional.empty();
 		}
+
+		this.readSettings = readSettings(repositoryInterface.getAnnotation(ReadOptions.class))
+				.overriddenBy(readSettings(method.getAnnotation(ReadOptions.class)));
+	}
+
+	private static ReadSettings readSettings(@Nullable ReadOptions readOptions) {
+		if (readOptions == null) {
+			return ReadSettings.DEFAULT;
+		}
+		int pageSize = readOptions.pageSize();
+		return new ReadSettings(single(readOptions.consistentReads(), "consistentReads"),
+				single(readOptions.paginationLoadingStrategy(), "paginationLoadingStrategy"),
+				pageSize != QUERY_LIMIT_UNLIMITED ? pageSize : null,
+				single(readOptions.returnConsumedCapacity(), "returnConsumedCapacity"));
+	}
+
+	@Nullable
+	private static <E> E single(E[] values, String option) {
+		Assert.isTrue(values.length <= 1, "Only a single " + option + " can be given in @ReadOptions!");
+		return values.length == 0 ? null : values[0];
+	}
+
+	public Class<?> getRepositoryInterface() {
+		return repositoryInterface;
+	}
+
+	/**
+	 * @return Stand-in values for all parameters to explain the query without
+	 *         actual arguments
+	 * @throws IllegalArgumentException
+	 *             if there is no stand-in value for a parameter type
+	 */
+	Object[] getPlaceholderParameterValues() {
+		return PlaceholderValues.forParameters(method);
 	}
 
 	/**
@@ -94,9 +135,9 @@ public class DynamoDBQueryMethod<T, ID> extends QueryMethod {
 	 * org.springframework.data.repository.query.QueryMethod#getEntityInformation ()
 	 */
 	@Override
-	@SuppressWarnings({"rawtypes", "unchecked"})
+	@SuppressWarnings("unchecked")
 	public DynamoDBEntityInformation<T, ID> getEntityInformation() {
-		return new DynamoDBEntityMetadataSupport(getDomainClass()).getEntityInformation();
+		return DynamoDBEntityMetadataSupport.getEntityInformation((Class<T>) getDomainClass());
 	}
 
 	public Class<T> getEntityType() {
@@ -111,4 +152,12 @@ public class DynamoDBQueryMethod<T, ID> extends QueryMethod {
 	public Optional<Integer> getLimitResults() {
 		return this.limitResults;
 	}
+
+	/**
+	 * @return How the results are read as tuned by the {@link ReadOptions} of the
+	 *         method and its repository
+	 */
+	public ReadSettings getReadSettings() {
+		return this.readSettings;
+	}
 }
@@ -0,0 +1,117 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBEntityIndex;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Base class of the query methods of a repository generated at build time by
+ * the {@code spring-data-dynamodb-processor}. The generated subclasses register
+ * their {@link GeneratedQueryMethod}s in their no-arg constructor and are listed
+ * in the {@link DynamoDBEntityIndex}.
+ *
+ * Query methods the processor couldn't derive a query for are not registered -
+ * they are parsed at runtime as before.
+ *
+ * @author Sebastian Just
+ */
+public abstract class GeneratedDynamoDBQueries {
+
+	private static final Map<Class<?>, Optional<GeneratedDynamoDBQueries>> QUERIES = new ConcurrentReferenceHashMap<>();
+
+	private final Class<?> repositoryInterface;
+	private final Map<String, GeneratedQueryMethod<?>> queryMethods = new HashMap<>();
+
+	protected GeneratedDynamoDBQueries(Class<?> repositoryInterface) {
+		Assert.notNull(repositoryInterface, "repositoryInterface must not be null!");
+		this.repositoryInterface = repositoryInterface;
+	}
+
+	protected void add(GeneratedQueryMethod<?> queryMethod, String methodName, Class<?>... parameterTypes) {
+		queryMethods.put(key(methodName, parameterTypes), queryMethod);
+	}
+
+	public Class<?> getRepositoryInterface() {
+		return repositoryInterface;
+	}
+
+	/**
+	 * @param method
+	 *            The query method of the repository
+	 * @return The generated query method or {@literal null} if none got generated
+	 */
+	@Nullable
+	public GeneratedQueryMethod<?> getQueryMethod(Method method) {
+		return queryMethods.get(key(method.getName(), method.getParameterTypes()));
+	}
+
+	private static String key(String methodName, Class<?>[] parameterTypes) {
+		StringBuilder key = new StringBuilder(methodName).append('(');
+		for (Class<?> parameterType : parameterTypes) {
+			key.append(parameterType.getName()).append(',');
+		}
+		return key.append(')').toString();
+	}
+
+	/**
+	 * @param repositoryInterface
+	 *            The repository to look up
+	 * @return The (memoized) generated query methods of the repository or
+	 *         {@literal null} if the repository is not indexed
+	 */
+	@Nullable
+	public static GeneratedDynamoDBQueries forRepository(Class<?> repositoryInterface) {
+		return QUERIES.computeIfAbsent(repositoryInterface, GeneratedDynamoDBQueries::instantiate).orElse(null);
+	}
+
+	private static Optional<GeneratedDynamoDBQueries> instantiate(Class<?> repositoryInterface) {
+		ClassLoader classLoader = repositoryInterface.getClassLoader();
+		String queriesClassName = DynamoDBEntityIndex.forClassLoader(classLoader)
+				.getQueriesClassName(repositoryInterface);
+		if (queriesClassName == null) {
+			return Optional.empty();
+		}
+
+		try {
+			Class<?> queriesClass = ClassUtils.forName(queriesClassName, classLoader);
+			GeneratedDynamoDBQueries queries = (GeneratedDynamoDBQueries) queriesClass.getDeclaredConstructor()
+					.newInstance();
+			Assert.state(queries.getRepositoryInterface() == repositoryInterface,
+					() -> queriesClassName + " does not describe " + repositoryInterface + " - is the index stale?");
+			return Optional.of(queries);
+		} catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+			throw new IllegalStateException("Unable to instantiate generated queries " + queriesClassName + " of "
+					+ repositoryInterface + " - is the index stale?", e);
+		}
+	}
+
+	/**
+	 * Clears the memoized generated query methods - e.g. after the classpath
+	 * changed.
+	 */
+	public static void clearCache() {
+		QUERIES.clear();
+	}
+}
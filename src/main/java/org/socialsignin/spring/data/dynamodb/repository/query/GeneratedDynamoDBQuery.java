@@ -0,0 +1,76 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.query.Query;
+import org.socialsignin.spring.data.dynamodb.repository.query.GeneratedQueryMethod.Subject;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+/**
+ * {@link RepositoryQuery} of a {@link GeneratedQueryMethod} - the counterpart of
+ * {@link PartTreeDynamoDBQuery} for query methods derived at build time.
+ *
+ * @author Sebastian Just
+ */
+public class GeneratedDynamoDBQuery<T, ID> extends AbstractDynamoDBQuery<T, ID> implements RepositoryQuery {
+
+	private final GeneratedQueryMethod<T> generated;
+
+	public GeneratedDynamoDBQuery(DynamoDBOperations dynamoDBOperations, DynamoDBQueryMethod<T, ID> method,
+			GeneratedQueryMethod<T> generated) {
+		super(dynamoDBOperations, method);
+		this.generated = generated;
+	}
+
+	@Override
+	public Query<T> doCreateQuery(Object[] values) {
+		return generated.createQuery(dynamoDBOperations, values, getQueryMethod().getProjectionExpression(),
+				getQueryMethod().getLimitResults());
+	}
+
+	@Override
+	public Query<Long> doCreateCountQuery(Object[] values, boolean pageQuery) {
+		return generated.createCountQuery(dynamoDBOperations, values, pageQuery);
+	}
+
+	@Override
+	protected boolean isCountQuery() {
+		return generated.getSubject() == Subject.COUNT;
+	}
+
+	@Override
+	protected boolean isExistsQuery() {
+		return generated.getSubject() == Subject.EXISTS;
+	}
+
+	@Override
+	protected boolean isDeleteQuery() {
+		return generated.getSubject() == Subject.DELETE;
+	}
+
+	@Override
+	protected Integer getResultsRestrictionIfApplicable() {
+		return generated.getMaxResults();
+	}
+
+	@Override
+	protected boolean isSingleEntityResultsRestriction() {
+		Integer resultsRestiction = getResultsRestrictionIfApplicable();
+		return resultsRestiction != null && resultsRestiction.intValue() == 1;
+	}
+
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMarshaller;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.query.MultipleEntityScanExpressionQuery;
+import org.socialsignin.spring.data.dynamodb.query.Query;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
+import org.socialsignin.spring.data.dynamodb.query.SortedScanExpressionQuery;
+import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityInformation;
+import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityMetadataSupport;
+import org.socialsignin.spring.data.dynamodb.utils.SortHandler;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A query method whose query got derived from the method name at build time by
+ * the {@code spring-data-dynamodb-processor}. The generated subclasses build the
+ * {@link DynamoDBQueryExpression}, {@link QueryRequest} or scan expression
+ * directly - the method name is neither parsed nor are criteria objects built
+ * at runtime.
+ *
+ * The helpers mirror the value conversion and sort rules of
+ * {@link AbstractDynamoDBQueryCriteria} so that both build the same requests.
+ *
+ * @author Sebastian Just
+ */
+public abstract class GeneratedQueryMethod<T> implements SortHandler {
+
+	/**
+	 * What the query method returns - see
+	 * {@link org.springframework.data.repository.query.parser.PartTree}
+	 */
+	public enum Subject {
+		FIND, COUNT, EXISTS, DELETE
+	}
+
+	private final Class<T> domainType;
+	private final Subject subject;
+	@Nullable
+	private final Integer maxResults;
+
+	protected GeneratedQueryMethod(Class<T> domainType, Subject subject, @Nullable Integer maxResults) {
+		this.domainType = domainType;
+		this.subject = subject;
+		this.maxResults = maxResults;
+	}
+
+	public abstract Query<T> createQuery(DynamoDBOperations operations, Object[] values, Optional<String> projection,
+			Optional<Integer> limit);
+
+	public abstract Query<Long> createCountQuery(DynamoDBOperations operations, Object[] values, boolean pageQuery);
+
+	public Class<T> getDomainType() {
+		return domainType;
+	}
+
+	public Subject getSubject() {
+		return subject;
+	}
+
+	/**
+	 * @return The maximum number of results of {@code First}/{@code Top} query
+	 *         methods - otherwise {@literal null}
+	 */
+	@Nullable
+	public Integer getMaxResults() {
+		return maxResults;
+	}
+
+	protected static <V> V notNull(@Nullable V value, String message) {
+		Assert.notNull(value, message);
+		return value;
+	}
+
+	protected static Iterable<?> iterable(@Nullable Object in, String propertyName) {
+		Assert.notNull(in, "Creating conditions on null parameters not supported: please specify a value for '"
+				+ propertyName + "'");
+		boolean isIterable = ClassUtils.isAssignable(Iterable.class, in.getClass());
+		boolean isArray = ObjectUtils.isArray(in);
+		Assert.isTrue(isIterable || isArray, "In criteria can only operate with Iterable or Array parameters");
+		return isIterable ? ((Iterable<?>) in) : Arrays.asList(ObjectUtils.toObjectArray(in));
+	}
+
+	/**
+	 * @return The value converted by the table model of the domain type - or the
+	 *         value itself if the table model doesn't know the attribute
+	 */
+	protected Object attributeValue(DynamoDBOperations operations, String attributeName, Object value) {
+		DynamoDBMapperTableModel<T> tableModel = operations.getTableModel(domainType);
+		DynamoDBMapperFieldModel<T, Object> fieldModel = tableModel == null ? null : tableModel.field(attributeName);
+		return fieldModel == null ? value : fieldModel.convert(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected static DynamoDBTypeConverter<Object, Object> converter(DynamoDBTypeConverter<?, ?> converter) {
+		return (DynamoDBTypeConverter<Object, Object>) converter;
+	}
+
+	@SuppressWarnings({"deprecation", "unchecked"})
+	protected static DynamoDBMarshaller<Object> marshaller(DynamoDBMarshaller<?> marshaller) {
+		return (DynamoDBMarshaller<Object>) marshaller;
+	}
+
+	/**
+	 * Condition on a property value that got converted in place
+	 *
+	 * @param propertyType
+	 *            The type of the property - {@link String} if converted by a
+	 *            converter or marshaller
+	 */
+	protected static Condition condition(ComparisonOperator comparisonOperator, Object attributeValue,
+			Class<?> propertyType) {
+		return new Condition().withComparisonOperator(comparisonOperator)
+				.withAttributeValueList(toAttributeValue(attributeValue, propertyType, true));
+	}
+
+	/**
+	 * Condition on a hash or range key value that got converted beforehand
+	 */
+	protected static Condition keyCondition(ComparisonOperator comparisonOperator, Object attributeValue) {
+		return condition(comparisonOperator, attributeValue, attributeValue.getClass());
+	}
+
+	protected static Condition collectionCondition(ComparisonOperator comparisonOperator, Iterable<?> values,
+			Function<Object, Object> conversion, Class<?> propertyType) {
+		List<AttributeValue> attributeValueList = new ArrayList<>();
+		for (Object value : values) {
+			attributeValueList.add(toAttributeValue(conversion.apply(value), propertyType, false));
+		}
+		return new Condition().withComparisonOperator(comparisonOperator).withAttributeValueList(attributeValueList);
+	}
+
+	protected static Condition noValueCondition(ComparisonOperator comparisonOperator) {
+		return new Condition().withComparisonOperator(comparisonOperator);
+	}
+
+	private static AttributeValue toAttributeValue(@Nullable Object attributeValue, Class<?> propertyType,
+			boolean expandCollectionValues) {
+		if (attributeValue instanceof AttributeValue) {
+			return (AttributeValue) attributeValue;
+		}
+		return AbstractDynamoDBQueryCriteria.toAttributeValue(attributeValue, propertyType, expandCollectionValues);
+	}
+
+	/**
+	 * @return The static {@code OrderBy} sort followed by the sort of the
+	 *         {@link Sort} or {@link Pageable} parameter
+	 */
+	protected static Sort sort(Object[] values, Sort staticSort, int sortIndex, int pageableIndex) {
+		Sort dynamicSort = Sort.unsorted();
+		if (sortIndex >= 0) {
+			dynamicSort = values[sortIndex] == null ? Sort.unsorted() : (Sort) values[sortIndex];
+		} else if (pageableIndex >= 0 && values[pageableIndex] != null) {
+			dynamicSort = ((Pageable) values[pageableIndex]).getSort();
+		}
+		return staticSort.and(dynamicSort);
+	}
+
+	/**
+	 * @return The scan - sorted on the client side if a sort is given and sorted
+	 *         scans are enabled, see {@link DynamoDBOperations#getScanSorter()}
+	 */
+	protected Query<T> scanQuery(DynamoDBOperations operations, DynamoDBScanExpression scanExpression, Sort sort) {
+		ScanSorter scanSorter = operations.getScanSorter();
+		if (sort.isUnsorted() || scanSorter == null) {
+			ensureNoSort(sort);
+			return new MultipleEntityScanExpressionQuery<>(operations, domainType, scanExpression);
+		}
+		DynamoDBEntityInformation<T, Object> entityInformation = DynamoDBEntityMetadataSupport
+				.getEntityInformation(domainType);
+		return new SortedScanExpressionQuery<>(operations, domainType, scanExpression, scanSorter,
+				ScanSorter.order(sort, operations.getTableModel(domainType),
+						propertyName -> entityInformation.getOverriddenAttributeName(propertyName)
+								.orElse(propertyName)),
+				maxResults == null ? Long.MAX_VALUE : maxResults);
+	}
+
+	protected static void applySort(DynamoDBQueryExpression<?> queryExpression, Sort sort,
+			String... permittedPropertyNames) {
+		AbstractDynamoDBQueryCriteria.applySort(sort, queryExpression, Arrays.asList(permittedPropertyNames));
+	}
+
+	protected static void applySort(QueryRequest queryRequest, Sort sort, boolean hasIndexHashKeyEqualCondition,
+			Collection<String> globalIndexRangeKeyPropertyNames, String... permittedPropertyNames) {
+		List<String> allowedSortProperties = new ArrayList<>(Arrays.asList(permittedPropertyNames));
+		for (Order order : sort) {
+			if (globalIndexRangeKeyPropertyNames.contains(order.getProperty())) {
+				allowedSortProperties.add(order.getProperty());
+			}
+		}
+		AbstractDynamoDBQueryCriteria.applySort(sort, queryRequest,
+				new ArrayList<>(new HashSet<>(allowedSortProperties)), hasIndexHashKeyEqualCondition);
+	}
+}
@@ -0,0 +1,493 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.LocalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Chooses the table or secondary index a query reads from. Each candidate is
+ * scored by
+ * <ol>
+ * <li>an equals condition on its partition key,</li>
+ * <li>how selective the condition on its range key is and</li>
+ * <li>whether its projection covers the requested attributes.</li>
+ * </ol>
+ * A candidate without an equals condition on its partition key, that can't
+ * return the items in the requested order or that is a global secondary index
+ * not projecting the requested attributes can't be queried at all.
+ * If a {@link TableDescription} is at hand, the projections and item counts of
+ * the indexes are taken from it - a sparse index is cheaper to query than one
+ * holding every item. Otherwise all indexes are assumed to project all
+ * attributes, which is what {@code Entity2DDL} creates by default.
+ *
+ * The cheapest candidate wins, ties go to the candidate given first - the
+ * choice is therefore deterministic and {@link Selection#explain() explained}.
+ *
+ * @author Sebastian Just
+ */
+public class IndexSelector {
+
+	public enum Kind {
+		TABLE, GLOBAL_SECONDARY_INDEX, LOCAL_SECONDARY_INDEX
+	}
+
+	/**
+	 * Relative cost of reading a whole partition
+	 */
+	static final double PARTITION_COST = 100;
+	/**
+	 * Factor applied if the projection of a local secondary index lacks
+	 * requested attributes - those are fetched from the table
+	 */
+	static final double LOCAL_PROJECTION_PENALTY = 2;
+	/**
+	 * Lower bound of the share of the table's items an index holds
+	 */
+	static final double MIN_SPARSENESS = 0.01;
+
+	private final List<Candidate> candidates;
+	private final Function<String, String> attributeNames;
+	@Nullable
+	private final TableDescription statistics;
+
+	/**
+	 * @param candidates
+	 *            The table and indexes to choose from - in order of preference
+	 *            if they are equally expensive
+	 * @param attributeNames
+	 *            Resolves the attribute name of a property
+	 * @param statistics
+	 *            The description of the table - {@code null} if not available
+	 */
+	public IndexSelector(List<Candidate> candidates, Function<String, String> attributeNames,
+			@Nullable TableDescription statistics) {
+		Assert.notNull(candidates, "candidates must not be null!");
+		Assert.notNull(attributeNames, "attributeNames must not be null!");
+		this.candidates = new ArrayList<>(candidates);
+		this.attributeNames = attributeNames;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * @param conditions
+	 *            The conditions by property name - including the table's hash and
+	 *            range key values as {@code EQ} conditions
+	 * @param sort
+	 *            The requested order of the items
+	 * @param projection
+	 *            The requested attributes - empty for all attributes
+	 * @return The cheapest candidate - {@link Optional#empty()} if none can be
+	 *         queried
+	 */
+	public Optional<Selection> select(Map<String, List<Condition>> conditions, Sort sort,
+			Optional<String> projection) {
+		Set<String> requestedAttributeNames = projection.map(IndexSelector::parseProjection).orElse(null);
+
+		List<Estimate> estimates = new ArrayList<>();
+		Estimate cheapest = null;
+		for (Candidate candidate : candidates) {
+			Estimate estimate = estimate(candidate, conditions, sort, requestedAttributeNames);
+			estimates.add(estimate);
+			if (estimate.isQueryable() && (cheapest == null || estimate.getCost() < cheapest.getCost())) {
+				cheapest = estimate;
+			}
+		}
+		return cheapest == null ? Optional.empty() : Optional.of(new Selection(cheapest, estimates));
+	}
+
+	/**
+	 * @param candidate
+	 *            The table or index to query
+	 * @param attributeNames
+	 *            The attributes to filter on
+	 * @return {@code true} unless the candidate is a global secondary index whose
+	 *         projection is not known to include all the attributes - without a
+	 *         {@link TableDescription} no global secondary index is. DynamoDB
+	 *         evaluates a filter on a missing attribute as not matching.
+	 */
+	public boolean projects(Candidate candidate, Set<String> attributeNames) {
+		if (candidate.getKind() != Kind.GLOBAL_SECONDARY_INDEX) {
+			return true;
+		}
+		return getStatistics(candidate).map(index -> index.projection != null && index.covers(attributeNames))
+				.orElse(false);
+	}
+
+	private Estimate estimate(Candidate candidate, Map<String, List<Condition>> conditions, Sort sort,
+			@Nullable Set<String> requestedAttributeNames) {
+		List<String> reasons = new ArrayList<>();
+		if (!isEquals(conditions.get(candidate.getHashKeyPropertyName()))) {
+			reasons.add("no equals condition on " + candidate.getHashKeyPropertyName());
+			return new Estimate(candidate, false, Double.POSITIVE_INFINITY, reasons);
+		}
+		reasons.add(candidate.getHashKeyPropertyName() + " EQ");
+		double cost = PARTITION_COST;
+
+		String rangeKeyPropertyName = candidate.getRangeKeyPropertyName();
+		for (Order order : sort) {
+			// Such a query fails
+			if (!order.getProperty().equals(rangeKeyPropertyName)) {
+				reasons.add("can't sort by " + order.getProperty());
+				return new Estimate(candidate, false, Double.POSITIVE_INFINITY, reasons);
+			}
+		}
+		List<Condition> rangeKeyConditions = rangeKeyPropertyName == null ? null : conditions.get(rangeKeyPropertyName);
+		boolean rangeKeyCondition = AbstractDynamoDBQueryCriteria.isKeyCondition(rangeKeyConditions);
+		if (rangeKeyCondition) {
+			ComparisonOperator operator = ComparisonOperator.fromValue(rangeKeyConditions.get(0).getComparisonOperator());
+			cost *= selectivity(operator);
+			reasons.add(rangeKeyPropertyName + " " + operator);
+		} else {
+			reasons.add("whole partition");
+		}
+
+		Optional<IndexStatistics> indexStatistics = getStatistics(candidate);
+		if (indexStatistics.isPresent()) {
+			IndexStatistics index = indexStatistics.get();
+			if (!index.covers(requestedAttributeNames)) {
+				if (candidate.getKind() == Kind.GLOBAL_SECONDARY_INDEX) {
+					// The attributes would not be returned at all
+					reasons.add("projection lacks requested attributes");
+					return new Estimate(candidate, false, Double.POSITIVE_INFINITY, reasons);
+				} else if (candidate.getKind() == Kind.LOCAL_SECONDARY_INDEX) {
+					cost *= LOCAL_PROJECTION_PENALTY;
+					reasons.add("fetches unprojected attributes from the table");
+				}
+			}
+			// Items lacking the range key aren't part of the index - without a
+			// condition on it, a sparse index might miss items
+			if (index.sparseness != null && (rangeKeyPropertyName == null || rangeKeyCondition)) {
+				cost *= Math.max(MIN_SPARSENESS, index.sparseness);
+				reasons.add(String.format(Locale.ENGLISH, "holds %.0f%% of the items", index.sparseness * 100));
+			}
+		}
+		return new Estimate(candidate, true, cost, reasons);
+	}
+
+	private static boolean isEquals(@Nullable List<Condition> conditions) {
+		return conditions != null && conditions.size() == 1
+				&& ComparisonOperator.EQ.name().equals(conditions.get(0).getComparisonOperator());
+	}
+
+	/**
+	 * @return The estimated share of the partition read for a condition on the
+	 *         range key
+	 */
+	static double selectivity(ComparisonOperator operator) {
+		switch (operator) {
+			case EQ :
+				return 0.01;
+			case BETWEEN :
+			case BEGINS_WITH :
+				return 0.1;
+			default :
+				return 0.5;
+		}
+	}
+
+	static Set<String> parseProjection(String projection) {
+		Set<String> attributeNames = new HashSet<>();
+		for (String attributeName : projection.split(",")) {
+			if (!attributeName.trim().isEmpty()) {
+				attributeNames.add(attributeName.trim());
+			}
+		}
+		return attributeNames;
+	}
+
+	private Optional<IndexStatistics> getStatistics(Candidate candidate) {
+		if (statistics == null) {
+			return Optional.empty();
+		}
+		Set<String> tableKeyAttributeNames = keyAttributeNames(statistics.getKeySchema());
+		Long tableItemCount = statistics.getItemCount();
+
+		switch (candidate.getKind()) {
+			case GLOBAL_SECONDARY_INDEX :
+				if (statistics.getGlobalSecondaryIndexes() != null) {
+					for (GlobalSecondaryIndexDescription index : statistics.getGlobalSecondaryIndexes()) {
+						if (index.getIndexName().equals(candidate.getIndexName())) {
+							return Optional.of(new IndexStatistics(index.getProjection(), tableKeyAttributeNames,
+									index.getKeySchema(), index.getItemCount(), tableItemCount));
+						}
+					}
+				}
+				return Optional.empty();
+			case LOCAL_SECONDARY_INDEX :
+				if (statistics.getLocalSecondaryIndexes() != null) {
+					String rangeKeyAttributeName = attributeNames.apply(candidate.getRangeKeyPropertyName());
+					for (LocalSecondaryIndexDescription index : statistics.getLocalSecondaryIndexes()) {
+						if (rangeKeyAttributeName.equals(rangeKeyAttributeName(index.getKeySchema()))) {
+							return Optional.of(new IndexStatistics(index.getProjection(), tableKeyAttributeNames,
+									index.getKeySchema(), index.getItemCount(), tableItemCount));
+						}
+					}
+				}
+				return Optional.empty();
+			default :
+				return Optional.empty();
+		}
+	}
+
+	private static Set<String> keyAttributeNames(@Nullable Collection<KeySchemaElement> keySchema) {
+		Set<String> keyAttributeNames = new HashSet<>();
+		if (keySchema != null) {
+			keySchema.forEach(element -> keyAttributeNames.add(element.getAttributeName()));
+		}
+		return keyAttributeNames;
+	}
+
+	@Nullable
+	private static String rangeKeyAttributeName(@Nullable Collection<KeySchemaElement> keySchema) {
+		if (keySchema != null) {
+			for (KeySchemaElement element : keySchema) {
+				if (KeyType.RANGE.toString().equals(element.getKeyType())) {
+					return element.getAttributeName();
+				}
+			}
+		}
+		return null;
+	}
+
+	private static class IndexStatistics {
+		@Nullable
+		private final Projection projection;
+		private final Set<String> keyAttributeNames;
+		@Nullable
+		private final Double sparseness;
+
+		IndexStatistics(@Nullable Projection projection, Set<String> tableKeyAttributeNames,
+				@Nullable Collection<KeySchemaElement> indexKeySchema, @Nullable Long itemCount,
+				@Nullable Long tableItemCount) {
+			this.projection = projection;
+			this.keyAttributeNames = new HashSet<>(tableKeyAttributeNames);
+			this.keyAttributeNames.addAll(keyAttributeNames(indexKeySchema));
+			this.sparseness = itemCount != null && tableItemCount != null && tableItemCount > 0
+					? Math.min(1, (double) itemCount / tableItemCount)
+					: null;
+		}
+
+		/**
+		 * @param requestedAttributeNames
+		 *            {@code null} for all attributes
+		 */
+		boolean covers(@Nullable Set<String> requestedAttributeNames) {
+			if (projection == null || ProjectionType.ALL.toString().equals(projection.getProjectionType())) {
+				return true;
+			}
+			if (requestedAttributeNames == null) {
+				return false;
+			}
+			Set<String> projected = new HashSet<>(keyAttributeNames);
+			if (ProjectionType.INCLUDE.toString().equals(projection.getProjectionType())
+					&& projection.getNonKeyAttributes() != null) {
+				projected.addAll(projection.getNonKeyAttributes());
+			}
+			return projected.containsAll(requestedAttributeNames);
+		}
+	}
+
+	/**
+	 * The table or one of its secondary indexes
+	 */
+	public static final class Candidate {
+		private final Kind kind;
+		@Nullable
+		private final String indexName;
+		private final String hashKeyPropertyName;
+		@Nullable
+		private final String rangeKeyPropertyName;
+
+		private Candidate(Kind kind, @Nullable String indexName, String hashKeyPropertyName,
+				@Nullable String rangeKeyPropertyName) {
+			Assert.notNull(hashKeyPropertyName, "hashKeyPropertyName must not be null!");
+			this.kind = kind;
+			this.indexName = indexName;
+			this.hashKeyPropertyName = hashKeyPropertyName;
+			this.rangeKeyPropertyName = rangeKeyPropertyName;
+		}
+
+		public static Candidate table(String hashKeyPropertyName, @Nullable String rangeKeyPropertyName) {
+			return new Candidate(Kind.TABLE, null, hashKeyPropertyName, rangeKeyPropertyName);
+		}
+
+		public static Candidate globalSecondaryIndex(String indexName, String hashKeyPropertyName,
+				@Nullable String rangeKeyPropertyName) {
+			Assert.notNull(indexName, "indexName must not be null!");
+			return new Candidate(Kind.GLOBAL_SECONDARY_INDEX, indexName, hashKeyPropertyName, rangeKeyPropertyName);
+		}
+
+		/**
+		 * @param hashKeyPropertyName
+		 *            The hash key of the table
+		 * @param rangeKeyPropertyName
+		 *            The index range key - the index name is derived from it by
+		 *            the {@code DynamoDBMapper}
+		 */
+		public static Candidate localSecondaryIndex(String hashKeyPropertyName, String rangeKeyPropertyName) {
+			Assert.notNull(rangeKeyPropertyName, "rangeKeyPropertyName must not be null!");
+			return new Candidate(Kind.LOCAL_SECONDARY_INDEX, null, hashKeyPropertyName, rangeKeyPropertyName);
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return The name of a global secondary index - {@code null} for the table
+		 *         and local secondary indexes
+		 */
+		@Nullable
+		public String getIndexName() {
+			return indexName;
+		}
+
+		public String getHashKeyPropertyName() {
+			return hashKeyPropertyName;
+		}
+
+		@Nullable
+		public String getRangeKeyPropertyName() {
+			return rangeKeyPropertyName;
+		}
+
+		@Override
+		public String toString() {
+			switch (kind) {
+				case GLOBAL_SECONDARY_INDEX :
+					return "index " + indexName;
+				case LOCAL_SECONDARY_INDEX :
+					return "local index on " + rangeKeyPropertyName;
+				default :
+					return "table";
+			}
+		}
+	}
+
+	/**
+	 * The estimated cost of querying a {@link Candidate}
+	 */
+	public static final class Estimate {
+		private final Candidate candidate;
+		private final boolean queryable;
+		private final double cost;
+		private final List<String> reasons;
+
+		Estimate(Candidate candidate, boolean queryable, double cost, List<String> reasons) {
+			this.candidate = candidate;
+			this.queryable = queryable;
+			this.cost = cost;
+			this.reasons = Collections.unmodifiableList(reasons);
+		}
+
+		public Candidate getCandidate() {
+			return candidate;
+		}
+
+		/**
+		 * @return {@code false} if there is no equals condition on the partition
+		 *         key of the candidate, it can't return the items in the
+		 *         requested order or its projection lacks requested attributes
+		 */
+		public boolean isQueryable() {
+			return queryable;
+		}
+
+		/**
+		 * @return The relative cost - {@link Double#POSITIVE_INFINITY} if not
+		 *         queryable
+		 */
+		public double getCost() {
+			return cost;
+		}
+
+		public List<String> getReasons() {
+			return reasons;
+		}
+
+		@Override
+		public String toString() {
+			return candidate + (queryable ? String.format(Locale.ENGLISH, " (cost %.2f: ", cost) : " (")
+					+ String.join(", ", reasons) + ")";
+		}
+	}
+
+	/**
+	 * The chosen {@link Candidate} along with the estimates of all candidates
+	 */
+	public static final class Selection {
+		private final Estimate chosen;
+		private final List<Estimate> estimates;
+
+		Selection(Estimate chosen, List<Estimate> estimates) {
+			this.chosen = chosen;
+			this.estimates = Collections.unmodifiableList(estimates);
+		}
+
+		public Candidate getCandidate() {
+			return chosen.getCandidate();
+		}
+
+		public Estimate getChosen() {
+			return chosen;
+		}
+
+		public List<Estimate> getEstimates() {
+			return estimates;
+		}
+
+		/**
+		 * @return Why the candidate was chosen over the others
+		 */
+		public String explain() {
+			StringBuilder sb = new StringBuilder("chose ").append(chosen);
+			for (Estimate estimate : estimates) {
+				if (estimate != chosen) {
+					sb.append(" over ").append(estimate);
+				}
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public String toString() {
+			return explain();
+		}
+	}
+}
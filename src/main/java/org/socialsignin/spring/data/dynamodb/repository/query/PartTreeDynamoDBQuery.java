@@ -20,6 +20,7 @@ import org.socialsignin.spring.data.dynamodb.query.Query;
 import org.springframework.data.repository.query.Parameters;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.parser.Part.Type;
 import org.springframework.data.repository.query.parser.PartTree;
 
 /**
@@ -81,6 +82,12 @@ public class PartTreeDynamoDBQuery<T, ID> extends AbstractDynamoDBQuery<T, ID> i
 		return tree.isDelete();
 	}
 
+	@Override
+	protected boolean isValueDependent() {
+		// Each branch of an Or and each value of an In on a key is read on its own
+		return tree.stream().count() > 1 || tree.getParts().stream().anyMatch(part -> part.getType() == Type.IN);
+	}
+
 	@Override
 	protected Integer getResultsRestrictionIfApplicable() {
 
@@ -0,0 +1,112 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Creates stand-in values for query method parameters so that a query can be
+ * created - and explained - without actual arguments. The values only have to
+ * be of the right type as they never reach DynamoDB.
+ *
+ * @author Sebastian Just
+ */
+final class PlaceholderValues {
+
+	private PlaceholderValues() {
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if no placeholder can be created for one of the parameters
+	 */
+	static Object[] forParameters(Method method) {
+		Object[] values = new Object[method.getParameterCount()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = forType(ResolvableType.forMethodParameter(method, i), true);
+		}
+		return values;
+	}
+
+	private static Object forType(ResolvableType type, boolean populateBean) {
+		Class<?> clazz = ClassUtils.resolvePrimitiveIfNecessary(type.resolve(Object.class));
+
+		if (Pageable.class.isAssignableFrom(clazz)) {
+			return Pageable.unpaged();
+		} else if (Sort.class.isAssignableFrom(clazz)) {
+			return Sort.unsorted();
+		} else if (String.class == clazz) {
+			return "?";
+		} else if (Number.class.isAssignableFrom(clazz)) {
+			@SuppressWarnings("unchecked")
+			Class<? extends Number> numberClass = (Class<? extends Number>) clazz;
+			return NumberUtils.convertNumberToTargetClass(0, numberClass);
+		} else if (Boolean.class == clazz) {
+			return Boolean.FALSE;
+		} else if (Character.class == clazz) {
+			return '?';
+		} else if (Date.class.isAssignableFrom(clazz)) {
+			return new Date(0);
+		} else if (Instant.class == clazz) {
+			return Instant.EPOCH;
+		} else if (clazz.isEnum() && clazz.getEnumConstants().length > 0) {
+			return clazz.getEnumConstants()[0];
+		} else if (clazz.isArray()) {
+			Object array = Array.newInstance(clazz.getComponentType(), 1);
+			Array.set(array, 0, forType(type.getComponentType(), populateBean));
+			return array;
+		} else if (Iterable.class.isAssignableFrom(clazz)) {
+			Object element = forType(type.as(Iterable.class).getGeneric(0), populateBean);
+			return Set.class.isAssignableFrom(clazz)
+					? Collections.singleton(element)
+					: Collections.singletonList(element);
+		} else if (populateBean && ClassUtils.hasConstructor(clazz)) {
+			// e.g. composite ids: their key properties have to be set to be used
+			Object bean = BeanUtils.instantiateClass(clazz);
+			BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(bean);
+			for (PropertyDescriptor descriptor : wrapper.getPropertyDescriptors()) {
+				String name = descriptor.getName();
+				if (wrapper.isWritableProperty(name) && wrapper.isReadableProperty(name)
+						&& wrapper.getPropertyValue(name) == null) {
+					try {
+						wrapper.setPropertyValue(name,
+								forType(ResolvableType.forMethodParameter(descriptor.getWriteMethod(), 0), false));
+					} catch (IllegalArgumentException e) {
+						// Not a simple property - leave it empty
+					}
+				}
+			}
+			return bean;
+		}
+
+		throw new IllegalArgumentException("Can't create a placeholder for " + type);
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan;
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan.Operation;
+import org.socialsignin.spring.data.dynamodb.query.ReadSettings;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * The resolved {@link QueryPlan}s of a repository query method: the plan to
+ * read the results and - for count and {@code Page} methods - the plan to count
+ * them.
+ *
+ * @author Sebastian Just
+ */
+public final class QueryMethodPlan {
+
+	private final Class<?> repositoryInterface;
+	private final String methodName;
+	private final String tableName;
+	private final QueryPlan query;
+	private final QueryPlan count;
+	private final boolean scanEnabled;
+	private final boolean scanCountEnabled;
+	private final ReadSettings readSettings;
+	private final boolean valueDependent;
+	private final String unresolvedReason;
+
+	public QueryMethodPlan(Class<?> repositoryInterface, String methodName, String tableName, @Nullable QueryPlan query,
+			@Nullable QueryPlan count, boolean scanEnabled, boolean scanCountEnabled,
+			@Nullable String unresolvedReason) {
+		this(repositoryInterface, methodName, tableName, query, count, scanEnabled, scanCountEnabled,
+				ReadSettings.DEFAULT, unresolvedReason);
+	}
+
+	public QueryMethodPlan(Class<?> repositoryInterface, String methodName, String tableName, @Nullable QueryPlan query,
+			@Nullable QueryPlan count, boolean scanEnabled, boolean scanCountEnabled, ReadSettings readSettings,
+			@Nullable String unresolvedReason) {
+		this(repositoryInterface, methodName, tableName, query, count, scanEnabled, scanCountEnabled, readSettings,
+				false, unresolvedReason);
+	}
+
+	/**
+	 * @param valueDependent
+	 *            {@code true} if the plans were resolved for stand-in arguments
+	 *            but the actual arguments might be read differently
+	 */
+	public QueryMethodPlan(Class<?> repositoryInterface, String methodName, String tableName, @Nullable QueryPlan query,
+			@Nullable QueryPlan count, boolean scanEnabled, boolean scanCountEnabled, ReadSettings readSettings,
+			boolean valueDependent, @Nullable String unresolvedReason) {
+		Assert.notNull(repositoryInterface, "repositoryInterface must not be null!");
+		Assert.notNull(methodName, "methodName must not be null!");
+		Assert.notNull(readSettings, "readSettings must not be null!");
+		this.repositoryInterface = repositoryInterface;
+		this.methodName = methodName;
+		this.tableName = tableName;
+		this.query = query;
+		this.count = count;
+		this.scanEnabled = scanEnabled;
+		this.scanCountEnabled = scanCountEnabled;
+		this.readSettings = readSettings;
+		this.valueDependent = valueDependent;
+		this.unresolvedReason = unresolvedReason;
+	}
+
+	public Class<?> getRepositoryInterface() {
+		return repositoryInterface;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * @return The plan to read the results - {@code null} for count methods or if
+	 *         the plan could not be resolved
+	 */
+	@Nullable
+	public QueryPlan getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return The plan to count the results - {@code null} if the method doesn't
+	 *         count or if the plan could not be resolved
+	 */
+	@Nullable
+	public QueryPlan getCount() {
+		return count;
+	}
+
+	public boolean isScanEnabled() {
+		return scanEnabled;
+	}
+
+	public boolean isScanCountEnabled() {
+		return scanCountEnabled;
+	}
+
+	/**
+	 * @return How the results are read as tuned by the
+	 *         {@link org.socialsignin.spring.data.dynamodb.repository.ReadOptions}
+	 */
+	public ReadSettings getReadSettings() {
+		return readSettings;
+	}
+
+	/**
+	 * @return {@code true} if the plans only show how stand-in arguments are read
+	 *         - e.g. the number of queries of an {@code In} condition depends on
+	 *         the number of values
+	 */
+	public boolean isValueDependent() {
+		return valueDependent;
+	}
+
+	public boolean isResolved() {
+		return unresolvedReason == null;
+	}
+
+	/**
+	 * @return Why the plan could not be resolved - {@code null} if it was
+	 */
+	@Nullable
+	public String getUnresolvedReason() {
+		return unresolvedReason;
+	}
+
+	/**
+	 * @return {@code true} if reading the results scans the table
+	 */
+	public boolean isScan() {
+		return query != null && query.getOperation() == Operation.SCAN;
+	}
+
+	/**
+	 * @return {@code true} if counting the results scans the table
+	 */
+	public boolean isCountScan() {
+		return count != null && count.getOperation() == Operation.SCAN;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(repositoryInterface.getSimpleName()).append('.').append(methodName)
+				.append(" on ").append(tableName).append(": ");
+		if (!isResolved()) {
+			return sb.append("unresolved (").append(unresolvedReason).append(')').toString();
+		}
+		if (valueDependent) {
+			sb.append("depends on the values, e.g. ");
+		}
+		if (query != null) {
+			sb.append(query);
+			if (isScan() && !scanEnabled) {
+				sb.append(" (scan not enabled)");
+			}
+			if (!readSettings.isDefault()) {
+				sb.append(" with ").append(readSettings);
+			}
+		}
+		if (count != null) {
+			sb.append(query != null ? "; count: " : "count: ").append(count);
+			if (isCountScan() && !scanCountEnabled) {
+				sb.append(" (scan count not enabled)");
+			}
+		}
+		return sb.toString();
+	}
+}
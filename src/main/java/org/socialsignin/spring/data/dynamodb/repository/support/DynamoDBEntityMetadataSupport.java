@@ -26,7 +26,13 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverted;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTypeConverter;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBEntityIndex;
+import org.socialsignin.spring.data.dynamodb.mapping.GeneratedDynamoDBEntityMetadata;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -35,6 +41,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +52,9 @@ import java.util.Optional;
  * @author Sebastian Just
  */
 public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtractingEntityMetadata<T> {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DynamoDBEntityMetadataSupport.class);
+
+	private static final Map<Class<?>, DynamoDBEntityInformation<?, ?>> ENTITY_INFORMATION = new ConcurrentReferenceHashMap<>();
 
 	private final Class<T> domainType;
 	private boolean hasRangeKey;
@@ -54,6 +64,8 @@ public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtr
 
 	private String dynamoDBTableName;
 	private Map<String, String[]> globalSecondaryIndexNames = new HashMap<>();
+	@Nullable
+	private final GeneratedDynamoDBEntityMetadata<T> generated;
 
 	@Override
 	public String getDynamoDBTableName() {
@@ -62,15 +74,47 @@ public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtr
 
 	/**
 	 * Creates a new {@link DynamoDBEntityMetadataSupport} for the given domain
-	 * type.
+	 * type. The build-time generated metadata of the {@link DynamoDBEntityIndex} is
+	 * used if present.
 	 *
 	 * @param domainType
 	 *            must not be {@literal null}.
 	 */
 	public DynamoDBEntityMetadataSupport(final Class<T> domainType) {
+		this(domainType,
+				domainType == null
+						? null
+						: DynamoDBEntityIndex.forClassLoader(domainType.getClassLoader()).getMetadata(domainType));
+	}
+
+	/**
+	 * Creates a new {@link DynamoDBEntityMetadataSupport} for the given domain
+	 * type.
+	 *
+	 * @param domainType
+	 *            must not be {@literal null}.
+	 * @param generated
+	 *            The build-time generated metadata of the domain type or
+	 *            {@literal null} to reflect over the domain type
+	 */
+	public DynamoDBEntityMetadataSupport(final Class<T> domainType,
+			@Nullable GeneratedDynamoDBEntityMetadata<T> generated) {
 
 		Assert.notNull(domainType, "Domain type must not be null!");
 		this.domainType = domainType;
+		this.generated = generated;
+
+		if (generated != null) {
+			this.dynamoDBTableName = generated.getTableName();
+			this.hashKeyPropertyName = generated.getHashKeyPropertyName();
+			this.hasRangeKey = generated.hasRangeKey();
+			this.globalSecondaryIndexNames = new HashMap<>(generated.getGlobalSecondaryIndexNamesByPropertyName());
+			this.globalIndexHashKeyPropertyNames = new ArrayList<>(generated.getGlobalIndexHashKeyPropertyNames());
+			this.globalIndexRangeKeyPropertyNames = new ArrayList<>(generated.getGlobalIndexRangeKeyPropertyNames());
+			Assert.notNull(hashKeyPropertyName,
+					"Unable to find hash key field or getter method on " + domainType + "!");
+			return;
+		}
 
 		DynamoDBTable table = this.domainType.getAnnotation(DynamoDBTable.class);
 		Assert.notNull(table, "Domain type must by annotated with DynamoDBTable!");
@@ -117,6 +161,49 @@ public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtr
 		Assert.notNull(hashKeyPropertyName, "Unable to find hash key field or getter method on " + domainType + "!");
 	}
 
+	/**
+	 * Returns the {@link DynamoDBEntityInformation} of the given domain type. The
+	 * entity information is immutable and therefore memoized per domain type
+	 * instead of reflecting over the type for each repository and query method.
+	 *
+	 * @param domainType
+	 *            must not be {@literal null}.
+	 * @return The (shared) entity information of the domain type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T, ID> DynamoDBEntityInformation<T, ID> getEntityInformation(Class<T> domainType) {
+		Assert.notNull(domainType, "Domain type must not be null!");
+
+		return (DynamoDBEntityInformation<T, ID>) ENTITY_INFORMATION.computeIfAbsent(domainType,
+				type -> new DynamoDBEntityMetadataSupport<>(type).getEntityInformation());
+	}
+
+	/**
+	 * Builds the {@link DynamoDBEntityInformation} of all given domain types in
+	 * parallel so that the repositories created afterwards find it memoized. Types
+	 * that are not valid entities are skipped - they are reported once a repository
+	 * for them is created.
+	 *
+	 * @param domainTypes
+	 *            The domain types to prepare
+	 */
+	public static void prepareEntityInformation(Collection<Class<?>> domainTypes) {
+		domainTypes.parallelStream().forEach(domainType -> {
+			try {
+				getEntityInformation(domainType);
+			} catch (RuntimeException e) {
+				LOGGER.debug("Unable to prepare entity information of {}", domainType, e);
+			}
+		});
+	}
+
+	/**
+	 * Clears the memoized entity information - e.g. after classes got redefined.
+	 */
+	public static void clearCache() {
+		ENTITY_INFORMATION.clear();
+	}
+
 	public DynamoDBEntityInformation<T, ID> getEntityInformation() {
 
 		if (hasRangeKey) {
@@ -222,6 +309,9 @@ public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtr
 
 	@Override
 	public Optional<String> getOverriddenAttributeName(final String propertyName) {
+		if (generated != null) {
+			return generated.getOverriddenAttributeName(propertyName);
+		}
 
 		Method method = findMethod(propertyName);
 		if (method != null) {
@@ -286,6 +376,12 @@ public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtr
 	@SuppressWarnings("deprecation")
 	public <V extends DynamoDBMarshaller<?>> V getMarshallerForProperty(final String propertyName) {
 		// TODO #28
+		if (generated != null) {
+			@SuppressWarnings("unchecked")
+			Class<V> marshallerClazz = (Class<V>) generated.getMarshallerClass(propertyName);
+			return marshallerClazz == null ? null : instantiate(marshallerClazz);
+		}
+
 		DynamoDBMarshalling annotation = null;
 
 		Method method = findMethod(propertyName);
@@ -316,6 +412,11 @@ public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtr
 
 	@Override
 	public DynamoDBTypeConverter<?, ?> getTypeConverterForProperty(final String propertyName) {
+		if (generated != null) {
+			Class<?> converterClazz = generated.getTypeConverterClass(propertyName);
+			return converterClazz == null ? null : (DynamoDBTypeConverter<?, ?>) instantiate(converterClazz);
+		}
+
 		DynamoDBTypeConverted annotation = null;
 
 		Method method = findMethod(propertyName);
@@ -342,6 +443,15 @@ public class DynamoDBEntityMetadataSupport<T, ID> implements DynamoDBHashKeyExtr
 		return null;
 	}
 
+	private static <V> V instantiate(Class<V> clazz) {
+		try {
+			return clazz.getDeclaredConstructor().newInstance();
+		} catch (InstantiationException | IllegalAccessException | NoSuchMethodException
+				| InvocationTargetException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	protected String getPropertyNameForAccessorMethod(Method method) {
 		String methodName = method.getName();
 		String propertyName = null;
@@ -95,13 +95,13 @@ public class DynamoDBRepositoryFactory extends RepositoryFactorySupport {
 
 	public DynamoDBRepositoryFactory(DynamoDBOperations dynamoDBOperations) {
 		this.dynamoDBOperations = dynamoDBOperations;
+		addRepositoryProxyPostProcessor(new ObservingRepositoryProxyPostProcessor(dynamoDBOperations));
 	}
 
 	@Override
 	public <T, ID> DynamoDBEntityInformation<T, ID> getEntityInformation(final Class<T> domainClass) {
 
-		final DynamoDBEntityMetadataSupport<T, ID> metadata = new DynamoDBEntityMetadataSupport<>(domainClass);
-		return metadata.getEntityInformation();
+		return DynamoDBEntityMetadataSupport.getEntityInformation(domainClass);
 	}
 
 	@Override
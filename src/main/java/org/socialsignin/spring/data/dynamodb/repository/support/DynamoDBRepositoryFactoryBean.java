@@ -19,6 +19,7 @@ import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
 import org.socialsignin.spring.data.dynamodb.mapping.DynamoDBMappingContext;
 import org.socialsignin.spring.data.dynamodb.repository.util.DynamoDBMappingContextProcessor;
 import org.socialsignin.spring.data.dynamodb.repository.util.Entity2DynamoDBTableSynchronizer;
+import org.socialsignin.spring.data.dynamodb.repository.util.QueryPlanReporter;
 import org.springframework.beans.factory.annotation.Required;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
@@ -43,6 +44,7 @@ public class DynamoDBRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ex
 	private DynamoDBOperations dynamoDBOperations;
 	private Entity2DynamoDBTableSynchronizer<S, ID> tableSynchronizer;
 	private DynamoDBMappingContextProcessor<S, ID> dynamoDBMappingContextProcessor;
+	private QueryPlanReporter queryPlanReporter;
 
 	public DynamoDBRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
 		super(repositoryInterface);
@@ -56,6 +58,9 @@ public class DynamoDBRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ex
 		DynamoDBRepositoryFactory dynamoDBRepositoryFactory = new DynamoDBRepositoryFactory(dynamoDBOperations);
 		dynamoDBRepositoryFactory.addRepositoryProxyPostProcessor(tableSynchronizer);
 		dynamoDBRepositoryFactory.addRepositoryProxyPostProcessor(dynamoDBMappingContextProcessor);
+		if (queryPlanReporter != null) {
+			dynamoDBRepositoryFactory.addQueryCreationListener(queryPlanReporter);
+		}
 		return dynamoDBRepositoryFactory;
 	}
 
@@ -70,6 +75,10 @@ public class DynamoDBRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ex
 		this.tableSynchronizer = tableSynchronizer;
 	}
 
+	public void setQueryPlanReporter(QueryPlanReporter queryPlanReporter) {
+		this.queryPlanReporter = queryPlanReporter;
+	}
+
 	@Required
 	public void setDynamoDBOperations(DynamoDBOperations dynamoDBOperations) {
 		this.dynamoDBOperations = dynamoDBOperations;
@@ -0,0 +1,72 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.support;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperationListener;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Observes the invocations of the CRUD methods implemented by
+ * {@link SimpleDynamoDBCrudRepository} the same way query methods are observed
+ * - so that e.g. {@code findById} shows up as repository method including the
+ * operations it performs.
+ *
+ * @author Sebastian Just
+ */
+class ObservingRepositoryProxyPostProcessor implements RepositoryProxyPostProcessor {
+
+	private final DynamoDBOperations dynamoDBOperations;
+
+	ObservingRepositoryProxyPostProcessor(DynamoDBOperations dynamoDBOperations) {
+		this.dynamoDBOperations = dynamoDBOperations;
+	}
+
+	@Override
+	public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+		factory.addAdvice(new ObservingMethodInterceptor(dynamoDBOperations, repositoryInformation));
+	}
+
+	static class ObservingMethodInterceptor implements MethodInterceptor {
+		private final DynamoDBOperations dynamoDBOperations;
+		private final RepositoryInformation repositoryInformation;
+
+		ObservingMethodInterceptor(DynamoDBOperations dynamoDBOperations, RepositoryInformation repositoryInformation) {
+			this.dynamoDBOperations = dynamoDBOperations;
+			this.repositoryInformation = repositoryInformation;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			DynamoDBOperationListener listener = dynamoDBOperations.getOperationListener();
+			Method method = invocation.getMethod();
+			// Query methods are observed when executed
+			if (listener == DynamoDBOperationListener.NONE || method.getDeclaringClass() == Object.class
+					|| !repositoryInformation.isBaseClassMethod(method)) {
+				return invocation.proceed();
+			}
+			return RepositoryMethodContext.observeInvocation(listener, repositoryInformation.getRepositoryInterface(),
+					method.getName(), invocation.getArguments(), invocation::proceed);
+		}
+	}
+}
@@ -15,9 +15,13 @@
  */
 package org.socialsignin.spring.data.dynamodb.repository.support;
 
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
 import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.query.MergedResultList;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
 import org.socialsignin.spring.data.dynamodb.repository.DynamoDBPagingAndSortingRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -26,6 +30,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -35,6 +40,8 @@ import java.util.List;
  * interface.
  * 
  * Due to DynamoDB limitations, sorting is not supported for find-all operations
+ * - unless sorted scans are enabled, see {@link DynamoDBOperations#getScanSorter()}.
+ * The items are sorted on the client side then.
  * 
  * Due to DynamoDB limitations, paging for find-all queries is not possible
  * using an integer page number For paged requests, attempt to approximate
@@ -65,12 +72,33 @@ public class SimpleDynamoDBPagingAndSortingRepository<T, ID> extends SimpleDynam
 
 	@Override
 	public Iterable<T> findAll(Sort sort) {
-		return throwUnsupportedSortOperationException();
+		ScanSorter scanSorter = dynamoDBOperations.getScanSorter();
+		if (scanSorter == null) {
+			return throwUnsupportedSortOperationException();
+		}
+		if (sort.isUnsorted()) {
+			return findAll();
+		}
+
+		assertScanEnabled(enableScanPermissions.isFindAllUnpaginatedScanEnabled(), "findAll");
+		Iterator<T> scanned = dynamoDBOperations
+				.scan(domainType, new DynamoDBScanExpression(), ScanSorter.SCAN_SETTINGS).iterator();
+		DynamoDBMapperTableModel<T> tableModel = dynamoDBOperations.getTableModel(domainType);
+		Iterator<T> sorted = scanSorter.sort(scanned, order(tableModel, sort), Long.MAX_VALUE, tableModel::convert,
+				tableModel::unconvert);
+		PaginationLoadingStrategy paginationLoadingStrategy = dynamoDBOperations.getPaginationLoadingStrategy();
+		return new MergedResultList<>(sorted, paginationLoadingStrategy == null
+				? PaginationLoadingStrategy.LAZY_LOADING
+				: paginationLoadingStrategy);
 	}
 
 	@Override
 	public Page<T> findAll(Pageable pageable) {
 
+		ScanSorter scanSorter = dynamoDBOperations.getScanSorter();
+		if (scanSorter != null && pageable.getSort().isSorted()) {
+			return findAllSorted(pageable, scanSorter);
+		}
 		ensureNoSort(pageable);
 
 		DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
@@ -97,6 +125,47 @@ public class SimpleDynamoDBPagingAndSortingRepository<T, ID> extends SimpleDynam
 
 	}
 
+	/**
+	 * Keeps only the items up to the end of the requested page while scanning
+	 * all of them - which also provides the total count without a second scan.
+	 */
+	private Page<T> findAllSorted(Pageable pageable, ScanSorter scanSorter) {
+		assertScanEnabled(enableScanPermissions.isFindAllPaginatedScanEnabled(), "findAll(Pageable pageable)");
+
+		Iterator<T> scanned = dynamoDBOperations
+				.scan(domainType, new DynamoDBScanExpression(), ScanSorter.SCAN_SETTINGS).iterator();
+		long[] totalCount = new long[1];
+		Iterator<T> counted = new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return scanned.hasNext();
+			}
+
+			@Override
+			public T next() {
+				totalCount[0]++;
+				return scanned.next();
+			}
+		};
+
+		DynamoDBMapperTableModel<T> tableModel = dynamoDBOperations.getTableModel(domainType);
+		long pageEnd = pageable.getOffset() + pageable.getPageSize();
+		List<T> results;
+		// The items after the page are not read
+		try (ScanSorter.Sorted<T> sorted = scanSorter.sort(counted, order(tableModel, pageable.getSort()), pageEnd,
+				tableModel::convert, tableModel::unconvert)) {
+			scanThroughResults(sorted, pageable.getOffset());
+			results = readPageOfResults(sorted, pageable.getPageSize());
+		}
+
+		return new PageImpl<>(results, pageable, totalCount[0]);
+	}
+
+	private Comparator<T> order(DynamoDBMapperTableModel<T> tableModel, Sort sort) {
+		return ScanSorter.order(sort, tableModel,
+				propertyName -> entityInformation.getOverriddenAttributeName(propertyName).orElse(propertyName));
+	}
+
 	private long scanThroughResults(Iterator<T> paginatedScanListIterator, long resultsToScan) {
 		long processed = 0;
 		while (paginatedScanListIterator.hasNext() && processed < resultsToScan) {
@@ -18,6 +18,21 @@ package org.socialsignin.spring.data.dynamodb.repository.util;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -30,16 +45,19 @@ import org.springframework.context.event.ApplicationContextEvent;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.ContextStoppedEvent;
 import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+import org.springframework.util.Assert;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
 import com.amazonaws.services.dynamodbv2.model.Projection;
 import com.amazonaws.services.dynamodbv2.model.ProjectionType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TableStatus;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
 import com.amazonaws.services.dynamodbv2.util.TableUtils.TableNeverTransitionedToStateException;
 
@@ -47,8 +65,11 @@ import com.amazonaws.services.dynamodbv2.util.TableUtils.TableNeverTransitionedT
  * This is the base class for all classes performing the validation or
  * auto-creation of tables based on the entity classes.
  * 
- * //TODO: It would be nice if the checks would run in parallel via a
- * TaskScheduler (if available)
+ * The tables are synchronized concurrently on a pool bounded by
+ * {@code spring.data.dynamodb.entity2ddl.parallelism}. Created tables are not
+ * awaited one by one but by a single polling loop over all pending tables once
+ * all DDL requests got issued. A failure of one table does not stop the others
+ * - all failures are reported together after every table got processed.
  * 
  * @see Entity2DDL
  */
@@ -62,6 +83,9 @@ public class Entity2DynamoDBTableSynchronizer<T, ID> extends EntityInformationPr
 	private static final String CONFIGURATION_KEY_entity2ddl_gsiProjectionType = "${spring.data.dynamodb.entity2ddl.gsiProjectionType:ALL}";
 	private static final String CONFIGURATION_KEY_entity2ddl_readCapacity = "${spring.data.dynamodb.entity2ddl.readCapacity:10}";
 	private static final String CONFIGURATION_KEY_entity2ddl_writeCapacity = "${spring.data.dynamodb.entity2ddl.writeCapacity:1}";
+	private static final String CONFIGURATION_KEY_entity2ddl_parallelism = "${spring.data.dynamodb.entity2ddl.parallelism:4}";
+	private static final String CONFIGURATION_KEY_entity2ddl_pollIntervalMillis = "${spring.data.dynamodb.entity2ddl.pollIntervalMillis:1000}";
+	private static final String CONFIGURATION_KEY_entity2ddl_timeoutMillis = "${spring.data.dynamodb.entity2ddl.timeoutMillis:600000}";
 
 	private final AmazonDynamoDB amazonDynamoDB;
 	private final DynamoDBMapper mapper;
@@ -69,25 +93,53 @@ public class Entity2DynamoDBTableSynchronizer<T, ID> extends EntityInformationPr
 	private final Entity2DDL mode;
 	private final ProjectionType gsiProjectionType;
 	private final ProvisionedThroughput pt;
+	private final int parallelism;
+	private final long pollIntervalMillis;
+	private final long timeoutMillis;
+	private final LongSupplier clock;
 
 	private final Collection<DynamoDBEntityInformation<T, ID>> registeredEntities = new ArrayList<>();
+	/** Tables created during the current event that still have to become active */
+	private final Set<String> pendingTables = Collections.synchronizedSet(new LinkedHashSet<>());
 
 	public Entity2DynamoDBTableSynchronizer(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper mapper, Entity2DDL mode) {
 		this(amazonDynamoDB, mapper, mode.getConfigurationValue(), ProjectionType.ALL.name(), 10L, 10L);
 	}
 
+	public Entity2DynamoDBTableSynchronizer(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper mapper, String mode,
+			String gsiProjectionType, long readCapacity, long writeCapacity) {
+		this(amazonDynamoDB, mapper, mode, gsiProjectionType, readCapacity, writeCapacity, 4, 1000L,
+				TimeUnit.MINUTES.toMillis(10));
+	}
+
 	@Autowired
 	public Entity2DynamoDBTableSynchronizer(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper mapper,
 			@Value(CONFIGURATION_KEY_entity2ddl_auto) String mode,
 			@Value(CONFIGURATION_KEY_entity2ddl_gsiProjectionType) String gsiProjectionType,
 			@Value(CONFIGURATION_KEY_entity2ddl_readCapacity) long readCapacity,
-			@Value(CONFIGURATION_KEY_entity2ddl_writeCapacity) long writeCapacity) {
+			@Value(CONFIGURATION_KEY_entity2ddl_writeCapacity) long writeCapacity,
+			@Value(CONFIGURATION_KEY_entity2ddl_parallelism) int parallelism,
+			@Value(CONFIGURATION_KEY_entity2ddl_pollIntervalMillis) long pollIntervalMillis,
+			@Value(CONFIGURATION_KEY_entity2ddl_timeoutMillis) long timeoutMillis) {
+		this(amazonDynamoDB, mapper, mode, gsiProjectionType, readCapacity, writeCapacity, parallelism,
+				pollIntervalMillis, timeoutMillis, System::currentTimeMillis);
+	}
+
+	Entity2DynamoDBTableSynchronizer(AmazonDynamoDB amazonDynamoDB, DynamoDBMapper mapper, String mode,
+			String gsiProjectionType, long readCapacity, long writeCapacity, int parallelism, long pollIntervalMillis,
+			long timeoutMillis, LongSupplier clock) {
+		Assert.isTrue(parallelism > 0, "parallelism must be positive!");
+		Assert.isTrue(pollIntervalMillis >= 0, "pollIntervalMillis must not be negative!");
 		this.amazonDynamoDB = amazonDynamoDB;
 		this.mapper = mapper;
 
 		this.mode = Entity2DDL.fromValue(mode);
 		this.pt = new ProvisionedThroughput(readCapacity, writeCapacity);
 		this.gsiProjectionType = ProjectionType.fromValue(gsiProjectionType);
+		this.parallelism = parallelism;
+		this.pollIntervalMillis = pollIntervalMillis;
+		this.timeoutMillis = timeoutMillis;
+		this.clock = clock;
 	}
 
 	@Override
@@ -101,15 +153,102 @@ public class Entity2DynamoDBTableSynchronizer<T, ID> extends EntityInformationPr
 				registeredEntities.stream().map(e -> e.getDynamoDBTableName()).collect(Collectors.joining(", ")),
 				event.getClass().getSimpleName());
 
-		for (DynamoDBEntityInformation<T, ID> entityInformation : registeredEntities) {
+		pendingTables.clear();
+		Map<String, Exception> failures = Collections.synchronizedMap(new LinkedHashMap<>());
 
+		int threads = Math.min(parallelism, registeredEntities.size());
+		if (threads > 0) {
+			ExecutorService executor = Executors.newFixedThreadPool(threads, new Entity2DDLThreadFactory());
 			try {
-				synchronize(entityInformation, event);
-			} catch (TableNeverTransitionedToStateException | InterruptedException e) {
-				throw new RuntimeException("Could not perform Entity2DDL operation " + mode + " on "
-						+ entityInformation.getDynamoDBTableName(), e);
+				List<Future<?>> tasks = new ArrayList<>();
+				for (DynamoDBEntityInformation<T, ID> entityInformation : registeredEntities) {
+					tasks.add(executor.submit(() -> {
+						try {
+							synchronize(entityInformation, event);
+						} catch (Exception e) {
+							failures.put(entityInformation.getDynamoDBTableName(), e);
+						}
+					}));
+				}
+				for (Future<?> task : tasks) {
+					task.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while performing Entity2DDL operation " + mode, e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Unexpected failure while performing Entity2DDL operation " + mode,
+						e.getCause());
+			} finally {
+				executor.shutdownNow();
 			}
 		}
+
+		try {
+			awaitActive(failures);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failures.put(String.join(", ", pendingTables), e);
+		}
+
+		if (!failures.isEmpty()) {
+			throw aggregate(failures);
+		}
+	}
+
+	/**
+	 * Polls all tables created by the current event in a single loop until all of
+	 * them are active - instead of waiting for each table one after the other.
+	 */
+	private void awaitActive(Map<String, Exception> failures) throws InterruptedException {
+		long deadline = clock.getAsLong() + timeoutMillis;
+		while (!pendingTables.isEmpty()) {
+			for (Iterator<String> tables = pendingTables.iterator(); tables.hasNext();) {
+				String tableName = tables.next();
+				try {
+					TableDescription table = amazonDynamoDB
+							.describeTable(new DescribeTableRequest().withTableName(tableName)).getTable();
+					if (table != null && TableStatus.ACTIVE.toString().equals(table.getTableStatus())) {
+						LOGGER.debug("Table {} is active", tableName);
+						tables.remove();
+					}
+				} catch (RuntimeException e) {
+					failures.put(tableName, e);
+					tables.remove();
+				}
+			}
+			if (pendingTables.isEmpty()) {
+				break;
+			}
+			if (clock.getAsLong() >= deadline) {
+				for (String tableName : pendingTables) {
+					failures.put(tableName, new TableNeverTransitionedToStateException(tableName, TableStatus.ACTIVE));
+				}
+				pendingTables.clear();
+				break;
+			}
+			LOGGER.trace("Waiting for tables {} to become active", pendingTables);
+			Thread.sleep(pollIntervalMillis);
+		}
+	}
+
+	private RuntimeException aggregate(Map<String, Exception> failures) {
+		List<RuntimeException> exceptions = new ArrayList<>();
+		failures.forEach((tableName, e) -> {
+			if (e instanceof RuntimeException && !(e instanceof TableNeverTransitionedToStateException)) {
+				exceptions.add((RuntimeException) e);
+			} else {
+				exceptions.add(
+						new RuntimeException("Could not perform Entity2DDL operation " + mode + " on " + tableName, e));
+			}
+		});
+
+		RuntimeException first = exceptions.get(0);
+		if (exceptions.size() > 1) {
+			LOGGER.error("Entity2DDL operation {} failed for tables {}", mode, failures.keySet());
+			exceptions.stream().filter(e -> e != first).forEach(first::addSuppressed);
+		}
+		return first;
 	}
 
 	protected void synchronize(DynamoDBEntityInformation<T, ID> entityInformation, ApplicationContextEvent event)
@@ -154,8 +293,7 @@ public class Entity2DynamoDBTableSynchronizer<T, ID> extends EntityInformationPr
 
 	}
 
-	private boolean performCreate(DynamoDBEntityInformation<T, ID> entityInformation)
-			throws TableNeverTransitionedToStateException, InterruptedException {
+	private boolean performCreate(DynamoDBEntityInformation<T, ID> entityInformation) {
 		Class<T> domainType = entityInformation.getJavaType();
 
 		CreateTableRequest ctr = mapper.generateCreateTableRequest(domainType);
@@ -171,7 +309,8 @@ public class Entity2DynamoDBTableSynchronizer<T, ID> extends EntityInformationPr
 
 		boolean result = TableUtils.createTableIfNotExists(amazonDynamoDB, ctr);
 		if (result) {
-			TableUtils.waitUntilActive(amazonDynamoDB, ctr.getTableName());
+			// Awaited together with all other created tables
+			pendingTables.add(ctr.getTableName());
 			LOGGER.debug("Created table {} for entity {}", ctr.getTableName(), domainType);
 		}
 		return result;
@@ -226,4 +365,14 @@ public class Entity2DynamoDBTableSynchronizer<T, ID> extends EntityInformationPr
 		return result;
 	}
 
+	private static final class Entity2DDLThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "entity2ddl-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.util;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.socialsignin.spring.data.dynamodb.repository.query.AbstractDynamoDBQuery;
+import org.socialsignin.spring.data.dynamodb.repository.query.QueryMethodPlan;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.repository.core.support.QueryCreationListener;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explains all query methods while the repositories are created and - if
+ * {@code spring.data.dynamodb.queryPlan.log} is enabled - logs a summary per
+ * repository once the context is refreshed. In strict mode the
+ * startup fails if a method scans a table holding more than the configured
+ * number of items.
+ *
+ * @author Sebastian Just
+ */
+public class QueryPlanReporter
+		implements
+			QueryCreationListener<RepositoryQuery>,
+			ApplicationListener<ContextRefreshedEvent> {
+	private static final Logger LOGGER = LoggerFactory.getLogger(QueryPlanReporter.class);
+
+	private static final String CONFIGURATION_KEY_queryPlan_log = "${spring.data.dynamodb.queryPlan.log:false}";
+	private static final String CONFIGURATION_KEY_queryPlan_strict = "${spring.data.dynamodb.queryPlan.strict:false}";
+	private static final String CONFIGURATION_KEY_queryPlan_maxScanTableItems = "${spring.data.dynamodb.queryPlan.maxScanTableItems:1000}";
+
+	private final AmazonDynamoDB amazonDynamoDB;
+	private final boolean log;
+	private final boolean strict;
+	private final long maxScanTableItems;
+
+	private final Map<Class<?>, List<QueryMethodPlan>> plansByRepository = new LinkedHashMap<>();
+
+	@Autowired
+	public QueryPlanReporter(AmazonDynamoDB amazonDynamoDB, @Value(CONFIGURATION_KEY_queryPlan_log) boolean log,
+			@Value(CONFIGURATION_KEY_queryPlan_strict) boolean strict,
+			@Value(CONFIGURATION_KEY_queryPlan_maxScanTableItems) long maxScanTableItems) {
+		this.amazonDynamoDB = amazonDynamoDB;
+		this.log = log;
+		this.strict = strict;
+		this.maxScanTableItems = maxScanTableItems;
+	}
+
+	@Override
+	public void onCreation(RepositoryQuery query) {
+		if (!(log || strict) || !(query instanceof AbstractDynamoDBQuery)) {
+			return;
+		}
+		QueryMethodPlan plan = ((AbstractDynamoDBQuery<?, ?>) query).explain();
+		synchronized (plansByRepository) {
+			plansByRepository.computeIfAbsent(plan.getRepositoryInterface(), r -> new ArrayList<>()).add(plan);
+		}
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		Map<Class<?>, List<QueryMethodPlan>> plans;
+		synchronized (plansByRepository) {
+			plans = new LinkedHashMap<>(plansByRepository);
+			// Report each repository only once - even if there are child contexts
+			plansByRepository.clear();
+		}
+
+		if (log) {
+			plans.forEach(this::logSummary);
+		}
+		if (strict) {
+			List<String> violations = new ArrayList<>();
+			Map<String, Long> itemCounts = new HashMap<>();
+			plans.values().stream().flatMap(List::stream).filter(p -> p.isScan() || p.isCountScan()).forEach(p -> {
+				Long itemCount = itemCounts.computeIfAbsent(p.getTableName(), this::getItemCount);
+				if (itemCount != null && itemCount > maxScanTableItems) {
+					violations.add(p + " (" + itemCount + " items)");
+				}
+			});
+			if (!violations.isEmpty()) {
+				throw new IllegalStateException(
+						"Query methods scanning tables with more than " + maxScanTableItems + " items: " + violations);
+			}
+		}
+	}
+
+	private void logSummary(Class<?> repositoryInterface, List<QueryMethodPlan> plans) {
+		long scans = plans.stream().filter(p -> p.isScan() || p.isCountScan()).count();
+		StringBuilder summary = new StringBuilder();
+		for (QueryMethodPlan plan : plans) {
+			summary.append(System.lineSeparator()).append("  ").append(plan);
+		}
+		LOGGER.info("Query plans of {} ({} methods, {} scanning):{}", repositoryInterface.getName(), plans.size(),
+				scans, summary);
+	}
+
+	private Long getItemCount(String tableName) {
+		try {
+			TableDescription table = amazonDynamoDB.describeTable(tableName).getTable();
+			return table.getItemCount();
+		} catch (RuntimeException e) {
+			LOGGER.warn("Can't determine the size of table {} to check scans: {}", tableName, e.toString());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchLoadDispatcherTest {
+	@Mock
+	private AmazonDynamoDB amazonDynamoDB;
+
+	private DynamoDBMapper dynamoDBMapper;
+	private BatchLoadDispatcher underTest;
+
+	@Before
+	public void setUp() {
+		dynamoDBMapper = new DynamoDBMapper(amazonDynamoDB);
+	}
+
+	@After
+	public void tearDown() {
+		if (underTest != null) {
+			underTest.shutdown();
+		}
+	}
+
+	@Test
+	public void testLoadsWithinWindowAreCoalesced() throws Exception {
+		underTest = new BatchLoadDispatcher(dynamoDBMapper, TimeUnit.MILLISECONDS.toNanos(50),
+				BatchLoadDispatcher.MAX_BATCH_SIZE);
+		when(amazonDynamoDB.batchGetItem(any(BatchGetItemRequest.class)))
+				.thenReturn(result(item("michael", "jazz"), item("sebastian", "rock")));
+
+		CompletableFuture<Playlist> first = underTest.load(Playlist.class, "michael", "jazz");
+		CompletableFuture<Playlist> second = underTest.load(Playlist.class, "sebastian", "rock");
+		CompletableFuture<Playlist> missing = underTest.load(Playlist.class, "nobody", "pop");
+
+		assertEquals("jazz", first.get(5, TimeUnit.SECONDS).getPlaylistName());
+		assertEquals("rock", second.get(5, TimeUnit.SECONDS).getPlaylistName());
+		assertNull(missing.get(5, TimeUnit.SECONDS));
+
+		ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+		verify(amazonDynamoDB, times(1)).batchGetItem(captor.capture());
+		assertEquals(3, captor.getValue().getRequestItems().get("playlist").getKeys().size());
+	}
+
+	@Test
+	public void testFullBatchIsDispatchedImmediately() throws Exception {
+		underTest = new BatchLoadDispatcher(dynamoDBMapper, TimeUnit.HOURS.toNanos(1), 2);
+		when(amazonDynamoDB.batchGetItem(any(BatchGetItemRequest.class)))
+				.thenReturn(result(item("michael", "jazz"), item("sebastian", "rock")));
+
+		CompletableFuture<Playlist> first = underTest.load(Playlist.class, "michael", "jazz");
+		CompletableFuture<Playlist> second = underTest.load(Playlist.class, "sebastian", "rock");
+
+		assertTrue(first.isDone());
+		assertTrue(second.isDone());
+		assertEquals("jazz", first.get().getPlaylistName());
+	}
+
+	@Test
+	public void testWindowOfFullBatchDoesNotCutShortTheNextBatch() throws Exception {
+		long window = TimeUnit.SECONDS.toNanos(1);
+		underTest = new BatchLoadDispatcher(dynamoDBMapper, window, 2);
+		when(amazonDynamoDB.batchGetItem(any(BatchGetItemRequest.class)))
+				.thenReturn(result(item("michael", "jazz"), item("sebastian", "rock")));
+
+		long start = System.nanoTime();
+		underTest.load(Playlist.class, "michael", "jazz");
+		underTest.load(Playlist.class, "sebastian", "rock");
+		TimeUnit.MILLISECONDS.sleep(500);
+		CompletableFuture<Playlist> next = underTest.load(Playlist.class, "michael", "jazz");
+
+		// The window of the full batch has elapsed but not the one of the next batch
+		TimeUnit.NANOSECONDS.sleep(start + window + TimeUnit.MILLISECONDS.toNanos(250) - System.nanoTime());
+		assertFalse(next.isDone());
+		assertEquals("jazz", next.get(5, TimeUnit.SECONDS).getPlaylistName());
+	}
+
+	@Test
+	public void testDuplicateKeysAreRequestedOnce() throws Exception {
+		underTest = new BatchLoadDispatcher(dynamoDBMapper, TimeUnit.HOURS.toNanos(1), 3);
+		when(amazonDynamoDB.batchGetItem(any(BatchGetItemRequest.class)))
+				.thenReturn(result(item("michael", "jazz"), item("sebastian", "rock")));
+
+		CompletableFuture<Playlist> first = underTest.load(Playlist.class, "michael", "jazz");
+		CompletableFuture<Playlist> duplicate = underTest.load(Playlist.class, "michael", "jazz");
+		underTest.load(Playlist.class, "sebastian", "rock");
+
+		assertEquals("jazz", first.get().getPlaylistName());
+		assertEquals("jazz", duplicate.get().getPlaylistName());
+
+		ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+		verify(amazonDynamoDB).batchGetItem(captor.capture());
+		assertEquals(2, captor.getValue().getRequestItems().get("playlist").getKeys().size());
+	}
+
+	@Test
+	public void testFailureIsPropagatedToAllCallers() throws Exception {
+		underTest = new BatchLoadDispatcher(dynamoDBMapper, TimeUnit.HOURS.toNanos(1), 2);
+		ProvisionedThroughputExceededException cause = new ProvisionedThroughputExceededException("throttled");
+		when(amazonDynamoDB.batchGetItem(any(BatchGetItemRequest.class))).thenThrow(cause);
+
+		CompletableFuture<Playlist> first = underTest.load(Playlist.class, "michael", "jazz");
+		CompletableFuture<Playlist> second = underTest.load(Playlist.class, "sebastian", "rock");
+
+		for (CompletableFuture<Playlist> future : new CompletableFuture[]{first, second}) {
+			try {
+				future.join();
+				fail("Exception expected");
+			} catch (CompletionException e) {
+				assertEquals(cause, e.getCause());
+			}
+		}
+	}
+
+	@Test
+	public void testShutdownFlushesPendingLoads() throws Exception {
+		underTest = new BatchLoadDispatcher(dynamoDBMapper, TimeUnit.HOURS.toNanos(1), 10);
+		when(amazonDynamoDB.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(result(item("michael", "jazz")));
+
+		CompletableFuture<Playlist> pending = underTest.load(Playlist.class, "michael", "jazz");
+		underTest.shutdown();
+
+		assertTrue(pending.isDone());
+		assertEquals("jazz", pending.get().getPlaylistName());
+	}
+
+	@Test
+	public void testLoadAfterShutdownIsDispatchedImmediately() throws Exception {
+		underTest = new BatchLoadDispatcher(dynamoDBMapper, TimeUnit.HOURS.toNanos(1), 10);
+		when(amazonDynamoDB.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(result(item("michael", "jazz")),
+				result(item("sebastian", "rock")));
+		underTest.shutdown();
+
+		CompletableFuture<Playlist> first = underTest.load(Playlist.class, "michael", "jazz");
+		CompletableFuture<Playlist> second = underTest.load(Playlist.class, "sebastian", "rock");
+
+		assertTrue(first.isDone());
+		assertTrue(second.isDone());
+		assertEquals("jazz", first.get().getPlaylistName());
+		assertEquals("rock", second.get().getPlaylistName());
+		verify(amazonDynamoDB, times(2)).batchGetItem(any(BatchGetItemRequest.class));
+	}
+
+	private static Map<String, AttributeValue> item(String userName, String playlistName) {
+		Map<String, AttributeValue> item = new HashMap<>();
+		item.put("UserName", new AttributeValue(userName));
+		item.put("PlaylistName", new AttributeValue(playlistName));
+		return item;
+	}
+
+	@SafeVarargs
+	private static BatchGetItemResult result(Map<String, AttributeValue>... items) {
+		List<Map<String, AttributeValue>> playlists = new ArrayList<>();
+		for (Map<String, AttributeValue> item : items) {
+			playlists.add(item);
+		}
+		Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+		responses.put("playlist", playlists);
+		return new BatchGetItemResult().withResponses(responses);
+	}
+}
@@ -19,29 +19,69 @@ import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
 import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AbstractDynamoDBEventListener;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AfterBatchSaveEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AfterLoadEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AfterSaveEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AsyncEventDelivery;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AsyncEventDelivery.OverflowPolicy;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AfterScanEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.BeforeBatchSaveEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.BeforeSaveEvent;
+import org.socialsignin.spring.data.dynamodb.mapping.event.DynamoDBMappingEvent;
+import org.socialsignin.spring.data.dynamodb.query.ReadSettings;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.StaticApplicationContext;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DynamoDBTemplateTest {
@@ -163,4 +203,387 @@ public class DynamoDBTemplateTest {
 		Assert.assertNull(playlist);
 	}
 
+	@Test
+	public void testLoadByHashKeyAndRangeKey_WithBatchLoadWindow() {
+		Playlist playlist = new Playlist();
+		playlist.setUserName("someHashKey");
+		playlist.setPlaylistName("someRangeKey");
+		Map<String, List<Object>> batchResult = new HashMap<>();
+		batchResult.put("playlist", Collections.singletonList(playlist));
+
+		when(dynamoDBMapper.getTableModel(Playlist.class))
+				.thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(Playlist.class));
+		when(dynamoDBMapper.batchLoad(anyMap())).thenReturn(batchResult);
+
+		dynamoDBTemplate.setBatchLoadWindow(TimeUnit.HOURS.toMicros(1), 1);
+		try {
+			Playlist actual = dynamoDBTemplate.load(Playlist.class, "someHashKey", "someRangeKey");
+
+			assertEquals(playlist, actual);
+			verify(dynamoDBMapper, never()).load(Playlist.class, "someHashKey", "someRangeKey");
+			verify(applicationContext).publishEvent(any(AfterLoadEvent.class));
+		} finally {
+			dynamoDBTemplate.destroy();
+		}
+	}
+
+	@Test
+	public void testLoadByHashKey_WithBatchLoadWindowPropagatesException() {
+		when(dynamoDBMapper.getTableModel(User.class))
+				.thenReturn(new DynamoDBMapper(dynamoDB).getTableModel(User.class));
+		when(dynamoDBMapper.batchLoad(anyMap())).thenThrow(new IllegalStateException("test"));
+
+		dynamoDBTemplate.setBatchLoadWindow(TimeUnit.HOURS.toMicros(1), 1);
+		try {
+			expectedException.expect(IllegalStateException.class);
+			dynamoDBTemplate.load(User.class, "someHashKey");
+		} finally {
+			dynamoDBTemplate.destroy();
+		}
+	}
+
+	@Test
+	public void testGetTableDescription_CachedForTtl() {
+		assertNull(dynamoDBTemplate.getTableDescription(User.class));
+		verify(dynamoDB, never()).describeTable(anyString());
+
+		TableDescription description = new TableDescription().withItemCount(42L);
+		when(dynamoDB.describeTable(anyString())).thenReturn(new DescribeTableResult().withTable(description));
+		dynamoDBTemplate.setIndexStatisticsTtl(60);
+
+		assertEquals(description, dynamoDBTemplate.getTableDescription(User.class));
+		assertEquals(description, dynamoDBTemplate.getTableDescription(User.class));
+		verify(dynamoDB, times(1)).describeTable(anyString());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testScan_PublishesEventPerPage() {
+		User first = new User();
+		User second = new User();
+		ScanResultPage<User> firstPage = new ScanResultPage<>();
+		firstPage.setResults(Collections.singletonList(first));
+		firstPage.setLastEvaluatedKey(Collections.singletonMap("Id", new AttributeValue("first")));
+		ScanResultPage<User> secondPage = new ScanResultPage<>();
+		secondPage.setResults(Collections.singletonList(second));
+		DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
+		when(dynamoDBMapper.scanPage(User.class, scanExpression)).thenReturn(firstPage, secondPage);
+		when(dynamoDBMapperConfig.getPaginationLoadingStrategy()).thenReturn(PaginationLoadingStrategy.LAZY_LOADING);
+
+		List<User> actual = dynamoDBTemplate.scan(User.class, scanExpression);
+
+		ArgumentCaptor<AfterScanEvent<User>> captor = ArgumentCaptor.forClass(AfterScanEvent.class);
+		verify(applicationContext, times(1)).publishEvent(captor.capture());
+		assertEquals(Collections.singletonList(first), captor.getValue().getSource());
+
+		assertEquals(2, actual.size());
+		verify(applicationContext, times(2)).publishEvent(captor.capture());
+		assertEquals(Collections.singletonList(second), captor.getValue().getSource());
+	}
+
+	@Test
+	public void testQuery_WithoutApplicationContextUsesMapper() {
+		DynamoDBQueryExpression<User> queryExpression = new DynamoDBQueryExpression<>();
+		dynamoDBTemplate = new DynamoDBTemplate(dynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+
+		dynamoDBTemplate.query(User.class, queryExpression);
+
+		verify(dynamoDBMapper).query(User.class, queryExpression);
+	}
+
+	@Test
+	public void testQuery_WithReadSettingsUsesTunedConfig() {
+		DynamoDBQueryExpression<User> queryExpression = new DynamoDBQueryExpression<>();
+		dynamoDBTemplate = new DynamoDBTemplate(dynamoDB, dynamoDBMapper, DynamoDBMapperConfig.DEFAULT);
+
+		dynamoDBTemplate.query(User.class, queryExpression,
+				new ReadSettings(null, PaginationLoadingStrategy.ITERATION_ONLY, 10, null));
+
+		ArgumentCaptor<DynamoDBMapperConfig> config = ArgumentCaptor.forClass(DynamoDBMapperConfig.class);
+		verify(dynamoDBMapper).query(eq(User.class), eq(queryExpression), config.capture());
+		assertEquals(PaginationLoadingStrategy.ITERATION_ONLY, config.getValue().getPaginationLoadingStrategy());
+		assertEquals(Integer.valueOf(10), queryExpression.getLimit());
+	}
+
+	@Test
+	public void testLoad_WithConsistentReadsBypassesBatchLoadDispatcher() {
+		Playlist playlist = new Playlist();
+		dynamoDBTemplate = new DynamoDBTemplate(dynamoDB, dynamoDBMapper, DynamoDBMapperConfig.DEFAULT);
+		when(dynamoDBMapper.load(eq(Playlist.class), eq("someUserName"), eq("somePlaylistName"),
+				any(DynamoDBMapperConfig.class))).thenReturn(playlist);
+
+		Playlist loaded = dynamoDBTemplate.load(Playlist.class, "someUserName", "somePlaylistName",
+				new ReadSettings(ConsistentReads.CONSISTENT, null, null, null));
+
+		assertEquals(playlist, loaded);
+		ArgumentCaptor<DynamoDBMapperConfig> config = ArgumentCaptor.forClass(DynamoDBMapperConfig.class);
+		verify(dynamoDBMapper).load(eq(Playlist.class), eq("someUserName"), eq("somePlaylistName"), config.capture());
+		assertEquals(ConsistentReads.CONSISTENT, config.getValue().getConsistentReads());
+	}
+
+	@Test
+	public void testBatchSave_PublishesBatchEventPerDomainClass() {
+		User user = new User();
+		Playlist playlist = new Playlist();
+		List<Object> entities = Arrays.asList(user, playlist, new User());
+
+		dynamoDBTemplate.batchSave(entities);
+
+		ArgumentCaptor<DynamoDBMappingEvent<?>> captor = ArgumentCaptor.forClass(DynamoDBMappingEvent.class);
+		verify(applicationContext, times(10)).publishEvent(captor.capture());
+		List<DynamoDBMappingEvent<?>> events = captor.getAllValues();
+		// Per entity for plain listeners - followed by the batch events
+		assertTrue(events.get(0) instanceof BeforeSaveEvent);
+		assertTrue(events.get(0).isPartOfBatch());
+		assertEquals(user, events.get(0).getSource());
+		assertTrue(events.get(3) instanceof BeforeBatchSaveEvent);
+		assertEquals(Arrays.asList(user, entities.get(2)), events.get(3).getSource());
+		assertEquals(Collections.singletonList(playlist), events.get(4).getSource());
+		assertTrue(events.get(5) instanceof AfterSaveEvent);
+		assertTrue(events.get(8) instanceof AfterBatchSaveEvent);
+	}
+
+	@Test
+	public void testBatchSave_KeepsPublishingEntityEventsForPlainListeners() {
+		AfterSaveListener afterSaveListener = new AfterSaveListener();
+		List<User> beforeSaved = new ArrayList<>();
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.addApplicationListener(new AbstractDynamoDBEventListener<User>() {
+			@Override
+			public void onBeforeSave(User source) {
+				beforeSaved.add(source);
+			}
+		});
+		context.addApplicationListener(afterSaveListener);
+		context.refresh();
+		dynamoDBTemplate = new DynamoDBTemplate(dynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+		dynamoDBTemplate.setApplicationContext(context);
+		dynamoDBTemplate.onApplicationEvent(new ContextRefreshedEvent(context));
+		User user = new User();
+		Playlist playlist = new Playlist();
+
+		dynamoDBTemplate.batchSave(Arrays.asList(user, playlist));
+
+		// Once via the batch event only
+		assertEquals(Collections.singletonList(user), beforeSaved);
+		assertEquals(2, afterSaveListener.events.size());
+		assertEquals(user, afterSaveListener.events.get(0).getSource());
+		assertEquals(playlist, afterSaveListener.events.get(1).getSource());
+		assertTrue(afterSaveListener.events.get(0).isPartOfBatch());
+	}
+
+	private static class AfterSaveListener implements ApplicationListener<AfterSaveEvent<?>> {
+		private final List<AfterSaveEvent<?>> events = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvent(AfterSaveEvent<?> event) {
+			events.add(event);
+		}
+	}
+
+	@Lazy
+	static class LazyAfterSaveListener implements ApplicationListener<AfterSaveEvent<?>> {
+		private final List<AfterSaveEvent<?>> events = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvent(AfterSaveEvent<?> event) {
+			events.add(event);
+		}
+	}
+
+	@Test
+	public void testSave_PublishesEventsForLazyListeners() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				LazyAfterSaveListener.class);
+		dynamoDBTemplate = new DynamoDBTemplate(dynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+		dynamoDBTemplate.setApplicationContext(context);
+		dynamoDBTemplate.onApplicationEvent(new ContextRefreshedEvent(context));
+		User user = new User();
+
+		dynamoDBTemplate.save(user);
+
+		List<AfterSaveEvent<?>> events = context.getBean(LazyAfterSaveListener.class).events;
+		assertEquals(1, events.size());
+		assertEquals(user, events.get(0).getSource());
+		context.close();
+	}
+
+	@Test
+	public void testNoEventsWithoutInterestedListeners() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.addApplicationListener(new AbstractDynamoDBEventListener<User>() {
+			@Override
+			public void onBeforeSave(User source) {
+			}
+		});
+		context.refresh();
+		dynamoDBTemplate = new DynamoDBTemplate(dynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+		dynamoDBTemplate.setApplicationContext(context);
+		dynamoDBTemplate.onApplicationEvent(new ContextRefreshedEvent(context));
+		DynamoDBQueryExpression<User> queryExpression = new DynamoDBQueryExpression<>();
+
+		dynamoDBTemplate.query(User.class, queryExpression);
+		dynamoDBTemplate.load(User.class, "someHashKey");
+		dynamoDBTemplate.save(new Playlist());
+
+		verify(dynamoDBMapper).query(User.class, queryExpression);
+	}
+
+	@Test
+	public void testSave_DeliversAfterEventsAsynchronously() {
+		List<Runnable> deliveries = new ArrayList<>();
+		dynamoDBTemplate.setAsyncEventDelivery(
+				new AsyncEventDelivery(applicationContext, deliveries::add, 10, 1, OverflowPolicy.BLOCK));
+		User user = new User();
+
+		dynamoDBTemplate.save(user);
+
+		verify(applicationContext).publishEvent(any(BeforeSaveEvent.class));
+		verify(applicationContext, never()).publishEvent(any(AfterSaveEvent.class));
+
+		deliveries.forEach(Runnable::run);
+		verify(applicationContext).publishEvent(any(AfterSaveEvent.class));
+	}
+
+	@Test
+	public void testBatchSave_DeliversAfterEventsInOrderOfPreviousSave() {
+		List<Runnable> deliveries = new ArrayList<>();
+		dynamoDBTemplate.setAsyncEventDelivery(
+				new AsyncEventDelivery(applicationContext, deliveries::add, 10, 16, OverflowPolicy.BLOCK));
+		User user = new User();
+		user.setId("someId");
+
+		dynamoDBTemplate.save(user);
+		dynamoDBTemplate.batchSave(Collections.singletonList(user));
+
+		// All events about the user share a lane
+		assertEquals(1, deliveries.size());
+		deliveries.get(0).run();
+		ArgumentCaptor<DynamoDBMappingEvent<?>> captor = ArgumentCaptor.forClass(DynamoDBMappingEvent.class);
+		verify(applicationContext, times(6)).publishEvent(captor.capture());
+		List<DynamoDBMappingEvent<?>> events = captor.getAllValues();
+		assertTrue(events.get(3) instanceof AfterSaveEvent);
+		assertFalse(events.get(3).isPartOfBatch());
+		assertTrue(events.get(4) instanceof AfterSaveEvent);
+		assertTrue(events.get(4).isPartOfBatch());
+		assertTrue(events.get(5) instanceof AfterBatchSaveEvent);
+	}
+
+	@Test
+	public void testSave_DeliversAfterEventsOfDifferentUsersInParallel() {
+		List<Runnable> deliveries = new ArrayList<>();
+		dynamoDBTemplate.setAsyncEventDelivery(
+				new AsyncEventDelivery(applicationContext, deliveries::add, 10, 16, OverflowPolicy.BLOCK));
+		User first = new User();
+		first.setId("a");
+		User second = new User();
+		second.setId("b");
+
+		dynamoDBTemplate.save(first);
+		dynamoDBTemplate.save(second);
+
+		assertEquals(2, deliveries.size());
+	}
+
+	@Test
+	public void testScan_NotifiesOperationListenerPerPage() {
+		ScanResultPage<User> firstPage = new ScanResultPage<>();
+		firstPage.setResults(Arrays.asList(new User(), new User()));
+		firstPage.setScannedCount(5);
+		firstPage.setLastEvaluatedKey(Collections.singletonMap("Id", new AttributeValue("first")));
+		ScanResultPage<User> secondPage = new ScanResultPage<>();
+		secondPage.setResults(Collections.singletonList(new User()));
+		secondPage.setScannedCount(1);
+		DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
+		when(dynamoDBMapper.scanPage(User.class, scanExpression)).thenReturn(firstPage, secondPage);
+		when(dynamoDBMapperConfig.getPaginationLoadingStrategy()).thenReturn(PaginationLoadingStrategy.EAGER_LOADING);
+		List<OperationContext> completed = new ArrayList<>();
+		List<Integer> pages = new ArrayList<>();
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(new DynamoDBOperationListener() {
+			@Override
+			public void onOperationComplete(OperationContext operation) {
+				completed.add(operation);
+			}
+
+			@Override
+			public void onPageComplete(OperationContext operation, int items, int scannedItems, long durationNanos) {
+				pages.add(scannedItems);
+			}
+		}));
+
+		List<User> actual = dynamoDBTemplate.scan(User.class, scanExpression);
+
+		assertEquals(3, actual.size());
+		assertEquals(Arrays.asList(5, 1), pages);
+		assertEquals(1, completed.size());
+		OperationContext operation = completed.get(0);
+		assertEquals(OperationContext.Type.SCAN, operation.getType());
+		assertEquals("user", operation.getTableName());
+		assertEquals(2, operation.getPageCount());
+		assertEquals(3, operation.getItemCount());
+		assertEquals(6, operation.getScannedCount());
+		assertNull(OperationContext.current());
+	}
+
+	@Test
+	public void testBatchSave_OperationCountsOnlyWrittenItems() {
+		List<OperationContext> completed = new ArrayList<>();
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(new DynamoDBOperationListener() {
+			@Override
+			public void onOperationComplete(OperationContext operation) {
+				completed.add(operation);
+			}
+		}));
+		List<User> users = Arrays.asList(new User(), new User(), new User());
+		FailedBatch failedBatch = new FailedBatch();
+		failedBatch.setUnprocessedItems(
+				Collections.singletonMap("user", Collections.singletonList(new WriteRequest(new PutRequest()))));
+		when(dynamoDBMapper.batchSave(users)).thenReturn(Collections.singletonList(failedBatch));
+
+		dynamoDBTemplate.batchSave(users);
+
+		assertEquals(1, completed.size());
+		assertEquals(OperationContext.Type.BATCH_SAVE, completed.get(0).getType());
+		assertEquals(2, completed.get(0).getItemCount());
+	}
+
+	@Test
+	public void testSave_OperationListenerSeesFailure() {
+		List<OperationContext> completed = new ArrayList<>();
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(new DynamoDBOperationListener() {
+			@Override
+			public void onOperationComplete(OperationContext operation) {
+				completed.add(operation);
+			}
+		}));
+		User user = new User();
+		IllegalStateException cause = new IllegalStateException("failed");
+		doThrow(cause).when(dynamoDBMapper).save(user);
+
+		try {
+			dynamoDBTemplate.save(user);
+			fail("Exception expected");
+		} catch (IllegalStateException e) {
+			assertEquals(cause, e);
+		}
+
+		assertEquals(1, completed.size());
+		assertEquals(OperationContext.Type.SAVE, completed.get(0).getType());
+		assertEquals(cause, completed.get(0).getError());
+	}
+
+	@Test
+	public void testLoad_SamplesPartitionKey() {
+		HotPartitionKeySampler sampler = new HotPartitionKeySampler(1, 10, 60);
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(sampler));
+
+		dynamoDBTemplate.load(User.class, "hot");
+		dynamoDBTemplate.load(User.class, "hot");
+		dynamoDBTemplate.load(User.class, "cold");
+
+		List<HotPartitionKey> actual = sampler.getTopKeys("user", null, 1);
+		assertEquals(1, actual.size());
+		assertEquals("hot", actual.get(0).getKey());
+		assertEquals(2, actual.get(0).getEstimatedAccesses());
+	}
 }
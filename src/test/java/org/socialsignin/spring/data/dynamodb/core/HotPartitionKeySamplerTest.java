@@ -0,0 +1,94 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import org.junit.Test;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext.Type;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HotPartitionKeySamplerTest {
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	@Test
+	public void testHeavyHitterIsFoundAmongNoise() {
+		HotPartitionKeySampler underTest = new HotPartitionKeySampler(1, 10, 60, nanos::get, 4);
+
+		for (int i = 0; i < 1000; i++) {
+			underTest.sample(operation(), "user", null, () -> Collections.singleton("hot"));
+			String cold = "cold-" + i;
+			underTest.sample(operation(), "user", null, () -> Collections.singleton(cold));
+		}
+
+		List<HotPartitionKey> actual = underTest.getTopKeys("user", null, 1);
+		assertEquals(1, actual.size());
+		HotPartitionKey hotKey = actual.get(0);
+		assertEquals("hot", hotKey.getKey());
+		assertTrue(hotKey.getEstimatedAccesses() >= 1000);
+		assertTrue(hotKey.getShare() >= 0.5);
+		assertTrue(underTest.getTopKeys("user", "idx", 1).isEmpty());
+	}
+
+	@Test
+	public void testThrottlesAreAttributedToTheSampledKeys() {
+		HotPartitionKeySampler underTest = new HotPartitionKeySampler(1, 10, 60, nanos::get, 1);
+		OperationContext throttled = operation();
+		underTest.sample(throttled, "user", "idx", () -> Arrays.asList("a", "b"));
+		underTest.sample(operation(), "user", "idx", () -> Collections.singleton("c"));
+
+		underTest.onRetry(throttled, true);
+		underTest.onRetry(throttled, false);
+
+		List<HotPartitionKey> actual = underTest.getTopKeys(2);
+		assertEquals(2, actual.size());
+		for (HotPartitionKey hotKey : actual) {
+			assertEquals("idx", hotKey.getIndexName());
+			assertEquals(1, hotKey.getThrottles());
+			assertEquals(0.5, hotKey.getThrottleShare(), 0.001);
+		}
+	}
+
+	@Test
+	public void testCountsDecayPerWindow() {
+		HotPartitionKeySampler underTest = new HotPartitionKeySampler(1, 10, 60, nanos::get, 1);
+		AtomicInteger windows = new AtomicInteger();
+		underTest.addWindowListener(windows::incrementAndGet);
+		for (int i = 0; i < 8; i++) {
+			underTest.sample(operation(), "user", null, () -> Collections.singleton("hot"));
+		}
+
+		nanos.addAndGet(TimeUnit.SECONDS.toNanos(60));
+		assertEquals(4, underTest.getTopKeys("user", null, 1).get(0).getEstimatedAccesses());
+		assertEquals(1, windows.get());
+
+		nanos.addAndGet(TimeUnit.SECONDS.toNanos(600));
+		assertTrue(underTest.getTopKeys("user", null, 1).isEmpty());
+	}
+
+	private static OperationContext operation() {
+		return new OperationContext(DynamoDBOperationListener.NONE, Type.LOAD, User.class, "user", null, null);
+	}
+}
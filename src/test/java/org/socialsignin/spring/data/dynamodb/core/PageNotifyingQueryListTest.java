@@ -0,0 +1,111 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.core;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PageNotifyingQueryListTest {
+	@Mock
+	private DynamoDBMapper dynamoDBMapper;
+	@Mock
+	private AmazonDynamoDB amazonDynamoDB;
+
+	private final User first = new User();
+	private final User second = new User();
+	private final Map<String, AttributeValue> continuation = Collections.singletonMap("Id",
+			new AttributeValue("first"));
+	private DynamoDBQueryExpression<User> queryExpression;
+	private List<List<User>> publishedPages;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		queryExpression = new DynamoDBQueryExpression<>();
+		publishedPages = new ArrayList<>();
+
+		QueryResultPage<User> firstPage = new QueryResultPage<>();
+		firstPage.setResults(Collections.singletonList(first));
+		firstPage.setLastEvaluatedKey(continuation);
+		QueryResultPage<User> secondPage = new QueryResultPage<>();
+		secondPage.setResults(Collections.singletonList(second));
+
+		when(dynamoDBMapper.queryPage(eq(User.class), any(DynamoDBQueryExpression.class))).thenReturn(firstPage,
+				secondPage);
+	}
+
+	@Test
+	public void testPagesAreFetchedAndPublishedLazily() {
+		PageNotifyingQueryList<User> underTest = create(PaginationLoadingStrategy.LAZY_LOADING);
+
+		verify(dynamoDBMapper, times(1)).queryPage(eq(User.class), eq(queryExpression));
+		assertEquals(Collections.singletonList(Collections.singletonList(first)), publishedPages);
+
+		assertEquals(Arrays.asList(first, second), new ArrayList<>(underTest));
+
+		verify(dynamoDBMapper, times(2)).queryPage(eq(User.class), eq(queryExpression));
+		assertEquals(Arrays.asList(Collections.singletonList(first), Collections.singletonList(second)),
+				publishedPages);
+	}
+
+	@Test
+	public void testEagerLoadingFetchesAllPages() {
+		PageNotifyingQueryList<User> underTest = create(PaginationLoadingStrategy.EAGER_LOADING);
+
+		verify(dynamoDBMapper, times(2)).queryPage(eq(User.class), eq(queryExpression));
+		assertEquals(2, publishedPages.size());
+		assertEquals(2, underTest.size());
+	}
+
+	@Test
+	public void testExpressionIsNotModified() {
+		PageNotifyingQueryList<User> underTest = create(PaginationLoadingStrategy.LAZY_LOADING);
+		underTest.loadAllResults();
+
+		assertNull(queryExpression.getExclusiveStartKey());
+	}
+
+	private PageNotifyingQueryList<User> create(PaginationLoadingStrategy strategy) {
+		return new PageNotifyingQueryList<>(dynamoDBMapper, User.class, amazonDynamoDB, queryExpression, strategy,
+				DynamoDBMapperConfig.DEFAULT, null, page -> publishedPages.add(page.getResults()));
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.domain.sample;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.socialsignin.spring.data.dynamodb.repository.config.EnableDynamoDBRepositories;
+import org.socialsignin.spring.data.dynamodb.utils.DynamoDBLocalResource;
+import org.socialsignin.spring.data.dynamodb.utils.KeyDistribution;
+import org.socialsignin.spring.data.dynamodb.utils.LoadTestHarness;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Mixed workload through the sample repositories against DynamoDBLocal. Tuned
+ * via system properties:
+ * <ul>
+ * <li>{@code loadtest.users} - number of users seeded (default 1000)</li>
+ * <li>{@code loadtest.distribution} - key distribution of the seeded post codes
+ * and of the accesses: {@code uniform}, {@code zipfian[:exponent]} or
+ * {@code hotkey[:share]} (default {@code zipfian})</li>
+ * <li>{@code loadtest.threads} - number of threads (default number of
+ * cores)</li>
+ * <li>{@code loadtest.durationSeconds} - measured duration (default 10)</li>
+ * </ul>
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {DynamoDBLocalResource.class, LoadTestIT.TestAppConfig.class})
+@TestPropertySource(properties = {"spring.data.dynamodb.entity2ddl.auto=create"})
+public class LoadTestIT {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestIT.class);
+
+	private static final int USERS = Integer.getInteger("loadtest.users", 1000);
+	private static final int POST_CODES = Math.max(1, USERS / 10);
+	private static final int PLAYLISTS_PER_USER = 3;
+	private static final String DISTRIBUTION = System.getProperty("loadtest.distribution", "zipfian");
+	private static final int THREADS = Integer.getInteger("loadtest.threads",
+			Runtime.getRuntime().availableProcessors());
+	private static final int DURATION_SECONDS = Integer.getInteger("loadtest.durationSeconds", 10);
+
+	@Configuration
+	@EnableDynamoDBRepositories(basePackages = "org.socialsignin.spring.data.dynamodb.domain.sample")
+	public static class TestAppConfig {
+	}
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PlaylistRepository playlistRepository;
+
+	@Before
+	public void setUp() {
+		userRepository.deleteAll();
+		playlistRepository.deleteAll();
+
+		// Skewed distributions also skew the post codes - i.e. the GSI partitions
+		KeyDistribution postCodes = KeyDistribution.parse(DISTRIBUTION, POST_CODES);
+		Random random = new Random(42);
+		List<User> users = new ArrayList<>(USERS);
+		List<Playlist> playlists = new ArrayList<>(USERS * PLAYLISTS_PER_USER);
+		for (int i = 0; i < USERS; i++) {
+			users.add(user(i, postCode(postCodes.nextIndex(random))));
+			for (int j = 0; j < PLAYLISTS_PER_USER; j++) {
+				playlists.add(new Playlist(new PlaylistId(userId(i), playlistName(j))));
+			}
+		}
+		userRepository.saveAll(users);
+		playlistRepository.saveAll(playlists);
+	}
+
+	@Test
+	public void runMixedWorkload() throws InterruptedException {
+		LoadTestHarness.Report report = new LoadTestHarness(KeyDistribution.parse(DISTRIBUTION, USERS))
+				.withThreads(THREADS).withWarmup(2, TimeUnit.SECONDS).withDuration(DURATION_SECONDS, TimeUnit.SECONDS)
+				.withOperation("UserRepository.findById", 50, key -> userRepository.findById(userId(key)))
+				.withOperation("UserRepository.findByPostCode", 10,
+						key -> userRepository.findByPostCode(postCode(key % POST_CODES)))
+				.withOperation("UserRepository.save", 20,
+						key -> userRepository.save(user(key, postCode(key % POST_CODES))))
+				.withOperation("PlaylistRepository.findById", 20, key -> playlistRepository
+						.findById(new PlaylistId(userId(key), playlistName(key % PLAYLISTS_PER_USER))))
+				.run();
+
+		LOGGER.info("DynamoDBLocal load test - {} users, {} distribution:\n{}", USERS, DISTRIBUTION, report);
+		report.getResults().forEach((operation, result) -> {
+			assertTrue(operation + " was not executed", result.getCount() > 0);
+			assertEquals(operation + " failed", 0, result.getErrors());
+		});
+	}
+
+	private static User user(int key, String postCode) {
+		User user = new User();
+		user.setId(userId(key));
+		user.setName("name" + key);
+		user.setPostCode(postCode);
+		user.setNumberOfPlaylists(PLAYLISTS_PER_USER);
+		return user;
+	}
+
+	private static String userId(int key) {
+		return "user" + key;
+	}
+
+	private static String postCode(int key) {
+		return "PC" + key;
+	}
+
+	private static String playlistName(int index) {
+		return "playlist" + index;
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBRangeKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
+import org.socialsignin.spring.data.dynamodb.domain.sample.PlaylistId;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DynamoDBEntityScannerTest {
+
+	public static class KeysOnly {
+		@DynamoDBHashKey
+		public String getHashKey() {
+			return null;
+		}
+
+		@DynamoDBRangeKey
+		public String getRangeKey() {
+			return null;
+		}
+	}
+
+	public static class HashKeyOnly {
+		@DynamoDBHashKey
+		public String hashKey;
+	}
+
+	private ClassLoader classLoader;
+
+	@Before
+	public void setUp() {
+		DynamoDBEntityScanner.clearCache();
+		classLoader = getClass().getClassLoader();
+	}
+
+	@Test
+	public void testIsEntity() {
+		assertTrue(DynamoDBEntityScanner.isEntity(User.class));
+		assertTrue(DynamoDBEntityScanner.isEntity(KeysOnly.class));
+		assertFalse(DynamoDBEntityScanner.isEntity(HashKeyOnly.class));
+		assertFalse(DynamoDBEntityScanner.isEntity(String.class));
+	}
+
+	@Test
+	public void testFindEntities() throws ClassNotFoundException {
+		Set<Class<?>> entities = DynamoDBEntityScanner.findEntities(classLoader, "", User.class.getPackage().getName());
+
+		assertTrue(entities.contains(User.class));
+		assertTrue(entities.contains(Playlist.class));
+		assertFalse(entities.contains(PlaylistId.class));
+	}
+
+	@Test
+	public void testFindEntities_ReturnsMemoizedResultAsCopy() throws ClassNotFoundException {
+		String basePackage = User.class.getPackage().getName();
+		Set<Class<?>> first = DynamoDBEntityScanner.findEntities(classLoader, basePackage);
+		first.clear();
+
+		Set<Class<?>> second = DynamoDBEntityScanner.findEntities(classLoader, basePackage);
+
+		assertFalse(second.isEmpty());
+		assertEquals(second, DynamoDBEntityScanner.findEntities(classLoader, basePackage, basePackage));
+	}
+
+	@Test
+	public void testFindEntities_WithoutPackages() throws ClassNotFoundException {
+		assertTrue(DynamoDBEntityScanner.findEntities(classLoader).isEmpty());
+		assertTrue(DynamoDBEntityScanner.findEntities(classLoader, (String) null).isEmpty());
+	}
+}
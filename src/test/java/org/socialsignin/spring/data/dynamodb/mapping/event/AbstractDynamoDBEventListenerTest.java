@@ -26,9 +26,12 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.socialsignin.spring.data.dynamodb.domain.sample.User;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -174,4 +177,66 @@ public class AbstractDynamoDBEventListenerTest {
 		verify(underTest).onBeforeSave(sampleEntity);
 	}
 
+	@Test
+	public void testIgnoresEntityEventOfBatch() {
+		underTest.onApplicationEvent(new BeforeSaveEvent<>(sampleEntity, true));
+
+		verify(underTest, never()).onBeforeSave(any());
+	}
+
+	@Test
+	public void testBeforeBatchSave() {
+		underTest.onApplicationEvent(new BeforeBatchSaveEvent<>(Collections.singletonList(sampleEntity)));
+
+		verify(underTest).onBeforeSave(sampleEntity);
+		verify(underTest, never()).onAfterSave(any());
+	}
+
+	@Test
+	public void testAfterBatchSave() {
+		underTest.onApplicationEvent(new AfterBatchSaveEvent<>(Collections.singletonList(sampleEntity)));
+
+		verify(underTest).onAfterSave(sampleEntity);
+		verify(underTest, never()).onBeforeSave(any());
+	}
+
+	@Test
+	public void testBeforeBatchDelete() {
+		underTest.onApplicationEvent(new BeforeBatchDeleteEvent<>(Collections.singletonList(sampleEntity)));
+
+		verify(underTest).onBeforeDelete(sampleEntity);
+		verify(underTest, never()).onAfterDelete(any());
+	}
+
+	@Test
+	public void testAfterBatchDelete() {
+		underTest.onApplicationEvent(new AfterBatchDeleteEvent<>(Collections.singletonList(sampleEntity)));
+
+		verify(underTest).onAfterDelete(sampleEntity);
+		verify(underTest, never()).onBeforeDelete(any());
+	}
+
+	@Test
+	public void testAfterBatchLoad() {
+		underTest.onApplicationEvent(new AfterBatchLoadEvent<>(Collections.singletonList(sampleEntity)));
+
+		verify(underTest).onAfterLoad(sampleEntity);
+		verify(underTest, never()).onAfterQuery(any());
+	}
+
+	@Test
+	public void testSupportsEvent() {
+		assertFalse(underTest.supportsEvent(BeforeSaveEvent.class, User.class));
+
+		AbstractDynamoDBEventListener<User> overriding = new AbstractDynamoDBEventListener<User>() {
+			@Override
+			public void onAfterLoad(User source) {
+			}
+		};
+		assertTrue(overriding.supportsEvent(AfterLoadEvent.class, User.class));
+		assertTrue(overriding.supportsEvent(AfterBatchLoadEvent.class, User.class));
+		assertFalse(overriding.supportsEvent(AfterLoadEvent.class, Object.class));
+		assertFalse(overriding.supportsEvent(AfterSaveEvent.class, User.class));
+	}
+
 }
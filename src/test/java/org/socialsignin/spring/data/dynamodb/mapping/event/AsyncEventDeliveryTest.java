@@ -0,0 +1,223 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping.event;
+
+import org.junit.After;
+import org.junit.Test;
+import org.socialsignin.spring.data.dynamodb.mapping.event.AsyncEventDelivery.OverflowPolicy;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncEventDeliveryTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final Map<Object, List<Integer>> delivered = new ConcurrentHashMap<>();
+	private final ApplicationEventPublisher recordingPublisher = event -> {
+		AfterSaveEvent<?> saveEvent = (AfterSaveEvent<?>) event;
+		Sequence sequence = (Sequence) saveEvent.getSource();
+		delivered.computeIfAbsent(sequence.key, k -> Collections.synchronizedList(new ArrayList<>()))
+				.add(sequence.number);
+	};
+
+	private static final class Sequence {
+		private final String key;
+		private final int number;
+
+		private Sequence(String key, int number) {
+			this.key = key;
+			this.number = number;
+		}
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testDeferrableEvents() {
+		assertTrue(AsyncEventDelivery.isDeferrable(AfterSaveEvent.class));
+		assertTrue(AsyncEventDelivery.isDeferrable(AfterQueryEvent.class));
+		assertTrue(AsyncEventDelivery.isDeferrable(AfterBatchLoadEvent.class));
+		assertFalse(AsyncEventDelivery.isDeferrable(BeforeSaveEvent.class));
+		assertFalse(AsyncEventDelivery.isDeferrable(BeforeBatchDeleteEvent.class));
+	}
+
+	@Test
+	public void testOrderPerKeyIsPreserved() throws InterruptedException {
+		AsyncEventDelivery underTest = new AsyncEventDelivery(recordingPublisher, executor, 100, 4,
+				OverflowPolicy.BLOCK);
+
+		for (int i = 0; i < 500; i++) {
+			for (String key : new String[]{"a", "b", "c"}) {
+				underTest.publish(new AfterSaveEvent<>(new Sequence(key, i)), key);
+			}
+		}
+
+		assertTrue(underTest.shutdown(10, TimeUnit.SECONDS));
+		for (String key : new String[]{"a", "b", "c"}) {
+			List<Integer> numbers = delivered.get(key);
+			assertEquals(500, numbers.size());
+			for (int i = 0; i < 500; i++) {
+				assertEquals(Integer.valueOf(i), numbers.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testEventOfSeveralKeysIsOrderedWithEachOfThem() {
+		List<Runnable> tasks = new ArrayList<>();
+		List<Object> sources = new ArrayList<>();
+		AsyncEventDelivery underTest = new AsyncEventDelivery(event -> sources.add(event.getSource()), tasks::add,
+				10, 2, OverflowPolicy.BLOCK);
+		List<String> batch = Arrays.asList("a", "b");
+
+		underTest.publish(new AfterSaveEvent<>("a1"), "a");
+		underTest.publish(new AfterSaveEvent<>("b1"), "b");
+		underTest.publish(new AfterBatchSaveEvent<>(batch), batch);
+		underTest.publish(new AfterSaveEvent<>("a2"), "a");
+		underTest.publish(new AfterSaveEvent<>("b2"), "b");
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+
+		assertEquals(5, sources.size());
+		int batchIndex = sources.indexOf(batch);
+		assertTrue(sources.indexOf("a1") < batchIndex);
+		assertTrue(sources.indexOf("b1") < batchIndex);
+		assertTrue(sources.indexOf("a2") > batchIndex);
+		assertTrue(sources.indexOf("b2") > batchIndex);
+	}
+
+	@Test
+	public void testConcurrentEventsOfSeveralKeysAreDelivered() throws Exception {
+		List<Object> sources = Collections.synchronizedList(new ArrayList<>());
+		AsyncEventDelivery underTest = new AsyncEventDelivery(event -> sources.add(event.getSource()), executor,
+				1000, 4, OverflowPolicy.BLOCK);
+		ExecutorService publishers = Executors.newFixedThreadPool(2);
+		List<Future<?>> published = new ArrayList<>();
+		for (List<String> keys : Arrays.asList(Arrays.asList("a", "b", "c"), Arrays.asList("c", "b", "a"))) {
+			published.add(publishers.submit(() -> {
+				for (int i = 0; i < 500; i++) {
+					underTest.publish(new AfterBatchSaveEvent<>(keys), keys);
+				}
+			}));
+		}
+		for (Future<?> future : published) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		publishers.shutdown();
+
+		assertTrue(underTest.shutdown(10, TimeUnit.SECONDS));
+		assertEquals(1000, sources.size());
+	}
+
+	@Test
+	public void testDiscardWhenFull() throws InterruptedException {
+		List<Runnable> tasks = new ArrayList<>();
+		Executor parkingExecutor = tasks::add;
+		AsyncEventDelivery underTest = new AsyncEventDelivery(recordingPublisher, parkingExecutor, 2, 1,
+				OverflowPolicy.DISCARD);
+
+		underTest.publish(new AfterSaveEvent<>(new Sequence("a", 1)), "a");
+		underTest.publish(new AfterSaveEvent<>(new Sequence("a", 2)), "a");
+		underTest.publish(new AfterSaveEvent<>(new Sequence("a", 3)), "a");
+
+		assertEquals(1, underTest.getDiscardedCount());
+		tasks.forEach(Runnable::run);
+		assertEquals(2, delivered.get("a").size());
+	}
+
+	@Test
+	public void testShutdownWaitsForDeliveryUntilTimeout() throws InterruptedException {
+		List<Runnable> tasks = new ArrayList<>();
+		AsyncEventDelivery underTest = new AsyncEventDelivery(recordingPublisher, tasks::add, 10, 1,
+				OverflowPolicy.BLOCK);
+
+		underTest.publish(new AfterSaveEvent<>(new Sequence("a", 1)), "a");
+
+		assertFalse(underTest.shutdown(10, TimeUnit.MILLISECONDS));
+		executor.execute(() -> tasks.forEach(Runnable::run));
+		assertTrue(underTest.shutdown(10, TimeUnit.SECONDS));
+		assertEquals(Collections.singletonList(1), delivered.get("a"));
+	}
+
+	@Test
+	public void testCallerRunsWhenFull() {
+		List<Runnable> tasks = new ArrayList<>();
+		AsyncEventDelivery underTest = new AsyncEventDelivery(recordingPublisher, tasks::add, 1, 1,
+				OverflowPolicy.CALLER_RUNS);
+
+		underTest.publish(new AfterSaveEvent<>(new Sequence("a", 1)), "a");
+		underTest.publish(new AfterSaveEvent<>(new Sequence("a", 2)), "a");
+
+		assertEquals(Collections.singletonList(2), delivered.get("a"));
+		tasks.forEach(Runnable::run);
+		assertEquals(2, delivered.get("a").size());
+	}
+
+	@Test
+	public void testFailingListenerDoesNotStopDelivery() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(2);
+		List<Object> threads = new ArrayList<>();
+		AsyncEventDelivery underTest = new AsyncEventDelivery(event -> {
+			latch.countDown();
+			threads.add(Thread.currentThread());
+			throw new IllegalStateException("test");
+		}, executor, 10, 1, OverflowPolicy.BLOCK);
+
+		underTest.publish(new AfterLoadEvent<>("first"), "a");
+		underTest.publish(new AfterLoadEvent<>("second"), "a");
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertTrue(underTest.shutdown(10, TimeUnit.SECONDS));
+		assertFalse(threads.contains(Thread.currentThread()));
+	}
+
+	@Test
+	public void testOwnExecutor() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		Object[] deliveredEvent = new Object[1];
+		AsyncEventDelivery underTest = new AsyncEventDelivery(event -> {
+			deliveredEvent[0] = event;
+			latch.countDown();
+		}, 10, 2, OverflowPolicy.BLOCK);
+		AfterLoadEvent<String> event = new AfterLoadEvent<>("entity");
+
+		underTest.publish(event, "a");
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertSame(event, deliveredEvent[0]);
+		assertTrue(underTest.shutdown(10, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.mapping.event;
+
+import org.junit.Test;
+import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappingEventDispatchTableTest {
+
+	private static class UserSaveListener extends AbstractDynamoDBEventListener<User> {
+		@Override
+		public void onBeforeSave(User source) {
+		}
+	}
+
+	private static class AfterLoadListener implements ApplicationListener<AfterLoadEvent<?>> {
+		@Override
+		public void onApplicationEvent(AfterLoadEvent<?> event) {
+		}
+	}
+
+	private static class CatchAllListener implements ApplicationListener<ApplicationEvent> {
+		@Override
+		public void onApplicationEvent(ApplicationEvent event) {
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		MappingEventDispatchTable underTest = MappingEventDispatchTable.empty();
+
+		assertFalse(underTest.hasListeners(BeforeSaveEvent.class, User.class));
+		assertFalse(underTest.hasListeners(AfterQueryEvent.class, User.class));
+	}
+
+	@Test
+	public void testDynamoDBEventListenerOnlyForOverriddenCallbacks() {
+		MappingEventDispatchTable underTest = new MappingEventDispatchTable(
+				Collections.singletonList(new UserSaveListener()));
+
+		assertTrue(underTest.hasListeners(BeforeSaveEvent.class, User.class));
+		assertTrue(underTest.hasListeners(BeforeBatchSaveEvent.class, User.class));
+		assertFalse(underTest.hasListeners(AfterSaveEvent.class, User.class));
+		assertFalse(underTest.hasListeners(AfterLoadEvent.class, User.class));
+		assertFalse(underTest.hasListeners(AfterQueryEvent.class, User.class));
+		assertFalse(underTest.hasListeners(BeforeSaveEvent.class, Playlist.class));
+	}
+
+	@Test
+	public void testLoggingEventListenerListensToEverything() {
+		MappingEventDispatchTable underTest = new MappingEventDispatchTable(
+				Collections.singletonList(new LoggingEventListener()));
+
+		assertTrue(underTest.hasListeners(AfterScanEvent.class, User.class));
+		assertTrue(underTest.hasListeners(AfterBatchDeleteEvent.class, Playlist.class));
+	}
+
+	@Test
+	public void testPlainApplicationListenerByEventType() {
+		MappingEventDispatchTable underTest = new MappingEventDispatchTable(
+				Collections.singletonList(new AfterLoadListener()));
+
+		assertTrue(underTest.hasListeners(AfterLoadEvent.class, User.class));
+		assertTrue(underTest.hasListeners(AfterLoadEvent.class, Playlist.class));
+		assertFalse(underTest.hasListeners(AfterBatchLoadEvent.class, User.class));
+		assertFalse(underTest.hasListeners(BeforeSaveEvent.class, User.class));
+		assertTrue(underTest.hasNonBatchListeners(AfterLoadEvent.class));
+	}
+
+	@Test
+	public void testApplicationEventListenerListensToEverything() {
+		MappingEventDispatchTable underTest = new MappingEventDispatchTable(
+				Collections.singletonList(new CatchAllListener()));
+
+		assertTrue(underTest.hasListeners(BeforeSaveEvent.class, User.class));
+		assertTrue(underTest.hasListeners(AfterBatchLoadEvent.class, Playlist.class));
+		assertTrue(underTest.hasNonBatchListeners(AfterDeleteEvent.class));
+	}
+
+	@Test
+	public void testDynamoDBEventListenerHandlesBatchEvents() {
+		MappingEventDispatchTable underTest = new MappingEventDispatchTable(
+				Collections.singletonList(new UserSaveListener()));
+
+		assertFalse(underTest.hasNonBatchListeners(BeforeSaveEvent.class));
+	}
+
+	@Test
+	public void testListenerTypesWithoutInstances() {
+		MappingEventDispatchTable underTest = new MappingEventDispatchTable(Collections.emptyList(),
+				Arrays.asList(UserSaveListener.class, AfterLoadListener.class));
+
+		assertTrue(underTest.hasListeners(AfterSaveEvent.class, User.class));
+		assertFalse(underTest.hasListeners(AfterSaveEvent.class, Playlist.class));
+		assertTrue(underTest.hasListeners(AfterLoadEvent.class, Playlist.class));
+		assertFalse(underTest.hasNonBatchListeners(BeforeSaveEvent.class));
+		assertTrue(underTest.hasNonBatchListeners(AfterLoadEvent.class));
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBTemplate;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.domain.sample.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JfrOperationListenerTest {
+	@Mock
+	private AmazonDynamoDB amazonDynamoDB;
+	@Mock
+	private DynamoDBMapper dynamoDBMapper;
+	@Mock
+	private DynamoDBMapperConfig dynamoDBMapperConfig;
+
+	private DynamoDBTemplate dynamoDBTemplate;
+	private Recording recording;
+
+	@Before
+	public void setUp() {
+		Assume.assumeTrue(JfrOperationListener.isAvailable());
+		dynamoDBTemplate = new DynamoDBTemplate(amazonDynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(new JfrOperationListener()));
+
+		recording = new Recording();
+		recording.enable(JfrOperationListener.REQUEST);
+		recording.enable(JfrOperationListener.OPERATION);
+		recording.enable(JfrOperationListener.PAGE);
+		recording.enable(JfrOperationListener.REPOSITORY_METHOD);
+		recording.start();
+	}
+
+	@After
+	public void tearDown() {
+		if (recording != null) {
+			recording.close();
+		}
+	}
+
+	@Test
+	public void testLoadIsRecordedWithItsRoundTrip() throws IOException {
+		OperationRequestHandler requestHandler = new OperationRequestHandler();
+		when(dynamoDBMapper.load(User.class, "id")).thenAnswer(invocation -> {
+			Request<GetItemRequest> request = new DefaultRequest<>(new GetItemRequest(), "AmazonDynamoDBv2");
+			requestHandler.beforeRequest(request);
+			requestHandler.afterResponse(request,
+					new Response<>(
+							new GetItemResult().withItem(Collections.singletonMap("Id", new AttributeValue("id")))
+									.withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(0.5)),
+							null));
+			return new User();
+		});
+
+		dynamoDBTemplate.load(User.class, "id");
+
+		List<RecordedEvent> requests = events(JfrOperationListener.REQUEST);
+		assertEquals(1, requests.size());
+		assertEquals("GetItem", requests.get(0).getString("requestType"));
+		assertEquals("user", requests.get(0).getString("table"));
+		assertEquals(1, requests.get(0).getInt("items"));
+		assertEquals(0.5, requests.get(0).getDouble("capacityUnits"), 0);
+
+		List<RecordedEvent> operations = events(JfrOperationListener.OPERATION);
+		assertEquals(1, operations.size());
+		assertEquals("LOAD", operations.get(0).getString("type"));
+		assertEquals(1, operations.get(0).getInt("requests"));
+		assertEquals(0.5, operations.get(0).getDouble("readCapacityUnits"), 0);
+		assertNull(operations.get(0).getString("repository"));
+	}
+
+	@Test
+	public void testScanOfRepositoryMethodIsRecordedPerPage() throws IOException {
+		ScanResultPage<User> page = new ScanResultPage<>();
+		page.setResults(Arrays.asList(new User(), new User()));
+		page.setScannedCount(10);
+		when(dynamoDBMapper.scanPage(eq(User.class), any(DynamoDBScanExpression.class))).thenReturn(page);
+		when(dynamoDBMapperConfig.getPaginationLoadingStrategy())
+				.thenReturn(DynamoDBMapperConfig.PaginationLoadingStrategy.LAZY_LOADING);
+
+		RepositoryMethodContext.observe(dynamoDBTemplate.getOperationListener(), UserRepository.class, "findAll",
+				new Object[0], () -> dynamoDBTemplate.scan(User.class, new DynamoDBScanExpression()));
+
+		List<RecordedEvent> pages = events(JfrOperationListener.PAGE);
+		assertEquals(1, pages.size());
+		assertEquals("SCAN", pages.get(0).getString("type"));
+		assertEquals(2, pages.get(0).getInt("items"));
+		assertEquals(10, pages.get(0).getInt("scannedItems"));
+
+		List<RecordedEvent> operations = events(JfrOperationListener.OPERATION);
+		assertEquals(1, operations.size());
+		assertEquals(UserRepository.class.getName(), operations.get(0).getString("repository"));
+		assertEquals("findAll", operations.get(0).getString("method"));
+
+		List<RecordedEvent> methods = events(JfrOperationListener.REPOSITORY_METHOD);
+		assertEquals(1, methods.size());
+		assertEquals("SCAN", methods.get(0).getString("kind"));
+		assertEquals(1, methods.get(0).getInt("operations"));
+	}
+
+	private List<RecordedEvent> events(String name) throws IOException {
+		if (recording.getState() == RecordingState.RUNNING) {
+			recording.stop();
+		}
+		Path file = Files.createTempFile("dynamodb", ".jfr");
+		try {
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file).stream().filter(e -> e.getEventType().getName().equals(name))
+					.collect(Collectors.toList());
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBTemplate;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.domain.sample.UserRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MicrometerOperationListenerTest {
+	@Mock
+	private AmazonDynamoDB amazonDynamoDB;
+	@Mock
+	private DynamoDBMapper dynamoDBMapper;
+	@Mock
+	private DynamoDBMapperConfig dynamoDBMapperConfig;
+
+	private SimpleMeterRegistry registry;
+	private DynamoDBTemplate dynamoDBTemplate;
+
+	@Before
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		dynamoDBTemplate = new DynamoDBTemplate(amazonDynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(new MicrometerOperationListener(registry)));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testQueryWithinRepositoryMethod() {
+		QueryResultPage<User> page = new QueryResultPage<>();
+		page.setResults(Arrays.asList(new User(), new User()));
+		page.setScannedCount(4);
+		page.setConsumedCapacity(new ConsumedCapacity().withCapacityUnits(1.5));
+		when(dynamoDBMapper.queryPage(eq(User.class), any(DynamoDBQueryExpression.class))).thenAnswer(invocation -> {
+			OperationContext.current().recordConsumedCapacity(page.getConsumedCapacity());
+			return page;
+		});
+		when(dynamoDBMapperConfig.getPaginationLoadingStrategy())
+				.thenReturn(DynamoDBMapperConfig.PaginationLoadingStrategy.EAGER_LOADING);
+		DynamoDBQueryExpression<User> queryExpression = new DynamoDBQueryExpression<User>().withIndexName("idx-name");
+
+		List<User> result = RepositoryMethodContext.observe(dynamoDBTemplate.getOperationListener(),
+				UserRepository.class, "findByName", new Object[]{"name"},
+				() -> dynamoDBTemplate.query(User.class, queryExpression));
+
+		assertEquals(2, result.size());
+		assertEquals(1,
+				registry.get(MicrometerOperationListener.OPERATIONS).tag("type", "QUERY").tag("table", "user")
+						.tag("index", "idx-name").tag("repository", "UserRepository").tag("method", "findByName")
+						.tag("outcome", "success").timer().count());
+		assertEquals(1, registry.get(MicrometerOperationListener.PAGES).counter().count(), 0);
+		assertEquals(2, registry.get(MicrometerOperationListener.ITEMS).counter().count(), 0);
+		assertEquals(4, registry.get(MicrometerOperationListener.SCANNED_ITEMS).counter().count(), 0);
+		assertEquals(1.5, registry.get(MicrometerOperationListener.CAPACITY).tag("mode", "read").counter().count(), 0);
+		assertEquals(1, registry.get(MicrometerOperationListener.INVOCATIONS).tag("kind", "QUERY")
+				.tag("index", "idx-name").timer().count());
+	}
+
+	@Test
+	public void testTimersPublishHistograms() {
+		when(dynamoDBMapper.load(User.class, "id")).thenReturn(new User());
+
+		RepositoryMethodContext.observe(dynamoDBTemplate.getOperationListener(), UserRepository.class, "findOne",
+				new Object[]{"id"}, () -> dynamoDBTemplate.load(User.class, "id"));
+
+		assertTrue(registry.get(MicrometerOperationListener.OPERATIONS).timer().takeSnapshot()
+				.histogramCounts().length > 0);
+		assertTrue(registry.get(MicrometerOperationListener.INVOCATIONS).timer().takeSnapshot()
+				.histogramCounts().length > 0);
+	}
+
+	@Test
+	public void testFailedLoad() {
+		when(dynamoDBMapper.load(User.class, "id")).thenThrow(new IllegalStateException());
+
+		try {
+			dynamoDBTemplate.load(User.class, "id");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		assertEquals(1, registry.get(MicrometerOperationListener.OPERATIONS).tag("type", "LOAD")
+				.tag("repository", "none").tag("outcome", "IllegalStateException").timer().count());
+	}
+}
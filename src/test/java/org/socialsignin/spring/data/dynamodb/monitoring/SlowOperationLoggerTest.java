@@ -0,0 +1,181 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBTemplate;
+import org.socialsignin.spring.data.dynamodb.core.OperationContext;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.domain.sample.UserRepository;
+import org.socialsignin.spring.data.dynamodb.monitoring.SlowOperationLogger.ParameterRedaction;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SlowOperationLoggerTest {
+	@Mock
+	private AmazonDynamoDB amazonDynamoDB;
+	@Mock
+	private DynamoDBMapper dynamoDBMapper;
+	@Mock
+	private DynamoDBMapperConfig dynamoDBMapperConfig;
+	@Mock
+	private Logger logger;
+
+	private final AtomicLong clock = new AtomicLong();
+	private DynamoDBTemplate dynamoDBTemplate;
+
+	@Before
+	public void setUp() {
+		when(logger.isWarnEnabled()).thenReturn(true);
+		dynamoDBTemplate = new DynamoDBTemplate(amazonDynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+	}
+
+	private void register(double capacityUnits, ParameterRedaction parameterRedaction, int maxPerSecond) {
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(
+				new SlowOperationLogger(logger, clock::get, 0, capacityUnits, parameterRedaction, maxPerSecond)));
+	}
+
+	@Test
+	public void testScanOfRepositoryMethodIsLoggedAsWhole() {
+		register(10, ParameterRedaction.TYPES, 0);
+		stubScanPages(page(2000, 12, null));
+
+		RepositoryMethodContext.observe(dynamoDBTemplate.getOperationListener(), UserRepository.class, "findByName",
+				new Object[]{"secret"}, () -> dynamoDBTemplate.scan(User.class, scanExpression()));
+
+		String entry = loggedEntry();
+		assertTrue(entry, entry.contains(" reason=capacity "));
+		assertTrue(entry, entry.contains(" repository=" + UserRepository.class.getName() + " method=findByName "));
+		assertTrue(entry, entry.contains(" parameters=[String] "));
+		assertTrue(entry, entry.contains(" type=SCAN table=user index=- plan=\"SCAN filter=[name EQ]\" "));
+		assertTrue(entry, entry.contains(" pages=1 scanned=2000 returned=3 readCapacityUnits=12.0 "));
+	}
+
+	@Test
+	public void testLazilyFetchedPagesAreLoggedOnceOverBudget() {
+		register(10, ParameterRedaction.ALL, 0);
+		stubScanPages(page(100, 6, Collections.singletonMap("id", new AttributeValue("next"))), page(100, 6, null));
+
+		List<User> users = RepositoryMethodContext.observe(dynamoDBTemplate.getOperationListener(),
+				UserRepository.class, "findByName", new Object[]{"secret"},
+				() -> dynamoDBTemplate.scan(User.class, scanExpression()));
+		verify(logger, never()).warn(anyString());
+
+		assertEquals(6, users.size());
+
+		String entry = loggedEntry();
+		assertTrue(entry, entry.contains(" parameters=[***] "));
+		assertTrue(entry, entry.contains(" pages=2 scanned=200 returned=6 readCapacityUnits=12.0 "));
+	}
+
+	@Test
+	public void testEntriesAreRateLimited() {
+		register(1, ParameterRedaction.NONE, 1);
+		when(dynamoDBMapper.load(User.class, "id")).thenAnswer(invocation -> {
+			OperationContext.current().recordConsumedCapacity(new ConsumedCapacity().withCapacityUnits(1.0));
+			return new User();
+		});
+
+		dynamoDBTemplate.load(User.class, "id");
+		dynamoDBTemplate.load(User.class, "id");
+		dynamoDBTemplate.load(User.class, "id");
+		verify(logger, times(1)).warn(anyString());
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		dynamoDBTemplate.load(User.class, "id");
+
+		ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+		verify(logger, times(2)).warn(captor.capture());
+		String entry = captor.getValue();
+		assertTrue(entry, entry.contains(" type=LOAD table=user index=- plan=\"GET_ITEM key=[<hash key> EQ]\" "));
+		assertTrue(entry, entry.endsWith(" suppressed=2"));
+	}
+
+	@Test
+	public void testOperationsWithinBudgetAreNotLogged() {
+		register(100, ParameterRedaction.TYPES, 0);
+		stubScanPages(page(2000, 12, null));
+
+		dynamoDBTemplate.scan(User.class, scanExpression());
+
+		verify(logger, never()).warn(anyString());
+	}
+
+	private String loggedEntry() {
+		ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+		verify(logger).warn(captor.capture());
+		return captor.getValue();
+	}
+
+	private static DynamoDBScanExpression scanExpression() {
+		return new DynamoDBScanExpression().withFilterConditionEntry("name",
+				new Condition().withComparisonOperator(ComparisonOperator.EQ));
+	}
+
+	private static ScanResultPage<User> page(int scanned, double capacityUnits,
+			Map<String, AttributeValue> lastEvaluatedKey) {
+		ScanResultPage<User> page = new ScanResultPage<>();
+		page.setResults(Arrays.asList(new User(), new User(), new User()));
+		page.setScannedCount(scanned);
+		page.setConsumedCapacity(new ConsumedCapacity().withCapacityUnits(capacityUnits));
+		page.setLastEvaluatedKey(lastEvaluatedKey);
+		return page;
+	}
+
+	@SafeVarargs
+	private final void stubScanPages(ScanResultPage<User>... pages) {
+		when(dynamoDBMapperConfig.getPaginationLoadingStrategy())
+				.thenReturn(DynamoDBMapperConfig.PaginationLoadingStrategy.LAZY_LOADING);
+		AtomicLong next = new AtomicLong();
+		when(dynamoDBMapper.scanPage(eq(User.class), any(DynamoDBScanExpression.class))).thenAnswer(invocation -> {
+			ScanResultPage<User> page = pages[(int) next.getAndIncrement()];
+			OperationContext.current().recordConsumedCapacity(page.getConsumedCapacity());
+			return page;
+		});
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.monitoring;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBTemplate;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.domain.sample.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TracingOperationListenerTest {
+	@Mock
+	private AmazonDynamoDB amazonDynamoDB;
+	@Mock
+	private DynamoDBMapper dynamoDBMapper;
+	@Mock
+	private DynamoDBMapperConfig dynamoDBMapperConfig;
+
+	private final RecordingTracer tracer = new RecordingTracer();
+	private DynamoDBTemplate dynamoDBTemplate;
+
+	@Before
+	public void setUp() {
+		dynamoDBTemplate = new DynamoDBTemplate(amazonDynamoDB, dynamoDBMapper, dynamoDBMapperConfig);
+		dynamoDBTemplate.setOperationListeners(Collections.singletonList(new TracingOperationListener(tracer)));
+	}
+
+	@Test
+	public void testLazyPagesAreTracedBelowTheOperation() {
+		OperationRequestHandler requestHandler = new OperationRequestHandler();
+		AtomicInteger pages = new AtomicInteger();
+		when(dynamoDBMapper.scanPage(eq(User.class), any(DynamoDBScanExpression.class))).thenAnswer(invocation -> {
+			Request<ScanRequest> request = new DefaultRequest<>(new ScanRequest(), "AmazonDynamoDBv2");
+			requestHandler.beforeRequest(request);
+			requestHandler.afterResponse(request, new Response<>(new ScanResult().withCount(1), null));
+
+			ScanResultPage<User> page = new ScanResultPage<>();
+			page.setResults(Collections.singletonList(new User()));
+			page.setScannedCount(5);
+			if (pages.incrementAndGet() == 1) {
+				page.setLastEvaluatedKey(Collections.singletonMap("Id", new AttributeValue("1")));
+			}
+			return page;
+		});
+		when(dynamoDBMapperConfig.getPaginationLoadingStrategy())
+				.thenReturn(DynamoDBMapperConfig.PaginationLoadingStrategy.LAZY_LOADING);
+
+		List<User> users = RepositoryMethodContext.observe(dynamoDBTemplate.getOperationListener(),
+				UserRepository.class, "findAll", new Object[0],
+				() -> dynamoDBTemplate.scan(User.class, new DynamoDBScanExpression()));
+		// The second page is fetched after the method completed
+		assertEquals(2, users.size());
+
+		assertEquals(Arrays.asList("UserRepository.findAll", "DynamoDB SCAN", "DynamoDB SCAN page", "DynamoDB.Scan",
+				"DynamoDB SCAN page", "DynamoDB.Scan"), tracer.names());
+		RecordedSpan method = tracer.spans.get(0);
+		RecordedSpan operation = tracer.spans.get(1);
+		assertNull(method.parent);
+		assertSame(method, operation.parent);
+		assertSame(operation, tracer.spans.get(2).parent);
+		assertSame(tracer.spans.get(2), tracer.spans.get(3).parent);
+		assertSame(operation, tracer.spans.get(4).parent);
+		assertSame(tracer.spans.get(4), tracer.spans.get(5).parent);
+		assertEquals("user", operation.attributes.get("aws.dynamodb.table_names"));
+		assertEquals(2L, tracer.spans.get(4).attributes.get("aws.dynamodb.page"));
+		assertEquals(5L, tracer.spans.get(4).attributes.get("aws.dynamodb.scanned_count"));
+		assertTrue(tracer.spans.stream().allMatch(s -> s.ended));
+	}
+
+	@Test
+	public void testErrorIsRecorded() {
+		IllegalStateException error = new IllegalStateException();
+		when(dynamoDBMapper.load(User.class, "id")).thenThrow(error);
+
+		try {
+			dynamoDBTemplate.load(User.class, "id");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		assertEquals(Collections.singletonList("DynamoDB LOAD"), tracer.names());
+		assertNull(tracer.spans.get(0).parent);
+		assertSame(error, tracer.spans.get(0).error);
+		assertTrue(tracer.spans.get(0).ended);
+	}
+
+	private static class RecordingTracer implements Tracer {
+		private final List<RecordedSpan> spans = new ArrayList<>();
+
+		@Override
+		public Span startSpan(String name, Span parent) {
+			RecordedSpan span = new RecordedSpan(name, (RecordedSpan) parent);
+			spans.add(span);
+			return span;
+		}
+
+		private List<String> names() {
+			List<String> names = new ArrayList<>();
+			spans.forEach(s -> names.add(s.name));
+			return names;
+		}
+	}
+
+	private static class RecordedSpan implements Span {
+		private final String name;
+		private final RecordedSpan parent;
+		private final Map<String, Object> attributes = new HashMap<>();
+		private Throwable error;
+		private boolean ended;
+
+		private RecordedSpan(String name, RecordedSpan parent) {
+			this.name = name;
+			this.parent = parent;
+		}
+
+		@Override
+		public Span setAttribute(String key, String value) {
+			attributes.put(key, value);
+			return this;
+		}
+
+		@Override
+		public Span setAttribute(String key, long value) {
+			attributes.put(key, value);
+			return this;
+		}
+
+		@Override
+		public Span setAttribute(String key, double value) {
+			attributes.put(key, value);
+			return this;
+		}
+
+		@Override
+		public void recordError(Throwable error) {
+			this.error = error;
+		}
+
+		@Override
+		public void end() {
+			ended = true;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MergedQueryTest {
+	@Mock
+	private DynamoDBOperations dynamoDBOperations;
+
+	@Test
+	public void testMergesLazily() {
+		PagedResult first = new PagedResult(9, 7, 3);
+		PagedResult second = new PagedResult(8, 2, 1);
+		MergedQuery<Integer> underTest = new MergedQuery<>(dynamoDBOperations, Integer.class,
+				Arrays.asList(query(first), query(second)), null, Comparator.<Integer>naturalOrder().reversed());
+
+		Iterator<Integer> merged = underTest.getResultList().iterator();
+
+		assertEquals(Integer.valueOf(9), merged.next());
+		assertEquals(Integer.valueOf(8), merged.next());
+		assertEquals(Integer.valueOf(7), merged.next());
+		// Only the items up to the next one of each query are read
+		assertEquals(3, first.read);
+		assertEquals(2, second.read);
+	}
+
+	@Test
+	public void testDropsItemsReturnedByMoreThanOneQuery() {
+		MergedQuery<Integer> underTest = new MergedQuery<>(dynamoDBOperations, Integer.class,
+				Arrays.asList(query(new PagedResult(1, 2, 4)), query(new PagedResult(2, 3, 4))),
+				item -> item, Comparator.naturalOrder());
+
+		assertEquals(Arrays.asList(1, 2, 3, 4), underTest.getResultList());
+	}
+
+	@Test
+	public void testConcatenatesWithoutOrder() {
+		MergedQuery<Integer> underTest = new MergedQuery<>(dynamoDBOperations, Integer.class,
+				Arrays.asList(query(new PagedResult(3, 1)), query(new PagedResult(2, 3))), item -> item, null);
+
+		assertEquals(Arrays.asList(3, 1, 2), underTest.getResultList());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testIteratesOnlyOnceInIterationOnlyMode() {
+		when(dynamoDBOperations.getPaginationLoadingStrategy()).thenReturn(PaginationLoadingStrategy.ITERATION_ONLY);
+		MergedQuery<Integer> underTest = new MergedQuery<>(dynamoDBOperations, Integer.class,
+				Arrays.asList(query(new PagedResult(1)), query(new PagedResult(2))), null, Comparator.naturalOrder());
+
+		List<Integer> result = underTest.getResultList();
+		assertFalse(result.isEmpty());
+		assertEquals(Integer.valueOf(1), result.iterator().next());
+		result.iterator();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Query<Integer> query(List<Integer> result) {
+		Query<Integer> query = mock(Query.class);
+		when(query.getResultList()).thenReturn(result);
+		return query;
+	}
+
+	/**
+	 * A lazily loaded result that counts the items read
+	 */
+	private static final class PagedResult extends AbstractList<Integer> {
+		private final List<Integer> items;
+		private int read;
+
+		private PagedResult(Integer... items) {
+			this.items = Arrays.asList(items);
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			Iterator<Integer> delegate = items.iterator();
+			return new Iterator<Integer>() {
+				@Override
+				public boolean hasNext() {
+					return delegate.hasNext();
+				}
+
+				@Override
+				public Integer next() {
+					read++;
+					return delegate.next();
+				}
+			};
+		}
+
+		@Override
+		public Integer get(int index) {
+			return items.get(index);
+		}
+
+		@Override
+		public int size() {
+			return items.size();
+		}
+	}
+}
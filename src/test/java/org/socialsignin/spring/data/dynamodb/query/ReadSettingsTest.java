@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReadSettingsTest {
+
+	@Test
+	public void testOverridesSettingBySetting() {
+		ReadSettings repository = new ReadSettings(ConsistentReads.CONSISTENT, PaginationLoadingStrategy.EAGER_LOADING,
+				25, null);
+		ReadSettings method = new ReadSettings(ConsistentReads.EVENTUAL, null, null, ReturnConsumedCapacity.TOTAL);
+
+		assertEquals(new ReadSettings(ConsistentReads.EVENTUAL, PaginationLoadingStrategy.EAGER_LOADING, 25,
+				ReturnConsumedCapacity.TOTAL), repository.overriddenBy(method));
+		assertEquals(repository, repository.overriddenBy(ReadSettings.DEFAULT));
+		assertTrue(ReadSettings.DEFAULT.overriddenBy(ReadSettings.DEFAULT).isDefault());
+		assertFalse(method.isDefault());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsNonPositivePageSize() {
+		new ReadSettings(null, null, 0, null);
+	}
+
+	@Test
+	public void testKeepsTheConfigIfNeitherConsistencyNorPaginationIsSet() {
+		DynamoDBMapperConfig config = DynamoDBMapperConfig.DEFAULT;
+
+		assertSame(config, ReadSettings.DEFAULT.applyTo(config));
+		assertSame(config, new ReadSettings(null, null, 10, ReturnConsumedCapacity.TOTAL).applyTo(config));
+	}
+
+	@Test
+	public void testMergesConsistencyAndPaginationIntoTheConfig() {
+		DynamoDBMapperConfig config = new ReadSettings(null, PaginationLoadingStrategy.ITERATION_ONLY, null, null)
+				.applyTo(DynamoDBMapperConfig.builder().withConsistentReads(ConsistentReads.CONSISTENT).build());
+
+		assertEquals(ConsistentReads.CONSISTENT, config.getConsistentReads());
+		assertEquals(PaginationLoadingStrategy.ITERATION_ONLY, config.getPaginationLoadingStrategy());
+	}
+
+	@Test
+	public void testKeepsTheLimitOfTheRequest() {
+		ReadSettings readSettings = new ReadSettings(ConsistentReads.CONSISTENT, null, 10,
+				ReturnConsumedCapacity.INDEXES);
+		QueryRequest limited = new QueryRequest().withLimit(3);
+		QueryRequest unlimited = new QueryRequest();
+
+		readSettings.applyTo(limited);
+		readSettings.applyTo(unlimited);
+
+		assertEquals(Integer.valueOf(3), limited.getLimit());
+		assertEquals(Integer.valueOf(10), unlimited.getLimit());
+		assertTrue(unlimited.getConsistentRead());
+		assertEquals(ReturnConsumedCapacity.INDEXES.toString(), unlimited.getReturnConsumedCapacity());
+	}
+
+	@Test
+	public void testAppliesToScans() {
+		DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
+
+		new ReadSettings(ConsistentReads.EVENTUAL, null, null, ReturnConsumedCapacity.TOTAL).applyTo(scanExpression);
+
+		assertFalse(scanExpression.isConsistentRead());
+		assertNull(scanExpression.getLimit());
+		assertEquals(ReturnConsumedCapacity.TOTAL.toString(), scanExpression.getReturnConsumedCapacity());
+	}
+
+	@Test
+	public void testDescribesTheSettings() {
+		assertEquals("eventually consistent reads, ITERATION_ONLY, page size 10, consumed capacity TOTAL",
+				new ReadSettings(ConsistentReads.EVENTUAL, PaginationLoadingStrategy.ITERATION_ONLY, 10,
+						ReturnConsumedCapacity.TOTAL).toString());
+	}
+}
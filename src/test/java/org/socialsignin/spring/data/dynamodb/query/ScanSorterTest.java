@@ -0,0 +1,227 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ScanSorterTest {
+
+	@Rule
+	public TemporaryFolder tempDirectory = new TemporaryFolder();
+
+	private Comparator<Map<String, AttributeValue>> byNumber;
+
+	@Before
+	public void setUp() {
+		byNumber = ScanSorter.order(Sort.by("number").and(Sort.by(Direction.DESC, "name")),
+				(item, propertyName) -> item.get(propertyName));
+	}
+
+	@Test
+	public void testKeepsTheFirstItemsOnly() {
+		ScanSorter underTest = new ScanSorter(3, tempDirectory.getRoot().toPath());
+
+		Iterator<Map<String, AttributeValue>> sorted = underTest.sort(items(5, 3, 9, 1, 7, 2).iterator(), byNumber, 3,
+				item -> item, item -> item);
+
+		assertEquals(Arrays.asList(1, 2, 3), numbers(sorted));
+		assertEquals(0, tempDirectory.getRoot().list().length);
+	}
+
+	@Test
+	public void testSortsInMemoryIfAllItemsFit() {
+		ScanSorter underTest = new ScanSorter(10, tempDirectory.getRoot().toPath());
+
+		Iterator<Map<String, AttributeValue>> sorted = underTest.sort(items(5, 3, 9, 1).iterator(), byNumber,
+				Long.MAX_VALUE, item -> item, item -> item);
+
+		assertEquals(Arrays.asList(1, 3, 5, 9), numbers(sorted));
+		assertEquals(0, tempDirectory.getRoot().list().length);
+	}
+
+	@Test
+	public void testSpillsSortedRunsAndMergesThem() {
+		ScanSorter underTest = new ScanSorter(2, tempDirectory.getRoot().toPath());
+		List<Integer> numbers = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			numbers.add((i * 7) % 25);
+		}
+
+		Iterator<Map<String, AttributeValue>> sorted = underTest.sort(
+				items(numbers.toArray(new Integer[0])).iterator(), byNumber, 20, item -> item, item -> item);
+
+		assertTrue(tempDirectory.getRoot().list().length > 0);
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			expected.add(i);
+		}
+		assertEquals(expected, numbers(sorted));
+		// Released once the limit is reached
+		assertEquals(0, tempDirectory.getRoot().list().length);
+	}
+
+	@Test
+	public void testMergesRunsInPassesIfThereAreMoreThanMaxOpenRuns() {
+		ScanSorter underTest = new ScanSorter(1, 3, tempDirectory.getRoot().toPath());
+		List<Integer> numbers = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			numbers.add((i * 7) % 25);
+		}
+
+		Iterator<Map<String, AttributeValue>> sorted = underTest.sort(
+				items(numbers.toArray(new Integer[0])).iterator(), byNumber, Long.MAX_VALUE, item -> item,
+				item -> item);
+
+		// Only the runs merged at last are left
+		assertTrue(tempDirectory.getRoot().list().length <= 3);
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			expected.add(i);
+		}
+		assertEquals(expected, numbers(sorted));
+		assertEquals(0, tempDirectory.getRoot().list().length);
+	}
+
+	@Test
+	public void testKeepsTheScanOrderOfEqualItemsAcrossMergePasses() {
+		ScanSorter underTest = new ScanSorter(2, 2, tempDirectory.getRoot().toPath());
+		Comparator<Map<String, AttributeValue>> order = ScanSorter.order(Sort.by("number"),
+				(item, propertyName) -> item.get(propertyName));
+		List<Map<String, AttributeValue>> items = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Map<String, AttributeValue> item = item(i % 3);
+			item.put("scanned", new AttributeValue().withN(Integer.toString(i)));
+			items.add(item);
+		}
+
+		List<Map<String, AttributeValue>> sorted = new ArrayList<>();
+		underTest.sort(items.iterator(), order, Long.MAX_VALUE, item -> item, item -> item)
+				.forEachRemaining(sorted::add);
+
+		List<Map<String, AttributeValue>> expected = new ArrayList<>(items);
+		expected.sort(order);
+		assertEquals(expected, sorted);
+	}
+
+	@Test
+	public void testCloseReleasesTheRuns() {
+		ScanSorter underTest = new ScanSorter(2, tempDirectory.getRoot().toPath());
+
+		ScanSorter.Sorted<Map<String, AttributeValue>> sorted = underTest.sort(items(5, 3, 9, 1, 7).iterator(),
+				byNumber, Long.MAX_VALUE, item -> item, item -> item);
+		assertEquals(1, Integer.parseInt(sorted.next().get("number").getN()));
+		sorted.close();
+
+		assertFalse(sorted.hasNext());
+		assertEquals(0, tempDirectory.getRoot().list().length);
+	}
+
+	@Test
+	public void testReleasesTheRunsOfAbandonedResults() throws InterruptedException {
+		ScanSorter underTest = new ScanSorter(2, tempDirectory.getRoot().toPath());
+
+		readFirstItemOnly(underTest);
+		for (int i = 0; i < 100 && tempDirectory.getRoot().list().length > 0; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+
+		assertEquals(0, tempDirectory.getRoot().list().length);
+	}
+
+	private void readFirstItemOnly(ScanSorter underTest) {
+		underTest.sort(items(5, 3, 9, 1, 7).iterator(), byNumber, Long.MAX_VALUE, item -> item, item -> item).next();
+		assertTrue(tempDirectory.getRoot().list().length > 0);
+	}
+
+	@Test
+	public void testKeepsTheScanOrderOfEqualItems() {
+		Map<String, AttributeValue> first = item(1);
+		Map<String, AttributeValue> second = item(1);
+		Map<String, AttributeValue> third = item(1);
+		Comparator<Map<String, AttributeValue>> order = ScanSorter.order(Sort.by("number"),
+				(item, propertyName) -> item.get(propertyName));
+
+		Iterator<Map<String, AttributeValue>> top = new ScanSorter(5, null)
+				.sort(Arrays.asList(item(2), first, second, third).iterator(), order, 2, item -> item, item -> item);
+
+		assertSame(first, top.next());
+		assertSame(second, top.next());
+		assertFalse(top.hasNext());
+	}
+
+	@Test
+	public void testRestoresAllAttributeValuesFromDisk() {
+		ScanSorter underTest = new ScanSorter(1, tempDirectory.getRoot().toPath());
+		Map<String, AttributeValue> rich = item(2);
+		rich.put("name", new AttributeValue().withS("ä😀"));
+		rich.put("binary", new AttributeValue().withB(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+		rich.put("strings", new AttributeValue().withSS("a", "b"));
+		rich.put("numbers", new AttributeValue().withNS("1", "2.5"));
+		rich.put("binaries", new AttributeValue().withBS(ByteBuffer.wrap(new byte[]{4})));
+		rich.put("map",
+				new AttributeValue().withM(Collections.singletonMap("flag", new AttributeValue().withBOOL(true))));
+		rich.put("list",
+				new AttributeValue().withL(new AttributeValue().withNULL(true), new AttributeValue().withN("3")));
+
+		List<Map<String, AttributeValue>> sorted = new ArrayList<>();
+		underTest.sort(Arrays.asList(rich, item(1)).iterator(), byNumber, Long.MAX_VALUE, item -> item, item -> item)
+				.forEachRemaining(sorted::add);
+
+		assertEquals(Arrays.asList(item(1), rich), sorted);
+	}
+
+	private static List<Map<String, AttributeValue>> items(Integer... numbers) {
+		List<Map<String, AttributeValue>> items = new ArrayList<>();
+		for (Integer number : numbers) {
+			items.add(item(number));
+		}
+		return items;
+	}
+
+	private static Map<String, AttributeValue> item(int number) {
+		Map<String, AttributeValue> item = new HashMap<>();
+		item.put("number", new AttributeValue().withN(Integer.toString(number)));
+		return item;
+	}
+
+	private static List<Integer> numbers(Iterator<Map<String, AttributeValue>> items) {
+		List<Integer> numbers = new ArrayList<>();
+		items.forEachRemaining(item -> numbers.add(Integer.valueOf(item.get("number").getN())));
+		return numbers;
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class SortedMergeIteratorTest {
+
+	@Test
+	public void testMergesInOrder() {
+		SortedMergeIterator<Integer> underTest = new SortedMergeIterator<>(Arrays.asList(
+				Arrays.asList(1, 4, 7).iterator(), Arrays.asList(2, 5).iterator(), Arrays.asList(3, 6, 8, 9).iterator()),
+				Comparator.naturalOrder());
+
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), drain(underTest));
+	}
+
+	@Test
+	public void testMergesInReverseOrderSkippingNulls() {
+		SortedMergeIterator<Integer> underTest = new SortedMergeIterator<>(
+				Arrays.asList(Arrays.asList(5, null, 1).iterator(), Collections.<Integer>emptyIterator(),
+						Arrays.asList(null, 4, 2).iterator()),
+				Comparator.<Integer>naturalOrder().reversed());
+
+		assertEquals(Arrays.asList(5, 4, 2, 1), drain(underTest));
+	}
+
+	@Test
+	public void testReturnsEqualElementsInTheOrderOfTheirSources() {
+		String first = new String("a");
+		String second = new String("a");
+		SortedMergeIterator<String> underTest = new SortedMergeIterator<>(
+				Arrays.asList(Collections.singletonList(first).iterator(),
+						Collections.singletonList(second).iterator()),
+				Comparator.naturalOrder());
+
+		List<String> merged = drain(underTest);
+		assertEquals(2, merged.size());
+		assertSame(first, merged.get(0));
+		assertSame(second, merged.get(1));
+	}
+
+	@Test
+	public void testAdvancesASourceOnlyOnceItsElementWasReturned() {
+		CountingIterator first = new CountingIterator(1, 3, 5);
+		CountingIterator second = new CountingIterator(2, 4, 6);
+		SortedMergeIterator<Integer> underTest = new SortedMergeIterator<>(Arrays.asList(first, second),
+				Comparator.naturalOrder());
+
+		assertEquals(Integer.valueOf(1), underTest.next());
+		assertEquals(Integer.valueOf(2), underTest.next());
+
+		assertEquals(2, first.read);
+		assertEquals(2, second.read);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testThrowsWhenExhausted() {
+		SortedMergeIterator<Integer> underTest = new SortedMergeIterator<>(
+				Collections.singletonList(Collections.<Integer>emptyIterator()), Comparator.naturalOrder());
+
+		assertFalse(underTest.hasNext());
+		underTest.next();
+	}
+
+	private static <T> List<T> drain(Iterator<T> iterator) {
+		List<T> result = new ArrayList<>();
+		iterator.forEachRemaining(result::add);
+		return result;
+	}
+
+	private static final class CountingIterator implements Iterator<Integer> {
+		private final Iterator<Integer> delegate;
+		private int read;
+
+		private CountingIterator(Integer... elements) {
+			this.delegate = Arrays.asList(elements).iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return delegate.hasNext();
+		}
+
+		@Override
+		public Integer next() {
+			read++;
+			return delegate.next();
+		}
+	}
+}
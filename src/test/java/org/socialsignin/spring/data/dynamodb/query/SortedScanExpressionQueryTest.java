@@ -0,0 +1,99 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.query;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SortedScanExpressionQueryTest {
+
+	@Mock
+	private DynamoDBOperations dynamoDBOperations;
+	@Mock
+	private PaginatedScanList<User> scanResult;
+
+	private final DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
+	private SortedScanExpressionQuery<User> underTest;
+
+	@Before
+	public void setUp() {
+		DynamoDBMapperTableModel<User> tableModel = new DynamoDBMapper(mock(AmazonDynamoDB.class))
+				.getTableModel(User.class);
+		when(dynamoDBOperations.getTableModel(User.class)).thenReturn(tableModel);
+		when(dynamoDBOperations.scan(eq(User.class), same(scanExpression), any(ReadSettings.class)))
+				.thenReturn(scanResult);
+		when(scanResult.iterator()).thenReturn(Arrays.asList(user("bob"), user("carol"), user("alice")).iterator());
+
+		underTest = new SortedScanExpressionQuery<>(dynamoDBOperations, User.class, scanExpression,
+				new ScanSorter(10, null), ScanSorter.order(Sort.by("name"), tableModel, name -> name), 2);
+		underTest.setScanEnabled(true);
+	}
+
+	@Test
+	public void testSortsTheScannedItems() {
+		List<String> names = new ArrayList<>();
+		underTest.getResultList().forEach(user -> names.add(user.getName()));
+
+		assertEquals(Arrays.asList("alice", "bob"), names);
+	}
+
+	@Test
+	public void testScansIterationOnly() {
+		underTest.setReadSettings(new ReadSettings(ConsistentReads.CONSISTENT, PaginationLoadingStrategy.EAGER_LOADING,
+				50, null));
+
+		underTest.getResultList();
+
+		// A lazily loaded scan result would keep all items in memory while sorting
+		ArgumentCaptor<ReadSettings> readSettings = ArgumentCaptor.forClass(ReadSettings.class);
+		verify(dynamoDBOperations).scan(eq(User.class), same(scanExpression), readSettings.capture());
+		assertEquals(new ReadSettings(ConsistentReads.CONSISTENT, PaginationLoadingStrategy.ITERATION_ONLY, 50, null),
+				readSettings.getValue());
+	}
+
+	private static User user(String name) {
+		User user = new User();
+		user.setName(name);
+		return user;
+	}
+}
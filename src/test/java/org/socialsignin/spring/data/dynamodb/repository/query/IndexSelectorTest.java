@@ -0,0 +1,213 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.query;
+
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.LocalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.junit.Test;
+import org.socialsignin.spring.data.dynamodb.repository.query.IndexSelector.Candidate;
+import org.socialsignin.spring.data.dynamodb.repository.query.IndexSelector.Selection;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexSelectorTest {
+
+	private static final Candidate CITY = Candidate.globalSecondaryIndex("city-index", "city", null);
+	private static final Candidate CITY_CREATED = Candidate.globalSecondaryIndex("city-created-index", "city",
+			"created");
+	private static final Candidate CITY_AGE = Candidate.globalSecondaryIndex("city-age-index", "city", "age");
+
+	@Test
+	public void testPrefersRangeKeyCondition() {
+		Map<String, List<Condition>> conditions = conditions("city", ComparisonOperator.EQ);
+		conditions.putAll(conditions("created", ComparisonOperator.GT));
+
+		Selection selection = select(Arrays.asList(CITY, CITY_CREATED), conditions, Sort.unsorted(), null).get();
+
+		assertEquals(CITY_CREATED, selection.getCandidate());
+		assertEquals(2, selection.getEstimates().size());
+		assertTrue(selection.explain(), selection.explain().startsWith("chose index city-created-index (cost 50.00"));
+		assertTrue(selection.explain(), selection.explain().contains("over index city-index (cost 100.00"));
+	}
+
+	@Test
+	public void testPrefersIndexSortedAsRequested() {
+		Selection selection = select(Arrays.asList(CITY_CREATED, CITY_AGE), conditions("city", ComparisonOperator.EQ),
+				Sort.by(Sort.Direction.DESC, "age"), null).get();
+
+		assertEquals(CITY_AGE, selection.getCandidate());
+		assertTrue(selection.explain(), selection.explain().contains("can't sort by age"));
+	}
+
+	@Test
+	public void testRequiresIndexSortedAsRequested() {
+		Map<String, List<Condition>> conditions = conditions("city", ComparisonOperator.EQ);
+		conditions.putAll(conditions("created", ComparisonOperator.EQ));
+
+		assertFalse(select(Arrays.asList(CITY, CITY_CREATED), conditions, Sort.by("age"), null).isPresent());
+	}
+
+	@Test
+	public void testTieGoesToFirstCandidate() {
+		Selection selection = select(Arrays.asList(CITY_CREATED, CITY_AGE), conditions("city", ComparisonOperator.EQ),
+				Sort.unsorted(), null).get();
+		assertEquals(CITY_CREATED, selection.getCandidate());
+
+		selection = select(Arrays.asList(CITY_AGE, CITY_CREATED), conditions("city", ComparisonOperator.EQ),
+				Sort.unsorted(), null).get();
+		assertEquals(CITY_AGE, selection.getCandidate());
+	}
+
+	@Test
+	public void testRequiresEqualsConditionOnPartitionKey() {
+		assertFalse(select(Arrays.asList(CITY, CITY_CREATED), conditions("city", ComparisonOperator.BEGINS_WITH),
+				Sort.unsorted(), null).isPresent());
+		assertFalse(select(Arrays.asList(CITY, CITY_CREATED), conditions("created", ComparisonOperator.EQ),
+				Sort.unsorted(), null).isPresent());
+	}
+
+	@Test
+	public void testPrefersCoveringProjection() {
+		TableDescription statistics = table(100L)
+				.withGlobalSecondaryIndexes(globalIndex("city-created-index", "created", ProjectionType.KEYS_ONLY, 100L),
+						globalIndex("city-age-index", "age", ProjectionType.ALL, 100L));
+
+		Selection selection = select(Arrays.asList(CITY_CREATED, CITY_AGE), conditions("city", ComparisonOperator.EQ),
+				Sort.unsorted(), statistics).get();
+		assertEquals(CITY_AGE, selection.getCandidate());
+		assertTrue(selection.explain(), selection.explain().contains("projection lacks requested attributes"));
+
+		// Keys are projected into every index
+		selection = new IndexSelector(Arrays.asList(CITY_CREATED, CITY_AGE), attributeNames(), statistics)
+				.select(conditions("city", ComparisonOperator.EQ), Sort.unsorted(), Optional.of("id, City")).get();
+		assertEquals(CITY_CREATED, selection.getCandidate());
+	}
+
+	@Test
+	public void testRequiresCoveringProjectionOfGlobalSecondaryIndex() {
+		TableDescription statistics = table(1000L).withGlobalSecondaryIndexes(
+				globalIndex("city-index", null, ProjectionType.ALL, 1000L),
+				globalIndex("city-created-index", "created", ProjectionType.KEYS_ONLY, 10L));
+		Map<String, List<Condition>> conditions = conditions("city", ComparisonOperator.EQ);
+		conditions.putAll(conditions("created", ComparisonOperator.EQ));
+
+		Selection selection = select(Arrays.asList(CITY, CITY_CREATED), conditions, Sort.unsorted(), statistics)
+				.get();
+
+		// Sparse and selective but the items would lack their attributes
+		assertEquals(CITY, selection.getCandidate());
+		assertFalse(selection.getEstimates().get(1).isQueryable());
+		assertFalse(select(Collections.singletonList(CITY_CREATED), conditions, Sort.unsorted(), statistics)
+				.isPresent());
+	}
+
+	@Test
+	public void testPrefersSparseIndex() {
+		Candidate cityActive = Candidate.globalSecondaryIndex("city-active-index", "city", null);
+		TableDescription statistics = table(1000L).withGlobalSecondaryIndexes(
+				globalIndex("city-index", null, ProjectionType.ALL, 1000L),
+				globalIndex("city-active-index", null, ProjectionType.ALL, 10L));
+
+		Selection selection = select(Arrays.asList(CITY, cityActive), conditions("city", ComparisonOperator.EQ),
+				Sort.unsorted(), statistics).get();
+
+		assertEquals(cityActive, selection.getCandidate());
+		assertTrue(selection.explain(), selection.explain().contains("holds 1% of the items"));
+	}
+
+	@Test
+	public void testIgnoresSparsenessWithoutRangeKeyCondition() {
+		TableDescription statistics = table(1000L).withGlobalSecondaryIndexes(
+				globalIndex("city-index", null, ProjectionType.ALL, 1000L),
+				globalIndex("city-created-index", "created", ProjectionType.ALL, 10L));
+
+		Selection selection = select(Arrays.asList(CITY, CITY_CREATED), conditions("city", ComparisonOperator.EQ),
+				Sort.unsorted(), statistics).get();
+
+		// Items without a creation date are not part of the sparse index
+		assertEquals(CITY, selection.getCandidate());
+	}
+
+	@Test
+	public void testChoosesBetweenTableAndLocalSecondaryIndex() {
+		Candidate table = Candidate.table("id", "tenant");
+		Candidate email = Candidate.localSecondaryIndex("id", "email");
+		Map<String, List<Condition>> conditions = conditions("id", ComparisonOperator.EQ);
+		conditions.putAll(conditions("email", ComparisonOperator.EQ));
+
+		assertEquals(email, select(Arrays.asList(table, email), conditions, Sort.unsorted(), null).get().getCandidate());
+		assertEquals(table, select(Arrays.asList(table, email), conditions, Sort.by("tenant"), null).get()
+				.getCandidate());
+
+		TableDescription statistics = table(100L).withLocalSecondaryIndexes(new LocalSecondaryIndexDescription()
+				.withIndexName("email-index").withKeySchema(key("Id", KeyType.HASH), key("email", KeyType.RANGE))
+				.withProjection(new Projection().withProjectionType(ProjectionType.KEYS_ONLY)));
+		Selection selection = select(Arrays.asList(table, email), conditions, Sort.unsorted(), statistics).get();
+		// Fetching the remaining attributes from the table is still cheaper
+		assertEquals(email, selection.getCandidate());
+		assertTrue(selection.explain(), selection.explain().contains("fetches unprojected attributes from the table"));
+	}
+
+	private static Optional<Selection> select(List<Candidate> candidates, Map<String, List<Condition>> conditions,
+			Sort sort, TableDescription statistics) {
+		return new IndexSelector(candidates, attributeNames(), statistics).select(conditions, sort, Optional.empty());
+	}
+
+	private static Function<String, String> attributeNames() {
+		return propertyName -> "city".equals(propertyName) ? "City" : "id".equals(propertyName) ? "Id" : propertyName;
+	}
+
+	private static Map<String, List<Condition>> conditions(String propertyName, ComparisonOperator operator) {
+		Map<String, List<Condition>> conditions = new HashMap<>();
+		conditions.put(propertyName, Collections.singletonList(new Condition().withComparisonOperator(operator)));
+		return conditions;
+	}
+
+	private static TableDescription table(Long itemCount) {
+		return new TableDescription().withKeySchema(key("id", KeyType.HASH)).withItemCount(itemCount);
+	}
+
+	private static GlobalSecondaryIndexDescription globalIndex(String indexName, String rangeKeyAttributeName,
+			ProjectionType projectionType, Long itemCount) {
+		List<KeySchemaElement> keySchema = rangeKeyAttributeName == null
+				? Collections.singletonList(key("City", KeyType.HASH))
+				: Arrays.asList(key("City", KeyType.HASH), key(rangeKeyAttributeName, KeyType.RANGE));
+		return new GlobalSecondaryIndexDescription().withIndexName(indexName).withKeySchema(keySchema)
+				.withProjection(new Projection().withProjectionType(projectionType)).withItemCount(itemCount);
+	}
+
+	private static KeySchemaElement key(String attributeName, KeyType keyType) {
+		return new KeySchemaElement().withAttributeName(attributeName).withKeyType(keyType);
+	}
+}
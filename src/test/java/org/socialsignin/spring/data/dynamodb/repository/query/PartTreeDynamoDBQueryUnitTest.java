@@ -15,13 +15,22 @@
  */
 package org.socialsignin.spring.data.dynamodb.repository.query;
 
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.KeyPair;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -34,7 +43,11 @@ import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
 import org.socialsignin.spring.data.dynamodb.domain.sample.DynamoDBYearMarshaller;
 import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
 import org.socialsignin.spring.data.dynamodb.domain.sample.PlaylistId;
+import org.socialsignin.spring.data.dynamodb.domain.sample.PlaylistRepository;
 import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.domain.sample.UserRepository;
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan;
+import org.socialsignin.spring.data.dynamodb.query.ReadSettings;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBEntityInformation;
 import org.socialsignin.spring.data.dynamodb.repository.support.DynamoDBIdIsHashAndRangeKeyEntityInformation;
 import org.springframework.data.repository.query.Parameter;
@@ -48,6 +61,7 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -56,11 +70,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PartTreeDynamoDBQueryUnitTest {
@@ -122,6 +140,8 @@ public class PartTreeDynamoDBQueryUnitTest {
 		Mockito.when(mockUserEntityMetadata.getJavaType()).thenReturn(User.class);
 		Mockito.when(mockDynamoDBUserQueryMethod.isScanEnabled()).thenReturn(true);
 		Mockito.when(mockDynamoDBPlaylistQueryMethod.isScanEnabled()).thenReturn(true);
+		Mockito.when(mockDynamoDBUserQueryMethod.getReadSettings()).thenReturn(ReadSettings.DEFAULT);
+		Mockito.when(mockDynamoDBPlaylistQueryMethod.getReadSettings()).thenReturn(ReadSettings.DEFAULT);
 
 		// Mock out specific DynamoDBOperations behavior expected by this method
 		playlistQueryCaptor = ArgumentCaptor.forClass(DynamoDBQueryExpression.class);
@@ -413,6 +433,28 @@ public class PartTreeDynamoDBQueryUnitTest {
 		Mockito.verify(mockDynamoDBOperations).query(playlistClassCaptor.getValue(), playlistQueryCaptor.getValue());
 	}
 
+	@Test
+	public void testExecute_WhenFinderMethodHasReadOptions_ThenQueriesWithTheReadSettings() {
+		ReadSettings readSettings = new ReadSettings(ConsistentReads.EVENTUAL, PaginationLoadingStrategy.ITERATION_ONLY,
+				10, null);
+		setupCommonMocksForThisRepositoryMethod(mockPlaylistEntityMetadata, mockDynamoDBPlaylistQueryMethod,
+				Playlist.class, "findByUserName", 1, "userName", "playlistName");
+		Mockito.when(mockDynamoDBPlaylistQueryMethod.isCollectionQuery()).thenReturn(true);
+		Mockito.when(mockDynamoDBPlaylistQueryMethod.getReadSettings()).thenReturn(readSettings);
+		Mockito.when(mockPlaylistEntityMetadata.getHashKeyPropotypeEntityForHashKey("someUserName"))
+				.thenReturn(new Playlist());
+		Mockito.when(mockDynamoDBOperations.query(playlistClassCaptor.capture(), playlistQueryCaptor.capture(),
+				Mockito.eq(readSettings))).thenReturn(mockPlaylistQueryResults);
+
+		// Execute the query
+		Object o = partTreeDynamoDBQuery.execute(new Object[]{"someUserName"});
+
+		assertEquals(mockPlaylistQueryResults, o);
+		assertEquals(Playlist.class, playlistClassCaptor.getValue());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).query(Mockito.eq(Playlist.class),
+				Mockito.any(DynamoDBQueryExpression.class));
+	}
+
 	@Test
 	public void testExecute_WhenFinderMethodIsCountingEntityWithCompositeIdList_WhenFindingByRangeKeyOnly_ScanCountEnabled() {
 
@@ -1086,61 +1128,38 @@ public class PartTreeDynamoDBQueryUnitTest {
 		Mockito.when(mockDynamoDBPlaylistQueryMethod.isCollectionQuery()).thenReturn(true);
 		Playlist prototypeHashKey = new Playlist();
 		prototypeHashKey.setUserName("someUserName");
-		// Mockito.when(mockPlaylistEntityMetadata.getHashKeyPropotypeEntityForHashKey("someUserName")).thenReturn(
-		// prototypeHashKey);
+		Mockito.when(mockPlaylistEntityMetadata.getHashKeyPropotypeEntityForHashKey("someUserName"))
+				.thenReturn(prototypeHashKey);
 		Mockito.when(mockPlaylistEntityMetadata.getHashKey(playlistId)).thenReturn("someUserName");
 		Mockito.when(mockPlaylistEntityMetadata.getRangeKey(playlistId)).thenReturn(null);
 		Mockito.when(mockPlaylistEntityMetadata.getOverriddenAttributeName("displayName"))
 				.thenReturn(Optional.of("DisplayName"));
 
-		// Mockito.when(mockUserScanResults.get(0)).thenReturn(mockUser);
-		// Mockito.when(mockUserScanResults.size()).thenReturn(1);
-		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
-				.thenReturn(mockUserScanResults);
+		Mockito.when(mockDynamoDBOperations.query(playlistClassCaptor.capture(), playlistQueryCaptor.capture()))
+				.thenReturn(mockPlaylistQueryResults);
 
 		// Execute the query
 		Object[] parameters = new Object[]{playlistId, "someDisplayName"};
-		partTreeDynamoDBQuery.execute(parameters);
-
-		// Assert that we scanned DynamoDB for the correct class
-		assertEquals(userClassCaptor.getValue(), Playlist.class);
-
-		// Assert that we have only three filter conditions
-		Map<String, Condition> filterConditions = scanCaptor.getValue().getScanFilter();
-		assertEquals(2, filterConditions.size());
-		Condition filterCondition1 = filterConditions.get("userName");
-		Condition filterCondition2 = filterConditions.get("DisplayName");
-
-		assertEquals(ComparisonOperator.EQ.name(), filterCondition1.getComparisonOperator());
-		assertEquals(ComparisonOperator.EQ.name(), filterCondition2.getComparisonOperator());
-
-		// Assert we only have one attribute value for this filter condition
-		assertEquals(1, filterCondition1.getAttributeValueList().size());
-		assertEquals(1, filterCondition2.getAttributeValueList().size());
+		Object o = partTreeDynamoDBQuery.execute(parameters);
 
-		// Assert that there the attribute value type for this attribute value
-		// is String,
-		// and its value is the parameter expected
-		assertEquals("someUserName", filterCondition1.getAttributeValueList().get(0).getS());
-		assertEquals("someDisplayName", filterCondition2.getAttributeValueList().get(0).getS());
+		// Assert that we obtain the expected results
+		assertEquals(mockPlaylistQueryResults, o);
 
-		// Assert that all other attribute value types other than String type
-		// are null
-		assertNull(filterCondition1.getAttributeValueList().get(0).getSS());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getN());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getNS());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getB());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getBS());
+		// Assert that we queried the partition of the hash key
+		assertEquals(playlistClassCaptor.getValue(), Playlist.class);
+		DynamoDBQueryExpression<Playlist> queryExpression = playlistQueryCaptor.getValue();
+		assertEquals(prototypeHashKey, queryExpression.getHashKeyValues());
+		assertTrue(queryExpression.getRangeKeyConditions().isEmpty());
 
-		assertNull(filterCondition2.getAttributeValueList().get(0).getSS());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getN());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getNS());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getB());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getBS());
+		// Assert that the display name is filtered on server side
+		assertEquals(1, queryExpression.getQueryFilter().size());
+		Condition filterCondition = queryExpression.getQueryFilter().get("DisplayName");
+		assertEquals(ComparisonOperator.EQ.name(), filterCondition.getComparisonOperator());
+		assertEquals(1, filterCondition.getAttributeValueList().size());
+		assertEquals("someDisplayName", filterCondition.getAttributeValueList().get(0).getS());
 
 		// Verify that the expected DynamoDBOperations method was called
-		Mockito.verify(mockDynamoDBOperations).scan(userClassCaptor.getValue(), scanCaptor.getValue()); // Assert
-		// that we obtain the expected results
+		Mockito.verify(mockDynamoDBOperations).query(playlistClassCaptor.getValue(), playlistQueryCaptor.getValue());
 	}
 
 	@Test
@@ -1276,72 +1295,40 @@ public class PartTreeDynamoDBQueryUnitTest {
 		Mockito.when(mockDynamoDBPlaylistQueryMethod.isCollectionQuery()).thenReturn(true);
 		Playlist prototypeHashKey = new Playlist();
 		prototypeHashKey.setUserName("someUserName");
-
-		// Mockito.when(mockPlaylistEntityMetadata.getHashKeyPropotypeEntityForHashKey("someUserName")).thenReturn(
-		// prototypeHashKey);
+		Mockito.when(mockPlaylistEntityMetadata.getHashKeyPropotypeEntityForHashKey("someUserName"))
+				.thenReturn(prototypeHashKey);
 		Mockito.when(mockPlaylistEntityMetadata.getHashKey(playlistId)).thenReturn("someUserName");
 		Mockito.when(mockPlaylistEntityMetadata.getRangeKey(playlistId)).thenReturn("somePlaylistName");
 		Mockito.when(mockPlaylistEntityMetadata.getOverriddenAttributeName("displayName"))
 				.thenReturn(Optional.of("DisplayName"));
 
-		// Mockito.when(mockUserScanResults.get(0)).thenReturn(mockUser);
-		// Mockito.when(mockUserScanResults.size()).thenReturn(1);
-		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
-				.thenReturn(mockUserScanResults);
+		Mockito.when(mockDynamoDBOperations.query(playlistClassCaptor.capture(), playlistQueryCaptor.capture()))
+				.thenReturn(mockPlaylistQueryResults);
 
 		// Execute the query
 		Object[] parameters = new Object[]{playlistId, "someDisplayName"};
-		partTreeDynamoDBQuery.execute(parameters);
-
-		// Assert that we scanned DynamoDB for the correct class
-		assertEquals(userClassCaptor.getValue(), Playlist.class);
-
-		// Assert that we have only three filter conditions
-		Map<String, Condition> filterConditions = scanCaptor.getValue().getScanFilter();
-		assertEquals(3, filterConditions.size());
-		Condition filterCondition1 = filterConditions.get("userName");
-		Condition filterCondition2 = filterConditions.get("playlistName");
-		Condition filterCondition3 = filterConditions.get("DisplayName");
-
-		assertEquals(ComparisonOperator.EQ.name(), filterCondition1.getComparisonOperator());
-		assertEquals(ComparisonOperator.EQ.name(), filterCondition2.getComparisonOperator());
-		assertEquals(ComparisonOperator.EQ.name(), filterCondition3.getComparisonOperator());
-
-		// Assert we only have one attribute value for this filter condition
-		assertEquals(1, filterCondition1.getAttributeValueList().size());
-		assertEquals(1, filterCondition2.getAttributeValueList().size());
-		assertEquals(1, filterCondition3.getAttributeValueList().size());
-
-		// Assert that there the attribute value type for this attribute value
-		// is String,
-		// and its value is the parameter expected
-		assertEquals("someUserName", filterCondition1.getAttributeValueList().get(0).getS());
-		assertEquals("somePlaylistName", filterCondition2.getAttributeValueList().get(0).getS());
-		assertEquals("someDisplayName", filterCondition3.getAttributeValueList().get(0).getS());
-
-		// Assert that all other attribute value types other than String type
-		// are null
-		assertNull(filterCondition1.getAttributeValueList().get(0).getSS());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getN());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getNS());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getB());
-		assertNull(filterCondition1.getAttributeValueList().get(0).getBS());
+		Object o = partTreeDynamoDBQuery.execute(parameters);
 
-		assertNull(filterCondition2.getAttributeValueList().get(0).getSS());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getN());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getNS());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getB());
-		assertNull(filterCondition2.getAttributeValueList().get(0).getBS());
+		// Assert that we obtain the expected results
+		assertEquals(mockPlaylistQueryResults, o);
 
-		assertNull(filterCondition3.getAttributeValueList().get(0).getSS());
-		assertNull(filterCondition3.getAttributeValueList().get(0).getN());
-		assertNull(filterCondition3.getAttributeValueList().get(0).getNS());
-		assertNull(filterCondition3.getAttributeValueList().get(0).getB());
-		assertNull(filterCondition3.getAttributeValueList().get(0).getBS());
+		// Assert that hash and range key are the key conditions of the query
+		assertEquals(playlistClassCaptor.getValue(), Playlist.class);
+		DynamoDBQueryExpression<Playlist> queryExpression = playlistQueryCaptor.getValue();
+		assertEquals(prototypeHashKey, queryExpression.getHashKeyValues());
+		assertEquals(1, queryExpression.getRangeKeyConditions().size());
+		Condition rangeKeyCondition = queryExpression.getRangeKeyConditions().get("playlistName");
+		assertEquals(ComparisonOperator.EQ.name(), rangeKeyCondition.getComparisonOperator());
+		assertEquals("somePlaylistName", rangeKeyCondition.getAttributeValueList().get(0).getS());
+
+		// Assert that the display name is filtered on server side
+		assertEquals(1, queryExpression.getQueryFilter().size());
+		Condition filterCondition = queryExpression.getQueryFilter().get("DisplayName");
+		assertEquals(ComparisonOperator.EQ.name(), filterCondition.getComparisonOperator());
+		assertEquals("someDisplayName", filterCondition.getAttributeValueList().get(0).getS());
 
 		// Verify that the expected DynamoDBOperations method was called
-		Mockito.verify(mockDynamoDBOperations).scan(userClassCaptor.getValue(), scanCaptor.getValue()); // Assert
-		// that we obtain the expected results
+		Mockito.verify(mockDynamoDBOperations).query(playlistClassCaptor.getValue(), playlistQueryCaptor.getValue());
 	}
 
 	@Test
@@ -1447,11 +1434,13 @@ public class PartTreeDynamoDBQueryUnitTest {
 	public void testExecute_WhenFinderMethodIsFindingSingleEntity_WithMultipleStringParameters_WhenFindingByHashKeyAndANonHashOrRangeProperty() {
 		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
 				"findByIdAndName", 2, "id", null);
+		Mockito.when(mockUserEntityMetadata.getDynamoDBTableName()).thenReturn("user");
+		Mockito.when(mockDynamoDBOperations.getOverriddenTableName(User.class, "user")).thenReturn("user");
 
-		Mockito.when(mockUserScanResults.get(0)).thenReturn(mockUser);
-		Mockito.when(mockUserScanResults.size()).thenReturn(1);
-		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
-				.thenReturn(mockUserScanResults);
+		Mockito.when(mockUserQueryResults.get(0)).thenReturn(mockUser);
+		Mockito.when(mockUserQueryResults.size()).thenReturn(1);
+		Mockito.when(mockDynamoDBOperations.query(userClassCaptor.capture(), queryResultCaptor.capture()))
+				.thenReturn(mockUserQueryResults);
 
 		// Execute the query
 		Object[] parameters = new Object[]{"someId", "someName"};
@@ -1460,45 +1449,28 @@ public class PartTreeDynamoDBQueryUnitTest {
 		// Assert that we obtain the expected single result
 		assertEquals(o, mockUser);
 
-		// Assert that we scanned DynamoDB for the correct class
+		// Assert that we queried the partition of the hash key instead of scanning
+		// the table
 		assertEquals(userClassCaptor.getValue(), User.class);
-
-		// Assert that we have two filter conditions, for the id and name
-		Map<String, Condition> filterConditions = scanCaptor.getValue().getScanFilter();
-		assertEquals(2, filterConditions.size());
-		Condition nameFilterCondition = filterConditions.get("name");
-		assertNotNull(nameFilterCondition);
-		Condition idFilterCondition = filterConditions.get("id");
-		assertNotNull(idFilterCondition);
-
+		QueryRequest queryRequest = queryResultCaptor.getValue();
+		assertEquals("user", queryRequest.getTableName());
+		assertNull(queryRequest.getIndexName());
+
+		// Assert that the hash key is the key condition
+		assertEquals(1, queryRequest.getKeyConditions().size());
+		Condition idKeyCondition = queryRequest.getKeyConditions().get("id");
+		assertEquals(ComparisonOperator.EQ.name(), idKeyCondition.getComparisonOperator());
+		assertEquals("someId", idKeyCondition.getAttributeValueList().get(0).getS());
+
+		// Assert that the name is filtered on server side
+		assertEquals(1, queryRequest.getQueryFilter().size());
+		Condition nameFilterCondition = queryRequest.getQueryFilter().get("name");
 		assertEquals(ComparisonOperator.EQ.name(), nameFilterCondition.getComparisonOperator());
-		assertEquals(ComparisonOperator.EQ.name(), idFilterCondition.getComparisonOperator());
-
-		// Assert we only have one attribute value for each filter condition
 		assertEquals(1, nameFilterCondition.getAttributeValueList().size());
-		assertEquals(1, idFilterCondition.getAttributeValueList().size());
-
-		// Assert that there the attribute value type for this attribute value
-		// is String,
-		// and its value is the parameter expected
 		assertEquals("someName", nameFilterCondition.getAttributeValueList().get(0).getS());
-		assertEquals("someId", idFilterCondition.getAttributeValueList().get(0).getS());
-
-		// Assert that all other attribute value types other than String type
-		// are null
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getSS());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getN());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getNS());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getB());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getBS());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getSS());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getN());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getNS());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getB());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getBS());
 
 		// Verify that the expected DynamoDBOperations method was called
-		Mockito.verify(mockDynamoDBOperations).scan(userClassCaptor.getValue(), scanCaptor.getValue());
+		Mockito.verify(mockDynamoDBOperations).query(userClassCaptor.getValue(), queryResultCaptor.getValue());
 	}
 
 	@Test
@@ -1567,10 +1539,10 @@ public class PartTreeDynamoDBQueryUnitTest {
 		Mockito.when(mockUserEntityMetadata.getOverriddenAttributeName("name")).thenReturn(Optional.of("Name"));
 		Mockito.when(mockUserEntityMetadata.getOverriddenAttributeName("id")).thenReturn(Optional.of("Id"));
 
-		Mockito.when(mockUserScanResults.get(0)).thenReturn(mockUser);
-		Mockito.when(mockUserScanResults.size()).thenReturn(1);
-		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
-				.thenReturn(mockUserScanResults);
+		Mockito.when(mockUserQueryResults.get(0)).thenReturn(mockUser);
+		Mockito.when(mockUserQueryResults.size()).thenReturn(1);
+		Mockito.when(mockDynamoDBOperations.query(userClassCaptor.capture(), queryResultCaptor.capture()))
+				.thenReturn(mockUserQueryResults);
 
 		// Execute the query
 		Object[] parameters = new Object[]{"someId", "someName"};
@@ -1579,45 +1551,21 @@ public class PartTreeDynamoDBQueryUnitTest {
 		// Assert that we obtain the expected single result
 		assertEquals(o, mockUser);
 
-		// Assert that we scanned DynamoDB for the correct class
-		assertEquals(userClassCaptor.getValue(), User.class);
-
-		// Assert that we have two filter conditions, for the id and name
-		Map<String, Condition> filterConditions = scanCaptor.getValue().getScanFilter();
-		assertEquals(2, filterConditions.size());
-		Condition nameFilterCondition = filterConditions.get("Name");
-		assertNotNull(nameFilterCondition);
-		Condition idFilterCondition = filterConditions.get("Id");
-		assertNotNull(idFilterCondition);
+		// Assert that the overridden attribute names are used for the key condition
+		// and the query filter
+		QueryRequest queryRequest = queryResultCaptor.getValue();
+		assertEquals(1, queryRequest.getKeyConditions().size());
+		Condition idKeyCondition = queryRequest.getKeyConditions().get("Id");
+		assertEquals(ComparisonOperator.EQ.name(), idKeyCondition.getComparisonOperator());
+		assertEquals("someId", idKeyCondition.getAttributeValueList().get(0).getS());
 
+		assertEquals(1, queryRequest.getQueryFilter().size());
+		Condition nameFilterCondition = queryRequest.getQueryFilter().get("Name");
 		assertEquals(ComparisonOperator.EQ.name(), nameFilterCondition.getComparisonOperator());
-		assertEquals(ComparisonOperator.EQ.name(), idFilterCondition.getComparisonOperator());
-
-		// Assert we only have one attribute value for each filter condition
-		assertEquals(1, nameFilterCondition.getAttributeValueList().size());
-		assertEquals(1, idFilterCondition.getAttributeValueList().size());
-
-		// Assert that there the attribute value type for this attribute value
-		// is String,
-		// and its value is the parameter expected
 		assertEquals("someName", nameFilterCondition.getAttributeValueList().get(0).getS());
-		assertEquals("someId", idFilterCondition.getAttributeValueList().get(0).getS());
-
-		// Assert that all other attribute value types other than String type
-		// are null
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getSS());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getN());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getNS());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getB());
-		assertNull(nameFilterCondition.getAttributeValueList().get(0).getBS());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getSS());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getN());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getNS());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getB());
-		assertNull(idFilterCondition.getAttributeValueList().get(0).getBS());
 
 		// Verify that the expected DynamoDBOperations method was called
-		Mockito.verify(mockDynamoDBOperations).scan(userClassCaptor.getValue(), scanCaptor.getValue());
+		Mockito.verify(mockDynamoDBOperations).query(userClassCaptor.getValue(), queryResultCaptor.getValue());
 	}
 
 	@Test
@@ -2980,6 +2928,48 @@ public class PartTreeDynamoDBQueryUnitTest {
 		// Verify that the expected DynamoDBOperations method was called
 		Mockito.verify(mockDynamoDBOperations).query(userClassCaptor.getValue(), queryResultCaptor.getValue());
 	}
+
+	// Global Secondary Index Test 4i2
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityByGlobalSecondaryHashKeyOrderedByIndexRangeKey_WhereSecondaryHashKeyMemberOfMultipleIndexes() {
+
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByNameOrderByJoinYearDesc", 1, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("name")).thenReturn(true);
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexRangeKeyProperty("postCode")).thenReturn(true);
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexRangeKeyProperty("joinYear")).thenReturn(true);
+
+		Map<String, String[]> indexRangeKeySecondaryIndexNames = new HashMap<String, String[]>();
+		indexRangeKeySecondaryIndexNames.put("name", new String[]{"Name-PostCode-index", "Name-JoinYear-index"});
+		indexRangeKeySecondaryIndexNames.put("postCode", new String[]{"Name-PostCode-index"});
+		indexRangeKeySecondaryIndexNames.put("joinYear", new String[]{"Name-JoinYear-index"});
+
+		Mockito.when(mockUserEntityMetadata.getGlobalSecondaryIndexNamesByPropertyName())
+				.thenReturn(indexRangeKeySecondaryIndexNames);
+
+		Mockito.when(mockUserEntityMetadata.getDynamoDBTableName()).thenReturn("user");
+
+		// Mock out specific QueryRequestMapper behavior expected by this method
+		Mockito.when(mockDynamoDBOperations.query(userClassCaptor.capture(), queryResultCaptor.capture()))
+				.thenReturn(mockUserQueryResults);
+		Mockito.when(mockDynamoDBOperations.getOverriddenTableName(User.class, "user")).thenReturn("user");
+
+		// Execute the query
+		Object[] parameters = new Object[]{"SomeName"};
+		Object o = partTreeDynamoDBQuery.execute(parameters);
+
+		// Assert that we obtain the expected results
+		assertEquals(mockUserQueryResults, o);
+
+		// The first declared index can't return the users ordered by join year
+		assertEquals("Name-JoinYear-index", queryResultCaptor.getValue().getIndexName());
+		assertFalse(queryResultCaptor.getValue().getScanIndexForward());
+		assertEquals(1, queryResultCaptor.getValue().getKeyConditions().size());
+		assertEquals(ComparisonOperator.EQ.name(),
+				queryResultCaptor.getValue().getKeyConditions().get("name").getComparisonOperator());
+	}
 	// Global Secondary Index Test 4j
 	@Test
 	public void testExecute_WhenFinderMethodIsFindingEntityByGlobalSecondaryHashAndRangeIndexHashCondition_WhereSecondaryHashKeyMemberOfMultipleIndexes()
@@ -3047,6 +3037,123 @@ public class PartTreeDynamoDBQueryUnitTest {
 		Mockito.verify(mockDynamoDBOperations).query(userClassCaptor.getValue(), queryResultCaptor.getValue());
 	}
 
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityByGlobalSecondaryIndexHashKeyAndANonKeyProperty() {
+
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByNameAndNumberOfPlaylists", 2, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("name")).thenReturn(true);
+
+		Map<String, String[]> indexRangeKeySecondaryIndexNames = new HashMap<String, String[]>();
+		indexRangeKeySecondaryIndexNames.put("name", new String[]{"Name-PostCode-index", "Name-JoinYear-index"});
+		indexRangeKeySecondaryIndexNames.put("postCode", new String[]{"Name-PostCode-index"});
+		indexRangeKeySecondaryIndexNames.put("joinYear", new String[]{"Name-JoinYear-index"});
+		Mockito.when(mockUserEntityMetadata.getGlobalSecondaryIndexNamesByPropertyName())
+				.thenReturn(indexRangeKeySecondaryIndexNames);
+
+		Mockito.when(mockUserEntityMetadata.getDynamoDBTableName()).thenReturn("user");
+		Mockito.when(mockDynamoDBOperations.query(userClassCaptor.capture(), queryResultCaptor.capture()))
+				.thenReturn(mockUserQueryResults);
+		Mockito.when(mockDynamoDBOperations.getOverriddenTableName(User.class, "user")).thenReturn("user");
+		Mockito.when(mockDynamoDBOperations.getTableDescription(User.class))
+				.thenReturn(userTableWithNamePostCodeIndex(ProjectionType.ALL));
+
+		// Execute the query
+		Object[] parameters = new Object[]{"SomeName", 5};
+		Object o = partTreeDynamoDBQuery.execute(parameters);
+
+		// Assert that we queried the index instead of scanning the table
+		assertEquals(mockUserQueryResults, o);
+		QueryRequest queryRequest = queryResultCaptor.getValue();
+		assertEquals("user", queryRequest.getTableName());
+		assertEquals("Name-PostCode-index", queryRequest.getIndexName());
+
+		// Assert that the index hash key is the only key condition
+		assertEquals(1, queryRequest.getKeyConditions().size());
+		Condition globalHashKeyCondition = queryRequest.getKeyConditions().get("name");
+		assertEquals(ComparisonOperator.EQ.name(), globalHashKeyCondition.getComparisonOperator());
+		assertEquals("SomeName", globalHashKeyCondition.getAttributeValueList().get(0).getS());
+
+		// Assert that the number of playlists is filtered on server side
+		assertEquals(1, queryRequest.getQueryFilter().size());
+		Condition filterCondition = queryRequest.getQueryFilter().get("numberOfPlaylists");
+		assertEquals(ComparisonOperator.EQ.name(), filterCondition.getComparisonOperator());
+		assertEquals("5", filterCondition.getAttributeValueList().get(0).getN());
+
+		// Verify that the expected DynamoDBOperations method was called
+		Mockito.verify(mockDynamoDBOperations).query(userClassCaptor.getValue(), queryResultCaptor.getValue());
+	}
+
+	@Test
+	public void testExecute_WhenLimitedFinderMethodIsFindingEntityByGlobalSecondaryIndexHashKeyAndANonKeyProperty() {
+
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByNameAndNumberOfPlaylists", 2, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+		Mockito.when(mockDynamoDBUserQueryMethod.getLimitResults()).thenReturn(Optional.of(10));
+
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("name")).thenReturn(true);
+
+		Map<String, String[]> indexRangeKeySecondaryIndexNames = new HashMap<String, String[]>();
+		indexRangeKeySecondaryIndexNames.put("name", new String[]{"Name-PostCode-index"});
+		indexRangeKeySecondaryIndexNames.put("postCode", new String[]{"Name-PostCode-index"});
+		Mockito.when(mockUserEntityMetadata.getGlobalSecondaryIndexNamesByPropertyName())
+				.thenReturn(indexRangeKeySecondaryIndexNames);
+		Mockito.when(mockDynamoDBOperations.getTableDescription(User.class))
+				.thenReturn(userTableWithNamePostCodeIndex(ProjectionType.ALL));
+		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
+				.thenReturn(mockUserScanResults);
+
+		// Execute the query
+		Object[] parameters = new Object[]{"SomeName", 5};
+		Object o = partTreeDynamoDBQuery.execute(parameters);
+
+		// Assert that we scanned as DynamoDB would apply the limit before the query
+		// filter - the limited query would miss matches
+		assertEquals(mockUserScanResults, o);
+		Map<String, Condition> filterConditions = scanCaptor.getValue().getScanFilter();
+		assertEquals(2, filterConditions.size());
+		assertEquals("SomeName", filterConditions.get("name").getAttributeValueList().get(0).getS());
+		assertEquals("5", filterConditions.get("numberOfPlaylists").getAttributeValueList().get(0).getN());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).query(Mockito.eq(User.class),
+				Mockito.any(QueryRequest.class));
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityByGlobalSecondaryIndexHashKeyAndANonProjectedProperty() {
+
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByNameAndNumberOfPlaylists", 2, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("name")).thenReturn(true);
+
+		Map<String, String[]> indexRangeKeySecondaryIndexNames = new HashMap<String, String[]>();
+		indexRangeKeySecondaryIndexNames.put("name", new String[]{"Name-PostCode-index"});
+		indexRangeKeySecondaryIndexNames.put("postCode", new String[]{"Name-PostCode-index"});
+		Mockito.when(mockUserEntityMetadata.getGlobalSecondaryIndexNamesByPropertyName())
+				.thenReturn(indexRangeKeySecondaryIndexNames);
+		Mockito.when(mockDynamoDBOperations.getTableDescription(User.class))
+				.thenReturn(userTableWithNamePostCodeIndex(ProjectionType.KEYS_ONLY));
+		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
+				.thenReturn(mockUserScanResults);
+
+		// Execute the query
+		Object[] parameters = new Object[]{"SomeName", 5};
+		Object o = partTreeDynamoDBQuery.execute(parameters);
+
+		// Assert that we scanned as the index lacks the number of playlists - a
+		// query filter on it would not match any item
+		assertEquals(mockUserScanResults, o);
+		Map<String, Condition> filterConditions = scanCaptor.getValue().getScanFilter();
+		assertEquals(2, filterConditions.size());
+		assertEquals("5", filterConditions.get("numberOfPlaylists").getAttributeValueList().get(0).getN());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).query(Mockito.eq(User.class),
+				Mockito.any(QueryRequest.class));
+	}
+
 	// Global Secondary Index Test 4k
 	@Test
 	public void testExecute_WhenFinderMethodIsFindingEntityByGlobalSecondaryHashAndRangeIndexHashCondition_WhereSecondaryHashKeyMemberOfMultipleIndexes_WhereOneIndexIsExactMatch()
@@ -3592,4 +3699,314 @@ public class PartTreeDynamoDBQueryUnitTest {
 		// Verify that the expected DynamoDBOperations method was called
 		Mockito.verify(mockDynamoDBOperations).scan(userClassCaptor.getValue(), scanCaptor.getValue());
 	}
+
+	@Test
+	public void testExplain_WhenFindingByHashKey() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findById", 1, "id", null);
+		Mockito.doReturn(UserRepository.class).when(mockDynamoDBUserQueryMethod).getRepositoryInterface();
+
+		QueryMethodPlan plan = ((PartTreeDynamoDBQuery<User, String>) partTreeDynamoDBQuery)
+				.explain(new Object[]{"someId"});
+
+		assertEquals(QueryPlan.Operation.GET_ITEM, plan.getQuery().getOperation());
+		assertFalse(plan.isScan());
+		assertNull(plan.getCount());
+		assertFalse(plan.isValueDependent());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).load(User.class, "someId");
+	}
+
+	@Test
+	public void testExplain_WhenFindingByHashKeyOfCompositeId() {
+		setupCommonMocksForThisRepositoryMethod(mockPlaylistEntityMetadata, mockDynamoDBPlaylistQueryMethod,
+				Playlist.class, "findByUserName", 1, "userName", "playlistName");
+		Mockito.doReturn(PlaylistRepository.class).when(mockDynamoDBPlaylistQueryMethod).getRepositoryInterface();
+		Mockito.when(mockPlaylistEntityMetadata.getHashKeyPropotypeEntityForHashKey("someUserName"))
+				.thenReturn(new Playlist());
+
+		QueryMethodPlan plan = ((PartTreeDynamoDBQuery<Playlist, PlaylistId>) partTreeDynamoDBQuery)
+				.explain(new Object[]{"someUserName"});
+
+		assertEquals(QueryPlan.Operation.QUERY, plan.getQuery().getOperation());
+		assertEquals(Collections.singletonList("<hash key> EQ"), plan.getQuery().getKeyConditions());
+		assertTrue(plan.isResolved());
+		assertFalse(plan.isScan());
+	}
+
+	@Test
+	public void testExplain_WhenNotFindingByHashKey() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByName", 1, "id", null);
+		Mockito.doReturn(UserRepository.class).when(mockDynamoDBUserQueryMethod).getRepositoryInterface();
+		Mockito.when(mockDynamoDBUserQueryMethod.isPageQuery()).thenReturn(true);
+
+		QueryMethodPlan plan = ((PartTreeDynamoDBQuery<User, String>) partTreeDynamoDBQuery)
+				.explain(new Object[]{"someName"});
+
+		assertTrue(plan.isScan());
+		assertTrue(plan.isCountScan());
+		assertEquals(Collections.singletonList("name EQ"), plan.getQuery().getFilterConditions());
+		assertTrue(plan.toString(), plan.toString().startsWith("UserRepository.findByName"));
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).scan(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testExplain_WhenFindingByOr_ThenPlanDependsOnTheValues() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByIdOrName", 2, "id", null);
+		Mockito.doReturn(UserRepository.class).when(mockDynamoDBUserQueryMethod).getRepositoryInterface();
+		Mockito.doReturn(new Object[]{"id", "name"}).when(mockDynamoDBUserQueryMethod)
+				.getPlaceholderParameterValues();
+
+		QueryMethodPlan plan = ((PartTreeDynamoDBQuery<User, String>) partTreeDynamoDBQuery).explain();
+
+		assertTrue(plan.isResolved());
+		assertTrue(plan.isValueDependent());
+		assertTrue(plan.toString(), plan.toString().contains(": depends on the values, e.g. "));
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityList_WithOr_WhenEachBranchIsAQuery() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByNameOrPostCodeOrderByNumberOfPlaylistsDesc", 2, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+		setupIndexesOnNameAndPostCodeRangedByNumberOfPlaylists();
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexRangeKeyProperty("numberOfPlaylists")).thenReturn(true);
+
+		User a = user("a", 5);
+		User b = user("b", 3);
+		User c = user("c", 1);
+		Mockito.when(mockUserEntityMetadata.getId(Mockito.any(User.class)))
+				.thenAnswer(invocation -> invocation.<User>getArgument(0).getId());
+		@SuppressWarnings("unchecked")
+		PaginatedQueryList<User> postCodeResults = Mockito.mock(PaginatedQueryList.class);
+		Mockito.when(mockUserQueryResults.iterator()).thenReturn(Arrays.asList(a, c).iterator());
+		Mockito.when(postCodeResults.iterator()).thenReturn(Arrays.asList(a, b).iterator());
+		Mockito.when(mockDynamoDBOperations.query(userClassCaptor.capture(), queryResultCaptor.capture()))
+				.thenReturn(mockUserQueryResults, postCodeResults);
+
+		Object o = partTreeDynamoDBQuery.execute(new Object[]{"someName", "somePostCode"});
+
+		// Both branches are merged by the number of playlists - a is found by both
+		assertEquals(Arrays.asList(a, b, c), o);
+		List<QueryRequest> queryRequests = queryResultCaptor.getAllValues();
+		assertEquals(2, queryRequests.size());
+		assertEquals("Name-NumberOfPlaylists-index", queryRequests.get(0).getIndexName());
+		assertEquals("PostCode-NumberOfPlaylists-index", queryRequests.get(1).getIndexName());
+		assertFalse(queryRequests.get(0).getScanIndexForward());
+		assertFalse(queryRequests.get(1).getScanIndexForward());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).scan(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsCountingEntities_WithOr_WhenEachBranchIsAQuery() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"countByNameOrPostCode", 2, "id", null);
+		setupIndexesOnNameAndPostCodeRangedByNumberOfPlaylists();
+
+		User a = user("a", 5);
+		Mockito.when(mockUserEntityMetadata.getId(Mockito.any(User.class)))
+				.thenAnswer(invocation -> invocation.<User>getArgument(0).getId());
+		@SuppressWarnings("unchecked")
+		PaginatedQueryList<User> postCodeResults = Mockito.mock(PaginatedQueryList.class);
+		Mockito.when(mockUserQueryResults.iterator()).thenReturn(Arrays.asList(a, user("c", 1)).iterator());
+		Mockito.when(postCodeResults.iterator()).thenReturn(Arrays.asList(a, user("b", 3)).iterator());
+		Mockito.when(mockDynamoDBOperations.query(userClassCaptor.capture(), queryResultCaptor.capture()))
+				.thenReturn(mockUserQueryResults, postCodeResults);
+
+		Object o = partTreeDynamoDBQuery.execute(new Object[]{"someName", "somePostCode"});
+
+		// Counting per branch would count a twice
+		assertEquals(3L, o);
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).count(Mockito.eq(User.class),
+				Mockito.any(QueryRequest.class));
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityList_WithOr_WhenABranchIsAScan() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByIdOrName", 2, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
+				.thenReturn(mockUserScanResults);
+
+		Object o = partTreeDynamoDBQuery.execute(new Object[]{"someId", "someName"});
+
+		// Scanning anyway - so the item is not loaded in addition
+		assertEquals(mockUserScanResults, o);
+		DynamoDBScanExpression scanExpression = scanCaptor.getValue();
+		assertNull(scanExpression.getScanFilter());
+		assertEquals("(#n0 = :v0) OR (#n1 = :v1)", scanExpression.getFilterExpression());
+		assertEquals("id", scanExpression.getExpressionAttributeNames().get("#n0"));
+		assertEquals("name", scanExpression.getExpressionAttributeNames().get("#n1"));
+		assertEquals("someId", scanExpression.getExpressionAttributeValues().get(":v0").getS());
+		assertEquals("someName", scanExpression.getExpressionAttributeValues().get(":v1").getS());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).load(User.class, "someId");
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityList_WithOr_WhenScanningForManyValues() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByIdOrNameIn", 2, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+		Mockito.when(mockDynamoDBOperations.scan(userClassCaptor.capture(), scanCaptor.capture()))
+				.thenReturn(mockUserScanResults);
+		List<String> names = IntStream.range(0, 150).mapToObj(i -> "name" + i).collect(Collectors.toList());
+
+		partTreeDynamoDBQuery.execute(new Object[]{"someId", names});
+
+		// DynamoDB accepts at most 100 operands per IN
+		String filterExpression = scanCaptor.getValue().getFilterExpression();
+		assertTrue(filterExpression, filterExpression.startsWith("(#n0 = :v0) OR ((#n1 IN (:v1, :v2, "));
+		assertTrue(filterExpression, filterExpression.contains(":v100) OR #n1 IN (:v101, "));
+		assertTrue(filterExpression, filterExpression.endsWith(":v150)))"));
+		assertEquals(151, scanCaptor.getValue().getExpressionAttributeValues().size());
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityList_WithOr_WhenScanningForTooManyValues() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByIdInOrName", 2, "id", null);
+		List<String> ids = IntStream.range(0, 1000).mapToObj(i -> "id" + i).collect(Collectors.toList());
+
+		try {
+			partTreeDynamoDBQuery.execute(new Object[]{ids, "someName"});
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Can't scan for 1001 alternatives"));
+		}
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).scan(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityList_WithIn_WhenFindingByHashKey() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByIdIn", 1, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+
+		User a = user("a", 1);
+		User b = user("b", 2);
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<Class<?>, List<KeyPair>>> itemsToGetCaptor = ArgumentCaptor.forClass(Map.class);
+		Mockito.when(mockDynamoDBOperations.<User>batchLoad(itemsToGetCaptor.capture()))
+				.thenReturn(Arrays.asList(a, b));
+
+		Object o = partTreeDynamoDBQuery.execute(new Object[]{Arrays.asList("b", "a", "b")});
+
+		// Each key is requested once - and the items are returned in the order of their keys
+		assertEquals(Arrays.asList(b, a), o);
+		List<KeyPair> keyPairs = itemsToGetCaptor.getValue().get(User.class);
+		assertEquals(2, keyPairs.size());
+		assertEquals("b", keyPairs.get(0).getHashKey());
+		assertEquals("a", keyPairs.get(1).getHashKey());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).scan(Mockito.any(), Mockito.any());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).load(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsFindingEntityList_WithIn_WhenFindingByGlobalIndexHashKey() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByNameIn", 1, "id", null);
+		Mockito.when(mockDynamoDBUserQueryMethod.isCollectionQuery()).thenReturn(true);
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("name")).thenReturn(true);
+		Mockito.when(mockUserEntityMetadata.getGlobalSecondaryIndexNamesByPropertyName())
+				.thenReturn(Collections.singletonMap("name", new String[]{"Name-index"}));
+		Mockito.when(mockUserEntityMetadata.getDynamoDBTableName()).thenReturn("user");
+		Mockito.when(mockDynamoDBOperations.getOverriddenTableName(User.class, "user")).thenReturn("user");
+
+		User a = user("a", 1);
+		User b = user("b", 2);
+		@SuppressWarnings("unchecked")
+		PaginatedQueryList<User> otherNameResults = Mockito.mock(PaginatedQueryList.class);
+		Mockito.when(mockUserQueryResults.iterator()).thenReturn(Collections.singletonList(a).iterator());
+		Mockito.when(otherNameResults.iterator()).thenReturn(Collections.singletonList(b).iterator());
+		Mockito.when(mockDynamoDBOperations.query(userClassCaptor.capture(), queryResultCaptor.capture()))
+				.thenReturn(mockUserQueryResults, otherNameResults);
+
+		Object o = partTreeDynamoDBQuery.execute(new Object[]{Arrays.asList("someName", "someOtherName")});
+
+		// One query per name - no item can be found by both so none are dropped
+		assertEquals(Arrays.asList(a, b), o);
+		List<QueryRequest> queryRequests = queryResultCaptor.getAllValues();
+		assertEquals(2, queryRequests.size());
+		assertEquals("Name-index", queryRequests.get(0).getIndexName());
+		assertEquals(ComparisonOperator.EQ.name(),
+				queryRequests.get(0).getKeyConditions().get("name").getComparisonOperator());
+		assertEquals("someName",
+				queryRequests.get(0).getKeyConditions().get("name").getAttributeValueList().get(0).getS());
+		assertEquals("someOtherName",
+				queryRequests.get(1).getKeyConditions().get("name").getAttributeValueList().get(0).getS());
+		Mockito.verify(mockUserEntityMetadata, Mockito.never()).getId(Mockito.any());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).scan(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void testExecute_WhenFinderMethodIsCountingEntities_WithIn_WhenFindingByGlobalIndexHashKey() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"countByNameIn", 1, "id", null);
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("name")).thenReturn(true);
+		Mockito.when(mockUserEntityMetadata.getGlobalSecondaryIndexNamesByPropertyName())
+				.thenReturn(Collections.singletonMap("name", new String[]{"Name-index"}));
+		Mockito.when(mockUserEntityMetadata.getDynamoDBTableName()).thenReturn("user");
+		Mockito.when(mockDynamoDBOperations.getOverriddenTableName(User.class, "user")).thenReturn("user");
+		Mockito.when(mockDynamoDBOperations.count(Mockito.eq(User.class), queryResultCaptor.capture())).thenReturn(2,
+				3);
+
+		Object o = partTreeDynamoDBQuery.execute(new Object[]{Arrays.asList("someName", "someOtherName")});
+
+		// No item has both names - so DynamoDB counts per name instead of the items being read
+		assertEquals(5L, o);
+		List<QueryRequest> queryRequests = queryResultCaptor.getAllValues();
+		assertEquals(2, queryRequests.size());
+		assertEquals("someName",
+				queryRequests.get(0).getKeyConditions().get("name").getAttributeValueList().get(0).getS());
+		assertEquals("someOtherName",
+				queryRequests.get(1).getKeyConditions().get("name").getAttributeValueList().get(0).getS());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).query(Mockito.eq(User.class),
+				Mockito.any(QueryRequest.class));
+	}
+
+	@Test
+	public void testExplain_WhenFindingByHashKeyIn() {
+		setupCommonMocksForThisRepositoryMethod(mockUserEntityMetadata, mockDynamoDBUserQueryMethod, User.class,
+				"findByIdIn", 1, "id", null);
+		Mockito.doReturn(UserRepository.class).when(mockDynamoDBUserQueryMethod).getRepositoryInterface();
+
+		QueryMethodPlan plan = ((PartTreeDynamoDBQuery<User, String>) partTreeDynamoDBQuery)
+				.explain(new Object[]{new String[]{"someId", "someOtherId"}});
+
+		assertEquals(QueryPlan.Operation.BATCH_GET_ITEM, plan.getQuery().getOperation());
+		assertFalse(plan.isScan());
+		Mockito.verify(mockDynamoDBOperations, Mockito.never()).batchLoad(Mockito.any());
+	}
+
+	private void setupIndexesOnNameAndPostCodeRangedByNumberOfPlaylists() {
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("name")).thenReturn(true);
+		Mockito.when(mockUserEntityMetadata.isGlobalIndexHashKeyProperty("postCode")).thenReturn(true);
+
+		Map<String, String[]> indexNames = new HashMap<>();
+		indexNames.put("name", new String[]{"Name-NumberOfPlaylists-index"});
+		indexNames.put("postCode", new String[]{"PostCode-NumberOfPlaylists-index"});
+		indexNames.put("numberOfPlaylists",
+				new String[]{"Name-NumberOfPlaylists-index", "PostCode-NumberOfPlaylists-index"});
+		Mockito.when(mockUserEntityMetadata.getGlobalSecondaryIndexNamesByPropertyName()).thenReturn(indexNames);
+
+		Mockito.when(mockUserEntityMetadata.getDynamoDBTableName()).thenReturn("user");
+		Mockito.when(mockDynamoDBOperations.getOverriddenTableName(User.class, "user")).thenReturn("user");
+	}
+
+	private static User user(String id, int numberOfPlaylists) {
+		User user = new User();
+		user.setId(id);
+		user.setNumberOfPlaylists(numberOfPlaylists);
+		return user;
+	}
+
+	private static TableDescription userTableWithNamePostCodeIndex(ProjectionType projectionType) {
+		return new TableDescription().withKeySchema(new KeySchemaElement("id", KeyType.HASH))
+				.withGlobalSecondaryIndexes(new GlobalSecondaryIndexDescription().withIndexName("Name-PostCode-index")
+						.withKeySchema(new KeySchemaElement("name", KeyType.HASH),
+								new KeySchemaElement("postCode", KeyType.RANGE))
+						.withProjection(new Projection().withProjectionType(projectionType)));
+	}
 }
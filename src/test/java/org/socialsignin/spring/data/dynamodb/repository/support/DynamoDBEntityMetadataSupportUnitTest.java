@@ -20,8 +20,11 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
 import org.socialsignin.spring.data.dynamodb.domain.sample.User;
 
+import java.util.Arrays;
+
 @RunWith(MockitoJUnitRunner.class)
 public class DynamoDBEntityMetadataSupportUnitTest {
 
@@ -40,4 +43,24 @@ public class DynamoDBEntityMetadataSupportUnitTest {
 		DynamoDBMarshaller<?> methodAnnotation = support.getMarshallerForProperty("leaveDate");
 		Assert.assertNotNull(methodAnnotation);
 	}
+
+	@Test
+	public void testGetEntityInformation_IsMemoizedPerDomainType() {
+		DynamoDBEntityMetadataSupport.clearCache();
+
+		DynamoDBEntityInformation<User, String> first = DynamoDBEntityMetadataSupport.getEntityInformation(User.class);
+		DynamoDBEntityInformation<User, String> second = DynamoDBEntityMetadataSupport.getEntityInformation(User.class);
+
+		Assert.assertSame(first, second);
+		Assert.assertEquals("id", first.getHashKeyPropertyName());
+	}
+
+	@Test
+	public void testPrepareEntityInformation_SkipsInvalidDomainTypes() {
+		DynamoDBEntityMetadataSupport.clearCache();
+
+		DynamoDBEntityMetadataSupport.prepareEntityInformation(Arrays.asList(User.class, Playlist.class, String.class));
+
+		Assert.assertTrue(DynamoDBEntityMetadataSupport.getEntityInformation(Playlist.class).isRangeKeyAware());
+	}
 }
@@ -16,9 +16,20 @@
 package org.socialsignin.spring.data.dynamodb.repository.support;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperationListener;
+import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
+import org.socialsignin.spring.data.dynamodb.core.RepositoryMethodContext;
+import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.domain.sample.UserRepository;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class DynamoDBRepositoryFactoryTest {
 
@@ -44,4 +55,22 @@ public class DynamoDBRepositoryFactoryTest {
 		assertTrue(DynamoDBRepositoryFactory.isCompatible("1.0.0-SR", "1.0.0-SR"));
 	}
 
+	@Test
+	public void testCrudMethodsAreObserved() {
+		DynamoDBOperations dynamoDBOperations = mock(DynamoDBOperations.class);
+		DynamoDBOperationListener listener = mock(DynamoDBOperationListener.class);
+		when(dynamoDBOperations.getOperationListener()).thenReturn(listener);
+		when(dynamoDBOperations.load(User.class, "id")).thenReturn(new User());
+
+		UserRepository repository = new DynamoDBRepositoryFactory(dynamoDBOperations)
+				.getRepository(UserRepository.class);
+		assertTrue(repository.findById("id").isPresent());
+
+		ArgumentCaptor<RepositoryMethodContext> captor = ArgumentCaptor.forClass(RepositoryMethodContext.class);
+		verify(listener).onRepositoryMethodStart(captor.capture());
+		verify(listener).onRepositoryMethodComplete(captor.getValue());
+		assertEquals(UserRepository.class, captor.getValue().getRepositoryInterface());
+		assertEquals("findById", captor.getValue().getMethodName());
+		assertArrayEquals(new Object[]{"id"}, captor.getValue().getParameters());
+	}
 }
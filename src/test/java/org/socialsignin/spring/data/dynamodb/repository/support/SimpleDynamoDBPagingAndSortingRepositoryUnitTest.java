@@ -15,9 +15,15 @@
  */
 package org.socialsignin.spring.data.dynamodb.repository.support;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -25,11 +31,24 @@ import org.socialsignin.spring.data.dynamodb.core.DynamoDBOperations;
 import org.socialsignin.spring.data.dynamodb.domain.sample.Playlist;
 import org.socialsignin.spring.data.dynamodb.domain.sample.PlaylistId;
 import org.socialsignin.spring.data.dynamodb.domain.sample.User;
+import org.socialsignin.spring.data.dynamodb.query.ReadSettings;
+import org.socialsignin.spring.data.dynamodb.query.ScanSorter;
 import org.springframework.dao.EmptyResultDataAccessException;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -63,6 +82,9 @@ public class SimpleDynamoDBPagingAndSortingRepositoryUnitTest {
 	@Mock
 	DynamoDBEntityInformation<Playlist, PlaylistId> entityWithHashAndRangeKeyInformation;
 
+	@Mock
+	PaginatedScanList<User> scanResult;
+
 	@Before
 	public void setUp() {
 
@@ -126,4 +148,71 @@ public class SimpleDynamoDBPagingAndSortingRepositoryUnitTest {
 
 		repoForEntityWithHashAndRangeKey.deleteById(playlistId);
 	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testFindAllSortedRejectedUnlessEnabled() {
+		repoForEntityWithOnlyHashKey.findAll(Sort.by("name"));
+	}
+
+	@Test
+	public void testFindAllSortedOnTheClientSide() {
+		User bob = user("bob", 2);
+		User alice = user("alice", 3);
+		User carol = user("carol", 1);
+		givenSortedScans(bob, alice, carol);
+		when(mockEnableScanPermissions.isFindAllUnpaginatedScanEnabled()).thenReturn(true);
+		when(entityWithOnlyHashKeyInformation.getOverriddenAttributeName("name")).thenReturn(Optional.empty());
+
+		List<User> actual = new ArrayList<>();
+		repoForEntityWithOnlyHashKey.findAll(Sort.by("name")).forEach(actual::add);
+
+		assertEquals(Arrays.asList("alice", "bob", "carol"), names(actual));
+		verifyScannedIterationOnly();
+	}
+
+	@Test
+	public void testFindAllPageSortedOnTheClientSide() {
+		givenSortedScans(user("bob", 2), user("alice", 3), user("carol", 1), user("dave", 4));
+		when(mockEnableScanPermissions.isFindAllPaginatedScanEnabled()).thenReturn(true);
+		when(entityWithOnlyHashKeyInformation.getOverriddenAttributeName("numberOfPlaylists"))
+				.thenReturn(Optional.empty());
+
+		Page<User> actual = repoForEntityWithOnlyHashKey
+				.findAll(PageRequest.of(1, 2, Sort.by(Direction.DESC, "numberOfPlaylists")));
+
+		assertEquals(Arrays.asList("bob", "carol"), names(actual.getContent()));
+		assertEquals(4, actual.getTotalElements());
+		verifyScannedIterationOnly();
+	}
+
+	private void givenSortedScans(User... users) {
+		when(dynamoDBOperations.getScanSorter()).thenReturn(new ScanSorter(10, null));
+		when(dynamoDBOperations.getTableModel(User.class))
+				.thenReturn(new DynamoDBMapper(mock(AmazonDynamoDB.class)).getTableModel(User.class));
+		when(dynamoDBOperations.scan(eq(User.class), any(DynamoDBScanExpression.class), any(ReadSettings.class)))
+				.thenReturn(scanResult);
+		when(scanResult.iterator()).thenReturn(Arrays.asList(users).iterator());
+	}
+
+	/**
+	 * A lazily loaded scan result would keep all items in memory while sorting
+	 */
+	private void verifyScannedIterationOnly() {
+		ArgumentCaptor<ReadSettings> readSettings = ArgumentCaptor.forClass(ReadSettings.class);
+		verify(dynamoDBOperations).scan(eq(User.class), any(DynamoDBScanExpression.class), readSettings.capture());
+		assertEquals(PaginationLoadingStrategy.ITERATION_ONLY, readSettings.getValue().getPaginationLoadingStrategy());
+	}
+
+	private static User user(String name, int numberOfPlaylists) {
+		User user = new User();
+		user.setName(name);
+		user.setNumberOfPlaylists(numberOfPlaylists);
+		return user;
+	}
+
+	private static List<String> names(List<User> users) {
+		List<String> names = new ArrayList<>();
+		users.forEach(user -> names.add(user.getName()));
+		return names;
+	}
 }
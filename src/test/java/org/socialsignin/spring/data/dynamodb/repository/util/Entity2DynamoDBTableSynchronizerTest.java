@@ -35,8 +35,14 @@ import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
 import com.amazonaws.services.dynamodbv2.model.TableStatus;
+import com.amazonaws.services.dynamodbv2.util.TableUtils.TableNeverTransitionedToStateException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -159,4 +165,83 @@ public class Entity2DynamoDBTableSynchronizerTest<T, ID> {
 
 		runContextStop();
 	}
+
+	@Test
+	public void testCreateAwaitsAllTablesInOnePollingLoop() {
+		underTest = new Entity2DynamoDBTableSynchronizer<>(amazonDynamoDB, mapper, "create-only", "ALL", 1L, 1L, 2, 0L,
+				1000L, System::currentTimeMillis);
+		register(String.class, "first");
+		register(Integer.class, "second");
+		when(amazonDynamoDB.describeTable(any(DescribeTableRequest.class))).thenReturn(status(TableStatus.CREATING),
+				status(TableStatus.ACTIVE));
+
+		runContextStart();
+
+		verify(amazonDynamoDB, times(2)).createTable(any());
+		// The first round finds one table still CREATING, the second round only
+		// polls that table
+		verify(amazonDynamoDB, times(3)).describeTable(any(DescribeTableRequest.class));
+	}
+
+	@Test
+	public void testCreateTimesOut() {
+		long[] now = new long[1];
+		underTest = new Entity2DynamoDBTableSynchronizer<>(amazonDynamoDB, mapper, "create-only", "ALL", 1L, 1L, 2, 0L,
+				1000L, () -> now[0] += 600);
+		register(String.class, "first");
+		when(amazonDynamoDB.describeTable(any(DescribeTableRequest.class))).thenReturn(status(TableStatus.CREATING));
+
+		try {
+			runContextStart();
+			fail("Exception expected");
+		} catch (RuntimeException e) {
+			assertEquals("Could not perform Entity2DDL operation CREATE_ONLY on first", e.getMessage());
+			assertTrue(e.getCause() instanceof TableNeverTransitionedToStateException);
+		}
+	}
+
+	@Test
+	public void testValidateFailuresAreAggregated() {
+		underTest = new Entity2DynamoDBTableSynchronizer<>(amazonDynamoDB, mapper, "validate", "ALL", 1L, 1L, 2, 0L,
+				1000L, System::currentTimeMillis);
+		register(String.class, "first");
+		register(Integer.class, "second");
+		when(amazonDynamoDB.describeTable(anyString())).thenThrow(new ResourceNotFoundException("missing"),
+				new ResourceNotFoundException("missing"));
+
+		try {
+			runContextStart();
+			fail("Exception expected");
+		} catch (ResourceNotFoundException e) {
+			assertEquals(1, e.getSuppressed().length);
+		}
+		verify(amazonDynamoDB).describeTable("first");
+		verify(amazonDynamoDB).describeTable("second");
+	}
+
+	@SuppressWarnings("unchecked")
+	private void register(Class<?> domainType, String tableName) {
+		ProxyFactory proxyFactory = mock(ProxyFactory.class);
+		TargetSource targetSource = mock(TargetSource.class);
+		SimpleDynamoDBCrudRepository<T, ID> target = mock(SimpleDynamoDBCrudRepository.class);
+		DynamoDBEntityInformation<T, ID> information = mock(DynamoDBEntityInformation.class);
+		try {
+			when(targetSource.getTarget()).thenReturn(target);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		when(proxyFactory.getTargetSource()).thenReturn(targetSource);
+		when(target.getEntityInformation()).thenReturn(information);
+		when(information.getDynamoDBTableName()).thenReturn(tableName);
+		when(information.getJavaType()).thenReturn((Class<T>) domainType);
+
+		CreateTableRequest request = new CreateTableRequest().withTableName(tableName);
+		when(mapper.generateCreateTableRequest(domainType)).thenReturn(request);
+
+		underTest.postProcess(proxyFactory, repositoryInformation);
+	}
+
+	private static DescribeTableResult status(TableStatus status) {
+		return new DescribeTableResult().withTable(new TableDescription().withTableStatus(status));
+	}
 }
@@ -0,0 +1,94 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.repository.util;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.socialsignin.spring.data.dynamodb.domain.sample.UserRepository;
+import org.socialsignin.spring.data.dynamodb.query.QueryPlan;
+import org.socialsignin.spring.data.dynamodb.repository.query.PartTreeDynamoDBQuery;
+import org.socialsignin.spring.data.dynamodb.repository.query.QueryMethodPlan;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueryPlanReporterTest {
+	@Mock
+	private AmazonDynamoDB amazonDynamoDB;
+	@Mock
+	private ApplicationContext applicationContext;
+
+	@Test
+	public void testStrictModeFailsOnScanOfLargeTable() {
+		QueryPlanReporter underTest = new QueryPlanReporter(amazonDynamoDB, true, true, 100);
+		when(amazonDynamoDB.describeTable("user"))
+				.thenReturn(new DescribeTableResult().withTable(new TableDescription().withItemCount(101L)));
+		underTest.onCreation(query(scanPlan()));
+
+		try {
+			underTest.onApplicationEvent(new ContextRefreshedEvent(applicationContext));
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("UserRepository.findByName"));
+		}
+	}
+
+	@Test
+	public void testStrictModeAcceptsScanOfSmallTable() {
+		QueryPlanReporter underTest = new QueryPlanReporter(amazonDynamoDB, true, true, 100);
+		when(amazonDynamoDB.describeTable("user"))
+				.thenReturn(new DescribeTableResult().withTable(new TableDescription().withItemCount(100L)));
+		underTest.onCreation(query(scanPlan()));
+
+		underTest.onApplicationEvent(new ContextRefreshedEvent(applicationContext));
+	}
+
+	@Test
+	public void testWithoutStrictModeTablesAreNotChecked() {
+		QueryPlanReporter underTest = new QueryPlanReporter(amazonDynamoDB, true, false, 100);
+		underTest.onCreation(query(scanPlan()));
+
+		underTest.onApplicationEvent(new ContextRefreshedEvent(applicationContext));
+
+		verify(amazonDynamoDB, never()).describeTable("user");
+	}
+
+	private static QueryMethodPlan scanPlan() {
+		QueryPlan scan = new QueryPlan(QueryPlan.Operation.SCAN, null, Collections.emptyList(),
+				Collections.singletonList("name EQ"), null, null);
+		return new QueryMethodPlan(UserRepository.class, "findByName", "user", scan, null, true, false, null);
+	}
+
+	private static PartTreeDynamoDBQuery<?, ?> query(QueryMethodPlan plan) {
+		PartTreeDynamoDBQuery<?, ?> query = mock(PartTreeDynamoDBQuery.class);
+		when(query.explain()).thenReturn(plan);
+		return query;
+	}
+}
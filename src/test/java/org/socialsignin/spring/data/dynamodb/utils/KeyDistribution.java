@@ -0,0 +1,89 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.utils;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Distribution of the keys accessed by a load test - returns the index of the
+ * next key within {@code [0, keys)}.
+ */
+@FunctionalInterface
+public interface KeyDistribution {
+
+	int nextIndex(Random random);
+
+	/**
+	 * Every key is equally likely
+	 */
+	static KeyDistribution uniform(int keys) {
+		Assert.isTrue(keys > 0, "keys must be positive!");
+		return random -> random.nextInt(keys);
+	}
+
+	/**
+	 * The probability of the key with rank {@code k} is proportional to
+	 * {@code 1 / k^exponent} - key {@code 0} is the most popular one
+	 */
+	static KeyDistribution zipfian(int keys, double exponent) {
+		Assert.isTrue(keys > 0, "keys must be positive!");
+		Assert.isTrue(exponent > 0, "exponent must be positive!");
+		double[] cumulative = new double[keys];
+		double sum = 0;
+		for (int i = 0; i < keys; i++) {
+			sum += 1 / Math.pow(i + 1, exponent);
+			cumulative[i] = sum;
+		}
+		double total = sum;
+		return random -> {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+			return Math.min(index < 0 ? -index - 1 : index, keys - 1);
+		};
+	}
+
+	/**
+	 * {@code hotShare} of the accesses go to the first {@code hotKeys} keys, the
+	 * rest is spread uniformly across all keys
+	 */
+	static KeyDistribution hotKey(int keys, int hotKeys, double hotShare) {
+		Assert.isTrue(keys > 0, "keys must be positive!");
+		Assert.isTrue(hotKeys > 0 && hotKeys <= keys, "hotKeys must be between 1 and keys!");
+		Assert.isTrue(hotShare >= 0 && hotShare <= 1, "hotShare must be between 0 and 1!");
+		return random -> random.nextDouble() < hotShare ? random.nextInt(hotKeys) : random.nextInt(keys);
+	}
+
+	/**
+	 * @param spec
+	 *            {@code uniform}, {@code zipfian[:exponent]} or
+	 *            {@code hotkey[:hotShare]}
+	 */
+	static KeyDistribution parse(String spec, int keys) {
+		String[] parts = spec.trim().toLowerCase().split(":", 2);
+		switch (parts[0]) {
+			case "uniform" :
+				return uniform(keys);
+			case "zipfian" :
+				return zipfian(keys, parts.length > 1 ? Double.parseDouble(parts[1]) : 0.99);
+			case "hotkey" :
+				return hotKey(keys, 1, parts.length > 1 ? Double.parseDouble(parts[1]) : 0.5);
+			default :
+				throw new IllegalArgumentException("Unknown key distribution " + spec);
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Drives a weighted mix of operations from a number of threads for a fixed time
+ * and reports throughput and latency percentiles per operation.
+ *
+ * Each operation receives the index of the key to access as drawn from the
+ * {@link KeyDistribution}. Latencies are recorded into HdrHistograms so that
+ * the tail percentiles stay accurate at high throughput.
+ */
+public class LoadTestHarness {
+
+	private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final KeyDistribution keys;
+	private final List<Operation> operations = new ArrayList<>();
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private long warmupNanos = TimeUnit.SECONDS.toNanos(2);
+	private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+
+	public LoadTestHarness(KeyDistribution keys) {
+		Assert.notNull(keys, "keys must not be null!");
+		this.keys = keys;
+	}
+
+	public LoadTestHarness withThreads(int threads) {
+		Assert.isTrue(threads > 0, "threads must be positive!");
+		this.threads = threads;
+		return this;
+	}
+
+	public LoadTestHarness withWarmup(long warmup, TimeUnit unit) {
+		this.warmupNanos = unit.toNanos(warmup);
+		return this;
+	}
+
+	public LoadTestHarness withDuration(long duration, TimeUnit unit) {
+		Assert.isTrue(duration > 0, "duration must be positive!");
+		this.durationNanos = unit.toNanos(duration);
+		return this;
+	}
+
+	/**
+	 * @param weight
+	 *            Relative frequency of the operation within the mix
+	 */
+	public LoadTestHarness withOperation(String name, int weight, IntConsumer operation) {
+		Assert.isTrue(weight > 0, "weight must be positive!");
+		operations.add(new Operation(name, weight, operation));
+		return this;
+	}
+
+	public Report run() throws InterruptedException {
+		Assert.state(!operations.isEmpty(), "No operations configured!");
+		int totalWeight = operations.stream().mapToInt(o -> o.weight).sum();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long start = System.nanoTime();
+			long measurementStart = start + warmupNanos;
+			long end = measurementStart + durationNanos;
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				workers.add(
+						executor.submit(() -> drive(ThreadLocalRandom.current(), totalWeight, measurementStart, end)));
+			}
+			for (Future<?> worker : workers) {
+				try {
+					worker.get();
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("Load test thread failed", e.getCause());
+				}
+			}
+			// Operations of the warm up are not recorded
+			long elapsedNanos = System.nanoTime() - measurementStart;
+
+			Map<String, Result> results = new LinkedHashMap<>();
+			for (Operation operation : operations) {
+				results.put(operation.name, operation.result(elapsedNanos));
+			}
+			return new Report(threads, elapsedNanos, results);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void drive(Random random, int totalWeight, long measurementStart, long end) {
+		long now;
+		while ((now = System.nanoTime()) < end) {
+			Operation operation = pick(random.nextInt(totalWeight));
+			int key = keys.nextIndex(random);
+			long startNanos = System.nanoTime();
+			boolean failed = false;
+			try {
+				operation.operation.accept(key);
+			} catch (RuntimeException e) {
+				failed = true;
+			}
+			long durationNanos = System.nanoTime() - startNanos;
+			if (now >= measurementStart) {
+				operation.record(durationNanos, failed);
+			}
+		}
+	}
+
+	private Operation pick(int ticket) {
+		for (Operation operation : operations) {
+			ticket -= operation.weight;
+			if (ticket < 0) {
+				return operation;
+			}
+		}
+		return operations.get(operations.size() - 1);
+	}
+
+	private static final class Operation {
+		private final String name;
+		private final int weight;
+		private final IntConsumer operation;
+		private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+		private final LongAdder errors = new LongAdder();
+
+		private Operation(String name, int weight, IntConsumer operation) {
+			this.name = name;
+			this.weight = weight;
+			this.operation = operation;
+		}
+
+		private void record(long durationNanos, boolean failed) {
+			recorder.recordValue(Math.min(durationNanos, HIGHEST_TRACKABLE_NANOS));
+			if (failed) {
+				errors.increment();
+			}
+		}
+
+		private Result result(long elapsedNanos) {
+			return new Result(recorder.getIntervalHistogram(), errors.sum(), elapsedNanos);
+		}
+	}
+
+	public static final class Result {
+		private final Histogram latencies;
+		private final long errors;
+		private final long elapsedNanos;
+
+		private Result(Histogram latencies, long errors, long elapsedNanos) {
+			this.latencies = latencies;
+			this.errors = errors;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		public long getCount() {
+			return latencies.getTotalCount();
+		}
+
+		public long getErrors() {
+			return errors;
+		}
+
+		public double getThroughput() {
+			return getCount() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+		}
+
+		/**
+		 * @return Latency in nanoseconds at the given percentile - e.g. {@code 99.9}
+		 */
+		public long getLatencyNanos(double percentile) {
+			return latencies.getValueAtPercentile(percentile);
+		}
+
+		public Histogram getLatencies() {
+			return latencies;
+		}
+	}
+
+	public static final class Report {
+		private final int threads;
+		private final long elapsedNanos;
+		private final Map<String, Result> results;
+
+		private Report(int threads, long elapsedNanos, Map<String, Result> results) {
+			this.threads = threads;
+			this.elapsedNanos = elapsedNanos;
+			this.results = results;
+		}
+
+		public Result get(String operation) {
+			return results.get(operation);
+		}
+
+		public Map<String, Result> getResults() {
+			return results;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder report = new StringBuilder(
+					String.format(Locale.ROOT, "%d threads, %.1f s%n%-40s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+							threads, elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1), "operation", "ops/s",
+							"errors", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "count"));
+			results.forEach((name,
+					result) -> report.append(String.format(Locale.ROOT,
+							"%-40s %10.1f %8d %10.1f %10.1f %10.1f %10.1f %10.1f %10d%n", name, result.getThroughput(),
+							result.getErrors(), micros(result.getLatencyNanos(50)), micros(result.getLatencyNanos(90)),
+							micros(result.getLatencyNanos(99)), micros(result.getLatencyNanos(99.9)),
+							micros(result.latencies.getMaxValue()), result.getCount())));
+			return report.toString();
+		}
+
+		private static double micros(long nanos) {
+			return nanos / 1000.0;
+		}
+	}
+}
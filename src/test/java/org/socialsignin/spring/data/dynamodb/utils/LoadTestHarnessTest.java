@@ -0,0 +1,84 @@
+/**
+ * Copyright © 2018 spring-data-dynamodb (https://github.com/derjust/spring-data-dynamodb)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.socialsignin.spring.data.dynamodb.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoadTestHarnessTest {
+
+	@Test
+	public void testZipfianFavorsLowRanks() {
+		int[] counts = histogram(KeyDistribution.zipfian(100, 1.0), 100, 100_000);
+
+		assertTrue(counts[0] > counts[1]);
+		assertTrue(counts[1] > counts[10]);
+		// Key 0 gets 1 / H(100) ~ 19% of the accesses
+		assertEquals(0.19, counts[0] / 100_000.0, 0.02);
+	}
+
+	@Test
+	public void testHotKeyShare() {
+		int[] counts = histogram(KeyDistribution.hotKey(1000, 1, 0.5), 1000, 100_000);
+
+		assertEquals(0.5, counts[0] / 100_000.0, 0.02);
+	}
+
+	@Test
+	public void testUniformCoversAllKeys() {
+		int[] counts = histogram(KeyDistribution.parse("uniform", 10), 10, 10_000);
+
+		for (int count : counts) {
+			assertEquals(1000, count, 150);
+		}
+	}
+
+	@Test
+	public void testReportsOperationsAndErrors() throws InterruptedException {
+		AtomicInteger failing = new AtomicInteger();
+		LoadTestHarness.Report report = new LoadTestHarness(KeyDistribution.uniform(10)).withThreads(2)
+				.withWarmup(50, TimeUnit.MILLISECONDS).withDuration(200, TimeUnit.MILLISECONDS)
+				.withOperation("read", 3, key -> {
+				}).withOperation("write", 1, key -> {
+					failing.incrementAndGet();
+					throw new IllegalStateException("failed");
+				}).run();
+
+		LoadTestHarness.Result read = report.get("read");
+		LoadTestHarness.Result write = report.get("write");
+		assertTrue(read.getCount() > write.getCount());
+		assertEquals(write.getCount(), write.getErrors());
+		assertEquals(0, read.getErrors());
+		assertTrue(failing.get() >= write.getCount());
+		assertTrue(read.getThroughput() > 0);
+		assertTrue(report.toString().contains("read"));
+	}
+
+	private static int[] histogram(KeyDistribution distribution, int keys, int samples) {
+		Random random = new Random(42);
+		int[] counts = new int[keys];
+		for (int i = 0; i < samples; i++) {
+			counts[distribution.nextIndex(random)]++;
+		}
+		return counts;
+	}
+}